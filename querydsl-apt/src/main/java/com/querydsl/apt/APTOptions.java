@@ -56,6 +56,11 @@ public final class APTOptions {
      */
     public static final String QUERYDSL_ENTITY_ACCESSORS = "querydsl.entityAccessors";
 
+    /**
+     * enable lazily initialized property accessors (default: false)
+     */
+    public static final String QUERYDSL_PROPERTY_ACCESSORS = "querydsl.propertyAccessors";
+
     /**
      * Set whether fields are used as metadata source (default: true)
      */
@@ -66,6 +66,8 @@ public abstract class AbstractQuerydslProcessor extends AbstractProcessor {
 
     private boolean shouldLogInfo;
 
+    private final Set<String> generatedTypes = new HashSet<String>();
+
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
         setLogInfo();
@@ -80,6 +82,8 @@ public abstract class AbstractQuerydslProcessor extends AbstractProcessor {
             return ALLOW_OTHER_PROCESSORS_TO_CLAIM_ANNOTATIONS;
         }
 
+        // the configuration depends on the @Config annotations of the round and the type caches
+        // register into its type mappings, so both are created per round
         conf = createConfiguration(roundEnv);
         context = new Context();
         Set<Class<? extends Annotation>> entityAnnotations = conf.getEntityAnnotations();
@@ -576,11 +580,17 @@ public abstract class AbstractQuerydslProcessor extends AbstractProcessor {
                     continue;
                 }
 
-                Set<TypeElement> elements = context.typeElements.get(model.getFullName());
+                // skip if type has been generated in a previous round
+                if (!generatedTypes.add(className)) {
+                    continue;
+                }
 
-                if (elements == null) {
-                    elements = new HashSet<TypeElement>();
+                Set<TypeElement> elements = new HashSet<TypeElement>();
+                Set<TypeElement> modelElements = context.typeElements.get(model.getFullName());
+                if (modelElements != null) {
+                    elements.addAll(modelElements);
                 }
+                addSupertypeElements(model, elements);
                 for (Property property : model.getProperties()) {
                     if (property.getType().getCategory() == TypeCategory.CUSTOM) {
                         Set<TypeElement> customElements = context.typeElements.get(property.getType().getFullName());
@@ -611,6 +621,25 @@ public abstract class AbstractQuerydslProcessor extends AbstractProcessor {
     }
 
 
+    private void addSupertypeElements(EntityType model, Set<TypeElement> elements) {
+        // the generated type includes the properties of the supertypes
+        Deque<Supertype> superTypes = new ArrayDeque<Supertype>(model.getSuperTypes());
+        Set<String> visited = new HashSet<String>();
+        while (!superTypes.isEmpty()) {
+            Supertype superType = superTypes.pop();
+            String fullName = superType.getType().getFullName();
+            if (visited.add(fullName)) {
+                TypeElement element = processingEnv.getElementUtils().getTypeElement(fullName);
+                if (element != null) {
+                    elements.add(element);
+                }
+                if (superType.getEntityType() != null) {
+                    superTypes.addAll(superType.getEntityType().getSuperTypes());
+                }
+            }
+        }
+    }
+
     protected abstract Configuration createConfiguration(RoundEnvironment roundEnv);
 
 }
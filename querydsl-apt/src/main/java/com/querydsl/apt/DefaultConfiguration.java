@@ -121,6 +121,7 @@ public class DefaultConfiguration implements Configuration {
         boolean entityAccessors = false;
         boolean listAccessors = false;
         boolean mapAccessors = false;
+        boolean propertyAccessors = false;
         boolean createDefaultVariable = true;
 
         if (options.containsKey(QUERYDSL_ENTITY_ACCESSORS)) {
@@ -132,6 +133,9 @@ public class DefaultConfiguration implements Configuration {
         if (options.containsKey(QUERYDSL_MAP_ACCESSORS)) {
             mapAccessors = Boolean.valueOf(options.get(QUERYDSL_MAP_ACCESSORS));
         }
+        if (options.containsKey(QUERYDSL_PROPERTY_ACCESSORS)) {
+            propertyAccessors = Boolean.valueOf(options.get(QUERYDSL_PROPERTY_ACCESSORS));
+        }
         if (options.containsKey(QUERYDSL_CREATE_DEFAULT_VARIABLE)) {
             createDefaultVariable = Boolean.valueOf(options.get(QUERYDSL_CREATE_DEFAULT_VARIABLE));
         }
@@ -214,7 +218,7 @@ public class DefaultConfiguration implements Configuration {
         }
 
         defaultSerializerConfig = new SimpleSerializerConfig(entityAccessors, listAccessors,
-                mapAccessors, createDefaultVariable, "");
+                mapAccessors, propertyAccessors, createDefaultVariable, "");
 
     }
 
@@ -313,6 +313,10 @@ final class ExtendedTypeFactory {
             EntityType entityType = getEntityType(typeMirror, deep);
             typeCache.put(key, entityType);
             return entityType;
+        } else if (typeMirror.getKind() == TypeKind.ERROR) {
+            // unresolved types might be generated in a later round
+            typeCache.remove(key);
+            return type;
         } else {
             typeCache.put(key, type);
             return type;
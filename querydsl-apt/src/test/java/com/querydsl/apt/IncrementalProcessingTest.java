@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.apt;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.mysema.codegen.SimpleCompiler;
+import com.querydsl.core.util.FileUtils;
+
+public class IncrementalProcessingTest {
+
+    /**
+     * Generates an entity with a type level @Config in the second round
+     */
+    @SupportedAnnotationTypes("*")
+    public static class GeneratingProcessor extends AbstractProcessor {
+
+        private boolean generated;
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            if (!generated && !roundEnv.processingOver()) {
+                generated = true;
+                try {
+                    Writer writer = processingEnv.getFiler().createSourceFile("incremental.Generated").openWriter();
+                    try {
+                        writer.write("package incremental;\n"
+                                + "@com.querydsl.core.annotations.QueryEntity\n"
+                                + "@com.querydsl.core.annotations.Config(entityAccessors = true)\n"
+                                + "public class Generated { Generated parent; }\n");
+                    } finally {
+                        writer.close();
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return false;
+        }
+
+    }
+
+    /**
+     * Records the originating elements of the generated sources
+     */
+    @SupportedAnnotationTypes({"com.querydsl.core.annotations.*"})
+    public static class RecordingProcessor extends QuerydslAnnotationProcessor {
+
+        private final Map<String, Set<String>> originatingElements = new HashMap<String, Set<String>>();
+
+        @Override
+        public synchronized void init(final ProcessingEnvironment env) {
+            final Filer filer = env.getFiler();
+            final Filer recordingFiler = (Filer) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{Filer.class}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("createSourceFile")) {
+                        Set<String> names = new HashSet<String>();
+                        for (Element element : (Element[]) args[1]) {
+                            names.add(element.toString());
+                        }
+                        originatingElements.put(args[0].toString(), names);
+                    }
+                    try {
+                        return method.invoke(filer, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            });
+            super.init((ProcessingEnvironment) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{ProcessingEnvironment.class}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("getFiler")) {
+                        return recordingFiler;
+                    }
+                    try {
+                        return method.invoke(env, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }));
+        }
+
+    }
+
+    private final JavaCompiler compiler = new SimpleCompiler();
+
+    private final File sources = new File("target/incremental-sources");
+
+    private final File out = new File("target/incremental");
+
+    @Before
+    public void setUp() throws IOException {
+        FileUtils.delete(sources);
+        FileUtils.delete(out);
+        assertTrue(new File(sources, "incremental").mkdirs());
+        assertTrue(out.mkdirs());
+    }
+
+    private File source(String name, String content) throws IOException {
+        File file = new File(sources, "incremental/" + name + ".java");
+        Files.write("package incremental;\n" + content, file, Charsets.UTF_8);
+        return file;
+    }
+
+    private String generated(String name) throws IOException {
+        return Files.toString(new File(out, "incremental/" + name + ".java"), Charsets.UTF_8);
+    }
+
+    private void process(List<? extends Processor> processors, File... files) throws IOException {
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        try {
+            List<String> options = Arrays.asList("-s", out.getPath(), "-proc:only");
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null,
+                    fileManager.getJavaFileObjects(files));
+            task.setProcessors(processors);
+            assertTrue("Compilation failed", task.call());
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    @Test
+    public void entity_generated_in_later_round() throws IOException {
+        File source = source("Source", "@com.querydsl.core.annotations.QueryEntity public class Source { String name; }");
+        process(Arrays.asList(new GeneratingProcessor(), new QuerydslAnnotationProcessor()), source);
+
+        assertTrue(generated("QSource").contains("name"));
+        // the configuration of the second round includes the @Config of the generated type
+        assertTrue(generated("QGenerated").contains("public QGenerated parent()"));
+    }
+
+    @Test
+    public void originating_elements() throws IOException {
+        File superType = source("Super", "@com.querydsl.core.annotations.QueryEntity public class Super { String name; }");
+        File subType = source("Sub", "@com.querydsl.core.annotations.QueryEntity public class Sub extends Super { }");
+        RecordingProcessor processor = new RecordingProcessor();
+        process(Collections.singletonList(processor), superType, subType);
+
+        assertEquals(new HashSet<String>(Arrays.asList("incremental.Super")),
+                processor.originatingElements.get("incremental.QSuper"));
+        assertEquals(new HashSet<String>(Arrays.asList("incremental.Sub", "incremental.Super")),
+                processor.originatingElements.get("incremental.QSub"));
+    }
+
+    @Test
+    public void only_changed_sources() throws IOException {
+        File superType = source("Super", "@com.querydsl.core.annotations.QueryEntity public class Super { String name; }");
+        File subType = source("Sub", "@com.querydsl.core.annotations.QueryEntity public class Sub extends Super { }");
+        process(Collections.singletonList(new QuerydslAnnotationProcessor()), superType, subType);
+
+        // Super is changed, the build tool reprocesses Super and its subtypes
+        source("Super", "@com.querydsl.core.annotations.QueryEntity public class Super { String title; }");
+        RecordingProcessor processor = new RecordingProcessor();
+        process(Collections.singletonList(processor), superType, subType);
+        assertEquals(new HashSet<String>(Arrays.asList("incremental.QSuper", "incremental.QSub")),
+                processor.originatingElements.keySet());
+        assertTrue(generated("QSub").contains("title"));
+        assertFalse(generated("QSub").contains("name"));
+    }
+
+}
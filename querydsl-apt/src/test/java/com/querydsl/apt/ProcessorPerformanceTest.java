@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.apt;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Stopwatch;
+import com.google.common.io.Files;
+import com.querydsl.core.testutil.Performance;
+import com.querydsl.core.util.FileUtils;
+
+@Ignore
+@Category(Performance.class)
+public class ProcessorPerformanceTest extends AbstractProcessorTest {
+
+    private static final int ENTITIES = 3000;
+
+    private static final File sources = new File("target/performance-sources/performance");
+
+    private static final List<String> files = new ArrayList<String>();
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        // synthetic model of entities with a common supertype and references to the next entity
+        FileUtils.delete(sources);
+        sources.mkdirs();
+        Files.write("package performance;\n"
+                + "@com.querydsl.core.annotations.QuerySupertype\n"
+                + "public abstract class Base { Long id; String createdBy; java.util.Date created; }\n",
+                new File(sources, "Base.java"), Charsets.UTF_8);
+        files.add(new File(sources, "Base.java").getPath());
+        for (int i = 0; i < ENTITIES; i++) {
+            File file = new File(sources, "Entity" + i + ".java");
+            Files.write("package performance;\n"
+                    + "@com.querydsl.core.annotations.QueryEntity\n"
+                    + "public class Entity" + i + " extends Base {\n"
+                    + "  String name; int count; java.math.BigDecimal amount;\n"
+                    + "  Entity" + ((i + 1) % ENTITIES) + " next;\n"
+                    + "  java.util.List<Entity" + ((i + 2) % ENTITIES) + "> children;\n"
+                    + "}\n", file, Charsets.UTF_8);
+            files.add(file.getPath());
+        }
+    }
+
+    private void run(String label, List<String> classes) throws IOException {
+        // warmup
+        process(QuerydslAnnotationProcessor.class, classes, "performance");
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        process(QuerydslAnnotationProcessor.class, classes, "performance");
+        System.err.println(label + " " + stopwatch.stop().toString());
+    }
+
+    @Test
+    public void full() throws IOException {
+        run("full " + ENTITIES, files);
+    }
+
+}
@@ -48,6 +48,16 @@ public class EntitySerializer implements Serializer {
 
     private static final ClassType PATH_INITS_TYPE = new ClassType(PathInits.class);
 
+    private static final Set<String> PATH_METHODS = Sets.newHashSet();
+
+    static {
+        for (java.lang.reflect.Method method : EntityPathBase.class.getMethods()) {
+            if (method.getParameterTypes().length == 0) {
+                PATH_METHODS.add(method.getName());
+            }
+        }
+    }
+
     protected final TypeMappings typeMappings;
 
     protected final Collection<String> keywords;
@@ -241,7 +251,8 @@ public class EntitySerializer implements Serializer {
             if (field.getType().getCategory() == TypeCategory.ENTITY) {
                 initEntityField(writer, config, model, field);
 
-            } else if (field.isInherited() && superType != null && superType.getEntityType().hasEntityFields()) {
+            } else if (field.isInherited() && superType != null && superType.getEntityType().hasEntityFields()
+                    && !usePropertyAccessor(model, field, config)) {
                 writer.line("this.", field.getEscapedName(), " = _super.", field.getEscapedName(), SEMICOLON);
             }
         }
@@ -533,29 +544,47 @@ public class EntitySerializer implements Serializer {
     }
 
     protected void listAccessor(EntityType model, Property field, CodeWriter writer) throws IOException {
-        String escapedName = field.getEscapedName();
+        listAccessor(model, field, SimpleSerializerConfig.DEFAULT, writer);
+    }
+
+    protected void listAccessor(EntityType model, Property field, SerializerConfig config,
+            CodeWriter writer) throws IOException {
+        String escapedName = getPropertyReference(model, field, config);
         Type queryType = typeMappings.getPathType(field.getParameter(0), model, false);
 
-        writer.beginPublicMethod(queryType, escapedName, new Parameter("index", Types.INT));
+        writer.beginPublicMethod(queryType, field.getEscapedName(), new Parameter("index", Types.INT));
         writer.line(RETURN + escapedName + ".get(index);").end();
 
-        writer.beginPublicMethod(queryType, escapedName, new Parameter("index",
+        writer.beginPublicMethod(queryType, field.getEscapedName(), new Parameter("index",
                 new ClassType(Expression.class, Types.INTEGER)));
         writer.line(RETURN + escapedName + ".get(index);").end();
     }
 
     protected void mapAccessor(EntityType model, Property field, CodeWriter writer) throws IOException {
-        String escapedName = field.getEscapedName();
+        mapAccessor(model, field, SimpleSerializerConfig.DEFAULT, writer);
+    }
+
+    protected void mapAccessor(EntityType model, Property field, SerializerConfig config,
+            CodeWriter writer) throws IOException {
+        String escapedName = getPropertyReference(model, field, config);
         Type queryType = typeMappings.getPathType(field.getParameter(1), model, false);
 
-        writer.beginPublicMethod(queryType, escapedName, new Parameter("key", field.getParameter(0)));
+        writer.beginPublicMethod(queryType, field.getEscapedName(), new Parameter("key", field.getParameter(0)));
         writer.line(RETURN + escapedName + ".get(key);").end();
 
-        writer.beginPublicMethod(queryType, escapedName, new Parameter("key",
+        writer.beginPublicMethod(queryType, field.getEscapedName(), new Parameter("key",
                 new ClassType(Expression.class, field.getParameter(0))));
         writer.line(RETURN + escapedName + ".get(key);").end();
     }
 
+    private String getPropertyReference(EntityType model, Property field, SerializerConfig config) {
+        if (usePropertyAccessor(model, field, config)) {
+            return field.getEscapedName() + "()";
+        } else {
+            return field.getEscapedName();
+        }
+    }
+
     private void delegate(final EntityType model, Delegate delegate, SerializerConfig config,
             CodeWriter writer) throws IOException {
         Parameter[] params = delegate.getParameters().toArray(new Parameter[delegate.getParameters().size()]);
@@ -608,9 +637,9 @@ public class EntitySerializer implements Serializer {
         for (Property property : model.getProperties()) {
             TypeCategory category = property.getType().getCategory();
             if (category == TypeCategory.MAP && config.useMapAccessors()) {
-                mapAccessor(model, property, writer);
+                mapAccessor(model, property, config, writer);
             } else if (category == TypeCategory.LIST && config.useListAccessors()) {
-                listAccessor(model, property, writer);
+                listAccessor(model, property, config, writer);
             } else if (category == TypeCategory.ENTITY && config.useEntityAccessors()) {
                 entityAccessor(model, property, writer);
             }
@@ -646,6 +675,64 @@ public class EntitySerializer implements Serializer {
         }
     }
 
+    protected void serialize(EntityType model, Property field, Type type, SerializerConfig config,
+            CodeWriter writer, String factoryMethod, String... args) throws IOException {
+        if (usePropertyAccessor(model, field, config)) {
+            propertyAccessor(model, field, type, writer, factoryMethod, args);
+        } else {
+            serialize(model, field, type, writer, factoryMethod, args);
+        }
+    }
+
+    /**
+     * Get whether the given property is serialized as a lazily initialized accessor
+     *
+     * @param model entity type
+     * @param field property
+     * @param config serializer config
+     * @return true, if an accessor is used
+     */
+    protected boolean usePropertyAccessor(EntityType model, Property field, SerializerConfig config) {
+        TypeCategory category = field.getType().getCategory();
+        if (!(config instanceof SimpleSerializerConfig)
+                || !((SimpleSerializerConfig) config).usePropertyAccessors()
+                || category == TypeCategory.ENTITY
+                || category == TypeCategory.CUSTOM
+                || typeMappings.isRegistered(field.getType())
+                || PATH_METHODS.contains(field.getEscapedName())) {
+            return false;
+        }
+        for (Delegate delegate : model.getDelegates()) {
+            if (delegate.getName().equals(field.getEscapedName()) && delegate.getParameters().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected void propertyAccessor(EntityType model, Property field, Type type, CodeWriter writer,
+            String factoryMethod, String... args) throws IOException {
+        // inherited properties are created directly, since the query type of the supertype
+        // might have been serialized without accessors
+        String escapedName = field.getEscapedName();
+        StringBuilder value = new StringBuilder(factoryMethod + "(\"" + field.getName() + QUOTE);
+        for (String arg : args) {
+            value.append(COMMA + arg);
+        }
+        value.append(")");
+
+        if (field.isInherited()) {
+            writer.line("//inherited");
+        }
+        writer.protectedField(type, escapedName);
+        writer.beginPublicMethod(type, escapedName);
+        writer.line("if (", escapedName, " == null) {");
+        writer.line("    ", escapedName, ASSIGN, value.toString(), SEMICOLON);
+        writer.line("}");
+        writer.line(RETURN, escapedName, SEMICOLON);
+        writer.end();
+    }
+
     protected void customField(EntityType model, Property field, SerializerConfig config,
             CodeWriter writer) throws IOException {
         Type queryType = typeMappings.getPathType(field.getType(), model, false);
@@ -708,39 +795,39 @@ public class EntitySerializer implements Serializer {
 
             switch (property.getType().getCategory()) {
             case STRING:
-                serialize(model, property, queryType, writer, "createString");
+                serialize(model, property, queryType, config, writer, "createString");
                 break;
 
             case BOOLEAN:
-                serialize(model, property, queryType, writer, "createBoolean");
+                serialize(model, property, queryType, config, writer, "createBoolean");
                 break;
 
             case SIMPLE:
-                serialize(model, property, queryType, writer, "createSimple", writer.getClassConstant(localRawName));
+                serialize(model, property, queryType, config, writer, "createSimple", writer.getClassConstant(localRawName));
                 break;
 
             case COMPARABLE:
-                serialize(model, property, queryType, writer, "createComparable", writer.getClassConstant(localRawName));
+                serialize(model, property, queryType, config, writer, "createComparable", writer.getClassConstant(localRawName));
                 break;
 
             case ENUM:
-                serialize(model, property, queryType, writer, "createEnum", writer.getClassConstant(localRawName));
+                serialize(model, property, queryType, config, writer, "createEnum", writer.getClassConstant(localRawName));
                 break;
 
             case DATE:
-                serialize(model, property, queryType, writer, "createDate", writer.getClassConstant(localRawName));
+                serialize(model, property, queryType, config, writer, "createDate", writer.getClassConstant(localRawName));
                 break;
 
             case DATETIME:
-                serialize(model, property, queryType, writer, "createDateTime", writer.getClassConstant(localRawName));
+                serialize(model, property, queryType, config, writer, "createDateTime", writer.getClassConstant(localRawName));
                 break;
 
             case TIME:
-                serialize(model, property, queryType, writer, "createTime", writer.getClassConstant(localRawName));
+                serialize(model, property, queryType, config, writer, "createTime", writer.getClassConstant(localRawName));
                 break;
 
             case NUMERIC:
-                serialize(model, property, queryType, writer, "createNumber", writer.getClassConstant(localRawName));
+                serialize(model, property, queryType, config, writer, "createNumber", writer.getClassConstant(localRawName));
                 break;
 
             case CUSTOM:
@@ -751,7 +838,7 @@ public class EntitySerializer implements Serializer {
                 serialize(model, property, new ClassType(ArrayPath.class,
                         property.getType(),
                         wrap(property.getType().getComponentType())),
-                        writer, "createArray", writer.getClassConstant(localRawName));
+                        config, writer, "createArray", writer.getClassConstant(localRawName));
                 break;
 
             case COLLECTION:
@@ -761,7 +848,7 @@ public class EntitySerializer implements Serializer {
                 queryType = typeMappings.getPathType(property.getParameter(0), model, true);
 
                 serialize(model, property, new ClassType(CollectionPath.class, getRaw(property.getParameter(0)), genericQueryType),
-                        writer, "this.<" + genericKey + COMMA + writer.getGenericName(true, genericQueryType) + ">createCollection",
+                        config, writer, "this.<" + genericKey + COMMA + writer.getGenericName(true, genericQueryType) + ">createCollection",
                         writer.getClassConstant(localRawName), writer.getClassConstant(writer.getRawName(queryType)), inits);
                 break;
 
@@ -772,7 +859,7 @@ public class EntitySerializer implements Serializer {
                 queryType = typeMappings.getPathType(property.getParameter(0), model, true);
 
                 serialize(model, property, new ClassType(SetPath.class, getRaw(property.getParameter(0)), genericQueryType),
-                        writer, "this.<" + genericKey + COMMA + writer.getGenericName(true, genericQueryType) + ">createSet",
+                        config, writer, "this.<" + genericKey + COMMA + writer.getGenericName(true, genericQueryType) + ">createSet",
                         writer.getClassConstant(localRawName), writer.getClassConstant(writer.getRawName(queryType)), inits);
                 break;
 
@@ -783,7 +870,7 @@ public class EntitySerializer implements Serializer {
                 queryType = typeMappings.getPathType(property.getParameter(0), model, true);
 
                 serialize(model, property, new ClassType(ListPath.class, getRaw(property.getParameter(0)), genericQueryType),
-                        writer, "this.<" + genericKey + COMMA + writer.getGenericName(true, genericQueryType) + ">createList",
+                        config, writer, "this.<" + genericKey + COMMA + writer.getGenericName(true, genericQueryType) + ">createList",
                         writer.getClassConstant(localRawName), writer.getClassConstant(writer.getRawName(queryType)), inits);
                 break;
 
@@ -797,7 +884,7 @@ public class EntitySerializer implements Serializer {
 
                 serialize(model, property, new ClassType(MapPath.class, getRaw(property.getParameter(0)),
                         getRaw(property.getParameter(1)), genericQueryType),
-                        writer, "this.<" + genericKey + COMMA + genericValue + COMMA +
+                        config, writer, "this.<" + genericKey + COMMA + genericValue + COMMA +
                             writer.getGenericName(true, genericQueryType) + ">createMap",
                  writer.getClassConstant(keyType), writer.getClassConstant(valueType), writer.getClassConstant(writer.getRawName(queryType)));
                 break;
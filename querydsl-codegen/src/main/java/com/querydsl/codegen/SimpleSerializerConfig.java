@@ -30,11 +30,12 @@ public final class SimpleSerializerConfig implements SerializerConfig {
                 annotation.entityAccessors(),
                 annotation.listAccessors(),
                 annotation.mapAccessors(),
+                annotation.propertyAccessors(),
                 annotation.createDefaultVariable(),
                 annotation.defaultVariableName());
     }
 
-    private final boolean entityAccessors, listAccessors, mapAccessors, createDefaultVariable;
+    private final boolean entityAccessors, listAccessors, mapAccessors, propertyAccessors, createDefaultVariable;
 
     private final String defaultVariableName;
 
@@ -44,9 +45,20 @@ public final class SimpleSerializerConfig implements SerializerConfig {
             boolean mapAccessors,
             boolean createDefaultVariable,
             String defaultVariableName) {
+        this(entityAccessors, listAccessors, mapAccessors, false, createDefaultVariable, defaultVariableName);
+    }
+
+    public SimpleSerializerConfig(
+            boolean entityAccessors,
+            boolean listAccessors,
+            boolean mapAccessors,
+            boolean propertyAccessors,
+            boolean createDefaultVariable,
+            String defaultVariableName) {
         this.entityAccessors = entityAccessors;
         this.listAccessors = listAccessors;
         this.mapAccessors = mapAccessors;
+        this.propertyAccessors = propertyAccessors;
         this.createDefaultVariable = createDefaultVariable;
         this.defaultVariableName = defaultVariableName;
     }
@@ -66,6 +78,15 @@ public final class SimpleSerializerConfig implements SerializerConfig {
         return mapAccessors;
     }
 
+    /**
+     * lazily initialized accessors are used for property paths
+     *
+     * @return if lazily initialized accessors are used for property paths
+     */
+    public boolean usePropertyAccessors() {
+        return propertyAccessors;
+    }
+
     @Override
     public boolean createDefaultVariable() {
         return createDefaultVariable;
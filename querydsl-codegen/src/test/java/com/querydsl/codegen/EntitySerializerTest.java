@@ -21,6 +21,8 @@ import java.sql.Time;
 import java.util.Collections;
 import java.util.Date;
 import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
@@ -164,6 +166,60 @@ public class EntitySerializerTest {
         CompileUtils.assertCompiles("QEntity", writer.toString());
     }
 
+    @Test
+    public void properties_with_accessors() throws IOException {
+        SimpleType type = new SimpleType(TypeCategory.ENTITY, "Entity", "", "Entity",false,false);
+        EntityType entityType = new EntityType(type);
+        entityType.addProperty(new Property(entityType, "b", new ClassType(TypeCategory.BOOLEAN, Boolean.class)));
+        entityType.addProperty(new Property(entityType, "i", new ClassType(TypeCategory.NUMERIC, Integer.class)));
+        entityType.addProperty(new Property(entityType, "s", new ClassType(TypeCategory.STRING, String.class)));
+        entityType.addProperty(new Property(entityType, "count", new ClassType(TypeCategory.NUMERIC, Integer.class)));
+        entityType.addProperty(new Property(entityType, "l", new ClassType(TypeCategory.LIST, List.class, Types.STRING)));
+        typeMappings.register(entityType, queryTypeFactory.create(entityType));
+
+        SerializerConfig config = new SimpleSerializerConfig(false, true, false, true, true, "");
+        serializer.serialize(entityType, config, new JavaWriter(writer));
+        String source = writer.toString();
+        assertTrue(source.contains("protected StringPath s;"));
+        assertTrue(source.contains("public StringPath s() {"));
+        assertTrue(source.contains("s = createString(\"s\");"));
+        // clashes with SimpleExpression.count()
+        assertTrue(source.contains("public final NumberPath<Integer> count = createNumber(\"count\", Integer.class);"));
+        assertTrue(source.contains("return l().get(index);"));
+        CompileUtils.assertCompiles("QEntity", source);
+    }
+
+    @Test
+    public void superType_with_accessors() throws IOException {
+        EntityType superType = new EntityType(new SimpleType(TypeCategory.ENTITY, "Super", "", "Super",false,false));
+        superType.addProperty(new Property(superType, "s", new ClassType(TypeCategory.STRING, String.class)));
+        SimpleType type = new SimpleType(TypeCategory.ENTITY, "Sub", "", "Sub",false,false);
+        EntityType entityType = new EntityType(type, Collections.singleton(new Supertype(superType, superType)));
+        entityType.include(new Supertype(superType, superType));
+        typeMappings.register(superType, queryTypeFactory.create(superType));
+        typeMappings.register(entityType, queryTypeFactory.create(entityType));
+
+        Map<String, String> sources = new HashMap<String, String>();
+        sources.put("Super", "public class Super { String s; }");
+        sources.put("Sub", "public class Sub extends Super { }");
+        SerializerConfig config = new SimpleSerializerConfig(false, false, false, true, true, "");
+        serializer.serialize(entityType, config, new JavaWriter(writer));
+        sources.put("QSub", writer.toString());
+        assertTrue(writer.toString().contains("s = createString(\"s\");"));
+
+        // the supertype is serialized without accessors
+        StringWriter superWriter = new StringWriter();
+        serializer.serialize(superType, SimpleSerializerConfig.DEFAULT, new JavaWriter(superWriter));
+        sources.put("QSuper", superWriter.toString());
+        CompileUtils.assertCompiles(sources);
+
+        // and with accessors
+        superWriter = new StringWriter();
+        serializer.serialize(superType, config, new JavaWriter(superWriter));
+        sources.put("QSuper", superWriter.toString());
+        CompileUtils.assertCompiles(sources);
+    }
+
     @Test
     public void superType() throws IOException {
         EntityType superType = new EntityType(new SimpleType(TypeCategory.ENTITY, "Entity2", "", "Entity2",false,false));
@@ -0,0 +1,116 @@
+package com.querydsl.codegen;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.google.common.base.Stopwatch;
+import com.mysema.codegen.JavaWriter;
+import com.mysema.codegen.MemFileManager;
+import com.mysema.codegen.MemSourceFileObject;
+import com.mysema.codegen.SimpleCompiler;
+import com.mysema.codegen.model.ClassType;
+import com.mysema.codegen.model.SimpleType;
+import com.mysema.codegen.model.TypeCategory;
+import com.querydsl.core.testutil.Performance;
+
+@Ignore
+@Category(Performance.class)
+public class LazyPathsPerformanceTest {
+
+    private static final int ENTITIES = 900;
+
+    private static final int PROPERTIES = 60;
+
+    private static final String PACKAGE = "com.querydsl.codegen.perf";
+
+    @Test
+    public void eager() throws Exception {
+        run("eager", SimpleSerializerConfig.DEFAULT);
+    }
+
+    @Test
+    public void lazy() throws Exception {
+        run("lazy", new SimpleSerializerConfig(false, false, false, true, true, ""));
+    }
+
+    private void run(String label, SerializerConfig config) throws Exception {
+        ClassLoader classLoader = compile(config);
+        List<Class<?>> classes = new ArrayList<Class<?>>(ENTITIES);
+        for (int i = 0; i < ENTITIES; i++) {
+            classes.add(classLoader.loadClass(PACKAGE + ".QEntity" + i));
+        }
+
+        long heap = usedHeap();
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        List<Object> instances = new ArrayList<Object>(ENTITIES);
+        for (Class<?> cl : classes) {
+            // triggers class initialization and the default variable
+            instances.add(cl.getField("entity" + instances.size()).get(null));
+        }
+        stopwatch.stop();
+        long used = usedHeap() - heap;
+        System.err.println(label + " " + stopwatch + ", " + (used / 1024) + " kB for "
+                + instances.size() + " entities");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static ClassLoader compile(SerializerConfig config) throws IOException {
+        TypeMappings typeMappings = new JavaTypeMappings();
+        QueryTypeFactory queryTypeFactory = new QueryTypeFactoryImpl("Q", "", "");
+        EntitySerializer serializer = new EntitySerializer(typeMappings, Keywords.JPA);
+
+        List<JavaFileObject> sources = new ArrayList<JavaFileObject>(2 * ENTITIES);
+        for (int i = 0; i < ENTITIES; i++) {
+            EntityType entityType = new EntityType(new SimpleType(TypeCategory.ENTITY,
+                    PACKAGE + ".Entity" + i, PACKAGE, "Entity" + i, false, false));
+            for (int j = 0; j < PROPERTIES; j++) {
+                if (j % 2 == 0) {
+                    entityType.addProperty(new Property(entityType, "s" + j,
+                            new ClassType(TypeCategory.STRING, String.class)));
+                } else {
+                    entityType.addProperty(new Property(entityType, "n" + j,
+                            new ClassType(TypeCategory.NUMERIC, Long.class)));
+                }
+            }
+            typeMappings.register(entityType, queryTypeFactory.create(entityType));
+            StringWriter writer = new StringWriter();
+            serializer.serialize(entityType, config, new JavaWriter(writer));
+            sources.add(new MemSourceFileObject(PACKAGE + ".QEntity" + i, writer.toString()));
+            sources.add(new MemSourceFileObject(PACKAGE + ".Entity" + i,
+                    "package " + PACKAGE + "; public class Entity" + i + " { }"));
+        }
+
+        URLClassLoader parent = (URLClassLoader) LazyPathsPerformanceTest.class.getClassLoader();
+        SimpleCompiler compiler = new SimpleCompiler();
+        MemFileManager fileManager = new MemFileManager(parent, compiler.getStandardFileManager(null, null, null));
+        List<String> options = Arrays.asList("-classpath", SimpleCompiler.getClassPath(parent), "-g:none");
+        Writer out = new StringWriter();
+        JavaCompiler.CompilationTask task = compiler.getTask(out, fileManager, null, options, null, sources);
+        if (!task.call()) {
+            Assert.fail(out.toString());
+        }
+        return fileManager.getClassLoader(StandardLocation.CLASS_OUTPUT);
+    }
+
+}
@@ -94,22 +94,22 @@ public abstract class AbstractCollQuery<T, Q extends AbstractCollQuery<T, Q>> ex
 
     @Override
     public Q groupBy(Expression<?> e) {
-        throw new UnsupportedOperationException();
+        return queryMixin.groupBy(e);
     }
 
     @Override
     public Q groupBy(Expression<?>... o) {
-        throw new UnsupportedOperationException();
+        return queryMixin.groupBy(o);
     }
 
     @Override
     public Q having(Predicate e) {
-        throw new UnsupportedOperationException();
+        return queryMixin.having(e);
     }
 
     @Override
     public Q having(Predicate... e) {
-        throw new UnsupportedOperationException();
+        return queryMixin.having(e);
     }
 
     protected QueryEngine getQueryEngine() {
@@ -172,7 +172,12 @@ public abstract class AbstractCollQuery<T, Q extends AbstractCollQuery<T, Q>> ex
     public CloseableIterator<T> iterate() {
         @SuppressWarnings("unchecked") // This is the built type
         Expression<T> projection = (Expression<T>) queryMixin.getMetadata().getProjection();
-        return new IteratorAdapter<T>(queryEngine.list(getMetadata(), iterables, projection).iterator());
+        if (queryEngine instanceof DefaultQueryEngine) {
+            return new IteratorAdapter<T>(((DefaultQueryEngine) queryEngine).iterate(
+                    getMetadata(), iterables, projection));
+        } else {
+            return new IteratorAdapter<T>(queryEngine.list(getMetadata(), iterables, projection).iterator());
+        }
     }
 
     @Override
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import com.querydsl.core.types.Operator;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.util.MathUtils;
+
+/**
+ * {@code Accumulator} computes the value of an aggregate function over the rows of a group
+ *
+ * <p>Null values are ignored, as in SQL.</p>
+ */
+abstract class Accumulator {
+
+    /**
+     * Create a new accumulator for the given aggregate function
+     *
+     * @param operator aggregate operator
+     * @param type result type of the aggregation
+     * @return accumulator
+     */
+    static Accumulator create(Operator operator, Class<?> type) {
+        if (operator == Ops.AggOps.COUNT_AGG || operator == Ops.AggOps.COUNT_ALL_AGG) {
+            return new Count();
+        } else if (operator == Ops.AggOps.COUNT_DISTINCT_AGG || operator == Ops.AggOps.COUNT_DISTINCT_ALL_AGG) {
+            return new CountDistinct();
+        } else if (operator == Ops.AggOps.SUM_AGG) {
+            return new Sum(type.asSubclass(Number.class));
+        } else if (operator == Ops.AggOps.AVG_AGG) {
+            return new Avg();
+        } else if (operator == Ops.AggOps.MIN_AGG) {
+            return new Extreme(-1);
+        } else if (operator == Ops.AggOps.MAX_AGG) {
+            return new Extreme(1);
+        } else if (operator == Ops.AggOps.BOOLEAN_ALL) {
+            return new Bool(true);
+        } else if (operator == Ops.AggOps.BOOLEAN_ANY) {
+            return new Bool(false);
+        } else {
+            throw new IllegalArgumentException("Unknown operator " + operator);
+        }
+    }
+
+    /**
+     * Add the given value
+     *
+     * @param value value
+     */
+    abstract void add(@Nullable Object value);
+
+    /**
+     * Get the aggregated value
+     *
+     * @return aggregated value
+     */
+    @Nullable
+    abstract Object get();
+
+    private static final class Count extends Accumulator {
+
+        private long count;
+
+        @Override
+        void add(Object value) {
+            if (value != null) {
+                count++;
+            }
+        }
+
+        @Override
+        Object get() {
+            return count;
+        }
+
+    }
+
+    private static final class CountDistinct extends Accumulator {
+
+        private final Set<Object> values = new HashSet<Object>();
+
+        @Override
+        void add(Object value) {
+            if (value != null) {
+                values.add(value.getClass().isArray() ? Arrays.asList((Object[]) value) : value);
+            }
+        }
+
+        @Override
+        Object get() {
+            return (long) values.size();
+        }
+
+    }
+
+    private static final class Sum extends Accumulator {
+
+        private final Class<? extends Number> type;
+
+        private final boolean integral, exact;
+
+        private long longSum;
+
+        private double doubleSum;
+
+        @Nullable
+        private BigDecimal exactSum;
+
+        private boolean empty = true;
+
+        Sum(Class<? extends Number> type) {
+            this.type = type;
+            this.integral = type.equals(Long.class) || type.equals(Integer.class)
+                    || type.equals(Short.class) || type.equals(Byte.class);
+            this.exact = type.equals(BigDecimal.class) || type.equals(BigInteger.class);
+        }
+
+        @Override
+        void add(Object value) {
+            if (value == null) {
+                return;
+            }
+            Number number = (Number) value;
+            if (integral) {
+                long l = number.longValue();
+                long sum = longSum + l;
+                // overflow iff both operands have the sign opposite to the result
+                if (((longSum ^ sum) & (l ^ sum)) < 0) {
+                    throw new ArithmeticException("long overflow in sum");
+                }
+                longSum = sum;
+            } else if (exact) {
+                BigDecimal decimal = number instanceof BigDecimal ? (BigDecimal) number
+                        : new BigDecimal(number.toString());
+                exactSum = exactSum != null ? exactSum.add(decimal) : decimal;
+            } else {
+                doubleSum += number.doubleValue();
+            }
+            empty = false;
+        }
+
+        @Override
+        Object get() {
+            if (empty) {
+                return null;
+            } else if (integral) {
+                return narrow(longSum);
+            } else if (exact) {
+                return MathUtils.cast(exactSum, type);
+            } else {
+                return MathUtils.cast(doubleSum, type);
+            }
+        }
+
+        private Number narrow(long value) {
+            if (type.equals(Integer.class)) {
+                checkRange(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                return (int) value;
+            } else if (type.equals(Short.class)) {
+                checkRange(value, Short.MIN_VALUE, Short.MAX_VALUE);
+                return (short) value;
+            } else if (type.equals(Byte.class)) {
+                checkRange(value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                return (byte) value;
+            } else {
+                return value;
+            }
+        }
+
+        private void checkRange(long value, long min, long max) {
+            if (value < min || value > max) {
+                throw new ArithmeticException("Sum " + value + " does not fit into "
+                        + type.getSimpleName());
+            }
+        }
+
+    }
+
+    private static final class Avg extends Accumulator {
+
+        private double sum;
+
+        private long count;
+
+        @Override
+        void add(Object value) {
+            if (value != null) {
+                sum += ((Number) value).doubleValue();
+                count++;
+            }
+        }
+
+        @Override
+        Object get() {
+            return count > 0 ? sum / count : null;
+        }
+
+    }
+
+    private static final class Extreme extends Accumulator {
+
+        private final int sign;
+
+        @Nullable
+        private Comparable<Object> value;
+
+        Extreme(int sign) {
+            this.sign = sign;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        void add(Object value) {
+            if (value != null && (this.value == null || sign * this.value.compareTo(value) < 0)) {
+                this.value = (Comparable<Object>) value;
+            }
+        }
+
+        @Override
+        Object get() {
+            return value;
+        }
+
+    }
+
+    private static final class Bool extends Accumulator {
+
+        private final boolean all;
+
+        @Nullable
+        private Boolean value;
+
+        Bool(boolean all) {
+            this.all = all;
+        }
+
+        @Override
+        void add(Object value) {
+            if (value != null) {
+                boolean b = (Boolean) value;
+                this.value = this.value == null ? b : (all ? this.value && b : this.value || b);
+            }
+        }
+
+        @Override
+        Object get() {
+            return value;
+        }
+
+    }
+
+}
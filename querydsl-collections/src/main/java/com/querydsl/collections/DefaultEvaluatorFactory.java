@@ -111,7 +111,7 @@ public class DefaultEvaluatorFactory {
 
         // normalize types
         for (int i = 0; i < types.length; i++) {
-            if (Primitives.isWrapperType(types[i])) {
+            if (Primitives.isWrapperType(types[i]) && !(sources.get(i) instanceof GroupColumn)) {
                 types[i] = Primitives.unwrap(types[i]);
             }
         }
@@ -15,25 +15,59 @@ package com.querydsl.collections;
 
 import java.util.*;
 
+import javax.annotation.Nullable;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 import com.mysema.codegen.Evaluator;
 import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.core.DefaultQueryMetadata;
 import com.querydsl.core.JoinExpression;
 import com.querydsl.core.JoinType;
 import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.support.ReplaceVisitor;
 import com.querydsl.core.types.*;
 
 /**
  * Default implementation of the {@link QueryEngine} interface
  *
+ * <p>Rows are passed through a pipeline of filtering, ordering, paging, projection and distinct
+ * handling. Ordered queries with a limit only keep the first offset + limit rows in sorted order,
+ * and only rows in the requested page are projected. Sources implementing {@link IndexedIterable}
+ * are narrowed down to the candidates of their index before filtering.</p>
+ *
+ * <p>Grouped queries are aggregated in a hash aggregation stage, which accumulates the aggregates
+ * of the projection, having and order by clauses per group key. The aggregated rows then pass
+ * through having, ordering, paging, projection and distinct handling. Queries with a having
+ * clause but without group keys aggregate all rows as a single group, as in SQL.</p>
+ *
  * @author tiwe
  *
  */
 @SuppressWarnings("unchecked")
 public class DefaultQueryEngine implements QueryEngine {
 
+    private static final int FILTER_CHUNK_SIZE = 1024;
+
+    private static final class Group {
+
+        final Object row;
+
+        final Object[] keys;
+
+        final Accumulator[] accumulators;
+
+        Group(Object row, Object[] keys, Accumulator[] accumulators) {
+            this.row = row;
+            this.keys = keys;
+            this.accumulators = accumulators;
+        }
+
+    }
+
     private static transient volatile QueryEngine defaultQueryEngine;
 
     public static QueryEngine getDefault() {
@@ -51,60 +85,88 @@ public class DefaultQueryEngine implements QueryEngine {
 
     @Override
     public long count(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables) {
+        List<?> list;
         if (metadata.getJoins().size() == 1) {
-            return evaluateSingleSource(metadata, iterables, true).size();
+            list = filterSingleSource(metadata, iterables, false);
         } else {
-            return evaluateMultipleSources(metadata, iterables, true).size();
+            list = filterMultipleSources(metadata, iterables);
+        }
+        if (isGrouped(metadata)) {
+            return Iterators.size(group(metadata, getSources(metadata), list.iterator(), true));
+        } else if (metadata.isDistinct()) {
+            return Iterators.size(distinct(list.iterator()));
+        } else {
+            return list.size();
         }
     }
 
     @Override
     public boolean exists(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables) {
-        QueryModifiers modifiers = metadata.getModifiers();
-        metadata.setLimit(1L);
-        try {
-            if (metadata.getJoins().size() == 1) {
-                return !evaluateSingleSource(metadata, iterables, true).isEmpty();
-            } else {
-                return !evaluateMultipleSources(metadata, iterables, true).isEmpty();
-            }
-        } finally {
-            metadata.setModifiers(modifiers);
+        if (isGrouped(metadata)) {
+            return count(metadata, iterables) > 0;
+        } else if (metadata.getJoins().size() == 1) {
+            Expression<?> source = metadata.getJoins().get(0).getTarget();
+            return filter(metadata, source, iterables.values().iterator().next(), false).hasNext();
+        } else {
+            return !filterMultipleSources(metadata, iterables).isEmpty();
         }
     }
 
     @Override
     public <T> List<T> list(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables,
             Expression<T> projection) {
+        Iterator<T> rows;
         if (metadata.getJoins().size() == 1) {
-            return evaluateSingleSource(metadata, iterables, false);
+            Expression<?> source = metadata.getJoins().get(0).getTarget();
+            if (metadata.getOrderBy().isEmpty() && !metadata.getModifiers().isRestricting()
+                && !metadata.isDistinct() && !isGrouped(metadata)
+                && (metadata.getProjection() == null || metadata.getProjection().equals(source))) {
+                return (List<T>) filterSingleSource(metadata, iterables, true);
+            }
+            rows = (Iterator<T>) evaluateSingleSource(metadata, iterables, false);
         } else {
-            return evaluateMultipleSources(metadata, iterables, false);
+            rows = (Iterator<T>) evaluateMultipleSources(metadata, iterables);
         }
+        List<T> rv = new ArrayList<T>();
+        Iterators.addAll(rv, rows);
+        return rv;
     }
 
-    private <T> List<T> distinct(List<T> list) {
-        List<T> rv = new ArrayList<T>(list.size());
-        if (!list.isEmpty() && list.get(0) != null && list.get(0).getClass().isArray()) {
-            Set set = new HashSet(list.size());
-            for (T o : list) {
-                if (set.add(ImmutableList.copyOf((Object[]) o))) {
-                    rv.add(o);
-                }
-            }
-            return rv;
+    /**
+     * Evaluate the given query and return the projection as an iterator
+     *
+     * <p>Unordered single source queries are filtered and projected while the iterator is
+     * consumed.</p>
+     *
+     * @param metadata query metadata
+     * @param iterables source contents
+     * @param projection projection
+     * @return matching rows
+     */
+    public <T> Iterator<T> iterate(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables,
+            Expression<T> projection) {
+        if (metadata.getJoins().size() == 1) {
+            return (Iterator<T>) evaluateSingleSource(metadata, iterables, true);
         } else {
-            for (T o : list) {
-                if (!rv.contains(o)) {
-                    rv.add(o);
+            return (Iterator<T>) evaluateMultipleSources(metadata, iterables);
+        }
+    }
+
+    private <T> Iterator<T> distinct(Iterator<T> rows) {
+        final Set<Object> seen = new HashSet<Object>();
+        return Iterators.filter(rows, new Predicate<T>() {
+            @Override
+            public boolean apply(T input) {
+                if (input != null && input.getClass().isArray()) {
+                    return seen.add(Arrays.asList((Object[]) input));
+                } else {
+                    return seen.add(input);
                 }
             }
-        }
-        return rv;
+        });
     }
 
-    private List evaluateMultipleSources(QueryMetadata metadata, Map<Expression<?>,
-            Iterable<?>> iterables, boolean count) {
+    private List filterMultipleSources(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables) {
         // from where
         Evaluator<List<Object[]>> ev = evaluatorFactory.createEvaluator(metadata, metadata.getJoins(), metadata.getWhere());
         List<Iterable<?>> iterableList = new ArrayList<Iterable<?>>(metadata.getJoins().size());
@@ -113,46 +175,32 @@ public class DefaultQueryEngine implements QueryEngine {
                 iterableList.add(iterables.get(join.getTarget()));
             }
         }
-        List<?> list = ev.evaluate(iterableList.toArray());
+        return ev.evaluate(iterableList.toArray());
+    }
 
-        if (!count && !list.isEmpty()) {
-            List<Expression<?>> sources = new ArrayList<Expression<?>>(metadata.getJoins().size());
-            for (JoinExpression join : metadata.getJoins()) {
-                if (join.getType() == JoinType.DEFAULT) {
-                    sources.add(join.getTarget());
-                } else {
-                    Operation target = (Operation) join.getTarget();
-                    sources.add(target.getArg(1));
-                }
-            }
-            // ordered
-            if (!metadata.getOrderBy().isEmpty()) {
-                order(metadata, sources, list);
-            }
-            // projection
-            list = project(metadata, sources, list);
-            // limit + offset
-            if (metadata.getModifiers().isRestricting()) {
-                list = metadata.getModifiers().subList(list);
-            }
-            if (list.isEmpty()) {
-                return list;
-            }
-        }
+    private Iterator<?> evaluateMultipleSources(QueryMetadata metadata, Map<Expression<?>,
+            Iterable<?>> iterables) {
+        List<?> list = filterMultipleSources(metadata, iterables);
+        return evaluate(metadata, getSources(metadata), list.iterator(), metadata.getProjection() != null);
+    }
 
-        // distinct
-        if (metadata.isDistinct()) {
-            list = distinct(list);
+    private List<Expression<?>> getSources(QueryMetadata metadata) {
+        List<Expression<?>> sources = new ArrayList<Expression<?>>(metadata.getJoins().size());
+        for (JoinExpression join : metadata.getJoins()) {
+            if (join.getType() == JoinType.DEFAULT) {
+                sources.add(join.getTarget());
+            } else {
+                Operation target = (Operation) join.getTarget();
+                sources.add(target.getArg(1));
+            }
         }
-
-        return list;
+        return sources;
     }
 
-    private List evaluateSingleSource(QueryMetadata metadata, Map<Expression<?>,
-            Iterable<?>> iterables, boolean count) {
+    private List<?> filterSingleSource(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables,
+            boolean paged) {
         final Expression<?> source = metadata.getJoins().get(0).getTarget();
-        final List<Expression<?>> sources = Collections.<Expression<?>>singletonList(source);
-        final Iterable<?> iterable = iterables.values().iterator().next();
+        final Iterable<?> iterable = getCandidates(metadata, iterables.values().iterator().next(), paged);
         List<?> list;
         if (iterable instanceof List) {
             list = (List) iterable;
@@ -166,39 +214,251 @@ public class DefaultQueryEngine implements QueryEngine {
                     .createEvaluator(metadata, source, metadata.getWhere());
             list = evaluator.evaluate(list);
         }
+        return list;
+    }
+
+    private Iterator<?> evaluateSingleSource(QueryMetadata metadata, Map<Expression<?>,
+            Iterable<?>> iterables, boolean stream) {
+        final Expression<?> source = metadata.getJoins().get(0).getTarget();
+        final List<Expression<?>> sources = Collections.<Expression<?>>singletonList(source);
+        final Expression<?> projection = metadata.getProjection();
+        Iterator<?> rows;
+        if (metadata.getOrderBy().isEmpty() && getAggregator(projection) == null
+            && (stream || metadata.getModifiers().getLimit() != null)) {
+            // rows are only filtered as far as they are consumed
+            rows = filter(metadata, source, iterables.values().iterator().next(), true);
+        } else {
+            rows = filterSingleSource(metadata, iterables, true).iterator();
+        }
+        return evaluate(metadata, sources, rows,
+                projection != null && !projection.equals(source));
+    }
+
+    private Iterator<?> filter(QueryMetadata metadata, Expression<?> source, Iterable<?> iterable,
+            boolean paged) {
+        iterable = getCandidates(metadata, iterable, paged);
+        if (metadata.getWhere() == null) {
+            return iterable.iterator();
+        }
+        final Evaluator<List<?>> evaluator = (Evaluator) evaluatorFactory
+                .createEvaluator(metadata, source, metadata.getWhere());
+        Iterator<? extends List<?>> chunks = Iterators.partition(iterable.iterator(), FILTER_CHUNK_SIZE);
+        return Iterators.concat(Iterators.transform(chunks, new Function<List<?>, Iterator<?>>() {
+            @Override
+            public Iterator<?> apply(List<?> chunk) {
+                return evaluator.evaluate(chunk).iterator();
+            }
+        }));
+    }
 
-        if (!count && !list.isEmpty()) {
+    /**
+     * Get the candidates of an indexed source, when paging doesn't apply to the result, the
+     * index is only used for the filter
+     */
+    private Iterable<?> getCandidates(QueryMetadata metadata, Iterable<?> iterable, boolean paged) {
+        if (iterable instanceof IndexedIterable) {
+            if (!paged && metadata.getModifiers().isRestricting()) {
+                metadata = metadata.clone();
+                metadata.setModifiers(QueryModifiers.EMPTY);
+            }
+            Iterable<?> candidates = ((IndexedIterable<?>) iterable).getCandidates(metadata);
+            if (candidates != null) {
+                return candidates;
+            }
+        }
+        return iterable;
+    }
+
+    private Iterator<?> evaluate(QueryMetadata metadata, List<Expression<?>> sources,
+            Iterator<?> rows, boolean project) {
+        if (isGrouped(metadata)) {
+            return group(metadata, sources, rows, false);
+        }
+        QueryModifiers modifiers = metadata.getModifiers();
+        Expression<?> projection = metadata.getProjection();
+        Operator aggregator = getAggregator(projection);
+        if (aggregator != null) {
+            if (!rows.hasNext()) {
+                return rows;
+            }
+            // aggregation over all rows
+            Operation<?> aggregation = (Operation<?>) projection;
+            List target = new ArrayList();
+            Iterators.addAll(target, project(metadata, sources, aggregation.getArg(0), rows));
+            List<?> list = ImmutableList.of(CollQueryFunctions.aggregate(target, aggregation.getArg(0), aggregator));
+            rows = modifiers.subList(list).iterator();
+        } else {
             // ordered
             if (!metadata.getOrderBy().isEmpty()) {
-                // clone list
-                if (list == iterable) {
-                    list = new ArrayList(list);
-                }
-                order(metadata, sources, list);
-            }
-            // projection
-            if (metadata.getProjection() != null && !metadata.getProjection().equals(source)) {
-                list = project(metadata, sources, list);
+                rows = order(metadata, sources, rows);
             }
             // limit + offset
-            if (metadata.getModifiers().isRestricting()) {
-                list = metadata.getModifiers().subList(list);
+            if (modifiers.getOffset() != null) {
+                Iterators.advance(rows, modifiers.getOffsetAsInteger());
             }
-            if (list.isEmpty()) {
-                return list;
+            if (modifiers.getLimit() != null) {
+                rows = Iterators.limit(rows, modifiers.getLimitAsInteger());
+            }
+            // projection
+            if (project) {
+                rows = project(metadata, sources, projection, rows);
             }
         }
 
         // distinct
         if (metadata.isDistinct()) {
-            list = distinct(list);
+            rows = distinct(rows);
         }
+        return rows;
+    }
 
-        return list;
+    private Iterator<?> group(QueryMetadata metadata, List<Expression<?>> sources, Iterator<?> rows,
+            boolean forCount) {
+        // the aggregated rows consist of the first source row of the group, the group keys and the
+        // aggregates, group keys and aggregates are replaced by columns of the aggregated rows
+        List<Expression<?>> groupBy = metadata.getGroupBy();
+        final List<Expression<?>> columns = new ArrayList<Expression<?>>(sources);
+        final Map<Expression<?>, Path<?>> keyColumns = new HashMap<Expression<?>, Path<?>>();
+        for (int i = 0; i < groupBy.size(); i++) {
+            Path<?> column = new GroupColumn<Object>(groupBy.get(i).getType(), "_key" + i);
+            keyColumns.put(groupBy.get(i), column);
+            columns.add(column);
+        }
+        final List<Operation<?>> aggregates = new ArrayList<Operation<?>>();
+        final List<Path<?>> aggregateColumns = new ArrayList<Path<?>>();
+        ReplaceVisitor<Void> replaceVisitor = new ReplaceVisitor<Void>() {
+            @Override
+            public Expression<?> visit(Operation<?> expr, @Nullable Void context) {
+                if (keyColumns.containsKey(expr)) {
+                    return keyColumns.get(expr);
+                } else if (expr.getOperator() instanceof Ops.AggOps) {
+                    int index = aggregates.indexOf(expr);
+                    if (index < 0) {
+                        index = aggregates.size();
+                        aggregates.add(expr);
+                        aggregateColumns.add(new GroupColumn<Object>(expr.getType(), "_agg" + index));
+                    }
+                    return aggregateColumns.get(index);
+                } else {
+                    return super.visit(expr, context);
+                }
+            }
+
+            @Override
+            public Expression<?> visit(Path<?> expr, @Nullable Void context) {
+                if (keyColumns.containsKey(expr)) {
+                    return keyColumns.get(expr);
+                } else {
+                    return super.visit(expr, context);
+                }
+            }
+        };
+
+        QueryMetadata grouped = new DefaultQueryMetadata();
+        Expression<?> projection = metadata.getProjection();
+        if (projection == null) {
+            projection = sources.size() == 1 ? sources.get(0)
+                    : new ArrayConstructorExpression<Object>(Object[].class,
+                            sources.toArray(new Expression[sources.size()]));
+        }
+        grouped.setProjection(projection.accept(replaceVisitor, null));
+        for (OrderSpecifier<?> order : metadata.getOrderBy()) {
+            Expression<?> target = order.getTarget().accept(replaceVisitor, null);
+            grouped.addOrderBy(new OrderSpecifier(order.getOrder(), target, order.getNullHandling()));
+        }
+        Expression<Boolean> having = metadata.getHaving() != null
+                ? (Expression<Boolean>) metadata.getHaving().accept(replaceVisitor, null) : null;
+        if (!forCount) {
+            grouped.setModifiers(metadata.getModifiers());
+        }
+        grouped.setDistinct(metadata.isDistinct());
+        for (Map.Entry<ParamExpression<?>, Object> entry : metadata.getParams().entrySet()) {
+            grouped.setParam((ParamExpression) entry.getKey(), entry.getValue());
+        }
+        columns.addAll(aggregateColumns);
+
+        // aggregation
+        Evaluator<Object[]> keyEvaluator = evaluatorFactory.create(metadata, sources,
+                new ArrayConstructorExpression<Object>(Object[].class,
+                        groupBy.toArray(new Expression[groupBy.size()])));
+        int[] argIndexes = new int[aggregates.size()];
+        List<Expression<?>> args = new ArrayList<Expression<?>>();
+        for (int i = 0; i < aggregates.size(); i++) {
+            if (aggregates.get(i).getArgs().isEmpty()) {
+                argIndexes[i] = -1;
+            } else {
+                argIndexes[i] = args.size();
+                args.add(aggregates.get(i).getArg(0));
+            }
+        }
+        Evaluator<Object[]> argEvaluator = args.isEmpty() ? null : evaluatorFactory.create(metadata, sources,
+                new ArrayConstructorExpression<Object>(Object[].class, args.toArray(new Expression[args.size()])));
+        Map<List<Object>, Group> groups = new LinkedHashMap<List<Object>, Group>();
+        while (rows.hasNext()) {
+            Object row = rows.next();
+            Object[] keys = evaluate(keyEvaluator, row);
+            List<Object> key = Arrays.asList(keys);
+            Group group = groups.get(key);
+            if (group == null) {
+                Accumulator[] accumulators = new Accumulator[aggregates.size()];
+                for (int i = 0; i < accumulators.length; i++) {
+                    accumulators[i] = Accumulator.create(aggregates.get(i).getOperator(),
+                            aggregates.get(i).getType());
+                }
+                group = new Group(row, keys, accumulators);
+                groups.put(key, group);
+            }
+            Object[] values = argEvaluator != null ? evaluate(argEvaluator, row) : null;
+            for (int i = 0; i < argIndexes.length; i++) {
+                group.accumulators[i].add(argIndexes[i] < 0 ? row : values[argIndexes[i]]);
+            }
+        }
+
+        if (groups.isEmpty() && groupBy.isEmpty()) {
+            // without group keys all rows form a single group, even if there are no rows
+            Accumulator[] accumulators = new Accumulator[aggregates.size()];
+            for (int i = 0; i < accumulators.length; i++) {
+                accumulators[i] = Accumulator.create(aggregates.get(i).getOperator(),
+                        aggregates.get(i).getType());
+            }
+            Object row = sources.size() == 1 ? null : new Object[sources.size()];
+            groups.put(Collections.emptyList(), new Group(row, new Object[0], accumulators));
+        }
 
+        // having
+        Evaluator<Boolean> havingEvaluator = having != null ? evaluatorFactory.create(grouped, columns, having) : null;
+        List<Object[]> groupRows = new ArrayList<Object[]>(groups.size());
+        for (Group group : groups.values()) {
+            Object[] groupRow = new Object[columns.size()];
+            if (sources.size() == 1) {
+                groupRow[0] = group.row;
+            } else {
+                System.arraycopy((Object[]) group.row, 0, groupRow, 0, sources.size());
+            }
+            System.arraycopy(group.keys, 0, groupRow, sources.size(), group.keys.length);
+            for (int i = 0; i < group.accumulators.length; i++) {
+                groupRow[sources.size() + group.keys.length + i] = group.accumulators[i].get();
+            }
+            if (havingEvaluator == null || Boolean.TRUE.equals(havingEvaluator.evaluate(groupRow))) {
+                groupRows.add(groupRow);
+            }
+        }
+        return evaluate(grouped, columns, groupRows.iterator(), true);
+    }
+
+    private static boolean isGrouped(QueryMetadata metadata) {
+        return !metadata.getGroupBy().isEmpty() || metadata.getHaving() != null;
     }
 
-    private void order(QueryMetadata metadata, List<Expression<?>> sources, List<?> list) {
+    private static <T> T evaluate(Evaluator<T> evaluator, Object row) {
+        if (row != null && row.getClass().isArray()) {
+            return evaluator.evaluate((Object[]) row);
+        } else {
+            return evaluator.evaluate(row);
+        }
+    }
+
+    private Iterator<?> order(QueryMetadata metadata, List<Expression<?>> sources, Iterator<?> rows) {
         // create a projection for the order
         List<OrderSpecifier<?>> orderBy = metadata.getOrderBy();
         Expression<Object>[] orderByExpr = new Expression[orderBy.size()];
@@ -209,28 +469,31 @@ public class DefaultQueryEngine implements QueryEngine {
         }
         Expression<?> expr = new ArrayConstructorExpression<Object>(Object[].class, orderByExpr);
         Evaluator orderEvaluator = evaluatorFactory.create(metadata, sources, expr);
-        Collections.sort(list, new MultiComparator(orderEvaluator, directions));
+        MultiComparator comparator = new MultiComparator(orderEvaluator, directions);
+        QueryModifiers modifiers = metadata.getModifiers();
+        if (modifiers.getLimit() != null) {
+            long size = modifiers.getLimit() + (modifiers.getOffset() != null ? modifiers.getOffset() : 0L);
+            if (size <= Integer.MAX_VALUE) {
+                // top-k selection
+                return comparator.sort(rows, (int) size).iterator();
+            }
+        }
+        return comparator.sort(rows).iterator();
     }
 
-    private List<?> project(QueryMetadata metadata, List<Expression<?>> sources, List<?> list) {
-        Expression<?> projection = metadata.getProjection();
-        Operator aggregator = null;
-        if (projection instanceof Operation && Ops.aggOps.contains(((Operation) projection).getOperator())) {
-            Operation<?> aggregation = (Operation<?>) projection;
-            aggregator = aggregation.getOperator();
-            projection = aggregation.getArg(0);
-        }
+    private Iterator<?> project(QueryMetadata metadata, List<Expression<?>> sources,
+            Expression<?> projection, Iterator<?> rows) {
         Evaluator projectionEvaluator = evaluatorFactory.create(metadata, sources, projection);
-        EvaluatorFunction transformer = new EvaluatorFunction(projectionEvaluator);
-        List target = new ArrayList();
-        Iterators.addAll(target, Iterators.transform(list.iterator(), transformer));
-        if (aggregator != null) {
-            return ImmutableList.of(CollQueryFunctions.aggregate(target, projection, aggregator));
+        return Iterators.transform(rows, new EvaluatorFunction(projectionEvaluator));
+    }
+
+    @Nullable
+    private static Operator getAggregator(@Nullable Expression<?> projection) {
+        if (projection instanceof Operation && Ops.aggOps.contains(((Operation) projection).getOperator())) {
+            return ((Operation<?>) projection).getOperator();
         } else {
-            return target;
+            return null;
         }
     }
 
-
-
 }
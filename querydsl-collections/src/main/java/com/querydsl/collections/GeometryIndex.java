@@ -0,0 +1,338 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.util.*;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.mysema.codegen.Evaluator;
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.types.*;
+import com.querydsl.spatial.SpatialOps;
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.index.strtree.STRtree;
+
+/**
+ * {@code GeometryIndex} is an immutable list with an STR-tree index over the geometries of its
+ * elements
+ *
+ * <p>Used as the source of a query, the candidates of the query are looked up via the envelopes of
+ * the geometries, when the filter has a top level condition which constrains the indexed path
+ * by a constant geometry, such as {@code intersects}, {@code contains}, {@code within} or a
+ * distance limit. Queries without a filter which are ordered by the distance of the indexed
+ * path to a constant geometry and have a limit are evaluated against the nearest neighbours.
+ * The conditions and the ordering of the query are still evaluated exactly on the candidates,
+ * elements without a geometry are always candidates.</p>
+ *
+ * <pre>
+ * GeometryIndex&lt;Shape&gt; index = new GeometryIndex&lt;Shape&gt;(shapes, shape.geometry);
+ * List&lt;Shape&gt; result = new CollQuery&lt;Void&gt;(JTSTemplates.DEFAULT)
+ *     .from(shape, index).where(shape.geometry.intersects(area)).select(shape).fetch();
+ * </pre>
+ *
+ * @param <T> element type
+ */
+public class GeometryIndex<T> extends AbstractList<T> implements IndexedIterable<T>, RandomAccess {
+
+    private static final Set<Operator> ENVELOPE_OPS = ImmutableSet.<Operator>of(
+            SpatialOps.EQUALS, SpatialOps.INTERSECTS, SpatialOps.TOUCHES, SpatialOps.CROSSES,
+            SpatialOps.WITHIN, SpatialOps.CONTAINS, SpatialOps.OVERLAPS,
+            SpatialOps.ENVELOPE_INTERSECTS);
+
+    private static final Comparator<Entry> SOURCE_ORDER = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry o1, Entry o2) {
+            return o1.index < o2.index ? -1 : (o1.index > o2.index ? 1 : 0);
+        }
+    };
+
+    private static final class Entry {
+
+        final int index;
+
+        @Nullable
+        final Geometry geometry;
+
+        Entry(int index, @Nullable Geometry geometry) {
+            this.index = index;
+            this.geometry = geometry;
+        }
+
+    }
+
+    private final List<T> elements;
+
+    private final Path<? extends Geometry> path;
+
+    private final STRtree tree = new STRtree();
+
+    private final List<Entry> unindexed = new ArrayList<Entry>();
+
+    private final Envelope bounds = new Envelope();
+
+    /**
+     * Create a new index over the given elements
+     *
+     * @param elements elements
+     * @param path geometry path of the elements
+     */
+    public GeometryIndex(Iterable<? extends T> elements, Path<? extends Geometry> path) {
+        this(elements, path, null);
+    }
+
+    /**
+     * Create a new index over the given elements
+     *
+     * @param elements elements
+     * @param path geometry path of the elements
+     * @param evaluatorFactory evaluator factory to evaluate the path with
+     */
+    @SuppressWarnings("unchecked")
+    public GeometryIndex(Iterable<? extends T> elements, Path<? extends Geometry> path,
+            @Nullable DefaultEvaluatorFactory evaluatorFactory) {
+        this.elements = ImmutableList.copyOf(elements);
+        this.path = path;
+        Evaluator<Geometry> evaluator = null;
+        if (!path.getMetadata().isRoot()) {
+            if (evaluatorFactory == null) {
+                evaluatorFactory = new DefaultEvaluatorFactory(CollQueryTemplates.DEFAULT);
+            }
+            evaluator = evaluatorFactory.create(new DefaultQueryMetadata(),
+                    Collections.singletonList(path.getRoot()), (Path<Geometry>) path);
+        }
+        for (int i = 0; i < this.elements.size(); i++) {
+            T element = this.elements.get(i);
+            Geometry geometry = evaluator != null ? evaluator.evaluate(element) : (Geometry) element;
+            Entry entry = new Entry(i, geometry);
+            if (geometry == null || geometry.isEmpty()) {
+                unindexed.add(entry);
+            } else {
+                tree.insert(geometry.getEnvelopeInternal(), entry);
+                bounds.expandToInclude(geometry.getEnvelopeInternal());
+            }
+        }
+        tree.build();
+    }
+
+    /**
+     * Get the indexed path
+     *
+     * @return path
+     */
+    public Path<? extends Geometry> getPath() {
+        return path;
+    }
+
+    @Override
+    public T get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Nullable
+    @Override
+    public Iterable<T> getCandidates(QueryMetadata metadata) {
+        if (metadata.getWhere() != null) {
+            List<Envelope> envelopes = new ArrayList<Envelope>();
+            addEnvelopes(metadata, metadata.getWhere(), envelopes);
+            if (!envelopes.isEmpty()) {
+                // the envelopes of the conditions may be disjoint, even if a geometry satisfies
+                // all of them, so the candidates of the conditions are intersected instead
+                Set<Object> entries = null;
+                for (Envelope envelope : envelopes) {
+                    List<?> hits = tree.query(envelope);
+                    if (entries == null) {
+                        entries = new HashSet<Object>(hits);
+                    } else {
+                        entries.retainAll(new HashSet<Object>(hits));
+                    }
+                }
+                List<Entry> rv = new ArrayList<Entry>(entries.size());
+                for (Object entry : entries) {
+                    rv.add((Entry) entry);
+                }
+                return getElements(rv);
+            }
+        } else if (!metadata.getOrderBy().isEmpty() && metadata.getGroupBy().isEmpty()
+                && !isAggregation(metadata.getProjection())) {
+            QueryModifiers modifiers = metadata.getModifiers();
+            Geometry geometry = getNearestTo(metadata, metadata.getOrderBy().get(0));
+            if (geometry != null && modifiers.getLimit() != null) {
+                long k = modifiers.getLimit() + (modifiers.getOffset() != null ? modifiers.getOffset() : 0);
+                if (k < tree.size()) {
+                    return getElements(getNearest(geometry, (int) k));
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<T> getElements(List<Entry> entries) {
+        entries.addAll(unindexed);
+        Collections.sort(entries, SOURCE_ORDER);
+        List<T> rv = new ArrayList<T>(entries.size());
+        for (Entry entry : entries) {
+            rv.add(elements.get(entry.index));
+        }
+        return rv;
+    }
+
+    private List<Entry> getNearest(Geometry geometry, int k) {
+        Envelope envelope = geometry.getEnvelopeInternal();
+        // initial radius of a circle expected to contain k elements
+        double radius = Math.max(Math.sqrt(bounds.getArea() * k / tree.size() / Math.PI),
+                envelope.distance(bounds));
+        if (radius == 0.0) {
+            radius = Math.max(Math.max(bounds.getWidth(), bounds.getHeight()), 1.0);
+        }
+        while (true) {
+            Envelope search = new Envelope(envelope);
+            search.expandBy(radius);
+            List<?> hits = tree.query(search);
+            boolean complete = hits.size() == tree.size();
+            double[] distances = new double[hits.size()];
+            int within = 0;
+            for (int i = 0; i < distances.length; i++) {
+                distances[i] = ((Entry) hits.get(i)).geometry.distance(geometry);
+                if (distances[i] <= radius) {
+                    within++;
+                }
+            }
+            if (within >= k || complete) {
+                // all elements closer than the radius are hits
+                double[] sorted = distances.clone();
+                Arrays.sort(sorted);
+                double max = sorted[k - 1];
+                List<Entry> nearest = new ArrayList<Entry>(k);
+                for (int i = 0; i < distances.length; i++) {
+                    if (distances[i] <= max) {
+                        nearest.add((Entry) hits.get(i));
+                    }
+                }
+                return nearest;
+            }
+            radius *= 2;
+        }
+    }
+
+    private void addEnvelopes(QueryMetadata metadata, Expression<?> expr, List<Envelope> envelopes) {
+        if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == Ops.AND) {
+            for (Expression<?> arg : ((Operation<?>) expr).getArgs()) {
+                addEnvelopes(metadata, arg, envelopes);
+            }
+        } else {
+            Envelope envelope = getEnvelope(metadata, expr);
+            if (envelope != null) {
+                envelopes.add(envelope);
+            }
+        }
+    }
+
+    @Nullable
+    private Envelope getEnvelope(QueryMetadata metadata, Expression<?> expr) {
+        if (!(expr instanceof Operation)) {
+            return null;
+        }
+        Operation<?> operation = (Operation<?>) expr;
+        Operator operator = operation.getOperator();
+        if (ENVELOPE_OPS.contains(operator)) {
+            Geometry geometry = getConstantGeometry(metadata, operation.getArg(0), operation.getArg(1));
+            return geometry != null ? new Envelope(geometry.getEnvelopeInternal()) : null;
+        } else if (operator == SpatialOps.DWITHIN) {
+            Geometry geometry = getConstantGeometry(metadata, operation.getArg(0), operation.getArg(1));
+            return getEnvelope(geometry, getConstant(metadata, operation.getArg(2)));
+        } else if (operator == Ops.LT || operator == Ops.LOE) {
+            return getEnvelope(getDistanceTo(metadata, operation.getArg(0)),
+                    getConstant(metadata, operation.getArg(1)));
+        } else if (operator == Ops.GT || operator == Ops.GOE) {
+            return getEnvelope(getDistanceTo(metadata, operation.getArg(1)),
+                    getConstant(metadata, operation.getArg(0)));
+        } else if (operator == Ops.BETWEEN) {
+            return getEnvelope(getDistanceTo(metadata, operation.getArg(0)),
+                    getConstant(metadata, operation.getArg(2)));
+        } else {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Envelope getEnvelope(@Nullable Geometry geometry, @Nullable Object distance) {
+        if (geometry != null && distance instanceof Number) {
+            Envelope envelope = new Envelope(geometry.getEnvelopeInternal());
+            envelope.expandBy(Math.max(((Number) distance).doubleValue(), 0.0));
+            return envelope;
+        } else {
+            return null;
+        }
+    }
+
+    @Nullable
+    private Geometry getNearestTo(QueryMetadata metadata, OrderSpecifier<?> order) {
+        return order.isAscending() ? getDistanceTo(metadata, order.getTarget()) : null;
+    }
+
+    /**
+     * Get the constant geometry, if the given expression is the distance of the indexed path to it
+     */
+    @Nullable
+    private Geometry getDistanceTo(QueryMetadata metadata, Expression<?> expr) {
+        if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == SpatialOps.DISTANCE) {
+            Operation<?> operation = (Operation<?>) expr;
+            return getConstantGeometry(metadata, operation.getArg(0), operation.getArg(1));
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Get the constant geometry, if one of the given expressions is the indexed path
+     */
+    @Nullable
+    private Geometry getConstantGeometry(QueryMetadata metadata, Expression<?> arg1, Expression<?> arg2) {
+        Object constant = null;
+        if (path.equals(arg1)) {
+            constant = getConstant(metadata, arg2);
+        } else if (path.equals(arg2)) {
+            constant = getConstant(metadata, arg1);
+        }
+        return constant instanceof Geometry && !((Geometry) constant).isEmpty() ? (Geometry) constant : null;
+    }
+
+    @Nullable
+    private static Object getConstant(QueryMetadata metadata, Expression<?> expr) {
+        if (expr instanceof Constant) {
+            return ((Constant<?>) expr).getConstant();
+        } else if (expr instanceof ParamExpression) {
+            return metadata.getParams().get(expr);
+        } else {
+            return null;
+        }
+    }
+
+    private static boolean isAggregation(@Nullable Expression<?> projection) {
+        return projection instanceof Operation
+            && ((Operation<?>) projection).getOperator() instanceof Ops.AggOps;
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import com.querydsl.core.types.PathImpl;
+
+/**
+ * {@code GroupColumn} is a column of the rows produced by the aggregation stage of
+ * {@link DefaultQueryEngine}
+ *
+ * <p>Group columns may be null, so their wrapper types are kept in evaluators.</p>
+ *
+ * @param <T> column type
+ */
+final class GroupColumn<T> extends PathImpl<T> {
+
+    private static final long serialVersionUID = 6352640916530467232L;
+
+    GroupColumn(Class<? extends T> type, String variable) {
+        super(type, variable);
+    }
+
+}
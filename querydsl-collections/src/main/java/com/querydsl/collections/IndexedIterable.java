@@ -0,0 +1,44 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import javax.annotation.Nullable;
+
+import com.querydsl.core.QueryMetadata;
+
+/**
+ * {@code IndexedIterable} is an {@link Iterable} which can narrow down the elements to be
+ * evaluated for a query via an index
+ *
+ * <p>{@link DefaultQueryEngine} evaluates single source queries over indexed sources only against
+ * the candidates of the index. The filter, ordering and paging of the query are still applied
+ * to the candidates.</p>
+ *
+ * @param <T> element type
+ */
+public interface IndexedIterable<T> extends Iterable<T> {
+
+    /**
+     * Get the candidates for the given query
+     *
+     * <p>The candidates need to include all elements which are part of the result of the query
+     * and need to be in the iteration order of this iterable.</p>
+     *
+     * @param metadata query metadata
+     * @return candidates or null, if the index can't be used for the query
+     */
+    @Nullable
+    Iterable<T> getCandidates(QueryMetadata metadata);
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import com.querydsl.spatial.SpatialOps;
+
+/**
+ * Custom templates which support the spatial operations of Querydsl Spatial on JTS geometries
+ *
+ * <p>Use {@link GeometryIndex} as source to evaluate spatial filters against an index.</p>
+ */
+public class JTSTemplates extends CollQueryTemplates {
+
+    @SuppressWarnings("FieldNameHidesFieldInSuperclass") //Intentional
+    public static final JTSTemplates DEFAULT = new JTSTemplates();
+
+    protected JTSTemplates() {
+        // Geometry
+        add(SpatialOps.DIMENSION,         "{0}.getDimension()");
+        add(SpatialOps.GEOMETRY_TYPE,     "{0}.getGeometryType()");
+        add(SpatialOps.AS_TEXT,           "{0}.toText()");
+        add(SpatialOps.SRID,              "{0}.getSRID()");
+        add(SpatialOps.IS_EMPTY,          "{0}.isEmpty()");
+        add(SpatialOps.IS_SIMPLE,         "{0}.isSimple()");
+        add(SpatialOps.BOUNDARY,          "{0}.getBoundary()");
+        add(SpatialOps.ENVELOPE,          "{0}.getEnvelope()");
+        add(SpatialOps.EQUALS,            "{0}.equalsTopo({1})");
+        add(SpatialOps.DISJOINT,          "{0}.disjoint({1})");
+        add(SpatialOps.INTERSECTS,        "{0}.intersects({1})");
+        add(SpatialOps.TOUCHES,           "{0}.touches({1})");
+        add(SpatialOps.CROSSES,           "{0}.crosses({1})");
+        add(SpatialOps.WITHIN,            "{0}.within({1})");
+        add(SpatialOps.CONTAINS,          "{0}.contains({1})");
+        add(SpatialOps.OVERLAPS,          "{0}.overlaps({1})");
+        add(SpatialOps.RELATE,            "{0}.relate({1}, {2})");
+        add(SpatialOps.DISTANCE,          "{0}.distance({1})");
+        add(SpatialOps.INTERSECTION,      "{0}.intersection({1})");
+        add(SpatialOps.DIFFERENCE,        "{0}.difference({1})");
+        add(SpatialOps.UNION,             "{0}.union({1})");
+        add(SpatialOps.SYMDIFFERENCE,     "{0}.symDifference({1})");
+        add(SpatialOps.BUFFER,            "{0}.buffer({1})");
+        add(SpatialOps.CONVEXHULL,        "{0}.convexHull()");
+
+        // Point
+        add(SpatialOps.X,                 "{0}.getX()");
+        add(SpatialOps.Y,                 "{0}.getY()");
+
+        // Curve
+        add(SpatialOps.START_POINT,       "{0}.getStartPoint()");
+        add(SpatialOps.END_POINT,         "{0}.getEndPoint()");
+        add(SpatialOps.IS_RING,           "{0}.isRing()");
+        add(SpatialOps.IS_CLOSED,         "{0}.isClosed()");
+        add(SpatialOps.LENGTH,            "{0}.getLength()");
+
+        // LineString
+        add(SpatialOps.NUM_POINTS,        "{0}.getNumPoints()");
+        add(SpatialOps.POINTN,            "{0}.getPointN({1} - 1)");
+
+        // Surface
+        add(SpatialOps.AREA,              "{0}.getArea()");
+        add(SpatialOps.CENTROID,          "{0}.getCentroid()");
+        add(SpatialOps.POINT_ON_SURFACE,  "{0}.getInteriorPoint()");
+
+        // Polygon
+        add(SpatialOps.EXTERIOR_RING,     "{0}.getExteriorRing()");
+        add(SpatialOps.NUM_INTERIOR_RING, "{0}.getNumInteriorRing()");
+        add(SpatialOps.INTERIOR_RINGN,    "{0}.getInteriorRingN({1} - 1)");
+
+        // GeometryCollection
+        add(SpatialOps.NUM_GEOMETRIES,    "{0}.getNumGeometries()");
+        add(SpatialOps.GEOMETRYN,         "{0}.getGeometryN({1} - 1)");
+
+        // Extensions
+        add(SpatialOps.XMIN,              "{0}.getEnvelopeInternal().getMinX()");
+        add(SpatialOps.XMAX,              "{0}.getEnvelopeInternal().getMaxX()");
+        add(SpatialOps.YMIN,              "{0}.getEnvelopeInternal().getMinY()");
+        add(SpatialOps.YMAX,              "{0}.getEnvelopeInternal().getMaxY()");
+        add(SpatialOps.DWITHIN,           "{0}.isWithinDistance({1}, {2})");
+        add(SpatialOps.ENVELOPE_INTERSECTS, "{0}.getEnvelopeInternal().intersects({1}.getEnvelopeInternal())");
+        add(SpatialOps.SIMPLIFY,
+                "com.vividsolutions.jts.simplify.DouglasPeuckerSimplifier.simplify({0}, {1})");
+        add(SpatialOps.SIMPLIFY_PRESERVE_TOPOLOGY,
+                "com.vividsolutions.jts.simplify.TopologyPreservingSimplifier.simplify({0}, {1})");
+    }
+
+}
@@ -14,7 +14,7 @@
 package com.querydsl.collections;
 
 import java.io.Serializable;
-import java.util.Comparator;
+import java.util.*;
 
 import com.mysema.codegen.Evaluator;
 import com.querydsl.core.util.NullSafeComparableComparator;
@@ -22,6 +22,9 @@ import com.querydsl.core.util.NullSafeComparableComparator;
 /**
  * {@code MultiComparator} compares arrays
  *
+ * <p>{@link #sort(Iterator)} and {@link #sort(Iterator, int)} evaluate the order keys once per
+ * element, whereas {@link #compare(Object, Object)} evaluates them on each comparison.</p>
+ *
  * @param <T> element type
  *
  * @author tiwe
@@ -37,6 +40,15 @@ public class MultiComparator<T> implements Comparator<T>, Serializable {
 
     private final transient Evaluator<Object[]> ev;
 
+    private final transient Comparator<Entry> entryComparator = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry o1, Entry o2) {
+            int res = innerCompare(o1.key, o2.key);
+            // preserve the encounter order of equal elements
+            return res != 0 ? res : (o1.index < o2.index ? -1 : (o1.index == o2.index ? 0 : 1));
+        }
+    };
+
     public MultiComparator(Evaluator<Object[]> ev, boolean[] directions) {
         this.ev = ev;
         this.asc = directions.clone();
@@ -44,13 +56,74 @@ public class MultiComparator<T> implements Comparator<T>, Serializable {
 
     @Override
     public int compare(T o1, T o2) {
-        if (o1.getClass().isArray()) {
-            return innerCompare(ev.evaluate((Object[]) o1), ev.evaluate((Object[]) o2));
+        return innerCompare(getKey(o1), getKey(o2));
+    }
+
+    /**
+     * Get the elements in sorted order
+     *
+     * @param elements elements to sort
+     * @return sorted elements
+     */
+    public List<T> sort(Iterator<? extends T> elements) {
+        List<Entry> entries = new ArrayList<Entry>();
+        int index = 0;
+        while (elements.hasNext()) {
+            T element = elements.next();
+            entries.add(new Entry(getKey(element), element, index++));
+        }
+        Collections.sort(entries, entryComparator);
+        return values(entries);
+    }
+
+    /**
+     * Get the first elements in sorted order, the remaining elements are discarded without
+     * sorting them
+     *
+     * @param elements elements to sort
+     * @param size maximum amount of elements to return
+     * @return sorted elements
+     */
+    public List<T> sort(Iterator<? extends T> elements, int size) {
+        if (size <= 0) {
+            return new ArrayList<T>();
+        }
+        // max heap of the smallest elements seen so far
+        PriorityQueue<Entry> heap = new PriorityQueue<Entry>(Math.min(size, 1024),
+                Collections.reverseOrder(entryComparator));
+        int index = 0;
+        while (elements.hasNext()) {
+            T element = elements.next();
+            Entry entry = new Entry(getKey(element), element, index++);
+            if (heap.size() < size) {
+                heap.add(entry);
+            } else if (entryComparator.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Entry> entries = new ArrayList<Entry>(heap);
+        Collections.sort(entries, entryComparator);
+        return values(entries);
+    }
+
+    private Object[] getKey(T o) {
+        if (o != null && o.getClass().isArray()) {
+            return ev.evaluate((Object[]) o);
         } else {
-            return innerCompare(ev.evaluate(o1), ev.evaluate(o2));
+            return ev.evaluate(o);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private List<T> values(List<Entry> entries) {
+        List<T> rv = new ArrayList<T>(entries.size());
+        for (Entry entry : entries) {
+            rv.add((T) entry.value);
+        }
+        return rv;
+    }
+
     private int innerCompare(Object[] o1, Object[] o2) {
         for (int i = 0; i < o1.length; i++) {
             int res;
@@ -68,4 +141,20 @@ public class MultiComparator<T> implements Comparator<T>, Serializable {
         return 0;
     }
 
+    private static final class Entry {
+
+        private final Object[] key;
+
+        private final Object value;
+
+        private final int index;
+
+        Entry(Object[] key, Object value, int index) {
+            this.key = key;
+            this.value = value;
+            this.index = index;
+        }
+
+    }
+
 }
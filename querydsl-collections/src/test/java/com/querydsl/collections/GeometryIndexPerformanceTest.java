@@ -0,0 +1,105 @@
+package com.querydsl.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.testutil.Benchmark;
+import com.querydsl.core.testutil.Performance;
+import com.querydsl.core.testutil.Runner;
+import com.querydsl.spatial.jts.JTSGeometryPath;
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.Point;
+
+@Ignore
+@Category(Performance.class)
+public class GeometryIndexPerformanceTest {
+
+    private static final int size = 100000;
+
+    private static final GeometryFactory factory = new GeometryFactory();
+
+    private static final JTSGeometryPath<Geometry> geometry = new JTSGeometryPath<Geometry>("geometry");
+
+    private static List<Geometry> geometries = new ArrayList<Geometry>(size);
+
+    private static GeometryIndex<Geometry> index;
+
+    private static Point[] points = new Point[100];
+
+    @BeforeClass
+    public static void setUpClass() {
+        Random random = new Random(0);
+        for (int i = 0; i < size; i++) {
+            geometries.add(factory.createPoint(new Coordinate(random.nextDouble() * 1000, random.nextDouble() * 1000)));
+        }
+        for (int i = 0; i < points.length; i++) {
+            points[i] = factory.createPoint(new Coordinate(random.nextDouble() * 1000, random.nextDouble() * 1000));
+        }
+        index = new GeometryIndex<Geometry>(geometries, geometry);
+    }
+
+    private static CollQuery<Geometry> query(Iterable<Geometry> source) {
+        return new CollQuery<Void>(JTSTemplates.DEFAULT).from(geometry, source).select(geometry);
+    }
+
+    private static void intersects(Iterable<Geometry> source, int times) {
+        for (int i = 0; i < times; i++) {
+            query(source).where(geometry.intersects(points[i % points.length].buffer(10.0))).fetch();
+        }
+    }
+
+    private static void nearest(Iterable<Geometry> source, int times) {
+        for (int i = 0; i < times; i++) {
+            query(source).orderBy(geometry.distance(points[i % points.length]).asc()).limit(10).fetch();
+        }
+    }
+
+    @Test
+    public void intersects_scan() throws Exception {
+        Runner.run("intersects scan", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                intersects(geometries, times);
+            }
+        });
+    }
+
+    @Test
+    public void intersects_index() throws Exception {
+        Runner.run("intersects index", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                intersects(index, times);
+            }
+        });
+    }
+
+    @Test
+    public void nearest_scan() throws Exception {
+        Runner.run("nearest scan", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                nearest(geometries, times);
+            }
+        });
+    }
+
+    @Test
+    public void nearest_index() throws Exception {
+        Runner.run("nearest index", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                nearest(index, times);
+            }
+        });
+    }
+
+}
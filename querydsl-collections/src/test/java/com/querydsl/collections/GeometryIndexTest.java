@@ -0,0 +1,253 @@
+package com.querydsl.collections;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.spatial.jts.JTSGeometryExpressions;
+import com.querydsl.spatial.jts.JTSGeometryPath;
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.io.ParseException;
+import com.vividsolutions.jts.io.WKTReader;
+
+public class GeometryIndexTest {
+
+    public static class Shape {
+
+        private final int id;
+
+        private final Geometry geometry;
+
+        public Shape(int id, Geometry geometry) {
+            this.id = id;
+            this.geometry = geometry;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public Geometry getGeometry() {
+            return geometry;
+        }
+
+    }
+
+    private static final GeometryFactory factory = new GeometryFactory();
+
+    private final PathBuilder<Shape> shape = new PathBuilder<Shape>(Shape.class, "shape");
+
+    private final JTSGeometryPath<Geometry> geometry = new JTSGeometryPath<Geometry>(shape, "geometry");
+
+    private final NumberPath<Integer> id = shape.getNumber("id", Integer.class);
+
+    private List<Shape> shapes;
+
+    private GeometryIndex<Shape> index;
+
+    @Before
+    public void setUp() throws ParseException {
+        shapes = new ArrayList<Shape>();
+        WKTReader reader = new WKTReader(factory);
+        for (int x = 0; x < 20; x++) {
+            for (int y = 0; y < 20; y++) {
+                shapes.add(new Shape(shapes.size(), factory.createPoint(new Coordinate(x, y))));
+            }
+        }
+        shapes.add(new Shape(shapes.size(), reader.read("LINESTRING (2.5 2.5, 7.5 2.5)")));
+        shapes.add(new Shape(shapes.size(), reader.read("POLYGON ((10 10, 14 10, 14 14, 10 14, 10 10))")));
+        index = new GeometryIndex<Shape>(shapes, geometry);
+    }
+
+    private static Geometry geometry(String wkt) throws ParseException {
+        return new WKTReader(factory).read(wkt);
+    }
+
+    private CollQuery<Shape> query(Iterable<Shape> source) {
+        return new CollQuery<Void>(JTSTemplates.DEFAULT).from(shape, source).select(shape);
+    }
+
+    private List<Shape> candidates(Predicate where) {
+        QueryMetadata metadata = new DefaultQueryMetadata();
+        metadata.addWhere(where);
+        Iterable<Shape> candidates = index.getCandidates(metadata);
+        return candidates != null ? (List<Shape>) candidates : null;
+    }
+
+    private void assertSameResults(Predicate where) {
+        List<Shape> expected = query(shapes).where(where).fetch();
+        assertEquals(expected, query(index).where(where).fetch());
+        assertEquals(expected.size(), query(index).where(where).fetchCount());
+        assertTrue(candidates(where).size() < shapes.size());
+    }
+
+    @Test
+    public void list() {
+        assertEquals(shapes, index);
+        assertEquals(shapes.size(), query(index).fetchCount());
+        assertEquals(shapes, query(index).fetch());
+    }
+
+    @Test
+    public void intersects() throws ParseException {
+        assertSameResults(geometry.intersects(geometry("POLYGON ((2 2, 5 2, 5 5, 2 5, 2 2))")));
+        assertEquals(17, query(index).where(geometry.intersects(
+                geometry("POLYGON ((2 2, 5 2, 5 5, 2 5, 2 2))"))).fetchCount());
+    }
+
+    @Test
+    public void within() throws ParseException {
+        assertSameResults(geometry.within(geometry("POLYGON ((9 9, 15 9, 15 15, 9 15, 9 9))")));
+    }
+
+    @Test
+    public void contains() throws ParseException {
+        assertSameResults(geometry.contains(geometry("POINT (12.5 12.5)")));
+        assertEquals(1, query(index).where(geometry.contains(geometry("POINT (12.5 12.5)"))).fetchCount());
+    }
+
+    @Test
+    public void dwithin() throws ParseException {
+        assertSameResults(JTSGeometryExpressions.dwithin(geometry, Expressions.constant(geometry("POINT (5 5)")), 2.0));
+    }
+
+    @Test
+    public void distance() throws ParseException {
+        Geometry point = geometry("POINT (5 5)");
+        assertSameResults(geometry.distance(point).lt(2.5));
+        assertSameResults(geometry.distance(point).loe(2.0));
+        assertSameResults(geometry.distance(point).between(1.0, 3.0));
+        assertSameResults(Expressions.asNumber(3.0).gt(geometry.distance(point)));
+    }
+
+    @Test
+    public void param() throws ParseException {
+        Param<Geometry> param = new Param<Geometry>(Geometry.class, "area");
+        Geometry area = geometry("POLYGON ((2 2, 5 2, 5 5, 2 5, 2 2))");
+        List<Shape> expected = query(shapes).where(geometry.intersects(area)).fetch();
+        assertEquals(expected, query(index).where(geometry.intersects(param)).set(param, area).fetch());
+    }
+
+    @Test
+    public void and() throws ParseException {
+        Predicate where = geometry.intersects(geometry("POLYGON ((2 2, 5 2, 5 5, 2 5, 2 2))"))
+                .and(geometry.intersects(geometry("POLYGON ((4 4, 8 4, 8 8, 4 8, 4 4))")))
+                .and(id.gt(0));
+        assertSameResults(where);
+        assertEquals(4, candidates(where).size());
+    }
+
+    @Test
+    public void disjoint_envelopes() throws ParseException {
+        Predicate where = geometry.intersects(geometry("POLYGON ((0 0, 1 0, 1 1, 0 1, 0 0))"))
+                .and(geometry.intersects(geometry("POLYGON ((18 18, 19 18, 19 19, 18 19, 18 18))")));
+        assertTrue(candidates(where).isEmpty());
+        assertTrue(query(index).where(where).fetch().isEmpty());
+    }
+
+    @Test
+    public void disjoint_envelopes_spanned() throws ParseException {
+        List<Shape> source = new ArrayList<Shape>();
+        source.add(new Shape(0, geometry("LINESTRING (0.5 0.5, 10.5 0.5)")));
+        source.add(new Shape(1, geometry("POINT (50 50)")));
+        GeometryIndex<Shape> index = new GeometryIndex<Shape>(source, geometry);
+        Predicate where = geometry.intersects(geometry("POLYGON ((0 0, 1 0, 1 1, 0 1, 0 0))"))
+                .and(geometry.intersects(geometry("POLYGON ((10 0, 11 0, 11 1, 10 1, 10 0))")));
+        assertEquals(1, query(source).where(where).fetch().size());
+        assertEquals(query(source).where(where).fetch(), query(index).where(where).fetch());
+
+        where = geometry.distance(geometry("POINT (0 0)")).lt(1.0)
+                .and(geometry.distance(geometry("POINT (11 0)")).lt(1.0));
+        assertEquals(1, query(source).where(where).fetch().size());
+        assertEquals(query(source).where(where).fetch(), query(index).where(where).fetch());
+    }
+
+    @Test
+    public void not_indexed() throws ParseException {
+        Geometry area = geometry("POLYGON ((2 2, 5 2, 5 5, 2 5, 2 2))");
+        assertNull(candidates(id.lt(10)));
+        assertNull(candidates(geometry.disjoint(area)));
+        assertNull(candidates(geometry.intersects(area).or(id.lt(10))));
+        assertNull(candidates(geometry.distance(geometry("POINT (5 5)")).gt(2.0)));
+        assertEquals(query(shapes).where(geometry.disjoint(area)).fetch(),
+                query(index).where(geometry.disjoint(area)).fetch());
+    }
+
+    @Test
+    public void nearest() throws ParseException {
+        Geometry point = geometry("POINT (12.2 3.7)");
+        for (int limit : new int[]{1, 5, 9, 50}) {
+            List<Shape> expected = query(shapes).orderBy(geometry.distance(point).asc(), id.desc())
+                    .limit(limit).fetch();
+            assertEquals(expected, query(index).orderBy(geometry.distance(point).asc(), id.desc())
+                    .limit(limit).fetch());
+        }
+        assertEquals(query(shapes).orderBy(geometry.distance(point).asc()).offset(3).limit(4).fetch(),
+                query(index).orderBy(geometry.distance(point).asc()).offset(3).limit(4).fetch());
+
+        QueryMetadata metadata = new DefaultQueryMetadata();
+        metadata.addOrderBy(geometry.distance(point).asc());
+        metadata.setLimit(5L);
+        assertEquals(5, ((List<Shape>) index.getCandidates(metadata)).size());
+    }
+
+    @Test
+    public void nearest_outside_of_bounds() throws ParseException {
+        Geometry point = geometry("POINT (100 -50)");
+        assertEquals(query(shapes).orderBy(geometry.distance(point).asc()).limit(3).fetch(),
+                query(index).orderBy(geometry.distance(point).asc()).limit(3).fetch());
+    }
+
+    @Test
+    public void nearest_count() throws ParseException {
+        Geometry point = geometry("POINT (12.2 3.7)");
+        assertEquals(shapes.size(), query(index).orderBy(geometry.distance(point).asc())
+                .limit(3).fetchCount());
+    }
+
+    @Test
+    public void nearest_filtered() throws ParseException {
+        Geometry point = geometry("POINT (12.2 3.7)");
+        assertEquals(query(shapes).where(id.gt(200)).orderBy(geometry.distance(point).asc()).limit(3).fetch(),
+                query(index).where(id.gt(200)).orderBy(geometry.distance(point).asc()).limit(3).fetch());
+    }
+
+    @Test
+    public void unindexed() throws ParseException {
+        List<Shape> source = new ArrayList<Shape>(shapes);
+        source.add(new Shape(source.size(), geometry("POINT EMPTY")));
+        GeometryIndex<Shape> index = new GeometryIndex<Shape>(source, geometry);
+        Predicate where = geometry.isEmpty().or(id.lt(0)).and(geometry.within(geometry("POINT (5 5)")).not());
+        assertEquals(query(source).where(where).fetch(), query(index).where(where).fetch());
+        where = geometry.intersects(geometry("POLYGON ((0 0, 1 0, 1 1, 0 1, 0 0))"));
+        assertEquals(4, query(index).where(where).fetchCount());
+    }
+
+    @Test
+    public void root() throws ParseException {
+        JTSGeometryPath<Geometry> path = new JTSGeometryPath<Geometry>("geometry");
+        List<Geometry> geometries = new ArrayList<Geometry>();
+        for (Shape s : shapes) {
+            geometries.add(s.getGeometry());
+        }
+        GeometryIndex<Geometry> index = new GeometryIndex<Geometry>(geometries, path);
+        Geometry area = geometry("POLYGON ((2 2, 5 2, 5 5, 2 5, 2 2))");
+        assertEquals(
+                new CollQuery<Void>(JTSTemplates.DEFAULT).from(path, geometries).where(path.intersects(area)).select(path).fetch(),
+                new CollQuery<Void>(JTSTemplates.DEFAULT).from(path, index).where(path.intersects(area)).select(path).fetch());
+    }
+
+}
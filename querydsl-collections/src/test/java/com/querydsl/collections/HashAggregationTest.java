@@ -0,0 +1,163 @@
+package com.querydsl.collections;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.Wildcard;
+
+public class HashAggregationTest {
+
+    private static final QCat cat = QCat.cat;
+
+    private List<Cat> cats;
+
+    private static Cat cat(String name, int breed, int weight) {
+        Cat cat = new Cat(name);
+        cat.setBreed(breed);
+        cat.setWeight(weight);
+        return cat;
+    }
+
+    @Before
+    public void setUp() {
+        cats = Arrays.asList(
+                cat("Bob", 1, 2), cat("Ruth", 1, 3),
+                cat("Felix", 2, 4), cat("Anna", 2, 5), cat("Felix", 2, 6),
+                cat("Mike", 3, 7),
+                cat(null, 4, 1), cat(null, 4, 1));
+    }
+
+    private CollQuery<?> query() {
+        return CollQueryFactory.from(cat, cats);
+    }
+
+    @Test
+    public void aggregates() {
+        List<Tuple> rows = query().select(cat.breed, cat.count(), cat.weight.sum(), cat.weight.avg(),
+                cat.weight.min(), cat.weight.max(), cat.name.countDistinct())
+                .groupBy(cat.breed).fetch();
+        assertEquals(4, rows.size());
+        Tuple breed2 = rows.get(1);
+        assertEquals(Integer.valueOf(2), breed2.get(cat.breed));
+        assertEquals(Long.valueOf(3), breed2.get(cat.count()));
+        assertEquals(Integer.valueOf(15), breed2.get(cat.weight.sum()));
+        assertEquals(5.0, breed2.get(cat.weight.avg()), 0.0);
+        assertEquals(Integer.valueOf(4), breed2.get(cat.weight.min()));
+        assertEquals(Integer.valueOf(6), breed2.get(cat.weight.max()));
+        assertEquals(Long.valueOf(2), breed2.get(cat.name.countDistinct()));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void sum_overflow() {
+        List<Cat> heavy = Arrays.asList(cat("Bob", 1, Integer.MAX_VALUE), cat("Ruth", 1, 1));
+        CollQueryFactory.from(cat, heavy).select(cat.weight.sum()).groupBy(cat.breed).fetch();
+    }
+
+    @Test
+    public void null_values() {
+        Tuple breed4 = query().select(cat.breed, cat.name.count(), cat.name.min(), Wildcard.count)
+                .where(cat.breed.eq(4)).groupBy(cat.breed).fetchOne();
+        assertEquals(Long.valueOf(0), breed4.get(cat.name.count()));
+        assertNull(breed4.get(cat.name.min()));
+        assertEquals(Long.valueOf(2), breed4.get(Wildcard.count));
+    }
+
+    @Test
+    public void null_keys() {
+        List<Tuple> rows = query().select(cat.name, cat.weight.sum()).groupBy(cat.name).fetch();
+        assertEquals(6, rows.size());
+        Tuple last = rows.get(5);
+        assertNull(last.get(cat.name));
+        assertEquals(Integer.valueOf(2), last.get(cat.weight.sum()));
+    }
+
+    @Test
+    public void single_aggregate() {
+        assertEquals(Arrays.asList(5, 15, 7, 2),
+                query().select(cat.weight.sum()).groupBy(cat.breed).fetch());
+    }
+
+    @Test
+    public void expressions() {
+        assertEquals(Arrays.asList(6, 16, 8, 3),
+                query().select(cat.weight.sum().add(1)).groupBy(cat.breed).fetch());
+        assertEquals(Arrays.asList("bob", "ruth", "felix", "anna", "mike"),
+                query().select(cat.name.lower()).where(cat.name.isNotNull())
+                        .groupBy(cat.name.lower()).fetch());
+    }
+
+    @Test
+    public void having() {
+        assertEquals(Arrays.asList(1, 2, 4),
+                query().select(cat.breed).groupBy(cat.breed).having(cat.count().gt(1L), cat.weight.max().lt(7))
+                        .fetch());
+    }
+
+    @Test
+    public void having_without_group_by() {
+        assertEquals(Arrays.asList(29), query().select(cat.weight.sum()).having(cat.count().gt(1L)).fetch());
+        assertTrue(query().select(cat.weight.sum()).having(cat.count().gt(8L)).fetch().isEmpty());
+        assertEquals(1, query().having(cat.weight.max().eq(7)).fetchCount());
+        assertEquals(Arrays.asList(0L), query().select(cat.count()).where(cat.breed.gt(4))
+                .having(cat.count().eq(0L)).fetch());
+    }
+
+    @Test
+    public void order_and_limit() {
+        List<Tuple> rows = query().select(cat.breed, cat.weight.sum()).groupBy(cat.breed)
+                .orderBy(cat.weight.sum().desc()).limit(2).fetch();
+        assertEquals(2, rows.size());
+        assertEquals(Integer.valueOf(2), rows.get(0).get(cat.breed));
+        assertEquals(Integer.valueOf(3), rows.get(1).get(cat.breed));
+
+        assertEquals(Arrays.asList(1, 4),
+                query().select(cat.breed).groupBy(cat.breed).orderBy(cat.count().asc(), cat.breed.asc())
+                        .offset(1).limit(2).fetch());
+    }
+
+    @Test
+    public void source_projection() {
+        List<Cat> rows = query().select(cat).groupBy(cat.breed).fetch();
+        assertEquals(4, rows.size());
+        assertSame(cats.get(0), rows.get(0));
+        assertSame(cats.get(2), rows.get(1));
+    }
+
+    @Test
+    public void count() {
+        assertEquals(4, query().groupBy(cat.breed).fetchCount());
+        assertEquals(3, query().groupBy(cat.breed).having(cat.count().gt(1L)).fetchCount());
+        assertEquals(4, query().select(cat.weight.sum()).distinct().groupBy(cat.breed).fetch().size());
+    }
+
+    @Test
+    public void exists() {
+        assertTrue(query().groupBy(cat.breed).having(cat.count().gt(2L)).fetchFirst() != null);
+        assertFalse(query().groupBy(cat.breed).having(cat.count().gt(3L)).fetchCount() > 0);
+    }
+
+    @Test
+    public void iterate() {
+        assertEquals(4, com.google.common.collect.Iterators.size(
+                query().select(cat.breed).groupBy(cat.breed).iterate()));
+    }
+
+    @Test
+    public void multiple_sources() {
+        QCat mate = new QCat("mate");
+        List<Tuple> rows = CollQueryFactory.from(cat, cats).from(mate, cats)
+                .where(cat.breed.eq(mate.breed), cat.name.isNotNull())
+                .select(cat.breed, mate.count()).groupBy(cat.breed).orderBy(cat.breed.asc()).fetch();
+        assertEquals(3, rows.size());
+        assertEquals(Long.valueOf(4), rows.get(0).get(mate.count()));
+        assertEquals(Long.valueOf(9), rows.get(1).get(mate.count()));
+        assertEquals(Long.valueOf(1), rows.get(2).get(mate.count()));
+    }
+
+}
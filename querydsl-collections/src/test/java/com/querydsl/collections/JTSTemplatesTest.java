@@ -0,0 +1,65 @@
+package com.querydsl.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.spatial.jts.JTSGeometryExpressions;
+import com.querydsl.spatial.jts.JTSGeometryPath;
+import com.querydsl.spatial.jts.JTSPointPath;
+import com.querydsl.spatial.jts.JTSPolygonPath;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.Point;
+import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.io.ParseException;
+import com.vividsolutions.jts.io.WKTReader;
+
+public class JTSTemplatesTest {
+
+    private CollQuery<?> query = new CollQuery<Void>(JTSTemplates.DEFAULT);
+
+    private static Geometry geometry(String wkt) throws ParseException {
+        return new WKTReader().read(wkt);
+    }
+
+    @Test
+    public void geometry() throws ParseException {
+        JTSGeometryPath<Geometry> entity = new JTSGeometryPath<Geometry>("entity");
+        Geometry square = geometry("POLYGON ((0 0, 2 0, 2 2, 0 2, 0 0))");
+        List<Tuple> results = query.from(entity, Arrays.asList(geometry("POINT (1 1)"), geometry("POINT (3 4)")))
+             .select(entity.intersects(square), entity.within(square), entity.disjoint(square),
+                     entity.distance(square), entity.dimension(), entity.geometryType(), entity.asText(),
+                     JTSGeometryExpressions.dwithin(entity, JTSGeometryExpressions.asJTSGeometry(square), 2.0),
+                     JTSGeometryExpressions.envelopeIntersects(entity, JTSGeometryExpressions.asJTSGeometry(square)))
+             .fetch();
+        assertEquals(Arrays.asList(true, true, false, 0.0, 0, "Point", "POINT (1 1)", true, true),
+                Arrays.asList(results.get(0).toArray()));
+        assertEquals(Arrays.asList(false, false, true, Math.sqrt(5), 0, "Point", "POINT (3 4)", false, false),
+                Arrays.asList(results.get(1).toArray()));
+    }
+
+    @Test
+    public void point() throws ParseException {
+        JTSPointPath<Point> entity = new JTSPointPath<Point>("entity");
+        Tuple result = query.from(entity, Arrays.asList((Point) geometry("POINT (3 4)")))
+             .select(entity.x(), entity.y(), entity.buffer(1.0).isEmpty(), entity.eq((Point) geometry("POINT (3 4)")))
+             .fetchOne();
+        assertEquals(Arrays.<Object>asList(3.0, 4.0, false, true), Arrays.asList(result.toArray()));
+    }
+
+    @Test
+    public void polygon() throws ParseException {
+        JTSPolygonPath<Polygon> entity = new JTSPolygonPath<Polygon>("entity");
+        Polygon polygon = (Polygon) geometry("POLYGON ((0 0, 4 0, 4 4, 0 4, 0 0), (1 1, 2 1, 2 2, 1 2, 1 1))");
+        Tuple result = query.from(entity, Arrays.asList(polygon))
+             .select(entity.area(), entity.numInteriorRing(), entity.exteriorRing().numPoints(),
+                     entity.interiorRingN(1).length(), JTSGeometryExpressions.xmax(entity))
+             .fetchOne();
+        assertEquals(Arrays.<Object>asList(15.0, 1, 5, 4.0, 4.0), Arrays.asList(result.toArray()));
+    }
+
+}
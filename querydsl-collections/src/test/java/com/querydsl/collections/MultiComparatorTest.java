@@ -13,8 +13,12 @@
  */
 package com.querydsl.collections;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Test;
 
 import com.mysema.codegen.Evaluator;
@@ -40,4 +44,36 @@ public class MultiComparatorTest {
         assertTrue(comparator.compare(new Object[]{"b", "b"}, new Object[]{"b","b"}) == 0);
     }
 
+    @Test
+    public void sort() {
+        MultiComparator<Object[]> comparator = new MultiComparator<Object[]>(evaluator, new boolean[]{true, false});
+        List<Object[]> rows = Arrays.asList(new Object[]{"b", 1}, new Object[]{"a", 1}, new Object[]{"a", 2});
+        List<Object[]> sorted = comparator.sort(rows.iterator());
+        assertEquals(3, sorted.size());
+        assertTrue(Arrays.equals(new Object[]{"a", 2}, sorted.get(0)));
+        assertTrue(Arrays.equals(new Object[]{"a", 1}, sorted.get(1)));
+        assertTrue(Arrays.equals(new Object[]{"b", 1}, sorted.get(2)));
+    }
+
+    @Test
+    public void sort_limited() {
+        MultiComparator<Object[]> comparator = new MultiComparator<Object[]>(evaluator, new boolean[]{true});
+        List<Object[]> rows = Arrays.asList(new Object[]{5}, new Object[]{3}, new Object[]{4},
+                new Object[]{1}, new Object[]{2});
+        List<Object[]> sorted = comparator.sort(rows.iterator(), 2);
+        assertEquals(2, sorted.size());
+        assertEquals(1, sorted.get(0)[0]);
+        assertEquals(2, sorted.get(1)[0]);
+        assertTrue(comparator.sort(rows.iterator(), 0).isEmpty());
+    }
+
+    @Test
+    public void sort_limited_is_stable() {
+        MultiComparator<Object[]> comparator = new MultiComparator<Object[]>(evaluator, new boolean[]{true});
+        Object[] first = new Object[]{1}, second = new Object[]{1}, third = new Object[]{1};
+        List<Object[]> sorted = comparator.sort(Arrays.asList(first, second, third).iterator(), 2);
+        assertTrue(first == sorted.get(0));
+        assertTrue(second == sorted.get(1));
+    }
+
 }
@@ -16,10 +16,12 @@ package com.querydsl.collections;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Test;
 
+import com.mysema.commons.lang.CloseableIterator;
 import com.mysema.commons.lang.IteratorAdapter;
 import com.querydsl.core.QueryModifiers;
 import com.querydsl.core.QueryResults;
@@ -60,6 +62,50 @@ public class PagingTest extends AbstractQueryTest {
         assertEquals(size, IteratorAdapter.asList(createQuery(modifiers).select(var).iterate()).size());
     }
 
+    @Test
+    public void ordered() {
+        List<Integer> values = Arrays.asList(5, 3, 9, 1, 7, 3, 8, 2);
+        assertEquals(Arrays.asList(1, 2, 3), new CollQuery<Void>().from(var, values)
+                .orderBy(var.asc()).limit(3).select(var).fetch());
+        assertEquals(Arrays.asList(3, 3, 5), new CollQuery<Void>().from(var, values)
+                .orderBy(var.asc()).offset(2).limit(3).select(var).fetch());
+        assertEquals(Arrays.asList(9, 8), new CollQuery<Void>().from(var, values)
+                .orderBy(var.desc()).limit(2).select(var).fetch());
+        assertEquals(Arrays.asList(3, 5), new CollQuery<Void>().from(var, values)
+                .orderBy(var.asc()).offset(2).limit(3).distinct().select(var).fetch());
+        assertEquals(Arrays.asList(10, 6, 6), new CollQuery<Void>().from(var, values)
+                .where(var.lt(6)).orderBy(var.desc()).limit(3).select(var.multiply(2)).fetch());
+    }
+
+    @Test
+    public void iterate_is_lazy() {
+        Iterable<Integer> values = new Iterable<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new Iterator<Integer>() {
+                    private int next = 0;
+                    @Override
+                    public boolean hasNext() {
+                        return true;
+                    }
+                    @Override
+                    public Integer next() {
+                        return next++;
+                    }
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+        CloseableIterator<Integer> iterator = new CollQuery<Void>().from(var, values)
+                .where(var.gt(3000)).select(var).iterate();
+        assertEquals(Integer.valueOf(3001), iterator.next());
+        assertEquals(Arrays.asList(2001, 2002), new CollQuery<Void>().from(var, values)
+                .where(var.gt(2000)).limit(2).select(var).fetch());
+    }
+
     private CollQuery<?> createQuery(QueryModifiers modifiers) {
         CollQuery<?> query = new CollQuery<Void>().from(var, ints);
         if (modifiers != null) {
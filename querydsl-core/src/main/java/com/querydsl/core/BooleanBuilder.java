@@ -13,13 +13,14 @@
  */
 package com.querydsl.core;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.annotation.Nullable;
 
 import com.google.common.base.Objects;
-import com.querydsl.core.types.Expression;
-import com.querydsl.core.types.ExpressionUtils;
-import com.querydsl.core.types.Predicate;
-import com.querydsl.core.types.Visitor;
+import com.google.common.collect.ImmutableList;
+import com.querydsl.core.types.*;
 
 /**
  * {@code BooleanBuilder} is a cascading builder for {@link Predicate} expressions.
@@ -44,6 +45,13 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
     @Nullable
     private Predicate predicate;
 
+    // arguments of a pending n-ary operation, which is created lazily
+    @Nullable
+    private List<Expression<?>> args;
+
+    @Nullable
+    private Operator operator;
+
     /**
      * Create an empty BooleanBuilder
      */
@@ -60,6 +68,7 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
 
     @Override
     public <R,C> R accept(Visitor<R,C> v, C context) {
+        Predicate predicate = getValue();
         if (predicate != null) {
             return predicate.accept(v, context);
         } else {
@@ -74,14 +83,7 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
      * @return the current object
      */
     public BooleanBuilder and(@Nullable Predicate right) {
-        if (right != null) {
-            if (predicate == null) {
-                predicate = right;
-            } else {
-                predicate = ExpressionUtils.and(predicate, right);
-            }
-        }
-        return this;
+        return append(Ops.AND, right);
     }
 
     /**
@@ -110,7 +112,11 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
 
     @Override
     public BooleanBuilder clone() throws CloneNotSupportedException {
-        return (BooleanBuilder) super.clone();
+        BooleanBuilder clone = (BooleanBuilder) super.clone();
+        clone.predicate = getValue();
+        clone.args = null;
+        clone.operator = null;
+        return clone;
     }
 
     @Override
@@ -118,7 +124,7 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
         if (o == this) {
             return true;
         } else if (o instanceof BooleanBuilder) {
-            return Objects.equal(((BooleanBuilder) o).getValue(), predicate);
+            return Objects.equal(((BooleanBuilder) o).getValue(), getValue());
         } else {
             return false;
         }
@@ -126,11 +132,15 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
 
     @Nullable
     public Predicate getValue() {
+        if (predicate == null && args != null) {
+            predicate = ExpressionUtils.predicate(operator, ImmutableList.copyOf(args));
+        }
         return predicate;
     }
 
     @Override
     public int hashCode() {
+        Predicate predicate = getValue();
         return predicate != null ? predicate.hashCode() : 0;
     }
 
@@ -140,13 +150,15 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
      * @return true if initialized and false if not
      */
     public boolean hasValue() {
-        return predicate != null;
+        return predicate != null || args != null;
     }
 
     @Override
     public BooleanBuilder not() {
-        if (predicate != null) {
-            predicate = predicate.not();
+        if (hasValue()) {
+            predicate = getValue().not();
+            args = null;
+            operator = null;
         }
         return this;
     }
@@ -158,11 +170,26 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
      * @return the current object
      */
     public BooleanBuilder or(@Nullable Predicate right) {
+        return append(Ops.OR, right);
+    }
+
+    private BooleanBuilder append(Operator op, @Nullable Predicate right) {
         if (right != null) {
-            if (predicate == null) {
+            if (!hasValue()) {
                 predicate = right;
             } else {
-                predicate = ExpressionUtils.or(predicate, right);
+                Expression<?> arg = ExpressionUtils.extract(right);
+                if (arg == null) {
+                    return this;
+                } else if (op == operator) {
+                    args.addAll(ExpressionUtils.flatten(op, ImmutableList.<Expression<?>>of(arg)));
+                } else {
+                    Expression<?> left = ExpressionUtils.extract(getValue());
+                    args = new ArrayList<Expression<?>>(
+                            ExpressionUtils.flatten(op, ImmutableList.<Expression<?>>of(left, arg)));
+                    operator = op;
+                }
+                predicate = null;
             }
         }
         return this;
@@ -199,6 +226,7 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
 
     @Override
     public String toString() {
+        Predicate predicate = getValue();
         return predicate != null ? predicate.toString() : super.toString();
     }
 
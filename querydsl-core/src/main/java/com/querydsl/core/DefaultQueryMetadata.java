@@ -15,6 +15,7 @@ package com.querydsl.core;
 
 import static com.querydsl.core.util.CollectionUtils.*;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,12 +35,20 @@ import com.querydsl.core.types.*;
  * <p>{@code DefaultQueryMetadata} is mutable, but {@link DefaultQueryMetadata#clone()} can be used to
  * created deep copies to refine the state without modifying the initial instance.</p>
  *
+ * <p>Clones share their collections with the original until either of them is modified, so
+ * {@link #clone()} updates the original as well. Instances are not thread safe, neither for
+ * modifications nor for clones, and need to be confined to one thread or synchronized
+ * externally.</p>
+ *
  * @author tiwe
  */
 public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
 
     private static final long serialVersionUID = 317736313966701232L;
 
+    private static final int EXPR_IN_JOINS = 1, GROUP_BY = 2, JOINS = 4, JOIN_FLAGS = 8,
+            ORDER_BY = 16, PARAMS = 32, FLAGS = 64, ALL = 127;
+
     private boolean distinct;
 
     private Set<Expression<?>> exprInJoins = ImmutableSet.of();
@@ -83,12 +92,31 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
 
     private ValidatingVisitor validatingVisitor = ValidatingVisitor.DEFAULT;
 
-    private static Predicate and(Predicate lhs, Predicate rhs) {
-        if (lhs == null) {
-            return rhs;
-        } else {
-            return ExpressionUtils.and(lhs, rhs);
-        }
+    // collections shared with clones, which are copied before the next modification
+    private transient int shared;
+
+    private static <T> List<T> view(List<T> list) {
+        return list instanceof ImmutableList ? list : Collections.unmodifiableList(list);
+    }
+
+    private static <T> Set<T> view(Set<T> set) {
+        return set instanceof ImmutableSet ? set : Collections.unmodifiableSet(set);
+    }
+
+    private static <K, V> Map<K, V> view(Map<K, V> map) {
+        return map instanceof ImmutableMap ? map : Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Clear the shared flag of the given collection
+     *
+     * @param field collection flag
+     * @return true, if the collection was shared
+     */
+    private boolean unshare(int field) {
+        boolean rv = (shared & field) != 0;
+        shared &= ~field;
+        return rv;
     }
 
     /**
@@ -109,11 +137,17 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
 
     @Override
     public void addFlag(QueryFlag flag) {
+        if (unshare(FLAGS)) {
+            flags = copyOfSorted(flags);
+        }
         flags = addSorted(flags, flag);
     }
 
     @Override
     public void addJoinFlag(JoinFlag flag) {
+        if (unshare(JOIN_FLAGS)) {
+            joinFlags = copyOfSorted(joinFlags);
+        }
         joinFlags = addSorted(joinFlags, flag);
     }
 
@@ -121,6 +155,9 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
     public void addGroupBy(Expression<?> o) {
         // group by elements can't be validated, since they can refer to projection elements
         // that are declared later
+        if (unshare(GROUP_BY)) {
+            groupBy = copyOf(groupBy);
+        }
         groupBy = add(groupBy, o);
     }
 
@@ -133,17 +170,21 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
         if (e != null) {
             // having elements can't be validated, since they can refer to projection elements
             // that are declared later
-            having = and(having, e);
+            having = ExpressionUtils.and(having, e);
         }
     }
 
     private void addLastJoin() {
         if (joinTarget != null) {
+            if (unshare(JOINS)) {
+                joins = copyOf(joins);
+            }
             joins = add(joins, new JoinExpression(joinType, joinTarget, joinCondition, joinFlags));
             joinType = null;
             joinTarget = null;
             joinCondition = null;
             joinFlags = ImmutableSet.of();
+            unshare(JOIN_FLAGS);
         }
     }
 
@@ -152,6 +193,9 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
         addLastJoin();
         if (!exprInJoins.contains(expr)) {
             if (expr instanceof Path && ((Path<?>) expr).getMetadata().isRoot()) {
+                if (unshare(EXPR_IN_JOINS)) {
+                    exprInJoins = copyOf(exprInJoins);
+                }
                 exprInJoins = add(exprInJoins, expr);
             } else {
                 validate(expr);
@@ -166,13 +210,16 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
     @Override
     public void addJoinCondition(Predicate o) {
         validate(o);
-        joinCondition = and(joinCondition, o);
+        joinCondition = ExpressionUtils.and(joinCondition, o);
     }
 
     @Override
     public void addOrderBy(OrderSpecifier<?> o) {
         // order specifiers can't be validated, since they can refer to projection elements
         // that are declared later
+        if (unshare(ORDER_BY)) {
+            orderBy = copyOf(orderBy);
+        }
         orderBy = add(orderBy, o);
     }
 
@@ -190,38 +237,28 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
         e = (Predicate) ExpressionUtils.extract(e);
         if (e != null) {
             validate(e);
-            where = and(where, e);
+            where = ExpressionUtils.and(where, e);
         }
     }
 
     @Override
     public void clearOrderBy() {
         orderBy = ImmutableList.of();
+        unshare(ORDER_BY);
     }
 
     @Override
     public void clearWhere() {
-        where = new BooleanBuilder();
+        where = null;
     }
 
     @Override
     public QueryMetadata clone() {
         try {
             DefaultQueryMetadata clone = (DefaultQueryMetadata) super.clone();
-            clone.exprInJoins = copyOf(exprInJoins);
-            clone.groupBy = copyOf(groupBy);
-            clone.having = having;
-            clone.joins = copyOf(joins);
-            clone.joinTarget = joinTarget;
-            clone.joinCondition = joinCondition;
-            clone.joinFlags = copyOf(joinFlags);
-            clone.joinType = joinType;
-            clone.modifiers = modifiers;
-            clone.orderBy = copyOf(orderBy);
-            clone.projection = projection;
-            clone.params = copyOf(params);
-            clone.where = where;
-            clone.flags = copyOfSorted(flags);
+            // collections are copied lazily by the first modification of either instance
+            shared = ALL;
+            clone.shared = ALL;
             return clone;
         } catch (CloneNotSupportedException e) {
             throw new QueryException(e);
@@ -230,7 +267,7 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
 
     @Override
     public List<Expression<?>> getGroupBy() {
-        return groupBy;
+        return view(groupBy);
     }
 
     @Override
@@ -241,7 +278,7 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
     @Override
     public List<JoinExpression> getJoins() {
         if (joinTarget == null) {
-            return joins;
+            return view(joins);
         } else {
             List<JoinExpression> j = Lists.newArrayList(joins);
             j.add(new JoinExpression(joinType, joinTarget, joinCondition, joinFlags));
@@ -256,12 +293,12 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
 
     @Override
     public Map<ParamExpression<?>,Object> getParams() {
-        return params;
+        return view(params);
     }
 
     @Override
     public List<OrderSpecifier<?>> getOrderBy() {
-        return orderBy;
+        return view(orderBy);
     }
 
     @Override
@@ -287,6 +324,7 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
     @Override
     public void reset() {
         params = ImmutableMap.of();
+        unshare(PARAMS);
         modifiers = QueryModifiers.EMPTY;
     }
 
@@ -328,12 +366,15 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
 
     @Override
     public <T> void setParam(ParamExpression<T> param, T value) {
+        if (unshare(PARAMS)) {
+            params = copyOf(params);
+        }
         params = put(params, param, value);
     }
 
     @Override
     public Set<QueryFlag> getFlags() {
-        return flags;
+        return view(flags);
     }
 
     @Override
@@ -343,6 +384,9 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
 
     @Override
     public void removeFlag(QueryFlag flag) {
+        if (unshare(FLAGS)) {
+            flags = copyOfSorted(flags);
+        }
         flags = removeSorted(flags, flag);
     }
 
@@ -351,6 +395,9 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
             expr.accept(ParamsVisitor.DEFAULT, this);
         }
         if (validate) {
+            if (unshare(EXPR_IN_JOINS)) {
+                exprInJoins = copyOf(exprInJoins);
+            }
             exprInJoins = expr.accept(validatingVisitor, exprInJoins);
         }
     }
@@ -370,7 +417,7 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
             QueryMetadata q = (QueryMetadata) o;
             return q.getFlags().equals(flags)
                 && q.getGroupBy().equals(groupBy)
-                && Objects.equal(q.getHaving(), having)
+                && Objects.equal(q.getHaving(), getHaving())
                 && q.isDistinct() == distinct
                 && q.isUnique() == unique
                 && q.getJoins().equals(getJoins())
@@ -378,7 +425,7 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
                 && q.getOrderBy().equals(orderBy)
                 && q.getParams().equals(params)
                 && Objects.equal(q.getProjection(), projection)
-                && Objects.equal(q.getWhere(), where);
+                && Objects.equal(q.getWhere(), getWhere());
 
         } else {
             return false;
@@ -387,8 +434,8 @@ public class DefaultQueryMetadata implements QueryMetadata, Cloneable {
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(flags, groupBy, having, getJoins(), modifiers,
-                orderBy, params, projection, unique, where);
+        return Objects.hashCode(flags, groupBy, getHaving(), getJoins(), modifiers,
+                orderBy, params, projection, unique, getWhere());
     }
 
 
@@ -47,6 +47,11 @@ public @interface Config {
      */
     boolean mapAccessors() default false;
 
+    /**
+     * Create lazily initialized accessors for property paths instead of public final fields
+     */
+    boolean propertyAccessors() default false;
+
     /**
      * Create default variable in query type
      */
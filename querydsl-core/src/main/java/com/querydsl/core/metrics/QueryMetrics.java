@@ -0,0 +1,259 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * {@code QueryMetrics} collects execution statistics per query shape
+ *
+ * <p>The shape of a query is its query string with literals replaced by {@code ?}, lists of
+ * parameters collapsed to a single {@code ?} and whitespace normalized, so that queries which
+ * only differ in their parameters share their statistics. Shapes are cached per query string.
+ * At most {@code maxShapes} shapes are tracked, the executions of further shapes are recorded
+ * under {@link #OTHER}.</p>
+ *
+ * <p>The statistics can be pulled via {@link #getShapes()} and {@link #getSlowestShapes(int)} or
+ * via JMX after {@link #register(String)}.</p>
+ */
+public class QueryMetrics implements QueryMetricsMXBean {
+
+    public static final int DEFAULT_MAX_SHAPES = 1000;
+
+    /**
+     * Shape of the queries exceeding the shape limit
+     */
+    public static final String OTHER = "<other>";
+
+    private static final Comparator<QueryShapeStats> SLOWEST_FIRST = new Comparator<QueryShapeStats>() {
+        @Override
+        public int compare(QueryShapeStats o1, QueryShapeStats o2) {
+            return o1.getP99() < o2.getP99() ? 1 : (o1.getP99() > o2.getP99() ? -1 : 0);
+        }
+    };
+
+    private final int maxShapes;
+
+    private final ConcurrentMap<String, QueryShapeMetrics> shapes = new ConcurrentHashMap<String, QueryShapeMetrics>();
+
+    private final ConcurrentMap<String, QueryShapeMetrics> queries = new ConcurrentHashMap<String, QueryShapeMetrics>();
+
+    @Nullable
+    private volatile ObjectName objectName;
+
+    public QueryMetrics() {
+        this(DEFAULT_MAX_SHAPES);
+    }
+
+    public QueryMetrics(int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    /**
+     * Get the metrics of the shape of the given query string
+     *
+     * @param query query string
+     * @return metrics
+     */
+    public QueryShapeMetrics getShape(String query) {
+        QueryShapeMetrics metrics = queries.get(query);
+        if (metrics == null) {
+            String shape = normalize(query);
+            metrics = shapes.get(shape);
+            if (metrics == null) {
+                if (shapes.size() >= maxShapes) {
+                    shape = OTHER;
+                }
+                QueryShapeMetrics created = new QueryShapeMetrics(shape);
+                metrics = shapes.putIfAbsent(shape, created);
+                if (metrics == null) {
+                    metrics = created;
+                }
+            }
+            if (queries.size() < maxShapes * 10) {
+                queries.put(query, metrics);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Get the metrics of all tracked shapes
+     *
+     * @return metrics
+     */
+    public Collection<QueryShapeMetrics> getShapeMetrics() {
+        return Collections.unmodifiableCollection(shapes.values());
+    }
+
+    @Override
+    public long getQueryCount() {
+        long count = 0;
+        for (QueryShapeMetrics metrics : shapes.values()) {
+            count += metrics.getTotal().getCount();
+        }
+        return count;
+    }
+
+    @Override
+    public List<QueryShapeStats> getShapes() {
+        List<QueryShapeStats> stats = new ArrayList<QueryShapeStats>(shapes.size());
+        for (QueryShapeMetrics metrics : shapes.values()) {
+            stats.add(metrics.getStats());
+        }
+        return stats;
+    }
+
+    @Override
+    public List<QueryShapeStats> getSlowestShapes(int n) {
+        List<QueryShapeStats> stats = getShapes();
+        Collections.sort(stats, SLOWEST_FIRST);
+        return stats.size() > n ? new ArrayList<QueryShapeStats>(stats.subList(0, n)) : stats;
+    }
+
+    @Override
+    public void reset() {
+        for (QueryShapeMetrics metrics : shapes.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Register this instance in the platform MBean server
+     *
+     * @param name value of the name key of the object name
+     * @return object name
+     */
+    public ObjectName register(String name) {
+        try {
+            ObjectName on = new ObjectName("com.querydsl:type=QueryMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+            objectName = on;
+            return on;
+        } catch (JMException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Unregister this instance from the platform MBean server
+     */
+    public void unregister() {
+        ObjectName on = objectName;
+        if (on != null) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (server.isRegistered(on)) {
+                    server.unregisterMBean(on);
+                }
+            } catch (JMException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            } finally {
+                objectName = null;
+            }
+        }
+    }
+
+    /**
+     * Normalize the given query string to its shape
+     *
+     * @param query query string
+     * @return shape
+     */
+    public static String normalize(String query) {
+        StringBuilder builder = new StringBuilder(query.length());
+        int length = query.length();
+        for (int i = 0; i < length; i++) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (builder.length() > 0 && builder.charAt(builder.length() - 1) != ' ') {
+                    builder.append(' ');
+                }
+            } else if (c == '\'') {
+                i++;
+                while (i < length) {
+                    if (query.charAt(i) == '\'') {
+                        if (i + 1 < length && query.charAt(i + 1) == '\'') {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    i++;
+                }
+                appendParameter(builder);
+            } else if (c == '"' || c == '`' || c == '[') {
+                char end = c == '[' ? ']' : c;
+                int close = query.indexOf(end, i + 1);
+                close = close < 0 ? length - 1 : close;
+                builder.append(query, i, close + 1);
+                i = close;
+            } else if (c == '?') {
+                while (i + 1 < length && Character.isDigit(query.charAt(i + 1))) {
+                    i++;
+                }
+                appendParameter(builder);
+            } else if (Character.isDigit(c) && !isIdentifierPart(builder)) {
+                while (i + 1 < length && (Character.isLetterOrDigit(query.charAt(i + 1))
+                        || query.charAt(i + 1) == '.')) {
+                    i++;
+                }
+                appendParameter(builder);
+            } else {
+                builder.append(c);
+            }
+        }
+        int end = builder.length();
+        while (end > 0 && builder.charAt(end - 1) == ' ') {
+            end--;
+        }
+        builder.setLength(end);
+        return builder.toString();
+    }
+
+    private static boolean isIdentifierPart(StringBuilder builder) {
+        if (builder.length() == 0) {
+            return false;
+        }
+        char last = builder.charAt(builder.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$' || last == ':';
+    }
+
+    private static void appendParameter(StringBuilder builder) {
+        int end = builder.length();
+        while (end > 0 && builder.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end > 0 && builder.charAt(end - 1) == ',') {
+            int previous = end - 1;
+            while (previous > 0 && builder.charAt(previous - 1) == ' ') {
+                previous--;
+            }
+            if (previous > 0 && builder.charAt(previous - 1) == '?') {
+                builder.setLength(previous);
+                return;
+            }
+        }
+        builder.append('?');
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.metrics;
+
+import java.util.List;
+
+/**
+ * {@code QueryMetricsMXBean} is the management interface of {@link QueryMetrics}
+ */
+public interface QueryMetricsMXBean {
+
+    /**
+     * Get the number of recorded query executions
+     *
+     * @return query count
+     */
+    long getQueryCount();
+
+    /**
+     * Get the statistics of all query shapes
+     *
+     * @return statistics
+     */
+    List<QueryShapeStats> getShapes();
+
+    /**
+     * Get the statistics of the query shapes with the highest 99th percentile latency
+     *
+     * @param n number of shapes
+     * @return statistics ordered by descending 99th percentile latency
+     */
+    List<QueryShapeStats> getSlowestShapes(int n);
+
+    /**
+     * Clear the recorded statistics
+     */
+    void reset();
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code QueryShapeMetrics} holds the latency histograms and row count of a query shape
+ *
+ * <p>All latencies are in nanoseconds. Phases which don't apply to a query, such as prepare for
+ * JPA queries, are recorded as zero.</p>
+ */
+public final class QueryShapeMetrics {
+
+    private final String shape;
+
+    private final LatencyHistogram render = new LatencyHistogram();
+
+    private final LatencyHistogram prepare = new LatencyHistogram();
+
+    private final LatencyHistogram execute = new LatencyHistogram();
+
+    private final LatencyHistogram mapping = new LatencyHistogram();
+
+    private final LatencyHistogram total = new LatencyHistogram();
+
+    private final AtomicLong rows = new AtomicLong();
+
+    QueryShapeMetrics(String shape) {
+        this.shape = shape;
+    }
+
+    /**
+     * Record an execution of the query shape
+     *
+     * @param render render time
+     * @param prepare statement preparation time
+     * @param execute execution time
+     * @param mapping row mapping time
+     * @param total total time
+     * @param rows number of rows returned
+     */
+    public void record(long render, long prepare, long execute, long mapping, long total, long rows) {
+        this.render.record(render);
+        this.prepare.record(prepare);
+        this.execute.record(execute);
+        this.mapping.record(mapping);
+        this.total.record(total);
+        this.rows.addAndGet(rows);
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public LatencyHistogram getRender() {
+        return render;
+    }
+
+    public LatencyHistogram getPrepare() {
+        return prepare;
+    }
+
+    public LatencyHistogram getExecute() {
+        return execute;
+    }
+
+    public LatencyHistogram getMapping() {
+        return mapping;
+    }
+
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    /**
+     * Get an immutable snapshot of the statistics
+     *
+     * @return statistics
+     */
+    public QueryShapeStats getStats() {
+        return new QueryShapeStats(shape, total.getCount(), rows.get(),
+                (long) total.getMean(), total.getValueAtPercentile(50), total.getValueAtPercentile(99),
+                total.getMax(), (long) render.getMean(), (long) prepare.getMean(),
+                (long) execute.getMean(), (long) mapping.getMean());
+    }
+
+    void reset() {
+        render.reset();
+        prepare.reset();
+        execute.reset();
+        mapping.reset();
+        total.reset();
+        rows.set(0);
+    }
+
+}
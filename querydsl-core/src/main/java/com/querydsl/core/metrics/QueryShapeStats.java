@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * {@code QueryShapeStats} is an immutable snapshot of the statistics of a query shape
+ *
+ * <p>Latencies are in nanoseconds.</p>
+ */
+public final class QueryShapeStats {
+
+    private final String shape;
+
+    private final long count, rows, mean, p50, p99, max;
+
+    private final long meanRender, meanPrepare, meanExecute, meanMapping;
+
+    @ConstructorProperties({"shape", "count", "rows", "mean", "p50", "p99", "max",
+        "meanRender", "meanPrepare", "meanExecute", "meanMapping"})
+    public QueryShapeStats(String shape, long count, long rows, long mean, long p50, long p99, long max,
+            long meanRender, long meanPrepare, long meanExecute, long meanMapping) {
+        this.shape = shape;
+        this.count = count;
+        this.rows = rows;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.max = max;
+        this.meanRender = meanRender;
+        this.meanPrepare = meanPrepare;
+        this.meanExecute = meanExecute;
+        this.meanMapping = meanMapping;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getMeanRender() {
+        return meanRender;
+    }
+
+    public long getMeanPrepare() {
+        return meanPrepare;
+    }
+
+    public long getMeanExecute() {
+        return meanExecute;
+    }
+
+    public long getMeanMapping() {
+        return meanMapping;
+    }
+
+    @Override
+    public String toString() {
+        return shape + " count=" + count + " rows=" + rows + " mean=" + mean + "ns p50=" + p50
+                + "ns p99=" + p99 + "ns max=" + max + "ns";
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.support;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.Tuple;
+
+/**
+ * {@code BatchLoaderBase} coalesces by-key lookups into batched {@code IN} queries
+ *
+ * <p>{@link #load(Object)} registers a key and returns a future for the row with that key.
+ * Pending keys are fetched together, in chunks of at most {@code batchSize} keys, when
+ * {@link #dispatch()} is called, when the amount of pending keys reaches the batch size or
+ * when the result of a pending future is requested. Futures are cached per key, so repeated
+ * loads of the same key don't cause further queries, use {@link #clear()} to reset the cache.</p>
+ *
+ * <p>The futures resolve to {@code null} for keys without a row and fail with a
+ * {@link NonUniqueResultException} for keys matching several rows.</p>
+ *
+ * @param <K> key type
+ * @param <T> result type
+ */
+public abstract class BatchLoaderBase<K, T> {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final class Result extends AbstractFuture<T> {
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            if (!isDone()) {
+                dispatch();
+            }
+            return super.get();
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException,
+                ExecutionException {
+            if (!isDone()) {
+                dispatch();
+            }
+            return super.get(timeout, unit);
+        }
+
+        void resolve(T value) {
+            set(value);
+        }
+
+        void fail(Throwable t) {
+            setException(t);
+        }
+
+    }
+
+    private final int batchSize;
+
+    private final Map<K, Result> results = new HashMap<K, Result>();
+
+    private final Map<K, Result> pending = new LinkedHashMap<K, Result>();
+
+    public BatchLoaderBase(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize needs to be positive, was " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Get the row with the given key
+     *
+     * @param key key
+     * @return future of the row or null, if no row has the given key
+     */
+    public ListenableFuture<T> load(K key) {
+        Result result;
+        boolean full;
+        synchronized (this) {
+            result = results.get(key);
+            if (result != null) {
+                return result;
+            }
+            result = new Result();
+            results.put(key, result);
+            pending.put(key, result);
+            full = pending.size() >= batchSize;
+        }
+        if (full) {
+            dispatch();
+        }
+        return result;
+    }
+
+    /**
+     * Get the rows with the given keys
+     *
+     * @param keys keys
+     * @return futures of the rows in the order of the keys
+     */
+    public List<ListenableFuture<T>> loadAll(Collection<? extends K> keys) {
+        List<ListenableFuture<T>> rv = new ArrayList<ListenableFuture<T>>(keys.size());
+        for (K key : keys) {
+            rv.add(load(key));
+        }
+        return rv;
+    }
+
+    /**
+     * Fetch the rows of all pending keys
+     *
+     * <p>The pending keys are taken under the lock of this loader, but the rows are fetched
+     * outside of it. Keys of failed fetches are evicted from the cache so that they can be
+     * loaded again.</p>
+     */
+    public void dispatch() {
+        Map<K, Result> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashMap<K, Result>(pending);
+            pending.clear();
+        }
+        for (List<K> chunk : Lists.partition(new ArrayList<K>(batch.keySet()), batchSize)) {
+            try {
+                Map<K, T> rows = new HashMap<K, T>();
+                Set<K> duplicates = new HashSet<K>();
+                for (Tuple row : fetch(chunk)) {
+                    @SuppressWarnings("unchecked")
+                    K key = (K) row.get(0, Object.class);
+                    @SuppressWarnings("unchecked")
+                    T value = (T) row.get(1, Object.class);
+                    if (rows.containsKey(key)) {
+                        duplicates.add(key);
+                    }
+                    rows.put(key, value);
+                }
+                for (K key : chunk) {
+                    Result result = batch.get(key);
+                    if (duplicates.contains(key)) {
+                        result.fail(new NonUniqueResultException("Several rows for key " + key));
+                    } else {
+                        result.resolve(rows.get(key));
+                    }
+                }
+            } catch (Throwable t) {
+                synchronized (this) {
+                    for (K key : chunk) {
+                        Result result = batch.get(key);
+                        if (results.get(key) == result) {
+                            results.remove(key);
+                        }
+                    }
+                }
+                for (K key : chunk) {
+                    batch.get(key).fail(t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Clear the cached results, pending keys are dispatched first
+     */
+    public void clear() {
+        dispatch();
+        synchronized (this) {
+            results.clear();
+        }
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Fetch the rows with the given keys
+     *
+     * @param keys keys, at most batch size
+     * @return tuples of key and row
+     */
+    protected abstract List<Tuple> fetch(List<K> keys);
+
+}
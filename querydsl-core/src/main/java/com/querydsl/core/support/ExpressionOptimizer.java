@@ -0,0 +1,267 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.support;
+
+import java.util.*;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+import com.querydsl.core.*;
+import com.querydsl.core.types.*;
+import com.querydsl.core.types.dsl.Expressions;
+
+/**
+ * {@code ExpressionOptimizer} rewrites the predicates of queries into simpler equivalent forms
+ * before serialization
+ *
+ * <p>The following rewrites are applied:</p>
+ * <ul>
+ *   <li>comparisons of boolean literals are folded</li>
+ *   <li>boolean literals in AND and OR operations are removed or short circuit the operation</li>
+ *   <li>duplicate operands of AND and OR operations are removed</li>
+ *   <li>{@code eq} and {@code in} operands of OR operations on the same path are merged into a single {@code in}</li>
+ *   <li>double negations are removed</li>
+ * </ul>
+ *
+ * <p>The rewrites are valid in three valued logic. Folding never introduces new literals, an operation
+ * which is always true or false is replaced by one of its operands instead. Where conditions which
+ * are always true are removed.</p>
+ *
+ * <p>Predicates with more than {@code maxNodes} nodes are left as is. Subclasses can add rewrites
+ * by overriding the {@code visit} methods.</p>
+ */
+public class ExpressionOptimizer extends ReplaceVisitor<Void> {
+
+    public static final ExpressionOptimizer DEFAULT = new ExpressionOptimizer();
+
+    private final int maxNodes;
+
+    public ExpressionOptimizer() {
+        this(10000);
+    }
+
+    /**
+     * Create a new ExpressionOptimizer instance
+     *
+     * @param maxNodes maximum amount of nodes of predicates to be optimized
+     */
+    public ExpressionOptimizer(int maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Optimize the where condition of the given metadata
+     *
+     * @param md query metadata
+     * @return optimized copy of the metadata or the metadata itself, if nothing was rewritten
+     */
+    public QueryMetadata optimize(QueryMetadata md) {
+        Predicate where = optimize(md.getWhere());
+        if (where == md.getWhere()) {
+            return md;
+        }
+        QueryMetadata rv = md.clone();
+        rv.clearWhere();
+        if (where != null && truth(where) != Boolean.TRUE) {
+            rv.addWhere(where);
+        }
+        return rv;
+    }
+
+    /**
+     * Optimize the given predicate
+     *
+     * @param predicate predicate
+     * @return optimized predicate
+     */
+    @Nullable
+    public Predicate optimize(@Nullable Predicate predicate) {
+        Predicate extracted = (Predicate) ExpressionUtils.extract(predicate);
+        if (extracted == null) {
+            return predicate;
+        }
+        Predicate rv = extracted;
+        if (countNodes(extracted) <= maxNodes) {
+            rv = (Predicate) extracted.accept(this, null);
+        }
+        return rv == extracted ? predicate : rv;
+    }
+
+    @Override
+    public Expression<?> visit(Operation<?> expr, Void context) {
+        Expression<?> rv = super.visit(expr, context);
+        if (rv instanceof Operation && rv instanceof Predicate) {
+            Operation<?> operation = (Operation<?>) rv;
+            Operator operator = operation.getOperator();
+            if (operator == Ops.NOT && operation.getArg(0) instanceof Operation
+                    && ((Operation<?>) operation.getArg(0)).getOperator() == Ops.NOT) {
+                return ((Operation<?>) operation.getArg(0)).getArg(0);
+            } else if (operator == Ops.AND || operator == Ops.OR) {
+                return optimize(operation, operator == Ops.AND);
+            }
+        }
+        return rv;
+    }
+
+    private Expression<?> optimize(Operation<?> operation, boolean and) {
+        Operator operator = operation.getOperator();
+        Set<Expression<?>> args = new LinkedHashSet<Expression<?>>();
+        Expression<?> identity = null;
+        for (Expression<?> arg : ExpressionUtils.flatten(operator, operation.getArgs())) {
+            Boolean truth = arg instanceof Predicate ? truth(arg) : null;
+            if (truth == null) {
+                args.add(arg);
+            } else if (truth == and) {
+                // true in conjunctions and false in disjunctions has no effect
+                identity = identity != null ? identity : arg;
+            } else {
+                return arg;
+            }
+        }
+        if (!and) {
+            args = mergeIn(args);
+        }
+        if (args.isEmpty()) {
+            return identity;
+        } else if (args.size() == 1) {
+            return args.iterator().next();
+        } else if (args.size() == operation.getArgs().size() && identity == null
+                && ImmutableList.copyOf(args).equals(operation.getArgs())) {
+            return operation;
+        } else {
+            return ExpressionUtils.predicate(operator, ImmutableList.copyOf(args));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Expression<?>> mergeIn(Set<Expression<?>> args) {
+        Map<Path<?>, Set<Object>> values = new LinkedHashMap<Path<?>, Set<Object>>();
+        Map<Path<?>, Integer> counts = new HashMap<Path<?>, Integer>();
+        for (Expression<?> arg : args) {
+            Path<?> path = getInPath(arg);
+            if (path != null) {
+                Integer count = counts.get(path);
+                counts.put(path, count != null ? count + 1 : 1);
+            }
+        }
+        Set<Expression<?>> rv = new LinkedHashSet<Expression<?>>();
+        for (Expression<?> arg : args) {
+            Path<?> path = getInPath(arg);
+            if (path == null || counts.get(path) == 1) {
+                rv.add(arg);
+            } else {
+                Set<Object> pathValues = values.get(path);
+                if (pathValues == null) {
+                    pathValues = new LinkedHashSet<Object>();
+                    values.put(path, pathValues);
+                    // placeholder for the merged operation
+                    rv.add(path);
+                }
+                Object constant = ((Constant<?>) ((Operation<?>) arg).getArg(1)).getConstant();
+                if (((Operation<?>) arg).getOperator() == Ops.IN) {
+                    pathValues.addAll((Collection<?>) constant);
+                } else {
+                    pathValues.add(constant);
+                }
+            }
+        }
+        if (values.isEmpty()) {
+            return rv;
+        }
+        Set<Expression<?>> merged = new LinkedHashSet<Expression<?>>();
+        for (Expression<?> arg : rv) {
+            if (arg instanceof Path && values.containsKey(arg)) {
+                merged.add(ExpressionUtils.in((Path<Object>) arg, values.get(arg)));
+            } else {
+                merged.add(arg);
+            }
+        }
+        return merged;
+    }
+
+    @Nullable
+    private static Path<?> getInPath(Expression<?> arg) {
+        if (arg instanceof Operation) {
+            Operation<?> operation = (Operation<?>) arg;
+            if ((operation.getOperator() == Ops.EQ || operation.getOperator() == Ops.IN)
+                    && operation.getArg(0) instanceof Path
+                    && operation.getArg(1) instanceof Constant) {
+                Object constant = ((Constant<?>) operation.getArg(1)).getConstant();
+                if (operation.getOperator() == Ops.EQ || constant instanceof Collection) {
+                    return (Path<?>) operation.getArg(0);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the truth value of the given predicate, if it is known without evaluation
+     *
+     * @param expr predicate
+     * @return truth value or null, if unknown
+     */
+    @Nullable
+    protected static Boolean truth(Expression<?> expr) {
+        Boolean value = getBooleanValue(expr);
+        if (value != null) {
+            return value;
+        } else if (expr instanceof Operation) {
+            Operation<?> operation = (Operation<?>) expr;
+            if (operation.getOperator() == Ops.NOT) {
+                Boolean truth = truth(operation.getArg(0));
+                return truth != null ? !truth : null;
+            } else if (operation.getOperator() == Ops.EQ || operation.getOperator() == Ops.NE) {
+                Boolean lhs = getBooleanValue(operation.getArg(0));
+                Boolean rhs = getBooleanValue(operation.getArg(1));
+                if (lhs != null && rhs != null) {
+                    return lhs.equals(rhs) == (operation.getOperator() == Ops.EQ);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Boolean getBooleanValue(Expression<?> expr) {
+        if (expr instanceof Constant && ((Constant<?>) expr).getConstant() instanceof Boolean) {
+            return (Boolean) ((Constant<?>) expr).getConstant();
+        } else if (expr instanceof TemplateExpression) {
+            if (expr.equals(Expressions.TRUE)) {
+                return Boolean.TRUE;
+            } else if (expr.equals(Expressions.FALSE)) {
+                return Boolean.FALSE;
+            }
+        }
+        return null;
+    }
+
+    private static int countNodes(Expression<?> expr) {
+        int count = 0;
+        Deque<Expression<?>> stack = new ArrayDeque<Expression<?>>();
+        stack.push(expr);
+        while (!stack.isEmpty()) {
+            Expression<?> next = stack.pop();
+            count++;
+            if (next instanceof Operation) {
+                for (Expression<?> arg : ((Operation<?>) next).getArgs()) {
+                    stack.push(arg);
+                }
+            }
+        }
+        return count;
+    }
+
+}
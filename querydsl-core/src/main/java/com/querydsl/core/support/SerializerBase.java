@@ -122,8 +122,21 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
     }
 
     protected void handleTemplate(final Template template, final List<?> args) {
-        for (final Template.Element element : template.getElements()) {
-            final Object rv = element.convert(args);
+        final List<Template.Element> elements = template.getElements();
+        builder.ensureCapacity(builder.length() + template.getStaticTextLength());
+        for (int i = 0; i < elements.size(); i++) {
+            final Template.Element element = elements.get(i);
+            final Object rv;
+            // static text and plain arguments are handled without conversion
+            if (element instanceof Template.StaticText) {
+                builder.append(((Template.StaticText) element).getText());
+                continue;
+            } else if (element instanceof Template.ByIndex) {
+                Object arg = args.get(((Template.ByIndex) element).getIndex());
+                rv = arg instanceof Expression ? ExpressionUtils.extract((Expression<?>) arg) : arg;
+            } else {
+                rv = element.convert(args);
+            }
             if (rv instanceof Expression) {
                 ((Expression<?>) rv).accept(this, null);
             } else if (element.isString()) {
@@ -251,30 +264,14 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
         final Template template = templates.getTemplate(operator);
         if (template != null) {
             final int precedence = templates.getPrecedence(operator);
-            boolean first = true;
-            for (final Template.Element element : template.getElements()) {
-                final Object rv = element.convert(args);
-                if (rv instanceof Expression) {
-                    final Expression<?> expr = (Expression<?>) rv;
-                    if (precedence > -1 && expr instanceof Operation) {
-                        Operator op = ((Operation<?>) expr).getOperator();
-                        int opPrecedence = templates.getPrecedence(op);
-                        if (precedence < opPrecedence) {
-                            append("(").handle(expr).append(")");
-                        } else if (!first && precedence == opPrecedence && !SAME_PRECEDENCE.contains(op)) {
-                            append("(").handle(expr).append(")");
-                        } else {
-                            handle(expr);
-                        }
-                    } else {
-                        handle(expr);
-                    }
-                    first = false;
-                } else if (element.isString()) {
-                    append(rv.toString());
-                } else {
-                    visitConstant(rv);
+            if (args.size() > 2 && (operator == Ops.AND || operator == Ops.OR)) {
+                // n-ary operations are serialized like left-deep binary operations
+                visitTemplate(template, precedence, args.subList(0, 2), false);
+                for (int i = 2; i < args.size(); i++) {
+                    visitTemplate(template, precedence, args.subList(i - 1, i + 1), true);
                 }
+            } else {
+                visitTemplate(template, precedence, args, false);
             }
         } else if (strict) {
             throw new IllegalArgumentException("No pattern found for " + operator);
@@ -286,4 +283,41 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
         }
     }
 
+    private void visitTemplate(Template template, int precedence, List<? extends Expression<?>> args,
+            boolean skipFirst) {
+        boolean first = true;
+        for (final Template.Element element : template.getElements()) {
+            final Object rv = element.convert(args);
+            if (skipFirst) {
+                // the elements up to the first argument have already been serialized
+                if (rv instanceof Expression) {
+                    skipFirst = false;
+                    first = false;
+                }
+                continue;
+            }
+            if (rv instanceof Expression) {
+                final Expression<?> expr = (Expression<?>) rv;
+                if (precedence > -1 && expr instanceof Operation) {
+                    Operator op = ((Operation<?>) expr).getOperator();
+                    int opPrecedence = templates.getPrecedence(op);
+                    if (precedence < opPrecedence) {
+                        append("(").handle(expr).append(")");
+                    } else if (!first && precedence == opPrecedence && !SAME_PRECEDENCE.contains(op)) {
+                        append("(").handle(expr).append(")");
+                    } else {
+                        handle(expr);
+                    }
+                } else {
+                    handle(expr);
+                }
+                first = false;
+            } else if (element.isString()) {
+                append(rv.toString());
+            } else {
+                visitConstant(rv);
+            }
+        }
+    }
+
 }
@@ -31,8 +31,7 @@ public abstract class ExpressionBase<T> implements Expression<T> {
     @Nullable
     private transient volatile String toString;
 
-    @Nullable
-    private transient volatile Integer hashCode;
+    private transient volatile int hashCode;
 
     public ExpressionBase(Class<? extends T> type) {
         this.type = type;
@@ -45,10 +44,30 @@ public abstract class ExpressionBase<T> implements Expression<T> {
 
     @Override
     public final int hashCode() {
-        if (hashCode == null) {
-            hashCode = accept(HashCodeVisitor.DEFAULT, null);
+        int rv = hashCode;
+        if (rv == 0) {
+            rv = accept(HashCodeVisitor.DEFAULT, null);
+            hashCode = rv;
         }
-        return hashCode;
+        return rv;
+    }
+
+    /**
+     * Get whether the hash code of this expression has already been computed
+     *
+     * @return true, if the hash code is cached
+     */
+    final boolean isHashCodeCached() {
+        return hashCode != 0;
+    }
+
+    /**
+     * Set the hash code of this expression, if it can be derived from another expression
+     *
+     * @param hashCode hash code
+     */
+    final void setHashCode(int hashCode) {
+        this.hashCode = hashCode;
     }
 
     @Override
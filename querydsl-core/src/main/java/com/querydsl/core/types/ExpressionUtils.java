@@ -42,6 +42,11 @@ public final class ExpressionUtils {
 
     private static final Templates TEMPLATES = new UnderscoreTemplates();
 
+    /**
+     * Maximum number of arguments chained {@code and} and {@code or} calls append to
+     */
+    private static final int MAX_FLATTENED_ARGS = 32;
+
     /**
      * Create a new Operation expression
      *
@@ -344,13 +349,7 @@ public final class ExpressionUtils {
      */
     @Nullable
     public static Predicate allOf(Collection<Predicate> exprs) {
-        Predicate rv = null;
-        for (Predicate b : exprs) {
-            if (b != null) {
-                rv = rv == null ? b : ExpressionUtils.and(rv,b);
-            }
-        }
-        return rv;
+        return combine(Ops.AND, exprs);
     }
 
     /**
@@ -361,13 +360,7 @@ public final class ExpressionUtils {
      */
     @Nullable
     public static Predicate allOf(Predicate... exprs) {
-        Predicate rv = null;
-        for (Predicate b : exprs) {
-            if (b != null) {
-                rv = rv == null ? b : ExpressionUtils.and(rv,b);
-            }
-        }
-        return rv;
+        return combine(Ops.AND, Arrays.asList(exprs));
     }
 
     /**
@@ -385,7 +378,7 @@ public final class ExpressionUtils {
         } else if (right == null) {
             return left;
         } else {
-            return predicate(Ops.AND, left, right);
+            return flattenedPredicate(Ops.AND, left, right);
         }
     }
 
@@ -398,13 +391,7 @@ public final class ExpressionUtils {
      */
     @Nullable
     public static Predicate anyOf(Collection<Predicate> exprs) {
-        Predicate rv = null;
-        for (Predicate b : exprs) {
-            if (b != null) {
-                rv = rv == null ? b : ExpressionUtils.or(rv,b);
-            }
-        }
-        return rv;
+        return combine(Ops.OR, exprs);
     }
 
     /**
@@ -415,13 +402,27 @@ public final class ExpressionUtils {
      */
     @Nullable
     public static Predicate anyOf(Predicate... exprs) {
-        Predicate rv = null;
+        return combine(Ops.OR, Arrays.asList(exprs));
+    }
+
+    @Nullable
+    private static Predicate combine(Operator operator, Collection<Predicate> exprs) {
+        Predicate first = null;
+        List<Expression<?>> args = new ArrayList<Expression<?>>(exprs.size());
         for (Predicate b : exprs) {
             if (b != null) {
-                rv = rv == null ? b : ExpressionUtils.or(rv,b);
+                first = first == null ? b : first;
+                Expression<?> arg = extract(b);
+                if (arg != null) {
+                    args.add(arg);
+                }
             }
         }
-        return rv;
+        if (args.size() < 2) {
+            return args.isEmpty() ? first : (Predicate) args.get(0);
+        } else {
+            return predicate(operator, flatten(operator, args));
+        }
     }
 
     /**
@@ -791,10 +792,76 @@ public final class ExpressionUtils {
         } else if (right == null) {
             return left;
         } else {
-            return predicate(Ops.OR, left, right);
+            return flattenedPredicate(Ops.OR, left, right);
+        }
+    }
+
+    /**
+     * Flatten the arguments of nested operations with the given operator
+     *
+     * <p>This is used to represent associative operations such as {@link Ops#AND} and {@link Ops#OR}
+     * as n-ary operations instead of deep binary trees.</p>
+     *
+     * @param operator operator
+     * @param args operation arguments
+     * @return flattened arguments
+     */
+    public static ImmutableList<Expression<?>> flatten(Operator operator, List<? extends Expression<?>> args) {
+        final ImmutableList.Builder<Expression<?>> builder = ImmutableList.builder();
+        final Deque<Expression<?>> stack = new ArrayDeque<Expression<?>>();
+        for (int i = args.size() - 1; i >= 0; i--) {
+            stack.push(args.get(i));
+        }
+        while (!stack.isEmpty()) {
+            Expression<?> arg = stack.pop();
+            if (arg instanceof Operation && ((Operation<?>) arg).getOperator() == operator) {
+                List<Expression<?>> nested = ((Operation<?>) arg).getArgs();
+                for (int i = nested.size() - 1; i >= 0; i--) {
+                    stack.push(nested.get(i));
+                }
+            } else {
+                builder.add(arg);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create a flattened operation of the given operands
+     *
+     * <p>If the left operand is an operation with the given operator, its arguments are copied and
+     * its hash code is reused, so chained {@code and} and {@code or} calls don't rehash all
+     * arguments. Once the left operand has {@value #MAX_FLATTENED_ARGS} arguments, it becomes the
+     * first argument of a new operation instead, so each call copies a bounded number of arguments.
+     * Use {@link #allOf(Predicate...)} and {@link #anyOf(Predicate...)} for fully flattened
+     * operations.</p>
+     *
+     * @param operator associative operator, e.g. {@link Ops#AND} or {@link Ops#OR}
+     * @param left lhs of expression
+     * @param right rhs of expression
+     * @return flattened operation
+     */
+    public static PredicateOperation flattenedPredicate(Operator operator, Expression<?> left, Expression<?> right) {
+        if (left instanceof OperationImpl && isOperation(left, operator) && !isOperation(right, operator)) {
+            List<Expression<?>> leftArgs = ((Operation<?>) left).getArgs();
+            if (leftArgs.size() >= MAX_FLATTENED_ARGS) {
+                return predicate(operator, left, right);
+            }
+            PredicateOperation rv = predicate(operator, ImmutableList.<Expression<?>>builder()
+                    .addAll(leftArgs).add(right).build());
+            // the hash code is 31 * name + args hash and the args hash is extended by the appended argument
+            int nameHashCode = 31 * operator.name().hashCode();
+            rv.setHashCode(nameHashCode + 31 * (left.hashCode() - nameHashCode) + right.hashCode());
+            return rv;
+        } else {
+            return predicate(operator, flatten(operator, ImmutableList.of(left, right)));
         }
     }
 
+    private static boolean isOperation(Expression<?> expr, Operator operator) {
+        return expr instanceof Operation && ((Operation<?>) expr).getOperator() == operator;
+    }
+
     /**
      * Create a distinct list of the given args
      *
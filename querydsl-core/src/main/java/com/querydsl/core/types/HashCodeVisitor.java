@@ -13,6 +13,10 @@
  */
 package com.querydsl.core.types;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 /**
  * {@code HashCodeVisitor} is used for hashCode generation in {@link Expression} implementations.
@@ -38,8 +42,43 @@ public final class HashCodeVisitor implements Visitor<Integer,Void> {
 
     @Override
     public Integer visit(Operation<?> expr, Void context) {
+        // nested operations are hashed iteratively to support deep expression trees
+        final Map<Operation<?>, Integer> hashCodes = new IdentityHashMap<Operation<?>, Integer>();
+        final Deque<Operation<?>> stack = new ArrayDeque<Operation<?>>();
+        stack.push(expr);
+        while (!stack.isEmpty()) {
+            final Operation<?> operation = stack.peek();
+            boolean resolved = true;
+            for (Expression<?> arg : operation.getArgs()) {
+                if (isPending(arg) && !hashCodes.containsKey(arg)) {
+                    stack.push((Operation<?>) arg);
+                    resolved = false;
+                }
+            }
+            if (resolved) {
+                stack.pop();
+                hashCodes.put(operation, hashCode(operation, hashCodes));
+            }
+        }
+        return hashCodes.get(expr);
+    }
+
+    private static boolean isPending(Expression<?> arg) {
+        // DSL expressions compute their hash code on creation, so only operations without a cached
+        // hash code need to be traversed
+        return arg instanceof Operation && arg instanceof ExpressionBase
+                && !((ExpressionBase<?>) arg).isHashCodeCached();
+    }
+
+    private static int hashCode(Operation<?> expr, Map<Operation<?>, Integer> hashCodes) {
+        // same as expr.getArgs().hashCode(), but with the precomputed hash codes of the operations
+        int argsHashCode = 1;
+        for (Expression<?> arg : expr.getArgs()) {
+            Integer hashCode = isPending(arg) ? hashCodes.get(arg) : null;
+            argsHashCode = 31 * argsHashCode + (hashCode != null ? hashCode : arg.hashCode());
+        }
         int result = expr.getOperator().name().hashCode();
-        return 31 * result + expr.getArgs().hashCode();
+        return 31 * result + argsHashCode;
     }
 
     @Override
@@ -32,7 +32,8 @@ public final class PathMetadata implements Serializable {
 
     private final Object element;
 
-    private final int hashCode;
+    // computed lazily, since the hash codes of the elements may differ between JVMs
+    private transient int hashCode;
 
     @Nullable
     private final Path<?> parent, rootPath;
@@ -44,7 +45,6 @@ public final class PathMetadata implements Serializable {
         this.element = element;
         this.pathType = type;
         this.rootPath = parent != null ? parent.getRoot() : null;
-        this.hashCode = 31 * element.hashCode() + pathType.name().hashCode();
     }
 
     @Override
@@ -53,7 +53,8 @@ public final class PathMetadata implements Serializable {
             return true;
         } else if (obj instanceof PathMetadata) {
             PathMetadata p = (PathMetadata) obj;
-            return element.equals(p.element) &&
+            return hashCode() == p.hashCode() &&
+                    element.equals(p.element) &&
                     pathType == p.pathType &&
                     Objects.equal(parent, p.parent);
         } else {
@@ -91,7 +92,16 @@ public final class PathMetadata implements Serializable {
 
     @Override
     public int hashCode() {
-        return hashCode;
+        int rv = hashCode;
+        if (rv == 0) {
+            rv = 31 * element.hashCode() + pathType.name().hashCode();
+            if (parent != null) {
+                // paths with the same element under different parents are spread over different buckets
+                rv = 31 * rv + parent.getMetadata().hashCode();
+            }
+            hashCode = rv;
+        }
+        return rv;
     }
 
     public boolean isRoot() {
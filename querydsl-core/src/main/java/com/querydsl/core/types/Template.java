@@ -349,15 +349,33 @@ public final class Template implements Serializable {
 
     private final String template;
 
+    private final int staticTextLength;
+
     Template(String template, ImmutableList<Element> elements) {
         this.template = template;
         this.elements = elements;
+        int length = 0;
+        for (Element element : elements) {
+            if (element instanceof StaticText) {
+                length += ((StaticText) element).getText().length();
+            }
+        }
+        this.staticTextLength = length;
     }
 
     public List<Element> getElements() {
         return elements;
     }
 
+    /**
+     * Get the total length of the static text elements
+     *
+     * @return static text length
+     */
+    public int getStaticTextLength() {
+        return staticTextLength;
+    }
+
     @Override
     public String toString() {
         return template;
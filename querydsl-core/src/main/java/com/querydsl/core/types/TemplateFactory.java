@@ -16,11 +16,14 @@ package com.querydsl.core.types;
 import java.math.BigDecimal;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.querydsl.core.types.Template.Element;
@@ -28,6 +31,9 @@ import com.querydsl.core.types.Template.Element;
 /**
  * {@code TemplateFactory} is a factory for {@link Template} instances
  *
+ * <p>Parsed templates are cached. The cache is bounded by the total length of the cached
+ * template strings, so that templates built from dynamic text don't accumulate.</p>
+ *
  * @author tiwe
  *
  */
@@ -36,6 +42,13 @@ public class TemplateFactory {
     private static final Map<String, Operator> OPERATORS = ImmutableMap.<String, Operator>of(
             "+", Ops.ADD, "-", Ops.SUB, "*", Ops.MULT, "/", Ops.DIV);
 
+    private static final Weigher<String, Template> WEIGHER = new Weigher<String, Template>() {
+        @Override
+        public int weigh(String key, Template value) {
+            return key.length() + 1;
+        }
+    };
+
     public static final TemplateFactory DEFAULT = new TemplateFactory('\\');
 
     private static final Constant<String> PERCENT = ConstantImpl.create("%");
@@ -47,7 +60,12 @@ public class TemplateFactory {
             + "([slu%]?%?)"
             + "\\}");
 
-    private final Map<String,Template> cache = new ConcurrentHashMap<String,Template>();
+    /**
+     * Default maximum total length of cached template strings
+     */
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 1 << 20;
+
+    private final Cache<String,Template> cache;
 
     private final char escape;
 
@@ -169,91 +187,127 @@ public class TemplateFactory {
             };
 
     public TemplateFactory(char escape) {
+        this(escape, DEFAULT_MAXIMUM_WEIGHT);
+    }
+
+    /**
+     * Create a new TemplateFactory instance
+     *
+     * @param escape escape character for like patterns
+     * @param maximumWeight maximum total length of cached template strings
+     */
+    public TemplateFactory(char escape, long maximumWeight) {
         this.escape = escape;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher(WEIGHER)
+                .recordStats()
+                .build();
     }
 
     public Template create(String template) {
-        if (cache.containsKey(template)) {
-            return cache.get(template);
-        } else {
-            Matcher m = elementPattern.matcher(template);
-            final ImmutableList.Builder<Element> elements = ImmutableList.builder();
-            int end = 0;
-            while (m.find()) {
-                if (m.start() > end) {
-                    elements.add(new Template.StaticText(template.substring(end, m.start())));
-                }
-                String premodifiers = m.group(1).toLowerCase(Locale.ENGLISH);
-                int index = Integer.parseInt(m.group(2));
-                String postmodifiers = m.group(6).toLowerCase(Locale.ENGLISH);
-                boolean asString = false;
-                Function<Object, Object> transformer = null;
-                switch (premodifiers.length()) {
-                    case 1:
-                        transformer = toEndsWithViaLike;
-                        break;
-                    case 2:
-                        transformer = toEndsWithViaLikeLower;
-                        break;
-                }
-                switch (postmodifiers.length()) {
-                    case 1:
-                        switch (postmodifiers.charAt(0)) {
-                            case '%':
-                                if (transformer == null) {
-                                    transformer = toStartsWithViaLike;
-                                } else {
-                                    transformer = toContainsViaLike;
-                                }
-                                break;
-                            case 'l':
-                                transformer = toLowerCase;
-                                break;
-                            case 'u':
-                                transformer = toUpperCase;
-                                break;
-                            case 's':
-                                asString = true;
-                                break;
-                        }
-                        break;
-                    case 2:
-                        if (transformer == null) {
-                            transformer = toStartsWithViaLikeLower;
-                        } else {
-                            transformer = toContainsViaLikeLower;
-                        }
-                        break;
-                }
-                if (m.group(4) != null) {
-                    Operator operator = OPERATORS.get(m.group(3));
-                    int index2 = Integer.parseInt(m.group(4));
-                    elements.add(new Template.Operation(index, index2, operator, asString));
-                } else if (m.group(5) != null) {
-                    Operator operator = OPERATORS.get(m.group(3));
-                    Number number;
-                    if (m.group(5).contains(".")) {
-                        number = new BigDecimal(m.group(5));
+        Template rv = cache.getIfPresent(template);
+        if (rv == null) {
+            rv = parse(template);
+            cache.put(template, rv);
+        }
+        return rv;
+    }
+
+    /**
+     * Get the hit and miss statistics of the template cache
+     *
+     * @return cache statistics
+     */
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Get the amount of cached templates
+     *
+     * @return cache size
+     */
+    public long getCacheSize() {
+        return cache.size();
+    }
+
+    private Template parse(String template) {
+        Matcher m = elementPattern.matcher(template);
+        final ImmutableList.Builder<Element> elements = ImmutableList.builder();
+        int end = 0;
+        while (m.find()) {
+            if (m.start() > end) {
+                elements.add(new Template.StaticText(template.substring(end, m.start())));
+            }
+            String premodifiers = m.group(1).toLowerCase(Locale.ENGLISH);
+            int index = Integer.parseInt(m.group(2));
+            String postmodifiers = m.group(6).toLowerCase(Locale.ENGLISH);
+            boolean asString = false;
+            Function<Object, Object> transformer = null;
+            switch (premodifiers.length()) {
+                case 1:
+                    transformer = toEndsWithViaLike;
+                    break;
+                case 2:
+                    transformer = toEndsWithViaLikeLower;
+                    break;
+            }
+            switch (postmodifiers.length()) {
+                case 1:
+                    switch (postmodifiers.charAt(0)) {
+                        case '%':
+                            if (transformer == null) {
+                                transformer = toStartsWithViaLike;
+                            } else {
+                                transformer = toContainsViaLike;
+                            }
+                            break;
+                        case 'l':
+                            transformer = toLowerCase;
+                            break;
+                        case 'u':
+                            transformer = toUpperCase;
+                            break;
+                        case 's':
+                            asString = true;
+                            break;
+                    }
+                    break;
+                case 2:
+                    if (transformer == null) {
+                        transformer = toStartsWithViaLikeLower;
                     } else {
-                        number = Integer.valueOf(m.group(5));
+                        transformer = toContainsViaLikeLower;
                     }
-                    elements.add(new Template.OperationConst(index, number, operator, asString));
-                } else if (asString) {
-                    elements.add(new Template.AsString(index));
-                } else if (transformer != null) {
-                    elements.add(new Template.Transformed(index, transformer));
+                    break;
+            }
+            if (m.group(4) != null) {
+                Operator operator = OPERATORS.get(m.group(3));
+                int index2 = Integer.parseInt(m.group(4));
+                elements.add(new Template.Operation(index, index2, operator, asString));
+            } else if (m.group(5) != null) {
+                Operator operator = OPERATORS.get(m.group(3));
+                Number number;
+                if (m.group(5).contains(".")) {
+                    number = new BigDecimal(m.group(5));
                 } else {
-                    elements.add(new Template.ByIndex(index));
+                    number = Integer.valueOf(m.group(5));
                 }
-                end = m.end();
+                elements.add(new Template.OperationConst(index, number, operator, asString));
+            } else if (asString) {
+                elements.add(new Template.AsString(index));
+            } else if (transformer != null) {
+                elements.add(new Template.Transformed(index, transformer));
+            } else {
+                elements.add(new Template.ByIndex(index));
             }
-            if (end < template.length()) {
-                elements.add(new Template.StaticText(template.substring(end)));
-            }
-            Template rv = new Template(template, elements.build());
-            cache.put(template, rv);
-            return rv;
+            end = m.end();
+        }
+        if (end < template.length()) {
+            elements.add(new Template.StaticText(template.substring(end)));
         }
+        return new Template(template, elements.build());
     }
 
     public String escapeForLike(String str) {
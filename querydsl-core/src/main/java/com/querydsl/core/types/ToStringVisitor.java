@@ -13,8 +13,7 @@
  */
 package com.querydsl.core.types;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 /**
  * {@code ToStringVisitor} is used for toString() serialization in {@link Expression} implementations.
@@ -50,29 +49,66 @@ public final class ToStringVisitor implements Visitor<String,Templates> {
 
     @Override
     public String visit(Operation<?> o, Templates templates) {
+        // nested operations are serialized iteratively to support deep expression trees
+        final StringBuilder builder = new StringBuilder();
+        final Deque<Object> stack = new ArrayDeque<Object>();
+        stack.push(o);
+        while (!stack.isEmpty()) {
+            final Object next = stack.pop();
+            if (next instanceof Operation) {
+                final List<Object> parts = getParts((Operation<?>) next, templates);
+                for (int i = parts.size() - 1; i >= 0; i--) {
+                    stack.push(parts.get(i));
+                }
+            } else if (next instanceof Expression) {
+                builder.append(((Expression<?>) next).accept(this, templates));
+            } else {
+                builder.append(next);
+            }
+        }
+        return builder.toString();
+    }
+
+    private List<Object> getParts(Operation<?> o, Templates templates) {
         final Template template = templates.getTemplate(o.getOperator());
+        final List<Object> parts = new ArrayList<Object>();
         if (template != null) {
             final int precedence = templates.getPrecedence(o.getOperator());
-            final StringBuilder builder = new StringBuilder();
-            for (Template.Element element : template.getElements()) {
-                final Object rv = element.convert(o.getArgs());
-                if (rv instanceof Expression) {
-                    if (precedence > -1 && rv instanceof Operation) {
-                        if (precedence < templates.getPrecedence(((Operation<?>) rv).getOperator())) {
-                            builder.append("(");
-                            builder.append(((Expression<?>) rv).accept(this, templates));
-                            builder.append(")");
-                            continue;
-                        }
-                    }
-                    builder.append(((Expression<?>) rv).accept(this, templates));
-                } else {
-                    builder.append(rv.toString());
+            final List<Expression<?>> args = o.getArgs();
+            if (args.size() > 2 && (o.getOperator() == Ops.AND || o.getOperator() == Ops.OR)) {
+                // n-ary operations are serialized like left-deep binary operations
+                addParts(template, precedence, args.subList(0, 2), false, templates, parts);
+                for (int i = 2; i < args.size(); i++) {
+                    addParts(template, precedence, args.subList(i - 1, i + 1), true, templates, parts);
                 }
+            } else {
+                addParts(template, precedence, args, false, templates, parts);
             }
-            return builder.toString();
         } else {
-            return "unknown operation with operator " + o.getOperator().name() + " and args " + o.getArgs();
+            parts.add("unknown operation with operator " + o.getOperator().name() + " and args " + o.getArgs());
+        }
+        return parts;
+    }
+
+    private void addParts(Template template, int precedence, List<?> args, boolean skipFirst,
+            Templates templates, List<Object> parts) {
+        for (Template.Element element : template.getElements()) {
+            final Object rv = element.convert(args);
+            if (skipFirst) {
+                // the elements up to the first argument have already been added
+                skipFirst = !(rv instanceof Expression);
+            } else if (rv instanceof Expression) {
+                if (precedence > -1 && rv instanceof Operation
+                        && precedence < templates.getPrecedence(((Operation<?>) rv).getOperator())) {
+                    parts.add("(");
+                    parts.add(rv);
+                    parts.add(")");
+                } else {
+                    parts.add(rv);
+                }
+            } else {
+                parts.add(rv.toString());
+            }
         }
     }
 
@@ -53,13 +53,17 @@ public abstract class BooleanExpression extends LiteralExpression<Boolean> imple
      *
      * <p>Returns an intersection of this and the given expression</p>
      *
+     * <p>Intersections are flattened, so each call copies the arguments of this expression.
+     * Use {@link Expressions#allOf(BooleanExpression...)} or {@link com.querydsl.core.BooleanBuilder}
+     * to combine many predicates in linear time.</p>
+     *
      * @param right right hand side of the union
      * @return {@code this &amp;&amp; right}
      */
     public BooleanExpression and(@Nullable Predicate right) {
         right = (Predicate) ExpressionUtils.extract(right);
         if (right != null) {
-            return Expressions.booleanOperation(Ops.AND, mixin, right);
+            return new BooleanOperation(ExpressionUtils.flattenedPredicate(Ops.AND, mixin, right));
         } else {
             return this;
         }
@@ -98,13 +102,17 @@ public abstract class BooleanExpression extends LiteralExpression<Boolean> imple
      *
      * <p>Returns a union of this and the given expression</p>
      *
+     * <p>Unions are flattened, so each call copies the arguments of this expression.
+     * Use {@link Expressions#anyOf(BooleanExpression...)} or {@link com.querydsl.core.BooleanBuilder}
+     * to combine many predicates in linear time.</p>
+     *
      * @param right right hand side of the union
      * @return this || right
      */
     public BooleanExpression or(@Nullable Predicate right) {
         right = (Predicate) ExpressionUtils.extract(right);
         if (right != null) {
-            return Expressions.booleanOperation(Ops.OR, mixin, right);
+            return new BooleanOperation(ExpressionUtils.flattenedPredicate(Ops.OR, mixin, right));
         } else {
             return this;
         }
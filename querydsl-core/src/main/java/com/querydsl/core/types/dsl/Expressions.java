@@ -106,11 +106,7 @@ public final class Expressions {
      * @return intersection of predicates
      */
     public static BooleanExpression allOf(BooleanExpression... exprs) {
-        BooleanExpression rv = null;
-        for (BooleanExpression b : exprs) {
-            rv = rv == null ? b : rv.and(b);
-        }
-        return rv;
+        return combine(Ops.AND, exprs);
     }
 
     /**
@@ -120,11 +116,23 @@ public final class Expressions {
      * @return union of predicates
      */
     public static BooleanExpression anyOf(BooleanExpression... exprs) {
+        return combine(Ops.OR, exprs);
+    }
+
+    private static BooleanExpression combine(Operator operator, BooleanExpression... exprs) {
+        List<Expression<?>> args = new ArrayList<Expression<?>>(exprs.length);
         BooleanExpression rv = null;
         for (BooleanExpression b : exprs) {
-            rv = rv == null ? b : rv.or(b);
+            if (b != null) {
+                rv = b;
+                args.add(ExpressionUtils.extract(b));
+            }
+        }
+        if (args.size() < 2) {
+            return rv;
+        } else {
+            return new BooleanOperation(operator, ExpressionUtils.flatten(operator, args));
         }
-        return rv;
     }
 
     /**
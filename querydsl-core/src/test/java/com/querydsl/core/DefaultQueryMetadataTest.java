@@ -22,6 +22,9 @@ import org.junit.Test;
 import com.google.common.collect.ImmutableSet;
 import com.querydsl.core.QueryFlag.Position;
 import com.querydsl.core.types.ConstantImpl;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.Param;
 import com.querydsl.core.types.dsl.StringPath;
@@ -210,6 +213,62 @@ public class DefaultQueryMetadataTest {
         assertEquals(metadata.getWhere(), clone.getWhere());
     }
 
+    @Test
+    public void clone_modified() {
+        metadata.addJoin(JoinType.DEFAULT, str);
+        metadata.addGroupBy(str);
+        metadata.addGroupBy(str.upper());
+        metadata.addOrderBy(str.asc());
+        metadata.addOrderBy(str.upper().asc());
+        metadata.addWhere(str.eq("a"));
+        metadata.addWhere(str.eq("b"));
+
+        QueryMetadata clone = metadata.clone();
+        clone.addJoin(JoinType.DEFAULT, str2);
+        clone.addGroupBy(str2);
+        clone.addOrderBy(str2.desc());
+        clone.addWhere(str2.eq("c"));
+        metadata.addOrderBy(str.desc());
+        metadata.addWhere(str.eq("d"));
+
+        assertEquals(Arrays.asList(str, str.upper()), metadata.getGroupBy());
+        assertEquals(Arrays.asList(str, str.upper(), str2), clone.getGroupBy());
+        assertEquals(Arrays.asList(str.asc(), str.upper().asc(), str.desc()), metadata.getOrderBy());
+        assertEquals(Arrays.asList(str.asc(), str.upper().asc(), str2.desc()), clone.getOrderBy());
+        assertEquals(str.eq("a").and(str.eq("b")).and(str.eq("d")), metadata.getWhere());
+        assertEquals(str.eq("a").and(str.eq("b")).and(str2.eq("c")), clone.getWhere());
+        assertEquals(1, metadata.getJoins().size());
+        assertEquals(2, clone.getJoins().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getOrderBy_unmodifiable() {
+        metadata.addOrderBy(str.asc());
+        metadata.addOrderBy(str2.asc());
+        metadata.getOrderBy().clear();
+    }
+
+    @Test
+    public void addWhere_many() {
+        metadata.addJoin(JoinType.DEFAULT, str);
+        for (int i = 0; i < 10000; i++) {
+            metadata.addWhere(str.eq("a" + i));
+        }
+        assertEquals(10000, countConditions(metadata.getWhere()));
+    }
+
+    private static int countConditions(Expression<?> e) {
+        Operation<?> op = (Operation<?>) e;
+        if (op.getOperator() != Ops.AND) {
+            return 1;
+        }
+        int count = 0;
+        for (Expression<?> arg : op.getArgs()) {
+            count += countConditions(arg);
+        }
+        return count;
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void setParam() {
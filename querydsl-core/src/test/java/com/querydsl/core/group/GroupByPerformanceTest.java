@@ -0,0 +1,91 @@
+package com.querydsl.core.group;
+
+import static com.querydsl.core.group.GroupBy.groupBy;
+import static com.querydsl.core.group.GroupBy.list;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.support.DummyFetchableQuery;
+import com.querydsl.core.testutil.Benchmark;
+import com.querydsl.core.testutil.Performance;
+import com.querydsl.core.testutil.Runner;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+
+@Ignore
+@Category(Performance.class)
+public class GroupByPerformanceTest {
+
+    private static final int ENTITIES = 20;
+
+    private final List<NumberPath<Integer>> ids = new ArrayList<NumberPath<Integer>>();
+
+    public GroupByPerformanceTest() {
+        for (int i = 0; i < ENTITIES; i++) {
+            Path<Object> entity = ExpressionUtils.path(Object.class, "entity" + i);
+            ids.add(Expressions.numberPath(Integer.class, entity, "id"));
+        }
+    }
+
+    @Test
+    public void transform() throws Exception {
+        List<Tuple> rows = new ArrayList<Tuple>();
+        for (int i = 0; i < 100; i++) {
+            Object[] row = new Object[ENTITIES];
+            for (int j = 0; j < ENTITIES; j++) {
+                row[j] = i / 10 + j;
+            }
+            rows.add(new MockTuple(row));
+        }
+        final DummyFetchableQuery<Tuple> query = new DummyFetchableQuery<Tuple>(rows);
+        final Expression<?>[] lists = new Expression<?>[ENTITIES - 1];
+        for (int i = 1; i < ENTITIES; i++) {
+            lists[i - 1] = list(ids.get(i));
+        }
+
+        Runner.run("transform", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                for (int i = 0; i < times / 100; i++) {
+                    Map<Integer, Group> groups = query.transform(groupBy(ids.get(0)).as(lists));
+                    assertEquals(10, groups.size());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void pathMap() throws Exception {
+        final Map<Expression<?>, Integer> map = new HashMap<Expression<?>, Integer>();
+        for (int i = 0; i < ENTITIES; i++) {
+            map.put(ids.get(i), i);
+        }
+        final List<NumberPath<Integer>> lookups = new ArrayList<NumberPath<Integer>>();
+        for (int i = 0; i < ENTITIES; i++) {
+            Path<Object> entity = ExpressionUtils.path(Object.class, "entity" + i);
+            lookups.add(Expressions.numberPath(Integer.class, entity, "id"));
+        }
+
+        Runner.run("pathMap", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                for (int i = 0; i < times; i++) {
+                    assertEquals(i % ENTITIES, map.get(lookups.get(i % ENTITIES)).intValue());
+                }
+            }
+        });
+    }
+
+}
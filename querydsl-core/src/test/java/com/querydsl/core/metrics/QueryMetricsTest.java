@@ -0,0 +1,81 @@
+package com.querydsl.core.metrics;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.Test;
+
+public class QueryMetricsTest {
+
+    private final QueryMetrics metrics = new QueryMetrics(3);
+
+    @Test
+    public void normalize() {
+        assertEquals("select a from t where b = ? and c in (?)",
+                QueryMetrics.normalize("select a\nfrom t  where b = 'x''y' and c in (1, 2.5, 3)"));
+        assertEquals("select t1.a from t1 where t1.b in (?) and t1.c = ?",
+                QueryMetrics.normalize("select t1.a from t1 where t1.b in (?, ?, ?) and t1.c = ?"));
+        assertEquals("select \"a 1\" from t where b = ?",
+                QueryMetrics.normalize("select \"a 1\" from t where b = ?1"));
+    }
+
+    @Test
+    public void shape() {
+        QueryShapeMetrics shape = metrics.getShape("select a from t where b in (?, ?)");
+        assertSame(shape, metrics.getShape("select a from t where b in (?, ?)"));
+        assertSame(shape, metrics.getShape("select a from t where b in (?, ?, ?)"));
+        assertEquals("select a from t where b in (?)", shape.getShape());
+    }
+
+    @Test
+    public void other() {
+        for (int i = 0; i < 5; i++) {
+            metrics.getShape("select a" + i + " from t").record(0, 0, 0, 0, 1, 0);
+        }
+        assertEquals(4, metrics.getShapes().size());
+        assertEquals(2, metrics.getShape("select a4 from t").getTotal().getCount());
+        assertEquals(QueryMetrics.OTHER, metrics.getShape("select a4 from t").getShape());
+        assertEquals(5, metrics.getQueryCount());
+    }
+
+    @Test
+    public void slowest() {
+        metrics.getShape("select a from t").record(10, 0, 100, 10, 120, 1);
+        metrics.getShape("select b from t").record(10, 0, 1000, 10, 1020, 1);
+        metrics.getShape("select c from t").record(10, 0, 500, 10, 520, 5);
+        List<QueryShapeStats> slowest = metrics.getSlowestShapes(2);
+        assertEquals(2, slowest.size());
+        assertEquals("select b from t", slowest.get(0).getShape());
+        assertEquals("select c from t", slowest.get(1).getShape());
+        assertEquals(5, slowest.get(1).getRows());
+
+        metrics.reset();
+        assertEquals(0, metrics.getQueryCount());
+    }
+
+    @Test
+    public void jmx() throws Exception {
+        metrics.getShape("select a from t").record(10, 20, 30, 40, 100, 2);
+        ObjectName name = metrics.register("test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "QueryCount"));
+            CompositeData[] shapes = (CompositeData[]) server.getAttribute(name, "Shapes");
+            assertEquals("select a from t", shapes[0].get("shape"));
+            assertEquals(2L, shapes[0].get("rows"));
+            CompositeData[] slowest = (CompositeData[]) server.invoke(name, "getSlowestShapes",
+                    new Object[]{1}, new String[]{int.class.getName()});
+            assertEquals(1, slowest.length);
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.querydsl.core.serialization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.google.common.base.Stopwatch;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.testutil.Performance;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.JavaTemplates;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+
+@Ignore
+@Category(Performance.class)
+public class LargePredicatePerformanceTest {
+
+    private static final int TERMS = 10000;
+
+    private static final int ITERATIONS = 20;
+
+    private final StringPath name = Expressions.stringPath("name");
+
+    private final NumberPath<Integer> id = Expressions.numberPath(Integer.class, "id");
+
+    @Test
+    public void booleanBuilder() {
+        run("BooleanBuilder", new Runnable() {
+            @Override
+            public void run() {
+                BooleanBuilder builder = new BooleanBuilder();
+                for (int i = 0; i < TERMS; i++) {
+                    builder.or(name.eq("name" + i).and(id.gt(i)));
+                }
+                serialize(builder.getValue());
+            }
+        });
+    }
+
+    @Test
+    public void anyOf() {
+        run("anyOf", new Runnable() {
+            @Override
+            public void run() {
+                List<Predicate> predicates = new ArrayList<Predicate>(TERMS);
+                for (int i = 0; i < TERMS; i++) {
+                    predicates.add(name.eq("name" + i).and(id.gt(i)));
+                }
+                serialize(ExpressionUtils.anyOf(predicates));
+            }
+        });
+    }
+
+    @Test
+    public void chained() {
+        // each or() call copies the flattened arguments, so this is quadratic in the terms
+        run("chained", new Runnable() {
+            @Override
+            public void run() {
+                BooleanExpression predicate = name.eq("name").and(id.gt(-1));
+                for (int i = 0; i < TERMS; i++) {
+                    predicate = predicate.or(name.eq("name" + i).and(id.gt(i)));
+                }
+                serialize(predicate);
+            }
+        });
+    }
+
+    private void serialize(Predicate predicate) {
+        DummySerializer serializer = new DummySerializer(new JavaTemplates());
+        serializer.handle(predicate);
+        serializer.toString();
+        predicate.hashCode();
+        predicate.toString();
+    }
+
+    private void run(String label, Runnable task) {
+        // warm up
+        task.run();
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        System.err.println(label + " " + stopwatch.stop() + " for " + ITERATIONS + " x " + TERMS + " terms");
+    }
+
+}
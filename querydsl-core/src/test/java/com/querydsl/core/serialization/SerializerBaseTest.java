@@ -15,11 +15,15 @@ package com.querydsl.core.serialization;
 
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
+
 import org.junit.Test;
 
 import com.querydsl.core.types.ConstantImpl;
 import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.JavaTemplates;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.dsl.BooleanPath;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.core.types.dsl.StringPath;
@@ -42,4 +46,14 @@ public class SerializerBaseTest {
         serializer.handle(ExpressionUtils.template(Object.class, "xxx", ConstantImpl.create("")));
     }
 
+    @Test
+    public void nary() {
+        DummySerializer serializer = new DummySerializer(new JavaTemplates());
+        BooleanPath a = Expressions.booleanPath("a");
+        BooleanPath b = Expressions.booleanPath("b");
+        BooleanPath c = Expressions.booleanPath("c");
+        serializer.handle(ExpressionUtils.predicate(Ops.AND, a, b.or(c), c, a.and(b).not()));
+        assertEquals("a && (b || c) && c && !(a && b)", serializer.toString());
+    }
+
 }
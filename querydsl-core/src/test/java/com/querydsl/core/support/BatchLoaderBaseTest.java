@@ -0,0 +1,132 @@
+package com.querydsl.core.support;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QTuple;
+import com.querydsl.core.types.dsl.Expressions;
+
+public class BatchLoaderBaseTest {
+
+    private static final QTuple row = Projections.tuple(
+            Expressions.numberPath(Integer.class, "key"), Expressions.stringPath("value"));
+
+    private final List<List<Integer>> batches = new ArrayList<List<Integer>>();
+
+    private final BatchLoaderBase<Integer, String> loader = new BatchLoaderBase<Integer, String>(3) {
+        @Override
+        protected List<Tuple> fetch(List<Integer> keys) {
+            batches.add(keys);
+            List<Tuple> rv = new ArrayList<Tuple>();
+            for (Integer key : keys) {
+                if (key == -2) {
+                    throw new AssertionError("key -2");
+                } else if (key < 0) {
+                    throw new IllegalArgumentException("negative key");
+                } else if (key == 0) {
+                    rv.add(row.newInstance(key, "a"));
+                    rv.add(row.newInstance(key, "b"));
+                } else if (key < 100) {
+                    rv.add(row.newInstance(key, "v" + key));
+                }
+            }
+            return rv;
+        }
+    };
+
+    @Test
+    public void get_dispatches() throws Exception {
+        ListenableFuture<String> first = loader.load(1);
+        ListenableFuture<String> second = loader.load(2);
+        assertFalse(first.isDone());
+        assertEquals("v1", first.get());
+        assertTrue(second.isDone());
+        assertEquals("v2", second.get());
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void batch_size() throws Exception {
+        List<ListenableFuture<String>> results = loader.loadAll(Arrays.asList(1, 2, 3, 4));
+        assertTrue(results.get(2).isDone());
+        assertFalse(results.get(3).isDone());
+        assertEquals("v4", results.get(3).get());
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4)), batches);
+    }
+
+    @Test
+    public void cached() throws Exception {
+        ListenableFuture<String> first = loader.load(1);
+        assertSame(first, loader.load(1));
+        loader.dispatch();
+        assertSame(first, loader.load(1));
+        assertEquals(1, batches.size());
+
+        loader.clear();
+        assertNotSame(first, loader.load(1));
+    }
+
+    @Test
+    public void missing() throws Exception {
+        assertNull(loader.load(100).get());
+    }
+
+    @Test
+    public void non_unique() throws Exception {
+        ListenableFuture<String> duplicate = loader.load(0);
+        ListenableFuture<String> unique = loader.load(1);
+        try {
+            duplicate.get();
+            fail("Expected exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NonUniqueResultException);
+        }
+        assertEquals("v1", unique.get());
+    }
+
+    @Test
+    public void failure() throws Exception {
+        ListenableFuture<String> result = loader.load(-1);
+        loader.dispatch();
+        try {
+            result.get();
+            fail("Expected exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        assertNotSame(result, loader.load(-1));
+    }
+
+    @Test
+    public void error() throws Exception {
+        ListenableFuture<String> result = loader.load(-2);
+        loader.dispatch();
+        try {
+            result.get();
+            fail("Expected exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AssertionError);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegal_batch_size() {
+        new BatchLoaderBase<Integer, String>(0) {
+            @Override
+            protected List<Tuple> fetch(List<Integer> keys) {
+                return null;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.querydsl.core.support;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+
+public class ExpressionOptimizerTest {
+
+    private final ExpressionOptimizer optimizer = new ExpressionOptimizer();
+
+    private final StringPath name = Expressions.stringPath("name");
+
+    private final NumberPath<Integer> id = Expressions.numberPath(Integer.class, "id");
+
+    @Test
+    public void true_in_and() {
+        assertEquals(name.eq("a"), optimizer.optimize(Expressions.TRUE.isTrue().and(name.eq("a"))));
+        assertEquals(name.eq("a"), optimizer.optimize(name.eq("a").and(Expressions.TRUE)));
+    }
+
+    @Test
+    public void false_in_and() {
+        assertEquals(Expressions.FALSE, optimizer.optimize(name.eq("a").and(Expressions.FALSE)));
+    }
+
+    @Test
+    public void true_in_or() {
+        assertEquals(Expressions.TRUE, optimizer.optimize(name.eq("a").or(Expressions.TRUE)));
+    }
+
+    @Test
+    public void false_in_or() {
+        assertEquals(name.eq("a"), optimizer.optimize(name.eq("a").or(Expressions.FALSE)));
+    }
+
+    @Test
+    public void only_literals() {
+        assertEquals(Expressions.TRUE, optimizer.optimize(Expressions.TRUE.and(Expressions.TRUE)));
+    }
+
+    @Test
+    public void boolean_constants() {
+        Predicate predicate = name.eq("a").and(Expressions.asBoolean(true).eq(true));
+        assertEquals(name.eq("a"), optimizer.optimize(predicate));
+    }
+
+    @Test
+    public void duplicates() {
+        assertEquals(name.eq("a").and(id.eq(1)),
+                optimizer.optimize(name.eq("a").and(id.eq(1)).and(name.eq("a"))));
+    }
+
+    @Test
+    public void eq_merged_to_in() {
+        Predicate predicate = name.eq("a").or(id.eq(1)).or(name.eq("b")).or(name.in("c", "a"));
+        assertEquals("name in [a, b, c] || id = 1", optimizer.optimize(predicate).toString());
+    }
+
+    @Test
+    public void single_eq_not_merged() {
+        Predicate predicate = name.eq("a").or(id.eq(1));
+        assertSame(predicate, optimizer.optimize(predicate));
+    }
+
+    @Test
+    public void double_negation() {
+        assertEquals(name.eq("a"), optimizer.optimize(name.eq("a").not().not()));
+    }
+
+    @Test
+    public void nested() {
+        Predicate predicate = id.eq(1).and(name.eq("a").or(Expressions.FALSE).not().not());
+        assertEquals(id.eq(1).and(name.eq("a")), optimizer.optimize(predicate));
+    }
+
+    @Test
+    public void unchanged() {
+        BooleanExpression predicate = name.eq("a").and(id.gt(1));
+        assertSame(predicate, optimizer.optimize(predicate));
+        BooleanBuilder builder = new BooleanBuilder(predicate);
+        assertSame(builder, optimizer.optimize(builder));
+    }
+
+    @Test
+    public void max_nodes() {
+        Predicate predicate = name.eq("a").and(Expressions.TRUE);
+        assertSame(predicate, new ExpressionOptimizer(2).optimize(predicate));
+    }
+
+    @Test
+    public void metadata() {
+        QueryMetadata md = new DefaultQueryMetadata();
+        md.addJoin(JoinType.DEFAULT, name);
+        md.addJoin(JoinType.INNERJOIN, id);
+        md.addJoinCondition(Expressions.TRUE.isTrue());
+        md.addWhere(name.eq("a").or(name.eq("b")));
+        md.addGroupBy(name);
+        md.addHaving(id.count().gt(1L).and(Expressions.TRUE));
+        md.setProjection(name);
+
+        QueryMetadata optimized = optimizer.optimize(md);
+        assertNotSame(md, optimized);
+        assertEquals("name in [a, b]", optimized.getWhere().toString());
+        assertEquals("name = a || name = b", md.getWhere().toString());
+        assertEquals(md.getHaving(), optimized.getHaving());
+        assertEquals(md.getJoins(), optimized.getJoins());
+        assertEquals(md.getGroupBy(), optimized.getGroupBy());
+        assertEquals(name, optimized.getProjection());
+    }
+
+    @Test
+    public void metadata_always_true() {
+        QueryMetadata md = new DefaultQueryMetadata();
+        md.addJoin(JoinType.DEFAULT, name);
+        md.addWhere(Expressions.TRUE.isTrue().and(Expressions.TRUE.isTrue()));
+        assertNull(optimizer.optimize(md).getWhere());
+    }
+
+    @Test
+    public void metadata_unchanged() {
+        QueryMetadata md = new DefaultQueryMetadata();
+        md.addJoin(JoinType.DEFAULT, name);
+        md.addWhere(name.eq("a"));
+        assertSame(md, optimizer.optimize(md));
+    }
+
+}
@@ -3,9 +3,12 @@ package com.querydsl.core.support;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.PathMetadataFactory;
 import com.querydsl.core.types.dsl.EntityPathBase;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.StringPath;
 
 @Ignore
 public class QueryMixinPerformanceTest {
@@ -45,4 +48,26 @@ public class QueryMixinPerformanceTest {
         System.err.println(System.currentTimeMillis() - start);
     }
 
+    @Test
+    public void fragments() {
+        EntityPath<DummyEntity> entity = new EntityPathBase<DummyEntity>(DummyEntity.class, "entity");
+        StringPath name = Expressions.stringPath(entity, "name");
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < iterations / 1000; i++) {
+            QueryMixin<?> mixin = new QueryMixin<Void>();
+            mixin.from(entity);
+            for (int j = 0; j < 500; j++) {
+                mixin.where(name.ne("name" + j));
+                mixin.orderBy(name.substring(j).asc());
+            }
+            mixin.setProjection(entity);
+            QueryMetadata clone = mixin.getMetadata().clone();
+            clone.addWhere(name.isNotNull());
+            clone.getWhere();
+            mixin.getMetadata().getWhere();
+        }
+        System.err.println(System.currentTimeMillis() - start);
+    }
+
 }
@@ -16,12 +16,14 @@ package com.querydsl.core.types;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.querydsl.core.DefaultQueryMetadata;
 import com.querydsl.core.QueryException;
@@ -195,4 +197,56 @@ public class ExpressionUtilsTest {
         assertTrue(s.startsWith("str not in com.querydsl.core.DefaultQueryMetadata@c"));
     }
 
+    @Test
+    public void and_flattened() {
+        Predicate a = str.isNull(), b = str2.isNull(), c = str.eq(str2);
+        Operation<?> and = (Operation<?>) ExpressionUtils.and(ExpressionUtils.and(a, b), c);
+        assertEquals(Ops.AND, and.getOperator());
+        assertEquals(Arrays.asList(a, b, c), and.getArgs());
+        assertEquals(and, ExpressionUtils.and(a, ExpressionUtils.and(b, c)));
+        assertEquals(and, ExpressionUtils.allOf(a, b, c));
+    }
+
+    @Test
+    public void or_flattened() {
+        Predicate a = str.isNull(), b = str2.isNull(), c = str.eq(str2);
+        Operation<?> or = (Operation<?>) ExpressionUtils.anyOf(a, ExpressionUtils.or(b, c));
+        assertEquals(Ops.OR, or.getOperator());
+        assertEquals(Arrays.asList(a, b, c), or.getArgs());
+        assertEquals("str is null || str2 is null || str = str2", or.toString());
+    }
+
+    @Test
+    public void and_of_or_not_flattened() {
+        Predicate a = str.isNull(), b = str2.isNull(), c = str.eq(str2);
+        Operation<?> and = (Operation<?>) ExpressionUtils.allOf(a, ExpressionUtils.or(b, c));
+        assertEquals(2, and.getArgs().size());
+        assertEquals("str is null && (str2 is null || str = str2)", and.toString());
+    }
+
+    @Test
+    public void allOf_large() {
+        List<Predicate> predicates = new ArrayList<Predicate>();
+        for (int i = 0; i < 10000; i++) {
+            predicates.add(str.eq("s" + i));
+        }
+        Predicate predicate = ExpressionUtils.allOf(predicates);
+        assertEquals(10000, ((Operation<?>) predicate).getArgs().size());
+        assertTrue(predicate.toString().endsWith("str = s9998 && str = s9999"));
+    }
+
+    @Test
+    public void and_chain_large() {
+        List<Predicate> predicates = new ArrayList<Predicate>();
+        Predicate chained = null;
+        for (int i = 0; i < 1000; i++) {
+            Predicate predicate = str.eq("s" + i);
+            predicates.add(predicate);
+            chained = ExpressionUtils.and(chained, predicate);
+        }
+        assertTrue(((Operation<?>) chained).getArgs().size() <= 32);
+        assertEquals(ExpressionUtils.allOf(predicates).toString(), chained.toString());
+        assertEquals(predicates, ExpressionUtils.flatten(Ops.AND, ImmutableList.of(chained)));
+    }
+
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.types;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.StringPath;
+
+public class HashCodeVisitorTest {
+
+    private final StringPath name = Expressions.stringPath("name");
+
+    private Predicate or() {
+        return ExpressionUtils.predicate(Ops.OR, ExpressionUtils.eqConst(name, "a"), ExpressionUtils.eqConst(name, "b"));
+    }
+
+    @Test
+    public void cached_children() {
+        Predicate cached = or();
+        cached.hashCode();
+        Predicate uncached = or();
+        Predicate other = ExpressionUtils.eqConst(name, "c");
+        assertEquals(ExpressionUtils.predicate(Ops.AND, uncached, other).hashCode(),
+                ExpressionUtils.predicate(Ops.AND, cached, other).hashCode());
+        assertEquals(31 * Ops.AND.name().hashCode() + Arrays.asList(cached, other).hashCode(),
+                ExpressionUtils.predicate(Ops.AND, or(), other).hashCode());
+    }
+
+    @Test
+    public void flattened_predicate() {
+        Predicate chained = name.eq("a").or(name.eq("b")).or(name.eq("c")).or(name.eq("d").and(name.eq("e")));
+        Predicate expected = ExpressionUtils.predicate(Ops.OR, name.eq("a"), name.eq("b"), name.eq("c"),
+                name.eq("d").and(name.eq("e")));
+        assertEquals(expected, chained);
+        assertEquals(expected.hashCode(), chained.hashCode());
+        assertEquals(expected.hashCode(), ExpressionUtils.anyOf(name.eq("a"), name.eq("b"), name.eq("c"),
+                name.eq("d").and(name.eq("e"))).hashCode());
+    }
+
+    @Test
+    public void deep_nesting() {
+        Predicate predicate = ExpressionUtils.eqConst(name, "a");
+        for (int i = 0; i < 100000; i++) {
+            predicate = ExpressionUtils.predicate(Ops.NOT, predicate);
+        }
+        predicate.hashCode();
+    }
+
+    @Test
+    public void flattened_predicate_hash_code() {
+        Predicate a = ExpressionUtils.eqConst(name, "a"), b = ExpressionUtils.eqConst(name, "b");
+        Predicate c = ExpressionUtils.eqConst(name, "c"), d = ExpressionUtils.eqConst(name, "d");
+        assertEquals(ExpressionUtils.predicate(Ops.OR, a, b, c).hashCode(),
+                ExpressionUtils.flattenedPredicate(Ops.OR, ExpressionUtils.predicate(Ops.OR, a, b), c).hashCode());
+        Predicate and = ExpressionUtils.predicate(Ops.AND, a, b);
+        assertEquals(ExpressionUtils.predicate(Ops.OR, and, c, d).hashCode(),
+                ExpressionUtils.flattenedPredicate(Ops.OR, ExpressionUtils.predicate(Ops.OR, and, c), d).hashCode());
+        Predicate or = ExpressionUtils.predicate(Ops.OR, a, b);
+        assertEquals(ExpressionUtils.predicate(Ops.OR, or, c, d).hashCode(),
+                ExpressionUtils.flattenedPredicate(Ops.OR, ExpressionUtils.predicate(Ops.OR, or, c), d).hashCode());
+    }
+
+    @Test
+    public void chained_predicate_hash_code() {
+        Predicate chained = ExpressionUtils.eqConst(name, "a");
+        for (int i = 0; i < 100; i++) {
+            chained = ExpressionUtils.or(chained, ExpressionUtils.eqConst(name, "a" + i));
+        }
+        Operation<?> operation = (Operation<?>) chained;
+        assertEquals(ExpressionUtils.predicate(Ops.OR, ImmutableList.copyOf(operation.getArgs())).hashCode(),
+                chained.hashCode());
+    }
+
+}
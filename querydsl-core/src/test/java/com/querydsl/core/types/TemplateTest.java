@@ -14,6 +14,8 @@
 package com.querydsl.core.types;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
@@ -58,6 +60,32 @@ public class TemplateTest {
         match("[0]",                     factory.create("{%%0%%}"));
     }
 
+    @Test
+    public void cache() {
+        TemplateFactory factory = new TemplateFactory('\\');
+        Template template = factory.create("{0} + {1}");
+        assertSame(template, factory.create("{0} + {1}"));
+        assertEquals(1, factory.getCacheStats().hitCount());
+        assertEquals(1, factory.getCacheStats().missCount());
+    }
+
+    @Test
+    public void cache_bounded() {
+        TemplateFactory factory = new TemplateFactory('\\', 1000);
+        for (int i = 0; i < 1000; i++) {
+            factory.create("{0} in (" + i + ")");
+        }
+        assertTrue(factory.getCacheSize() < 1000);
+        assertTrue(factory.getCacheStats().evictionCount() > 0);
+    }
+
+    @Test
+    public void staticTextLength() {
+        TemplateFactory factory = new TemplateFactory('\\');
+        assertEquals(12, factory.create("blah {0} + {1} XXX").getStaticTextLength());
+        assertEquals(0, factory.create("{0}").getStaticTextLength());
+    }
+
     private void match(String string, Template template) {
         assertEquals(string, template.getElements().toString());
     }
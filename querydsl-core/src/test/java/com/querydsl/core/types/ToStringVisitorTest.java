@@ -14,12 +14,15 @@
 package com.querydsl.core.types;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
 import com.querydsl.core.domain.QCat;
 import com.querydsl.core.types.dsl.BooleanPath;
 import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.NumberPath;
 
 
 public class ToStringVisitorTest {
@@ -62,4 +65,25 @@ public class ToStringVisitorTest {
 
     }
 
+    @Test
+    public void nary() {
+        BooleanPath a = Expressions.booleanPath("a");
+        BooleanPath b = Expressions.booleanPath("b");
+        BooleanPath c = Expressions.booleanPath("c");
+        Predicate nary = ExpressionUtils.predicate(Ops.OR, a, b, c.and(a));
+        assertEquals("a || b || c && a", nary.accept(ToStringVisitor.DEFAULT, templates));
+    }
+
+    @Test
+    public void deep() {
+        NumberPath<Integer> num = Expressions.numberPath(Integer.class, "num");
+        NumberExpression<Integer> expr = num;
+        for (int i = 0; i < 20000; i++) {
+            expr = expr.add(1);
+        }
+        String str = expr.accept(ToStringVisitor.DEFAULT, templates);
+        assertTrue(str.startsWith("num + 1 + 1"));
+        assertEquals(expr.hashCode(), expr.hashCode());
+    }
+
 }
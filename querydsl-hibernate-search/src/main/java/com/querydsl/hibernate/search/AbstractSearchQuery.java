@@ -13,9 +13,13 @@
  */
 package com.querydsl.hibernate.search;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.apache.lucene.search.MatchAllDocsQuery;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.search.FullTextQuery;
 import org.hibernate.search.FullTextSession;
@@ -25,11 +29,7 @@ import com.mysema.commons.lang.CloseableIterator;
 import com.mysema.commons.lang.IteratorAdapter;
 import com.querydsl.core.*;
 import com.querydsl.core.support.QueryMixin;
-import com.querydsl.core.types.EntityPath;
-import com.querydsl.core.types.OrderSpecifier;
-import com.querydsl.core.types.ParamExpression;
-import com.querydsl.core.types.Predicate;
-import com.querydsl.lucene3.LuceneSerializer;
+import com.querydsl.core.types.*;
 
 /**
  * Abstract base class for Hibernate Search query classes
@@ -43,7 +43,7 @@ public abstract class AbstractSearchQuery<T, Q extends AbstractSearchQuery<T,Q>>
 
     private final QueryMixin<Q> queryMixin;
 
-    private final LuceneSerializer serializer;
+    private final SearchSerializer serializer;
 
     private final FullTextSession session;
 
@@ -95,6 +95,46 @@ public abstract class AbstractSearchQuery<T, Q extends AbstractSearchQuery<T,Q>>
         return fullTextQuery;
     }
 
+    private FullTextQuery createQuery(Expression<?> projection) {
+        List<? extends Expression<?>> args;
+        if (projection instanceof FactoryExpression) {
+            args = ((FactoryExpression<?>) projection).getArgs();
+        } else {
+            args = Collections.singletonList(projection);
+        }
+        String[] fields = new String[args.size()];
+        for (int i = 0; i < fields.length; i++) {
+            Expression<?> arg = args.get(i);
+            if (arg.equals(path)) {
+                fields[i] = FullTextQuery.THIS;
+            } else if (arg instanceof Path) {
+                fields[i] = serializer.toField((Path<?>) arg);
+            } else {
+                throw new IllegalArgumentException("Unsupported projection element " + arg);
+            }
+        }
+        FullTextQuery query = createQuery(false);
+        query.setProjection(fields);
+        return query;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <U> U project(Expression<U> projection, Object[] row) {
+        if (projection instanceof FactoryExpression) {
+            return ((FactoryExpression<U>) projection).newInstance(row);
+        } else {
+            return (U) row[0];
+        }
+    }
+
+    private static <U> List<U> project(Expression<U> projection, List<?> rows) {
+        List<U> rv = new ArrayList<U>(rows.size());
+        for (Object row : rows) {
+            rv.add(project(projection, (Object[]) row));
+        }
+        return rv;
+    }
+
 
     @Override
     public Q distinct() {
@@ -107,6 +147,32 @@ public abstract class AbstractSearchQuery<T, Q extends AbstractSearchQuery<T,Q>>
         return new IteratorAdapter<T>(createQuery(false).iterate());
     }
 
+    /**
+     * Iterate over the results in windows of the given size. The session is cleared
+     * before each window is loaded, so entities of earlier windows become detached.
+     *
+     * @param fetchSize window size
+     * @return result iterator
+     */
+    public CloseableIterator<T> scroll(int fetchSize) {
+        FullTextQuery query = createQuery(false);
+        query.setFetchSize(fetchSize);
+        return new ScrollIterator<T>(session, query.scroll(), fetchSize);
+    }
+
+    /**
+     * Project the results from the index. The given expression needs to be a path of a stored
+     * field or a factory expression of such paths, for example a {@link Projections#bean} or
+     * {@link Projections#tuple} projection. The entity path itself can be used to load the entity.
+     *
+     * @param projection projection
+     * @param <U>
+     * @return projection of the query
+     */
+    public <U> Fetchable<U> select(Expression<U> projection) {
+        return new ProjectionFetchable<U>(projection);
+    }
+
     @Override
     public Q limit(long limit) {
         return queryMixin.limit(limit);
@@ -165,4 +231,148 @@ public abstract class AbstractSearchQuery<T, Q extends AbstractSearchQuery<T,Q>>
         return queryMixin.where(e);
     }
 
+    private class ProjectionFetchable<U> implements Fetchable<U> {
+
+        private final Expression<U> projection;
+
+        ProjectionFetchable(Expression<U> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public List<U> fetch() {
+            return project(projection, createQuery(projection).list());
+        }
+
+        @Override
+        public U fetchFirst() {
+            // the limit is applied to the query only, the metadata is left as is
+            FullTextQuery query = createQuery(projection);
+            query.setMaxResults(1);
+            List<?> rows = query.list();
+            return rows.isEmpty() ? null : project(projection, (Object[]) rows.get(0));
+        }
+
+        @Override
+        public U fetchOne() throws NonUniqueResultException {
+            List<U> results = fetch();
+            if (results.size() > 1) {
+                throw new NonUniqueResultException();
+            }
+            return results.isEmpty() ? null : results.get(0);
+        }
+
+        @Override
+        public CloseableIterator<U> iterate() {
+            return new ProjectionIterator<U>(projection, createQuery(projection).scroll());
+        }
+
+        @Override
+        public QueryResults<U> fetchResults() {
+            FullTextQuery query = createQuery(projection);
+            return new QueryResults<U>(project(projection, query.list()),
+                    queryMixin.getMetadata().getModifiers(), query.getResultSize());
+        }
+
+        @Override
+        public long fetchCount() {
+            return AbstractSearchQuery.this.fetchCount();
+        }
+
+    }
+
+    private static class ProjectionIterator<U> implements CloseableIterator<U> {
+
+        private final Expression<U> projection;
+
+        private final ScrollableResults results;
+
+        private Boolean hasNext;
+
+        ProjectionIterator(Expression<U> projection, ScrollableResults results) {
+            this.projection = projection;
+            this.results = results;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (hasNext == null) {
+                hasNext = results.next();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public U next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNext = null;
+            return project(projection, results.get());
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            results.close();
+        }
+
+    }
+
+    private static class ScrollIterator<T> implements CloseableIterator<T> {
+
+        private final Session session;
+
+        private final ScrollableResults results;
+
+        private final int fetchSize;
+
+        private int count;
+
+        private Boolean hasNext;
+
+        ScrollIterator(Session session, ScrollableResults results, int fetchSize) {
+            this.session = session;
+            this.results = results;
+            this.fetchSize = fetchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (hasNext == null) {
+                hasNext = results.next();
+            }
+            return hasNext;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNext = null;
+            if (count > 0 && count % fetchSize == 0) {
+                session.clear();
+            }
+            count++;
+            return (T) results.get(0);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            results.close();
+        }
+
+    }
+
 }
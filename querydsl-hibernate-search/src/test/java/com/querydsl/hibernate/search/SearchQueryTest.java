@@ -23,9 +23,11 @@ import org.hibernate.Session;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.NonUniqueResultException;
 import com.querydsl.core.QueryResults;
 import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
 
 public class SearchQueryTest extends AbstractQueryTest {
@@ -138,6 +140,71 @@ public class SearchQueryTest extends AbstractQueryTest {
         assertEquals(4, users.getTotal());
     }
 
+    @Test
+    public void scroll() {
+        List<User> users = new ArrayList<User>();
+        CloseableIterator<User> iterator = query().where(user.middleName.eq("X"))
+                .orderBy(user.firstName.asc()).scroll(3);
+        try {
+            while (iterator.hasNext()) {
+                users.add(iterator.next());
+            }
+        } finally {
+            iterator.close();
+        }
+        assertEquals(Arrays.asList("Anton", "Barbara", "John", "Robert"), getFirstNames(users));
+        assertFalse(getSession().contains(users.get(0)));
+        assertTrue(getSession().contains(users.get(3)));
+    }
+
+    @Test
+    public void projection() {
+        List<String> names = query().where(user.middleName.eq("X"))
+                .orderBy(user.firstName.asc()).select(user.firstName).fetch();
+        assertEquals(Arrays.asList("Anton", "Barbara", "John", "Robert"), names);
+    }
+
+    @Test
+    public void projection_fetchFirst() {
+        SearchQuery<User> query = query().where(user.middleName.eq("X")).orderBy(user.firstName.asc());
+        assertEquals("Anton", query.select(user.firstName).fetchFirst());
+        assertEquals(4, query.select(user.firstName).fetch().size());
+    }
+
+    @Test
+    public void projection_iterate() {
+        List<String> names = new ArrayList<String>();
+        CloseableIterator<String> iterator = query().where(user.middleName.eq("X"))
+                .orderBy(user.firstName.asc()).select(user.firstName).iterate();
+        try {
+            while (iterator.hasNext()) {
+                names.add(iterator.next());
+            }
+        } finally {
+            iterator.close();
+        }
+        assertEquals(Arrays.asList("Anton", "Barbara", "John", "Robert"), names);
+    }
+
+    @Test
+    public void projection_bean() {
+        User u = query().where(user.emailAddress.eq("bob@example.com"))
+                .select(Projections.bean(User.class, user.firstName, user.lastName, user.emailAddress))
+                .fetchOne();
+        assertEquals("Bob", u.getFirstName());
+        assertEquals("Smith", u.getLastName());
+        assertEquals("bob@example.com", u.getEmailAddress());
+        assertFalse(getSession().contains(u));
+    }
+
+    @Test
+    public void projection_results() {
+        QueryResults<String> results = query().where(user.middleName.eq("X"))
+                .orderBy(user.firstName.asc()).limit(2).select(user.firstName).fetchResults();
+        assertEquals(Arrays.asList("Anton", "Barbara"), results.getResults());
+        assertEquals(4, results.getTotal());
+    }
+
     @Test
     public void no_where() {
         assertEquals(5, query().fetch().size());
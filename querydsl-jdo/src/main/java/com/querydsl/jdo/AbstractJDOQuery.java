@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.util.*;
 
 import javax.annotation.Nullable;
+import javax.jdo.JDOHelper;
 import javax.jdo.JDOUserException;
 import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
@@ -26,6 +27,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import com.google.common.base.Function;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.mysema.commons.lang.CloseableIterator;
 import com.mysema.commons.lang.IteratorAdapter;
@@ -68,6 +71,9 @@ public abstract class AbstractJDOQuery<T, Q extends AbstractJDOQuery<T, Q>> exte
     @Nullable
     protected Integer maxFetchDepth;
 
+    @Nullable
+    protected Integer fetchSize;
+
     @Nullable
     private FactoryExpression<?> projection;
 
@@ -155,6 +161,9 @@ public abstract class AbstractJDOQuery<T, Q extends AbstractJDOQuery<T, Q>> exte
             if (maxFetchDepth != null) {
                 query.getFetchPlan().setMaxFetchDepth(maxFetchDepth);
             }
+            if (fetchSize != null) {
+                query.getFetchPlan().setFetchSize(fetchSize);
+            }
         }
 
         return query;
@@ -183,6 +192,21 @@ public abstract class AbstractJDOQuery<T, Q extends AbstractJDOQuery<T, Q>> exte
         }
     }
 
+    @Nullable
+    private Object detachRow(@Nullable Object row) {
+        if (row instanceof Object[]) {
+            Object[] values = ((Object[]) row).clone();
+            for (int i = 0; i < values.length; i++) {
+                values[i] = detachRow(values[i]);
+            }
+            return values;
+        } else if (JDOHelper.isPersistent(row)) {
+            return persistenceManager.detachCopy(row);
+        } else {
+            return row;
+        }
+    }
+
     private Object project(FactoryExpression<?> expr, Object row) {
         if (row == null) {
             return null;
@@ -194,13 +218,17 @@ public abstract class AbstractJDOQuery<T, Q extends AbstractJDOQuery<T, Q>> exte
     }
 
     @Nullable
-    private Object execute(Query query, boolean forCount) {
-        Object rv;
+    private Object executeQuery(Query query) {
         if (!orderedConstants.isEmpty()) {
-            rv = query.executeWithArray(orderedConstants.toArray());
+            return query.executeWithArray(orderedConstants.toArray());
         } else {
-            rv = query.execute();
+            return query.execute();
         }
+    }
+
+    @Nullable
+    private Object execute(Query query, boolean forCount) {
+        Object rv = executeQuery(query);
         if (isDetach()) {
             rv = detach(rv);
         }
@@ -237,9 +265,43 @@ public abstract class AbstractJDOQuery<T, Q extends AbstractJDOQuery<T, Q>> exte
         return detach;
     }
 
+    /**
+     * Iterate lazily over the results. Rows are read through the result iterator of the
+     * JDO implementation, in batches of the fetch size, and detached and projected one by one.
+     * The iterator needs to be closed to release the underlying query.
+     *
+     * @return result iterator
+     */
     @Override
     public CloseableIterator<T> iterate() {
-        return new IteratorAdapter<T>(fetch().iterator(), closeable);
+        try {
+            Object rv = executeQuery(createQuery(false));
+            Iterator<?> rows;
+            if (rv instanceof Collection) {
+                rows = ((Collection<?>) rv).iterator();
+            } else if (rv != null) {
+                rows = Iterators.singletonIterator(rv);
+            } else {
+                // unique query without result
+                rows = Collections.emptySet().iterator();
+            }
+            Iterator<T> results = Iterators.transform(rows, new Function<Object, T>() {
+                @SuppressWarnings("unchecked") // Compile time checking of user code mandates it to be T
+                @Override
+                public T apply(@Nullable Object row) {
+                    if (isDetach()) {
+                        row = detachRow(row);
+                    }
+                    if (projection != null) {
+                        row = project(projection, row);
+                    }
+                    return (T) row;
+                }
+            });
+            return new IteratorAdapter<T>(results, closeable);
+        } finally {
+            reset();
+        }
     }
 
     @Override
@@ -293,6 +355,20 @@ public abstract class AbstractJDOQuery<T, Q extends AbstractJDOQuery<T, Q>> exte
         return queryMixin.getSelf();
     }
 
+    /**
+     * Set the number of rows to fetch per batch when iterating over the results.
+     * {@link javax.jdo.FetchPlan#FETCH_SIZE_GREEDY} loads all results at once and
+     * {@link javax.jdo.FetchPlan#FETCH_SIZE_OPTIMAL} leaves the choice to the implementation.
+     *
+     * @param fetchSize fetch size
+     * @return the current object
+     */
+    @Override
+    public Q setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return queryMixin.getSelf();
+    }
+
     @Override
     public String toString() {
         if (!queryMixin.getMetadata().getJoins().isEmpty()) {
@@ -79,6 +79,16 @@ public interface JDOQLQuery<T> extends FetchableQuery<T, JDOQLQuery<T>>, Query<J
      */
     JDOQLQuery<T> setMaxFetchDepth(int maxFetchDepth);
 
+    /**
+     * Set the number of rows to fetch per batch when iterating over the results.
+     * A value of 0 (FETCH_SIZE_OPTIMAL) leaves the choice to the implementation
+     * and a value of -1 (FETCH_SIZE_GREEDY) loads all results at once.
+     *
+     * @param fetchSize fetch size
+     * @return the current object
+     */
+    JDOQLQuery<T> setFetchSize(int fetchSize);
+
     /**
      * Close the query and related resources
      */
@@ -58,8 +58,12 @@ public final class JDOQLSerializer extends SerializerBase<JDOQLSerializer> {
 
     private static final String SELECT_UNIQUE = "SELECT UNIQUE ";
 
+    private static final String SET = "\nSET ";
+
     private static final String THIS = "this";
 
+    private static final String UPDATE = "UPDATE ";
+
     private static final String VARIABLES = "\nVARIABLES ";
 
     private static final String WHERE = "\nWHERE ";
@@ -196,6 +200,36 @@ public final class JDOQLSerializer extends SerializerBase<JDOQLSerializer> {
 
     }
 
+    public void serializeForUpdate(QueryMetadata metadata, Map<Path<?>, Expression<?>> updates) {
+        final Expression<?> source = metadata.getJoins().get(0).getTarget();
+        final Predicate where = metadata.getWhere();
+
+        constantToLabel.push(new HashMap<Object,String>());
+
+        append(UPDATE).append(source.getType().getName());
+        append(SET);
+        boolean first = true;
+        for (Map.Entry<Path<?>, Expression<?>> entry : updates.entrySet()) {
+            if (!first) {
+                append(COMMA);
+            }
+            handle(entry.getKey());
+            append(" = ");
+            handle(entry.getValue());
+            first = false;
+        }
+
+        if (where != null) {
+            append(WHERE).handle(where);
+        }
+
+        if (!getConstantToLabel().isEmpty()) {
+            append(serializeParameters(metadata.getParams()));
+        }
+
+        constantToLabel.pop();
+    }
+
     private void serializeModifiers(@Nullable Long limit, @Nullable Long offset) {
         append(RANGE);
         if (offset != null) {
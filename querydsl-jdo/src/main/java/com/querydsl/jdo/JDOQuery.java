@@ -93,6 +93,7 @@ public class JDOQuery<T> extends AbstractJDOQuery<T, JDOQuery<T>> {
                 getMetadata().clone(), isDetach());
         query.fetchGroups.addAll(fetchGroups);
         query.maxFetchDepth = maxFetchDepth;
+        query.fetchSize = fetchSize;
         return query;
     }
 
@@ -22,6 +22,7 @@ import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.jdo.dml.JDODeleteClause;
+import com.querydsl.jdo.dml.JDOUpdateClause;
 
 /**
  * Factory class for query and DML clause creation
@@ -41,6 +42,10 @@ public class JDOQueryFactory implements QueryFactory<JDOQuery<?>> {
         return new JDODeleteClause(persistenceManager.get(), path);
     }
 
+    public JDOUpdateClause update(EntityPath<?> path) {
+        return new JDOUpdateClause(persistenceManager.get(), path);
+    }
+
     /**
      * Create a new {@link JDOQuery} instance with the given projection
      *
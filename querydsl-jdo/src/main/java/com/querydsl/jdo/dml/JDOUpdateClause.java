@@ -16,18 +16,30 @@ package com.querydsl.jdo.dml;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
 import com.google.common.collect.Maps;
 import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinType;
 import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.dml.UpdateClause;
+import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jdo.JDOQLSerializer;
+import com.querydsl.jdo.JDOQLTemplates;
 
 /**
  * {@link UpdateClause} implementation for JDO
  *
+ * <p>The update is executed as a single JDOQL UPDATE statement, so the affected objects are not
+ * loaded into the persistence manager. With DataNucleus this requires the persistence property
+ * {@code datanucleus.query.jdoql.allowAll} to be set to true.</p>
+ *
  * @author tiwe
  *
  */
@@ -37,10 +49,66 @@ public class JDOUpdateClause implements UpdateClause<JDOUpdateClause> {
 
     private final Map<Path<?>, Expression<?>> updates = Maps.newLinkedHashMap();
 
+    @Nullable
+    private final PersistenceManager persistenceManager;
+
+    private final JDOQLTemplates templates;
+
+    @Nullable
+    private final EntityPath<?> entity;
+
+    /**
+     * Create a clause without persistence manager and entity, which can't be executed
+     *
+     * @deprecated use {@link #JDOUpdateClause(PersistenceManager, EntityPath)} instead
+     */
+    @Deprecated
+    public JDOUpdateClause() {
+        this(null, null, JDOQLTemplates.DEFAULT);
+    }
+
+    public JDOUpdateClause(PersistenceManager pm, EntityPath<?> entity) {
+        this(pm, entity, JDOQLTemplates.DEFAULT);
+    }
+
+    public JDOUpdateClause(@Nullable PersistenceManager persistenceManager, @Nullable EntityPath<?> entity,
+            JDOQLTemplates templates) {
+        this.entity = entity;
+        this.persistenceManager = persistenceManager;
+        this.templates = templates;
+        if (entity != null) {
+            metadata.addJoin(JoinType.DEFAULT, entity);
+        }
+    }
+
+    private JDOQLSerializer serialize() {
+        if (entity == null) {
+            throw new IllegalStateException("No entity given");
+        }
+        JDOQLSerializer serializer = new JDOQLSerializer(templates, entity);
+        serializer.serializeForUpdate(metadata, updates);
+        return serializer;
+    }
+
     @Override
     public long execute() {
-        // TODO : implement
-        throw new UnsupportedOperationException("Not yet implemented");
+        if (persistenceManager == null) {
+            throw new IllegalStateException("No persistence manager given");
+        }
+        JDOQLSerializer serializer = serialize();
+        Query query = persistenceManager.newQuery(serializer.toString());
+        try {
+            List<Object> constants = serializer.getConstants();
+            Object rv;
+            if (!constants.isEmpty()) {
+                rv = query.executeWithArray(constants.toArray());
+            } else {
+                rv = query.execute();
+            }
+            return rv != null ? ((Number) rv).longValue() : 0L;
+        } finally {
+            query.closeAll();
+        }
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -92,5 +160,9 @@ public class JDOUpdateClause implements UpdateClause<JDOUpdateClause> {
         return updates.isEmpty();
     }
 
+    @Override
+    public String toString() {
+        return entity != null ? serialize().toString() : super.toString();
+    }
 
 }
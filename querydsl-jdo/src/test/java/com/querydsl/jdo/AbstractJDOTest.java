@@ -27,6 +27,7 @@ import org.junit.Before;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.jdo.dml.JDODeleteClause;
+import com.querydsl.jdo.dml.JDOUpdateClause;
 import com.querydsl.jdo.test.domain.Book;
 import com.querydsl.jdo.test.domain.Product;
 import com.querydsl.jdo.test.domain.Store;
@@ -58,6 +59,10 @@ public abstract class AbstractJDOTest {
         return new JDODeleteClause(pm, entity, templates);
     }
 
+    protected JDOUpdateClause update(EntityPath<?> entity) {
+        return new JDOUpdateClause(pm, entity, templates);
+    }
+
     @Before
     public void setUp() {
         pm = pmf.getPersistenceManager();
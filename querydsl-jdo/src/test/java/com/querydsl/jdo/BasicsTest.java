@@ -17,6 +17,9 @@ import static org.junit.Assert.*;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
+
+import javax.jdo.JDOHelper;
 
 import org.junit.Assume;
 import org.junit.BeforeClass;
@@ -24,6 +27,8 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.NonUniqueResultException;
 import com.querydsl.core.types.Expression;
@@ -74,6 +79,82 @@ public class BasicsTest extends AbstractJDOTest {
         assertEquals(count, delete(product).execute());
     }
 
+    @Test
+    public void update() {
+        assertEquals(0, update(product).set(product.amount, 10).where(product.name.eq("XXX")).execute());
+        assertEquals(1, update(product)
+                .set(product.description, "Updated")
+                .set(product.amount, product.amount.add(1))
+                .where(product.name.eq("Sony Discman")).execute());
+        pm.evictAll();
+        assertEquals(Integer.valueOf(4), query().from(product)
+                .where(product.description.eq("Updated")).select(product.amount).fetchOne());
+    }
+
+    @Test
+    public void update_serialization() {
+        assertEquals("UPDATE com.querydsl.jdo.test.domain.Product" +
+            "\nSET this.description = null, this.amount = this.amount + a1" +
+            "\nWHERE this.name == a2" +
+            "\nPARAMETERS java.lang.Integer a1, java.lang.String a2",
+            update(product)
+                .setNull(product.description)
+                .set(product.amount, product.amount.add(1))
+                .where(product.name.eq("Sony Discman")).toString());
+    }
+
+    @Test
+    public void iterate() {
+        CloseableIterator<String> names = query().from(product).setFetchSize(1)
+                .orderBy(product.name.asc()).select(product.name).iterate();
+        try {
+            assertEquals(ImmutableList.of("Lord of the Rings by Tolkien", "Sony Discman"),
+                    Lists.newArrayList(names));
+        } finally {
+            names.close();
+        }
+    }
+
+    @Test
+    public void iterate_detached() {
+        CloseableIterator<Product> products = detachedQuery().from(product).select(product).iterate();
+        try {
+            List<Product> list = Lists.newArrayList(products);
+            assertEquals(2, list.size());
+            for (Product p : list) {
+                assertFalse(JDOHelper.isPersistent(p));
+            }
+        } finally {
+            products.close();
+        }
+    }
+
+    @Test
+    public void iterate_projection() {
+        CloseableIterator<Product> products = query().from(product)
+                .where(product.name.eq("Sony Discman"))
+                .select(Projections.bean(Product.class, product.name, product.amount)).iterate();
+        try {
+            Product p = products.next();
+            assertEquals("Sony Discman", p.getName());
+            assertEquals(3, p.getAmount());
+            assertFalse(products.hasNext());
+        } finally {
+            products.close();
+        }
+    }
+
+    @Test
+    public void iterate_unique_without_result() {
+        CloseableIterator<Integer> amounts = query().from(product)
+                .where(product.name.eq("XXX")).select(product.amount.max()).iterate();
+        try {
+            assertFalse(amounts.hasNext());
+        } finally {
+            amounts.close();
+        }
+    }
+
     @Test
     public void alias() {
         assertEquals(2, query().from(product).select(product.name.as(product.name)).fetch().size());
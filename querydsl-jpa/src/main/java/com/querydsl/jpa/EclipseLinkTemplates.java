@@ -52,7 +52,11 @@ public class EclipseLinkTemplates extends JPQLTemplates {
     }
 
     public EclipseLinkTemplates(char escape) {
-        super(escape, QUERY_HANDLER);
+        this(escape, QUERY_HANDLER);
+    }
+
+    public EclipseLinkTemplates(char escape, QueryHandler queryHandler) {
+        super(escape, queryHandler);
 
         ImmutableMap.Builder<Class<?>, String> builder = ImmutableMap.builder();
         builder.put(Short.class, "short");
@@ -60,9 +60,13 @@ public class HQLTemplates extends JPQLTemplates {
         this(DEFAULT_ESCAPE);
     }
 
-    @SuppressWarnings("unchecked")
     public HQLTemplates(char escape) {
-        super(escape, QUERY_HANDLER);
+        this(escape, QUERY_HANDLER);
+    }
+
+    @SuppressWarnings("unchecked")
+    public HQLTemplates(char escape, QueryHandler queryHandler) {
+        super(escape, queryHandler);
 
         ImmutableMap.Builder<Class<?>, String> builder = ImmutableMap.builder();
         builder.put(Byte.class, "byte");
@@ -13,7 +13,10 @@
  */
 package com.querydsl.jpa;
 
+import javax.annotation.Nullable;
+
 import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.support.ExpressionOptimizer;
 import com.querydsl.core.support.FetchableSubQueryBase;
 import com.querydsl.core.types.*;
 import com.querydsl.core.types.dsl.Expressions;
@@ -32,6 +35,9 @@ public abstract class JPAQueryBase<T, Q extends JPAQueryBase<T, Q>> extends Fetc
 
     private final JPQLTemplates templates;
 
+    @Nullable
+    private ExpressionOptimizer optimizer;
+
     @SuppressWarnings("unchecked")
     public JPAQueryBase(QueryMetadata md, JPQLTemplates templates) {
         super(new JPAQueryMixin<Q>(md));
@@ -44,6 +50,23 @@ public abstract class JPAQueryBase<T, Q extends JPAQueryBase<T, Q>> extends Fetc
         return templates;
     }
 
+    @Nullable
+    protected ExpressionOptimizer getOptimizer() {
+        return optimizer;
+    }
+
+    /**
+     * Set the optimizer to be applied to the predicates of this query before serialization
+     *
+     * @param optimizer optimizer or null to disable optimization
+     * @return the current object
+     */
+    @SuppressWarnings("unchecked")
+    public Q setOptimizer(@Nullable ExpressionOptimizer optimizer) {
+        this.optimizer = optimizer;
+        return (Q) this;
+    }
+
     protected abstract JPQLSerializer createSerializer();
 
     protected JPQLSerializer serialize(boolean forCountRow) {
@@ -56,8 +79,12 @@ public abstract class JPAQueryBase<T, Q extends JPAQueryBase<T, Q>> extends Fetc
                 throw new IllegalArgumentException("No sources given");
             }
         }
+        QueryMetadata metadata = queryMixin.getMetadata();
+        if (optimizer != null) {
+            metadata = optimizer.optimize(metadata);
+        }
         JPQLSerializer serializer = createSerializer();
-        serializer.serialize(queryMixin.getMetadata(), forCountRow, null);
+        serializer.serialize(metadata, forCountRow, null);
         return serializer;
     }
 
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.jpa;
+
+import javax.annotation.Nullable;
+import javax.persistence.Query;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.metrics.QueryMetrics;
+import com.querydsl.core.types.FactoryExpression;
+
+/**
+ * {@code MetricsQueryHandler} is a {@link QueryHandler} decorator which records the render and
+ * execution time and the returned rows of the {@code fetch}, {@code fetchOne}, {@code fetchCount}
+ * and {@code fetchResults} calls of {@link com.querydsl.jpa.impl.JPAQuery} into
+ * {@link QueryMetrics}, keyed by JPQL query shape
+ *
+ * <p>JPA doesn't expose statement preparation and row mapping separately, they are part of
+ * the execution time. Iterated queries are not recorded.</p>
+ *
+ * <p>Usage:</p>
+ * <pre>
+ * QueryMetrics metrics = new QueryMetrics();
+ * JPQLTemplates templates = new HQLTemplates(JPQLTemplates.DEFAULT_ESCAPE,
+ *     new MetricsQueryHandler(HQLTemplates.DEFAULT.getQueryHandler(), metrics));
+ * JPAQueryFactory queryFactory = new JPAQueryFactory(templates, entityManager);
+ * </pre>
+ */
+public class MetricsQueryHandler implements QueryHandler, QueryMetricsHandler {
+
+    private final QueryHandler delegate;
+
+    private final QueryMetrics metrics;
+
+    public MetricsQueryHandler(QueryHandler delegate, QueryMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public boolean createNativeQueryTyped() {
+        return delegate.createNativeQueryTyped();
+    }
+
+    @Override
+    public <T> CloseableIterator<T> iterate(Query query, @Nullable FactoryExpression<?> projection) {
+        return delegate.iterate(query, projection);
+    }
+
+    @Override
+    public void addScalar(Query query, String alias, Class<?> type) {
+        delegate.addScalar(query, alias, type);
+    }
+
+    @Override
+    public void addEntity(Query query, String alias, Class<?> type) {
+        delegate.addEntity(query, alias, type);
+    }
+
+    @Override
+    public boolean transform(Query query, FactoryExpression<?> projection) {
+        return delegate.transform(query, projection);
+    }
+
+    @Override
+    public boolean wrapEntityProjections() {
+        return delegate.wrapEntityProjections();
+    }
+
+    @Override
+    public void executed(String queryString, long renderTime, long executeTime, long rows) {
+        metrics.getShape(queryString).record(renderTime, 0, executeTime, 0, renderTime + executeTime, rows);
+        if (delegate instanceof QueryMetricsHandler) {
+            ((QueryMetricsHandler) delegate).executed(queryString, renderTime, executeTime, rows);
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.jpa;
+
+/**
+ * {@code QueryMetricsHandler} is an optional interface of {@link QueryHandler} implementations
+ * which are notified of executed queries
+ *
+ * <p>Queries are only timed, if the query handler of the templates implements this interface.</p>
+ */
+public interface QueryMetricsHandler {
+
+    /**
+     * Notify the handler of an executed query
+     *
+     * @param queryString query string
+     * @param renderTime time in nanoseconds spent rendering and creating the query
+     * @param executeTime time in nanoseconds spent executing the query and transforming the results
+     * @param rows number of returned rows
+     */
+    void executed(String queryString, long renderTime, long executeTime, long rows);
+
+}
@@ -349,6 +349,7 @@ public abstract class AbstractHibernateQuery<T, Q extends AbstractHibernateQuery
         lockModes.putAll(query.lockModes);
         readOnly = query.readOnly;
         timeout = query.timeout;
+        setOptimizer(query.getOptimizer());
     }
 
     protected abstract Q clone(SessionHolder sessionHolder);
@@ -37,6 +37,7 @@ import com.querydsl.jpa.JPAQueryBase;
 import com.querydsl.jpa.JPQLSerializer;
 import com.querydsl.jpa.JPQLTemplates;
 import com.querydsl.jpa.QueryHandler;
+import com.querydsl.jpa.QueryMetricsHandler;
 
 /**
  * Abstract base class for JPA API based implementations of the JPQLQuery interface
@@ -56,6 +57,9 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
 
     protected final QueryHandler queryHandler;
 
+    @Nullable
+    private final QueryMetricsHandler metricsHandler;
+
     @Nullable
     protected LockModeType lockMode;
 
@@ -72,14 +76,22 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
     public AbstractJPAQuery(EntityManager em, JPQLTemplates templates, QueryMetadata metadata) {
         super(metadata, templates);
         this.queryHandler = templates.getQueryHandler();
+        this.metricsHandler = queryHandler instanceof QueryMetricsHandler
+                ? (QueryMetricsHandler) queryHandler : null;
         this.entityManager = em;
     }
 
     @Override
     public long fetchCount() {
         try {
-            Query query = createQuery(null, true);
-            return (Long) query.getSingleResult();
+            long start = time();
+            JPQLSerializer serializer = serialize(true);
+            String queryString = serializer.toString();
+            Query query = createQuery(queryString, serializer.getConstantToLabel(), null, true);
+            long rendered = time();
+            long count = (Long) query.getSingleResult();
+            executed(queryString, start, rendered, 1);
+            return count;
         } finally {
             reset();
         }
@@ -96,10 +108,14 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
 
     private Query createQuery(@Nullable QueryModifiers modifiers, boolean forCount) {
         JPQLSerializer serializer = serialize(forCount);
-        String queryString = serializer.toString();
-        logQuery(queryString, serializer.getConstantToLabel());
+        return createQuery(serializer.toString(), serializer.getConstantToLabel(), modifiers, forCount);
+    }
+
+    private Query createQuery(String queryString, Map<Object, String> constantToLabel,
+            @Nullable QueryModifiers modifiers, boolean forCount) {
+        logQuery(queryString, constantToLabel);
         Query query = entityManager.createQuery(queryString);
-        JPAUtil.setConstants(query, serializer.getConstantToLabel(), getMetadata().getParams());
+        JPAUtil.setConstants(query, constantToLabel, getMetadata().getParams());
         if (modifiers != null && modifiers.isRestricting()) {
             Integer limit = modifiers.getLimitAsInteger();
             Integer offset = modifiers.getOffsetAsInteger();
@@ -198,8 +214,14 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
     @SuppressWarnings("unchecked")
     public List<T> fetch() {
         try {
-            Query query = createQuery();
-            return (List<T>) getResultList(query);
+            long start = time();
+            JPQLSerializer serializer = serialize(false);
+            String queryString = serializer.toString();
+            Query query = createQuery(queryString, serializer.getConstantToLabel(), getMetadata().getModifiers(), false);
+            long rendered = time();
+            List<T> results = (List<T>) getResultList(query);
+            executed(queryString, start, rendered, results.size());
+            return results;
         } finally {
             reset();
         }
@@ -208,13 +230,23 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
     @Override
     public QueryResults<T> fetchResults() {
         try {
-            Query countQuery = createQuery(null, true);
+            long start = time();
+            JPQLSerializer serializer = serialize(true);
+            String queryString = serializer.toString();
+            Query countQuery = createQuery(queryString, serializer.getConstantToLabel(), null, true);
+            long rendered = time();
             long total = (Long) countQuery.getSingleResult();
+            executed(queryString, start, rendered, 1);
             if (total > 0) {
                 QueryModifiers modifiers = getMetadata().getModifiers();
-                Query query = createQuery(modifiers, false);
+                start = time();
+                serializer = serialize(false);
+                queryString = serializer.toString();
+                Query query = createQuery(queryString, serializer.getConstantToLabel(), modifiers, false);
+                rendered = time();
                 @SuppressWarnings("unchecked")
                 List<T> list = (List<T>) getResultList(query);
+                executed(queryString, start, rendered, list.size());
                 return new QueryResults<T>(list, modifiers, total);
             } else {
                 return QueryResults.emptyResults();
@@ -225,6 +257,16 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
 
     }
 
+    private long time() {
+        return metricsHandler != null ? System.nanoTime() : 0L;
+    }
+
+    private void executed(String queryString, long start, long rendered, long rows) {
+        if (metricsHandler != null) {
+            metricsHandler.executed(queryString, rendered - start, System.nanoTime() - rendered, rows);
+        }
+    }
+
     protected void logQuery(String queryString, Map<Object, String> parameters) {
         if (logger.isDebugEnabled()) {
             String normalizedQuery = queryString.replace('\n', ' ');
@@ -249,8 +291,14 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
     @Override
     public T fetchOne() throws NonUniqueResultException {
         try {
-            Query query = createQuery(getMetadata().getModifiers(), false);
-            return (T) getSingleResult(query);
+            long start = time();
+            JPQLSerializer serializer = serialize(false);
+            String queryString = serializer.toString();
+            Query query = createQuery(queryString, serializer.getConstantToLabel(), getMetadata().getModifiers(), false);
+            long rendered = time();
+            T result = (T) getSingleResult(query);
+            executed(queryString, start, rendered, 1);
+            return result;
         } catch (javax.persistence.NoResultException e) {
             logger.trace(e.getMessage(),e);
             return null;
@@ -289,6 +337,7 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
         flushMode = query.flushMode;
         hints.putAll(query.hints);
         lockMode = query.lockMode;
+        setOptimizer(query.getOptimizer());
     }
 
     /**
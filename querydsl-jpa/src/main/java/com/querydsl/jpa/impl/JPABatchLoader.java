@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.jpa.impl;
+
+import java.util.List;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.support.BatchLoaderBase;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Path;
+
+/**
+ * {@code JPABatchLoader} coalesces by-key lookups of entities into batched {@code IN} queries
+ *
+ * @param <K> key type
+ * @param <T> entity type
+ */
+public class JPABatchLoader<K, T> extends BatchLoaderBase<K, T> {
+
+    private final JPAQueryFactory queryFactory;
+
+    private final EntityPath<T> entity;
+
+    private final Path<K> key;
+
+    public JPABatchLoader(JPAQueryFactory queryFactory, EntityPath<T> entity, Path<K> key) {
+        this(queryFactory, entity, key, DEFAULT_BATCH_SIZE);
+    }
+
+    public JPABatchLoader(JPAQueryFactory queryFactory, EntityPath<T> entity, Path<K> key, int batchSize) {
+        super(batchSize);
+        this.queryFactory = queryFactory;
+        this.entity = entity;
+        this.key = key;
+    }
+
+    @Override
+    protected List<Tuple> fetch(List<K> keys) {
+        return queryFactory.select(key, entity).from(entity)
+                .where(ExpressionUtils.in(key, keys)).fetch();
+    }
+
+}
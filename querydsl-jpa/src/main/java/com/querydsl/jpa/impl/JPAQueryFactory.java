@@ -20,6 +20,7 @@ import javax.persistence.EntityManager;
 import com.querydsl.core.Tuple;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.jpa.JPQLQueryFactory;
 import com.querydsl.jpa.JPQLTemplates;
@@ -130,6 +131,35 @@ public class JPAQueryFactory implements JPQLQueryFactory  {
         }
     }
 
+    /**
+     * Create a loader which coalesces lookups of entities by the given key into batched
+     * {@code IN} queries
+     *
+     * @param entity entity
+     * @param key key property
+     * @param <K> key type
+     * @param <T> entity type
+     * @return loader
+     */
+    public <K, T> JPABatchLoader<K, T> loader(EntityPath<T> entity, Path<K> key) {
+        return new JPABatchLoader<K, T>(this, entity, key);
+    }
+
+    /**
+     * Create a loader which coalesces lookups of entities by the given key into batched
+     * {@code IN} queries of at most {@code batchSize} keys
+     *
+     * @param entity entity
+     * @param key key property
+     * @param batchSize maximum amount of keys per query
+     * @param <K> key type
+     * @param <T> entity type
+     * @return loader
+     */
+    public <K, T> JPABatchLoader<K, T> loader(EntityPath<T> entity, Path<K> key, int batchSize) {
+        return new JPABatchLoader<K, T>(this, entity, key, batchSize);
+    }
+
     @Override
     public JPAQuery<?> query() {
         if (templates != null) {
@@ -0,0 +1,55 @@
+package com.querydsl.jpa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.querydsl.core.metrics.QueryMetrics;
+import com.querydsl.core.metrics.QueryShapeMetrics;
+
+public class MetricsQueryHandlerTest {
+
+    private final QueryMetrics metrics = new QueryMetrics();
+
+    @Test
+    public void hibernate() {
+        MetricsQueryHandler handler = new MetricsQueryHandler(HQLTemplates.DEFAULT.getQueryHandler(), metrics);
+        HQLTemplates templates = new HQLTemplates(JPQLTemplates.DEFAULT_ESCAPE, handler);
+        assertSame(handler, templates.getQueryHandler());
+        assertSame(metrics, handler.getMetrics());
+        assertEquals(HQLTemplates.DEFAULT.getQueryHandler().wrapEntityProjections(), handler.wrapEntityProjections());
+        assertEquals(HQLTemplates.DEFAULT.getQueryHandler().createNativeQueryTyped(), handler.createNativeQueryTyped());
+    }
+
+    @Test
+    public void eclipseLink() {
+        MetricsQueryHandler handler = new MetricsQueryHandler(EclipseLinkTemplates.DEFAULT.getQueryHandler(), metrics);
+        EclipseLinkTemplates templates = new EclipseLinkTemplates(JPQLTemplates.DEFAULT_ESCAPE, handler);
+        assertSame(handler, templates.getQueryHandler());
+        assertEquals(EclipseLinkTemplates.DEFAULT.getQueryHandler().wrapEntityProjections(), handler.wrapEntityProjections());
+    }
+
+    @Test
+    public void executed() {
+        MetricsQueryHandler handler = new MetricsQueryHandler(DefaultQueryHandler.DEFAULT, metrics);
+        handler.executed("select cat from Cat cat where cat.name = ?1", 100, 1000, 3);
+        handler.executed("select cat from Cat cat where cat.name = ?2", 100, 2000, 2);
+        QueryShapeMetrics shape = metrics.getShape("select cat from Cat cat where cat.name = ?1");
+        assertEquals("select cat from Cat cat where cat.name = ?", shape.getShape());
+        assertEquals(2, shape.getTotal().getCount());
+        assertEquals(2, shape.getExecute().getCount());
+        assertEquals(5, shape.getRows());
+    }
+
+    @Test
+    public void executed_forwarded() {
+        QueryMetrics inner = new QueryMetrics();
+        MetricsQueryHandler handler = new MetricsQueryHandler(
+                new MetricsQueryHandler(DefaultQueryHandler.DEFAULT, inner), metrics);
+        handler.executed("select cat from Cat cat", 100, 1000, 3);
+        assertEquals(1, metrics.getShape("select cat from Cat cat").getTotal().getCount());
+        assertEquals(1, inner.getShape("select cat from Cat cat").getTotal().getCount());
+    }
+
+}
@@ -257,7 +257,7 @@ public class LuceneSerializerTest {
 
     @Test
     public void eq_and_eq_and_eq() throws Exception {
-        testQuery(title.eq("Jurassic Park").and(year.eq(1990)).and(author.eq("Michael Crichton")), "+(+title:\"jurassic park\" +year:" + YEAR_PREFIX_CODED + ") +author:\"michael crichton\"", 1);
+        testQuery(title.eq("Jurassic Park").and(year.eq(1990)).and(author.eq("Michael Crichton")), "+title:\"jurassic park\" +year:" + YEAR_PREFIX_CODED + " +author:\"michael crichton\"", 1);
     }
 
     @Test(expected = UnsupportedOperationException.class)
@@ -105,9 +105,9 @@ public class LuceneSerializer {
     private Query toQuery(Operation<?> operation, QueryMetadata metadata) {
         Operator op = operation.getOperator();
         if (op == Ops.OR) {
-            return toTwoHandSidedQuery(operation, Occur.SHOULD, metadata);
+            return toBooleanQuery(operation.getArgs(), Occur.SHOULD, metadata);
         } else if (op == Ops.AND) {
-            return toTwoHandSidedQuery(operation, Occur.MUST, metadata);
+            return toBooleanQuery(operation.getArgs(), Occur.MUST, metadata);
         } else if (op == Ops.NOT) {
             BooleanQuery bq = new BooleanQuery();
             bq.add(new BooleanClause(toQuery(operation.getArg(0), metadata),
@@ -161,13 +161,18 @@ public class LuceneSerializer {
                 + operation);
     }
 
-    private Query toTwoHandSidedQuery(Operation<?> operation, Occur occur,
-            QueryMetadata metadata) {
-        Query lhs = toQuery(operation.getArg(0), metadata);
-        Query rhs = toQuery(operation.getArg(1), metadata);
+    private Query toBooleanQuery(List<Expression<?>> args, Occur occur, QueryMetadata metadata) {
         BooleanQuery bq = new BooleanQuery();
-        bq.add(createBooleanClause(lhs, occur));
-        bq.add(createBooleanClause(rhs, occur));
+        if (args.size() > BooleanQuery.getMaxClauseCount()) {
+            // nest the clauses to stay within the clause limit
+            int half = args.size() / 2;
+            bq.add(createBooleanClause(toBooleanQuery(args.subList(0, half), occur, metadata), occur));
+            bq.add(createBooleanClause(toBooleanQuery(args.subList(half, args.size()), occur, metadata), occur));
+        } else {
+            for (Expression<?> arg : args) {
+                bq.add(createBooleanClause(toQuery(arg, metadata), occur));
+            }
+        }
         return bq;
     }
 
@@ -294,8 +294,8 @@ public class LuceneSerializerTest {
         testQuery(
                 title.eq("Jurassic Park").and(year.eq(1990))
                         .and(author.eq("Michael Crichton")),
-                "+(+title:\"jurassic park\" +year:" + YEAR_PREFIX_CODED
-                        + ") +author:\"michael crichton\"", 1);
+                "+title:\"jurassic park\" +year:" + YEAR_PREFIX_CODED
+                        + " +author:\"michael crichton\"", 1);
     }
 
     @Test(expected = UnsupportedOperationException.class)
@@ -360,6 +360,20 @@ public class AbstractMetaDataExportMojo extends AbstractMojo {
      */
     private String tableTypesToExport;
 
+    /**
+     * read columns and keys for all tables of a schema pattern at once instead of per table
+     *
+     * @parameter default-value=false
+     */
+    private boolean bulkMetaData;
+
+    /**
+     * amount of threads used to serialize the tables read in bulk mode
+     *
+     * @parameter default-value=1
+     */
+    private int serializerThreads = 1;
+
     /**
      * java import added to generated query classes:
      * com.bar for package (without .* notation)
@@ -432,6 +446,8 @@ public class AbstractMetaDataExportMojo extends AbstractMojo {
             exporter.setExportViews(exportViews);
             exporter.setExportAll(exportAll);
             exporter.setTableTypesToExport(tableTypesToExport);
+            exporter.setBulkMetaData(bulkMetaData);
+            exporter.setSerializerThreads(serializerThreads);
             exporter.setExportPrimaryKeys(exportPrimaryKeys);
             exporter.setExportForeignKeys(exportForeignKeys);
             exporter.setExportDirectForeignKeys(exportDirectForeignKeys);
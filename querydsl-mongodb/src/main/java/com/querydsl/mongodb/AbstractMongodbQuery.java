@@ -26,6 +26,7 @@ import com.google.common.collect.Multimap;
 import com.mongodb.*;
 import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.*;
+import com.querydsl.core.support.ExpressionOptimizer;
 import com.querydsl.core.support.QueryMixin;
 import com.querydsl.core.types.*;
 import com.querydsl.core.types.dsl.CollectionPathBase;
@@ -54,6 +55,9 @@ public abstract class AbstractMongodbQuery<K, Q extends AbstractMongodbQuery<K,
 
     private ReadPreference readPreference;
 
+    @Nullable
+    private ExpressionOptimizer optimizer;
+
     /**
      * Create a new MongodbQuery instance
      *
@@ -395,6 +399,9 @@ public abstract class AbstractMongodbQuery<K, Q extends AbstractMongodbQuery<K,
     }
 
     private DBObject createQuery(@Nullable Predicate predicate) {
+        if (predicate != null && optimizer != null) {
+            predicate = optimizer.optimize(predicate);
+        }
         if (predicate != null) {
             return (DBObject) serializer.handle(predicate);
         } else {
@@ -411,6 +418,17 @@ public abstract class AbstractMongodbQuery<K, Q extends AbstractMongodbQuery<K,
         this.readPreference = readPreference;
     }
 
+    /**
+     * Sets the optimizer to be applied to the filter of this query before serialization
+     *
+     * @param optimizer optimizer or null to disable optimization
+     * @return the current object
+     */
+    public Q setOptimizer(@Nullable ExpressionOptimizer optimizer) {
+        this.optimizer = optimizer;
+        return queryMixin.getSelf();
+    }
+
     /**
      * Get the where definition as a DBObject instance
      *
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.mongodb;
+
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteResult;
+import com.mongodb.DBCollection;
+
+/**
+ * {@code MongodbBulkWrite} executes update and delete clauses against a collection as a single
+ * unordered bulk write
+ *
+ * <p>Example</p>
+ *
+ * <pre>{@code
+ * BulkWriteResult result = new MongodbBulkWrite(collection)
+ *     .add(new MongodbUpdateClause(collection, serializer)
+ *         .where(user.firstName.eq("Bob")).set(user.lastName, "Wilson"))
+ *     .add(new MongodbDeleteClause(collection, serializer)
+ *         .where(user.age.lt(18)))
+ *     .execute();
+ * }</pre>
+ *
+ * <p>The operations are sent to the server in batches and may be applied in any order. The
+ * result contains the matched, modified and removed document counts of all operations.</p>
+ */
+public class MongodbBulkWrite {
+
+    private final DBCollection collection;
+
+    private final BulkWriteOperation operation;
+
+    private int size;
+
+    public MongodbBulkWrite(DBCollection collection) {
+        this.collection = collection;
+        this.operation = collection.initializeUnorderedBulkOperation();
+    }
+
+    /**
+     * Add the given update clause
+     *
+     * @param clause update clause
+     * @return the current object
+     */
+    public MongodbBulkWrite add(MongodbUpdateClause clause) {
+        checkCollection(clause.getCollection());
+        clause.addTo(operation);
+        size++;
+        return this;
+    }
+
+    /**
+     * Add the given delete clause
+     *
+     * @param clause delete clause
+     * @return the current object
+     */
+    public MongodbBulkWrite add(MongodbDeleteClause clause) {
+        checkCollection(clause.getCollection());
+        clause.addTo(operation);
+        size++;
+        return this;
+    }
+
+    private void checkCollection(DBCollection other) {
+        if (!collection.getFullName().equals(other.getFullName())) {
+            throw new IllegalArgumentException("Clause targets " + other.getFullName()
+                    + ", but bulk write targets " + collection.getFullName());
+        }
+    }
+
+    /**
+     * Get the amount of added clauses
+     *
+     * @return amount of clauses
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Execute the added clauses
+     *
+     * @return result
+     */
+    public BulkWriteResult execute() {
+        if (size == 0) {
+            throw new IllegalStateException("No clauses added");
+        }
+        return operation.execute();
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.mongodb;
+
+import javax.annotation.Nullable;
+
+import com.mongodb.*;
+import com.querydsl.core.dml.DeleteClause;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+
+/**
+ * {@code MongodbDeleteClause} removes all documents of a collection matching the given filter
+ * with a single multi document delete
+ *
+ * <p>Example</p>
+ *
+ * <pre>{@code
+ * QUser user = QUser.user;
+ * new MongodbDeleteClause(collection, serializer)
+ *     .where(user.age.lt(18))
+ *     .execute();
+ * }</pre>
+ *
+ * @see MongodbBulkWrite
+ */
+public class MongodbDeleteClause implements DeleteClause<MongodbDeleteClause> {
+
+    private final DBCollection collection;
+
+    private final MongodbSerializer serializer;
+
+    @Nullable
+    private Predicate where;
+
+    public MongodbDeleteClause(DBCollection collection, MongodbSerializer serializer) {
+        this.collection = collection;
+        this.serializer = serializer;
+    }
+
+    @Override
+    public MongodbDeleteClause where(Predicate... o) {
+        for (Predicate p : o) {
+            where = ExpressionUtils.and(where, p);
+        }
+        return this;
+    }
+
+    /**
+     * Execute the delete and return the amount of removed documents
+     *
+     * @return amount of removed documents
+     */
+    @Override
+    public long execute() {
+        return executeWithResult().getRemovedCount();
+    }
+
+    /**
+     * Execute the delete and return the removed document count
+     *
+     * @return result
+     */
+    public BulkWriteResult executeWithResult() {
+        BulkWriteOperation operation = collection.initializeUnorderedBulkOperation();
+        addTo(operation);
+        return operation.execute();
+    }
+
+    void addTo(BulkWriteOperation operation) {
+        operation.find(getQuery()).remove();
+    }
+
+    DBCollection getCollection() {
+        return collection;
+    }
+
+    /**
+     * Get the filter as a DBObject instance
+     *
+     * @return filter
+     */
+    public DBObject getQuery() {
+        return where != null ? (DBObject) serializer.handle(where) : new BasicDBObject();
+    }
+
+    @Override
+    public String toString() {
+        return getQuery().toString();
+    }
+
+}
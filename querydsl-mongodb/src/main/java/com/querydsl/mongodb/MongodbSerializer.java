@@ -108,16 +108,19 @@ public abstract class MongodbSerializer implements Visitor<Object, Void> {
 
         } else if (op == Ops.AND) {
             BSONObject lhs = (BSONObject) handle(expr.getArg(0));
-            BSONObject rhs = (BSONObject) handle(expr.getArg(1));
-            if (Sets.intersection(lhs.keySet(), rhs.keySet()).isEmpty()) {
-                lhs.putAll(rhs);
-                return lhs;
-            } else {
-                BasicDBList list = new BasicDBList();
-                list.add(handle(expr.getArg(0)));
-                list.add(handle(expr.getArg(1)));
-                return asDBObject("$and", list);
+            for (int i = 1; i < expr.getArgs().size(); i++) {
+                BSONObject rhs = (BSONObject) handle(expr.getArg(i));
+                if (Sets.intersection(lhs.keySet(), rhs.keySet()).isEmpty()) {
+                    lhs.putAll(rhs);
+                } else {
+                    BasicDBList list = new BasicDBList();
+                    for (Expression<?> arg : expr.getArgs()) {
+                        list.add(handle(arg));
+                    }
+                    return asDBObject("$and", list);
+                }
             }
+            return lhs;
 
         } else if (op == Ops.NOT) {
             //Handle the not's child
@@ -133,8 +136,9 @@ public abstract class MongodbSerializer implements Visitor<Object, Void> {
 
         } else if (op == Ops.OR) {
             BasicDBList list = new BasicDBList();
-            list.add(handle(expr.getArg(0)));
-            list.add(handle(expr.getArg(1)));
+            for (Expression<?> arg : expr.getArgs()) {
+                list.add(handle(arg));
+            }
             return asDBObject("$or", list);
 
         } else if (op == Ops.NE) {
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.mongodb;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.mongodb.*;
+import com.querydsl.core.dml.UpdateClause;
+import com.querydsl.core.types.*;
+
+/**
+ * {@code MongodbUpdateClause} updates all documents of a collection matching the given filter
+ * with a single multi document update
+ *
+ * <p>Example</p>
+ *
+ * <pre>{@code
+ * QUser user = QUser.user;
+ * new MongodbUpdateClause(collection, serializer)
+ *     .where(user.firstName.eq("Bob"))
+ *     .set(user.lastName, "Wilson")
+ *     .increment(user.age, 1)
+ *     .execute();
+ * }</pre>
+ *
+ * <p>The bindings are translated to the {@code $set}, {@code $inc} and {@code $push} update
+ * operators. Values can only be given as constants, since they are evaluated on the server.</p>
+ *
+ * @see MongodbBulkWrite
+ */
+public class MongodbUpdateClause implements UpdateClause<MongodbUpdateClause> {
+
+    private final DBCollection collection;
+
+    private final MongodbSerializer serializer;
+
+    private final BasicDBObject updates = new BasicDBObject();
+
+    @Nullable
+    private Predicate where;
+
+    public MongodbUpdateClause(DBCollection collection, MongodbSerializer serializer) {
+        this.collection = collection;
+        this.serializer = serializer;
+    }
+
+    @Override
+    public MongodbUpdateClause where(Predicate... o) {
+        for (Predicate p : o) {
+            where = ExpressionUtils.and(where, p);
+        }
+        return this;
+    }
+
+    @Override
+    public <T> MongodbUpdateClause set(Path<T> path, @Nullable T value) {
+        if (value != null) {
+            return set(path, ConstantImpl.create(value));
+        } else {
+            return setNull(path);
+        }
+    }
+
+    @Override
+    public <T> MongodbUpdateClause set(Path<T> path, Expression<? extends T> expression) {
+        if (expression == null || expression instanceof NullExpression) {
+            return setNull(path);
+        } else if (expression instanceof Constant) {
+            addUpdate("$set", path, (Constant<?>) expression);
+            return this;
+        } else {
+            throw new UnsupportedOperationException("Only constant values are supported, got " + expression);
+        }
+    }
+
+    @Override
+    public <T> MongodbUpdateClause setNull(Path<T> path) {
+        addUpdate("$set", path, null);
+        return this;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Override
+    public MongodbUpdateClause set(List<? extends Path<?>> paths, List<?> values) {
+        for (int i = 0; i < paths.size(); i++) {
+            set((Path) paths.get(i), values.get(i));
+        }
+        return this;
+    }
+
+    /**
+     * Increment the given numeric path by the given amount
+     *
+     * @param path path to be incremented
+     * @param amount amount, negative to decrement
+     * @return the current object
+     */
+    public <T extends Number> MongodbUpdateClause increment(Path<T> path, T amount) {
+        addUpdate("$inc", path, ConstantImpl.create(amount));
+        return this;
+    }
+
+    /**
+     * Append the given value to the given array path
+     *
+     * @param path array path
+     * @param value value to be appended
+     * @return the current object
+     */
+    public <T> MongodbUpdateClause push(Path<? extends Collection<T>> path, T value) {
+        addUpdate("$push", path, ConstantImpl.create(value));
+        return this;
+    }
+
+    private void addUpdate(String operator, Path<?> path, @Nullable Constant<?> value) {
+        String key = (String) serializer.handle(path);
+        DBObject fields = (DBObject) updates.get(operator);
+        if (fields == null) {
+            fields = new BasicDBObject();
+            updates.put(operator, fields);
+        }
+        fields.put(key, value != null ? serializer.convert(path, value) : null);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return updates.isEmpty();
+    }
+
+    /**
+     * Execute the update and return the amount of matched documents
+     *
+     * @return amount of matched documents
+     */
+    @Override
+    public long execute() {
+        return executeWithResult().getMatchedCount();
+    }
+
+    /**
+     * Execute the update and return the matched and modified document counts
+     *
+     * @return result
+     */
+    public BulkWriteResult executeWithResult() {
+        BulkWriteOperation operation = collection.initializeUnorderedBulkOperation();
+        addTo(operation);
+        return operation.execute();
+    }
+
+    void addTo(BulkWriteOperation operation) {
+        if (updates.isEmpty()) {
+            throw new IllegalStateException("No updates given");
+        }
+        operation.find(getQuery()).update(getUpdate());
+    }
+
+    DBCollection getCollection() {
+        return collection;
+    }
+
+    /**
+     * Get the filter as a DBObject instance
+     *
+     * @return filter
+     */
+    public DBObject getQuery() {
+        return where != null ? (DBObject) serializer.handle(where) : new BasicDBObject();
+    }
+
+    /**
+     * Get the update operators as a DBObject instance
+     *
+     * @return update
+     */
+    public DBObject getUpdate() {
+        return updates;
+    }
+
+    @Override
+    public String toString() {
+        return getQuery() + " " + getUpdate();
+    }
+
+}
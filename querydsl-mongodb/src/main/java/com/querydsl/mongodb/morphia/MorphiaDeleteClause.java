@@ -0,0 +1,35 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.mongodb.morphia;
+
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.Morphia;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.mongodb.MongodbDeleteClause;
+
+/**
+ * {@code MorphiaDeleteClause} extends {@link MongodbDeleteClause} with Morphia specific field mapping
+ */
+public class MorphiaDeleteClause extends MongodbDeleteClause {
+
+    public MorphiaDeleteClause(Morphia morphia, Datastore datastore, EntityPath<?> entityPath) {
+        this(morphia, datastore, entityPath.getType());
+    }
+
+    public MorphiaDeleteClause(Morphia morphia, Datastore datastore, Class<?> entityType) {
+        super(datastore.getCollection(entityType), new MorphiaSerializer(morphia));
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.mongodb;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.UnknownHostException;
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.Morphia;
+
+import com.mongodb.BulkWriteResult;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoException;
+import com.querydsl.core.testutil.MongoDB;
+import com.querydsl.mongodb.domain.Address;
+import com.querydsl.mongodb.domain.QUser;
+import com.querydsl.mongodb.domain.User;
+import com.querydsl.mongodb.morphia.MorphiaDeleteClause;
+import com.querydsl.mongodb.morphia.MorphiaQuery;
+import com.querydsl.mongodb.morphia.MorphiaUpdateClause;
+
+@Category(MongoDB.class)
+public class MongodbBulkWriteTest {
+
+    private final QUser user = QUser.user;
+
+    private final MongoClient mongo;
+
+    private final Morphia morphia;
+
+    private final Datastore ds;
+
+    public MongodbBulkWriteTest() throws UnknownHostException, MongoException {
+        mongo = new MongoClient();
+        morphia = new Morphia().map(User.class);
+        ds = morphia.createDatastore(mongo, "testdb");
+    }
+
+    @Before
+    public void before() {
+        ds.delete(ds.createQuery(User.class));
+        addUser("Jaakko", "Jantunen", 20);
+        addUser("Jaakki", "Jantunen", 30);
+        addUser("Jaana", "Aakkonen", 40);
+        addUser("Jaana", "BeekkoNen", 50);
+    }
+
+    private void addUser(String first, String last, int age) {
+        ds.save(new User(first, last, age, new Date()));
+    }
+
+    private MorphiaUpdateClause update() {
+        return new MorphiaUpdateClause(morphia, ds, user);
+    }
+
+    private MorphiaDeleteClause delete() {
+        return new MorphiaDeleteClause(morphia, ds, user);
+    }
+
+    private MorphiaQuery<User> query() {
+        return new MorphiaQuery<User>(morphia, ds, user);
+    }
+
+    @Test
+    public void update_matched() {
+        assertEquals(2, update().where(user.lastName.eq("Jantunen")).set(user.lastName, "Virtanen").execute());
+        assertEquals(2, query().where(user.lastName.eq("Virtanen")).fetchCount());
+    }
+
+    @Test
+    public void update_counts() {
+        BulkWriteResult result = update().where(user.firstName.eq("Jaana"))
+                .set(user.lastName, "Aakkonen").executeWithResult();
+        assertEquals(2, result.getMatchedCount());
+        assertEquals(1, result.getModifiedCount());
+    }
+
+    @Test
+    public void increment_and_push() {
+        update().where(user.age.lt(35))
+                .increment(user.age, 5)
+                .push(user.addresses, new Address("Aakatu", "00100", null))
+                .execute();
+        assertEquals(2, query().where(user.age.in(25, 35)).fetchCount());
+        assertEquals(2, query().where(user.addresses.any().street.eq("Aakatu")).fetchCount());
+    }
+
+    @Test
+    public void delete_removed() {
+        assertEquals(2, delete().where(user.firstName.eq("Jaana")).execute());
+        assertEquals(2, query().fetchCount());
+    }
+
+    @Test
+    public void bulk() {
+        BulkWriteResult result = new MongodbBulkWrite(ds.getCollection(User.class))
+                .add(update().where(user.age.lt(35)).setNull(user.lastName))
+                .add(update().where(user.age.eq(40)).set(user.age, 40))
+                .add(delete().where(user.age.eq(50)))
+                .execute();
+        assertEquals(3, result.getMatchedCount());
+        assertEquals(2, result.getModifiedCount());
+        assertEquals(1, result.getRemovedCount());
+        assertEquals(3, query().fetchCount());
+        assertEquals(2, query().where(user.lastName.isNull()).fetchCount());
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.mongodb;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.Morphia;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.MongoClient;
+import com.querydsl.mongodb.domain.*;
+import com.querydsl.mongodb.domain.User.Gender;
+import com.querydsl.mongodb.morphia.MorphiaDeleteClause;
+import com.querydsl.mongodb.morphia.MorphiaUpdateClause;
+
+public class MongodbDMLClauseTest {
+
+    private final QUser user = QUser.user;
+
+    private MongoClient mongo;
+
+    private Morphia morphia;
+
+    private Datastore ds;
+
+    @Before
+    public void setUp() {
+        // no connection is made unless an operation is executed
+        mongo = new MongoClient();
+        morphia = new Morphia().map(User.class).map(Item.class);
+        ds = morphia.createDatastore(mongo, "testdb");
+    }
+
+    @After
+    public void tearDown() {
+        mongo.close();
+    }
+
+    private MorphiaUpdateClause update() {
+        return new MorphiaUpdateClause(morphia, ds, user);
+    }
+
+    @Test
+    public void set() {
+        MongodbUpdateClause clause = update().where(user.firstName.eq("Bob")).set(user.lastName, "Wilson");
+        assertEquals(new BasicDBObject("firstName", "Bob"), clause.getQuery());
+        assertEquals(new BasicDBObject("$set", new BasicDBObject("lastName", "Wilson")), clause.getUpdate());
+    }
+
+    @Test
+    public void set_multiple() {
+        MongodbUpdateClause clause = update()
+                .set(Arrays.asList(user.firstName, user.lastName), Arrays.asList("Bob", null));
+        assertEquals(new BasicDBObject("$set", new BasicDBObject("firstName", "Bob").append("lastName", null)),
+                clause.getUpdate());
+    }
+
+    @Test
+    public void setNull() {
+        MongodbUpdateClause clause = update().setNull(user.lastName);
+        assertEquals(new BasicDBObject("$set", new BasicDBObject("lastName", null)), clause.getUpdate());
+    }
+
+    @Test
+    public void set_enum() {
+        MongodbUpdateClause clause = update().set(user.gender, Gender.FEMALE);
+        assertEquals(new BasicDBObject("$set", new BasicDBObject("gender", "FEMALE")), clause.getUpdate());
+    }
+
+    @Test
+    public void set_embedded() {
+        MongodbUpdateClause clause = update().set(user.mainAddress(), new Address("Aakatu", "00100", null));
+        DBObject address = (DBObject) ((DBObject) clause.getUpdate().get("$set")).get("mainAddress");
+        assertEquals("Aakatu", address.get("street"));
+        assertEquals("00100", address.get("postCode"));
+    }
+
+    @Test
+    public void increment_and_push() {
+        Address address = new Address("Aakatu", "00100", null);
+        MongodbUpdateClause clause = update()
+                .where(user.age.lt(30))
+                .set(user.firstName, "Bob")
+                .increment(user.age, 1)
+                .push(user.addresses, address);
+        assertEquals(new BasicDBObject("age", new BasicDBObject("$lt", 30)), clause.getQuery());
+        DBObject update = clause.getUpdate();
+        assertEquals(Arrays.asList("$set", "$inc", "$push"), Arrays.asList(update.keySet().toArray()));
+        assertEquals(new BasicDBObject("age", 1), update.get("$inc"));
+        assertEquals("Aakatu", ((DBObject) ((DBObject) update.get("$push")).get("addresses")).get("street"));
+    }
+
+    @Test
+    public void where_multiple() {
+        MongodbUpdateClause clause = update().where(user.firstName.eq("Bob"), null, user.lastName.eq("Wilson"));
+        assertEquals(new BasicDBObject("firstName", "Bob").append("lastName", "Wilson"), clause.getQuery());
+    }
+
+    @Test
+    public void isEmpty() {
+        assertTrue(update().isEmpty());
+        assertFalse(update().setNull(user.lastName).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void set_non_constant() {
+        update().set(user.lastName, user.firstName);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void bulk_empty_update() {
+        new MongodbBulkWrite(ds.getCollection(User.class)).add(update().where(user.age.lt(30)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bulk_other_collection() {
+        new MongodbBulkWrite(ds.getCollection(User.class))
+                .add(new MorphiaDeleteClause(morphia, ds, QItem.item));
+    }
+
+    @Test
+    public void bulk() {
+        MongodbBulkWrite bulk = new MongodbBulkWrite(ds.getCollection(User.class))
+                .add(update().where(user.age.lt(30)).increment(user.age, 1))
+                .add(new MorphiaDeleteClause(morphia, ds, user).where(user.age.gt(60)));
+        assertEquals(2, bulk.size());
+    }
+
+    @Test
+    public void delete() {
+        MongodbDeleteClause clause = new MorphiaDeleteClause(morphia, ds, user).where(user.firstName.eq("Bob"));
+        assertEquals(new BasicDBObject("firstName", "Bob"), clause.getQuery());
+        assertEquals(new BasicDBObject(), new MorphiaDeleteClause(morphia, ds, user).getQuery());
+    }
+
+}
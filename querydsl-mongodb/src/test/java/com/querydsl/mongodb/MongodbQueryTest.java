@@ -33,10 +33,12 @@ import com.mongodb.MongoException;
 import com.mongodb.ReadPreference;
 import com.querydsl.core.NonUniqueResultException;
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.support.ExpressionOptimizer;
 import com.querydsl.core.testutil.MongoDB;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.ListPath;
 import com.querydsl.core.types.dsl.StringPath;
 import com.querydsl.mongodb.domain.*;
@@ -593,6 +595,13 @@ public class MongodbQueryTest {
                 query.asDBObject());
     }
 
+    @Test
+    public void optimizer() {
+        MorphiaQuery<User> query = query().setOptimizer(new ExpressionOptimizer())
+                .where(user.firstName.eq("Bob"), Expressions.TRUE.isTrue(), user.firstName.eq("Bob"));
+        assertEquals(new BasicDBObject("firstName", "Bob"), query.asDBObject());
+    }
+
     @Test
     public void converter() {
         Country germany = new Country("Germany", Locale.GERMANY);
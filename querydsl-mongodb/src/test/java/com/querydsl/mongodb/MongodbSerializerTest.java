@@ -236,6 +236,33 @@ public class MongodbSerializerTest {
 
     }
 
+    @Test
+    public void and_nary() {
+        assertQuery(
+            title.eq("a").and(year.eq(1)).and(year.gt(2)),
+
+            dbo("$and", dblist(
+                dbo("title", "a"),
+                dbo("year", 1),
+                dbo("year", dbo("$gt", 2)))));
+
+        assertQuery(
+            title.eq("a").and(year.eq(1)).and(gross.eq(2.0)),
+
+            dbo("title", "a").append("year", 1).append("gross", 2.0));
+    }
+
+    @Test
+    public void or_nary() {
+        assertQuery(
+            title.eq("a").or(year.eq(1)).or(year.eq(2)),
+
+            dbo("$or", dblist(
+                dbo("title", "a"),
+                dbo("year", 1),
+                dbo("year", 2))));
+    }
+
     @Test
     public void near() {
         assertQuery(MongodbExpressions.near(new Point("point"), 1.0, 2.0),
@@ -517,4 +517,49 @@ public abstract class GeometryExpression<T extends Geometry> extends SimpleExpre
         return GeometryExpressions.geometryOperation(SpatialOps.TRANSFORM, mixin, ConstantImpl.create(srid));
     }
 
+    /**
+     * Returns a simplified version of this geometric object using the Douglas-Peucker algorithm.
+     * The result may be invalid, for example polygons may collapse or self-intersect.
+     *
+     * @param tolerance distance tolerance
+     * @return simplified geometry
+     */
+    public GeometryExpression<Geometry> simplify(double tolerance) {
+        return GeometryExpressions.geometryOperation(SpatialOps.SIMPLIFY, mixin, ConstantImpl.create(tolerance));
+    }
+
+    /**
+     * Returns a simplified version of this geometric object which keeps the topology of
+     * the input, so polygons stay valid and don't collapse.
+     *
+     * @param tolerance distance tolerance
+     * @return simplified geometry
+     */
+    public GeometryExpression<Geometry> simplifyPreserveTopology(double tolerance) {
+        return GeometryExpressions.geometryOperation(SpatialOps.SIMPLIFY_PRESERVE_TOPOLOGY, mixin,
+                ConstantImpl.create(tolerance));
+    }
+
+    /**
+     * Returns this geometric object with all coordinates snapped to a grid of the given cell size.
+     * Consecutive duplicate points are removed, which reduces the precision and size of the geometry.
+     *
+     * @param size grid cell size
+     * @return snapped geometry
+     */
+    public GeometryExpression<Geometry> snapToGrid(double size) {
+        return GeometryExpressions.geometryOperation(SpatialOps.SNAP_TO_GRID, mixin, ConstantImpl.create(size));
+    }
+
+    /**
+     * Exports this geometric object to the Tiny Well-known Binary representation, which stores
+     * coordinates as delta encoded integers with the given amount of decimal digits.
+     *
+     * @param precision amount of decimal digits
+     * @return TWKB representation
+     */
+    public SimpleExpression<byte[]> asTWKB(int precision) {
+        return Expressions.operation(byte[].class, SpatialOps.AS_TWKB, mixin, ConstantImpl.create(precision));
+    }
+
 }
@@ -114,6 +114,11 @@ public enum SpatialOps implements Operator {
     YMIN(Number.class),
     YMAX(Number.class),
     DWITHIN(Boolean.class),
+    ENVELOPE_INTERSECTS(Boolean.class),
+    SIMPLIFY(Object.class),
+    SIMPLIFY_PRESERVE_TOPOLOGY(Object.class),
+    SNAP_TO_GRID(Object.class),
+    AS_TWKB(Object.class),
     EXTENT(Object.class),
     COLLECT(Object.class),
     COLLECT2(Object.class),
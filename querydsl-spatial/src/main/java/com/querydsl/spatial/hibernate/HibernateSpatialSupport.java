@@ -64,6 +64,11 @@ public final class HibernateSpatialSupport {
         ops.put(SpatialOps.DIFFERENCE, "difference({0}, {1})");
         ops.put(SpatialOps.SYMDIFFERENCE, "symdifference({0}, {1})");
         ops.put(SpatialOps.DWITHIN, "dwithin({0}, {1}, {2}) = true");
+        ops.put(SpatialOps.ENVELOPE_INTERSECTS, "filter({0}, {1}) = true");
+        ops.put(SpatialOps.SIMPLIFY, "simplify({0}, {1})");
+        ops.put(SpatialOps.SIMPLIFY_PRESERVE_TOPOLOGY, "simplifypreservetopology({0}, {1})");
+        ops.put(SpatialOps.SNAP_TO_GRID, "snaptogrid({0}, {1})");
+        ops.put(SpatialOps.AS_TWKB, "astwkb({0}, {1})");
         ops.put(SpatialOps.TRANSFORM, "transform({0}, {1})");
 
         // custom
@@ -143,6 +143,19 @@ public final class JTSGeometryExpressions {
         return Expressions.booleanOperation(SpatialOps.DWITHIN, expr1, expr2, ConstantImpl.create(distance));
     }
 
+    /**
+     * Returns true if the bounding boxes of the geometries intersect. Dialects evaluate this
+     * via the spatial index, so it can be used as a cheap prefilter for exact predicates.
+     *
+     * @param expr1 geometry
+     * @param expr2 other geometry
+     * @return true, if the bounding boxes intersect
+     */
+    public static BooleanExpression envelopeIntersects(Expression<? extends Geometry> expr1,
+                                                       Expression<? extends Geometry> expr2) {
+        return Expressions.booleanOperation(SpatialOps.ENVELOPE_INTERSECTS, expr1, expr2);
+    }
+
     /**
      *  Returns the bounding box that bounds rows of geometries.
      *
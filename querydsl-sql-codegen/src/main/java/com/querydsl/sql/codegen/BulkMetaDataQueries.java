@@ -0,0 +1,204 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.codegen;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.annotation.Nullable;
+
+/**
+ * {@code BulkMetaDataQueries} provides the primary and foreign keys of all tables of a schema
+ * pattern in one result set each
+ *
+ * <p>The result sets have the layout of the corresponding {@link DatabaseMetaData} results,
+ * so that they can be consumed via {@link KeyDataFactory}. The JDBC API itself requires a table
+ * name for key lookups, so dialect specific catalog queries are used where needed.</p>
+ */
+abstract class BulkMetaDataQueries {
+
+    private static final String H2_PRIMARY_KEYS =
+            "select TABLE_CATALOG TABLE_CAT, TABLE_SCHEMA TABLE_SCHEM, TABLE_NAME, COLUMN_NAME, "
+            + "ORDINAL_POSITION KEY_SEQ, IFNULL(CONSTRAINT_NAME, INDEX_NAME) PK_NAME "
+            + "from INFORMATION_SCHEMA.INDEXES "
+            + "where TABLE_SCHEMA like ? and PRIMARY_KEY = TRUE "
+            + "order by TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME";
+
+    private static final String H2_CROSS_REFERENCES =
+            "select PKTABLE_CATALOG PKTABLE_CAT, PKTABLE_SCHEMA PKTABLE_SCHEM, PKTABLE_NAME, PKCOLUMN_NAME, "
+            + "FKTABLE_CATALOG FKTABLE_CAT, FKTABLE_SCHEMA FKTABLE_SCHEM, FKTABLE_NAME, FKCOLUMN_NAME, "
+            + "ORDINAL_POSITION KEY_SEQ, UPDATE_RULE, DELETE_RULE, FK_NAME, PK_NAME "
+            + "from INFORMATION_SCHEMA.CROSS_REFERENCES "
+            + "where %s like ? "
+            + "order by PKTABLE_SCHEMA, PKTABLE_NAME, FK_NAME, ORDINAL_POSITION";
+
+    private static final String ORACLE_PRIMARY_KEYS =
+            "select null table_cat, c.owner table_schem, c.table_name, c.column_name, "
+            + "c.position key_seq, c.constraint_name pk_name "
+            + "from all_cons_columns c, all_constraints k "
+            + "where k.constraint_type = 'P' and k.owner like ? "
+            + "and k.constraint_name = c.constraint_name and k.table_name = c.table_name "
+            + "and k.owner = c.owner "
+            + "order by c.owner, c.table_name, c.column_name";
+
+    private static final String ORACLE_CROSS_REFERENCES =
+            "select null pktable_cat, p.owner pktable_schem, p.table_name pktable_name, "
+            + "pc.column_name pkcolumn_name, null fktable_cat, f.owner fktable_schem, "
+            + "f.table_name fktable_name, fc.column_name fkcolumn_name, fc.position key_seq, "
+            + "null update_rule, null delete_rule, f.constraint_name fk_name, p.constraint_name pk_name "
+            + "from all_cons_columns pc, all_constraints p, all_cons_columns fc, all_constraints f "
+            + "where %s like ? and f.constraint_type = 'R' "
+            + "and p.owner = f.r_owner and p.constraint_name = f.r_constraint_name "
+            + "and p.constraint_type in ('P','U') "
+            + "and pc.owner = p.owner and pc.constraint_name = p.constraint_name "
+            + "and pc.table_name = p.table_name "
+            + "and fc.owner = f.owner and fc.constraint_name = f.constraint_name "
+            + "and fc.table_name = f.table_name and fc.position = pc.position "
+            + "order by p.owner, p.table_name, f.constraint_name, fc.position";
+
+    /**
+     * Get the bulk queries for the given database
+     *
+     * @param md database metadata
+     * @param schemaPattern schema pattern
+     * @return bulk queries or null, if the database is not supported
+     * @throws SQLException
+     */
+    @Nullable
+    static BulkMetaDataQueries forDatabase(DatabaseMetaData md, @Nullable String schemaPattern)
+            throws SQLException {
+        String name = md.getDatabaseProductName().toLowerCase();
+        if (name.equals("h2")) {
+            return new CatalogQueries(H2_PRIMARY_KEYS, H2_CROSS_REFERENCES,
+                    "FKTABLE_SCHEMA", "PKTABLE_SCHEMA");
+        } else if (name.equals("oracle")) {
+            return new CatalogQueries(ORACLE_PRIMARY_KEYS, ORACLE_CROSS_REFERENCES,
+                    "f.owner", "p.owner");
+        } else if (name.equals("postgresql") && (schemaPattern == null || !schemaPattern.contains("%"))) {
+            // the PostgreSQL driver accepts null table names, but matches schemas exactly
+            return new JDBCQueries();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Get the primary keys of all tables of the given schema pattern
+     *
+     * @param md database metadata
+     * @param schemaPattern schema pattern
+     * @return primary keys in {@link DatabaseMetaData#getPrimaryKeys(String, String, String)} layout
+     * @throws SQLException
+     */
+    abstract ResultSet getPrimaryKeys(DatabaseMetaData md, @Nullable String schemaPattern) throws SQLException;
+
+    /**
+     * Get the foreign keys of all tables of the given schema pattern
+     *
+     * @param md database metadata
+     * @param schemaPattern schema pattern
+     * @return foreign keys in {@link DatabaseMetaData#getImportedKeys(String, String, String)} layout
+     * @throws SQLException
+     */
+    abstract ResultSet getImportedKeys(DatabaseMetaData md, @Nullable String schemaPattern) throws SQLException;
+
+    /**
+     * Get the foreign keys referencing the tables of the given schema pattern
+     *
+     * @param md database metadata
+     * @param schemaPattern schema pattern
+     * @return foreign keys in {@link DatabaseMetaData#getExportedKeys(String, String, String)} layout
+     * @throws SQLException
+     */
+    abstract ResultSet getExportedKeys(DatabaseMetaData md, @Nullable String schemaPattern) throws SQLException;
+
+    /**
+     * Close the given result set
+     *
+     * @param rs result set
+     * @throws SQLException
+     */
+    void close(ResultSet rs) throws SQLException {
+        rs.close();
+    }
+
+    private static final class CatalogQueries extends BulkMetaDataQueries {
+
+        private final String primaryKeys, importedKeys, exportedKeys;
+
+        CatalogQueries(String primaryKeys, String crossReferences, String foreignSchema, String primarySchema) {
+            this.primaryKeys = primaryKeys;
+            this.importedKeys = String.format(crossReferences, foreignSchema);
+            this.exportedKeys = String.format(crossReferences, primarySchema);
+        }
+
+        private ResultSet query(DatabaseMetaData md, String sql, @Nullable String schemaPattern) throws SQLException {
+            PreparedStatement stmt = md.getConnection().prepareStatement(sql);
+            try {
+                stmt.setString(1, schemaPattern != null ? schemaPattern : "%");
+                return stmt.executeQuery();
+            } catch (SQLException e) {
+                stmt.close();
+                throw e;
+            }
+        }
+
+        @Override
+        ResultSet getPrimaryKeys(DatabaseMetaData md, String schemaPattern) throws SQLException {
+            return query(md, primaryKeys, schemaPattern);
+        }
+
+        @Override
+        ResultSet getImportedKeys(DatabaseMetaData md, String schemaPattern) throws SQLException {
+            return query(md, importedKeys, schemaPattern);
+        }
+
+        @Override
+        ResultSet getExportedKeys(DatabaseMetaData md, String schemaPattern) throws SQLException {
+            return query(md, exportedKeys, schemaPattern);
+        }
+
+        @Override
+        void close(ResultSet rs) throws SQLException {
+            Statement stmt = rs.getStatement();
+            try {
+                rs.close();
+            } finally {
+                stmt.close();
+            }
+        }
+    }
+
+    private static final class JDBCQueries extends BulkMetaDataQueries {
+
+        @Override
+        ResultSet getPrimaryKeys(DatabaseMetaData md, String schemaPattern) throws SQLException {
+            return md.getPrimaryKeys(null, schemaPattern, null);
+        }
+
+        @Override
+        ResultSet getImportedKeys(DatabaseMetaData md, String schemaPattern) throws SQLException {
+            return md.getImportedKeys(null, schemaPattern, null);
+        }
+
+        @Override
+        ResultSet getExportedKeys(DatabaseMetaData md, String schemaPattern) throws SQLException {
+            return md.getExportedKeys(null, schemaPattern, null);
+        }
+    }
+
+}
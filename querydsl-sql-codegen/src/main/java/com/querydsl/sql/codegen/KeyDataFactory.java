@@ -75,22 +75,7 @@ public class KeyDataFactory {
         Map<String,InverseForeignKeyData> inverseForeignKeyData = new HashMap<String,InverseForeignKeyData>();
         try {
             while (foreignKeys.next()) {
-                String name = foreignKeys.getString(FK_NAME);
-                String parentColumnName = namingStrategy.normalizeColumnName(foreignKeys.getString(FK_PARENT_COLUMN_NAME));
-                String foreignSchemaName = namingStrategy.normalizeSchemaName(foreignKeys.getString(FK_FOREIGN_SCHEMA_NAME));
-                String foreignTableName = namingStrategy.normalizeTableName(foreignKeys.getString(FK_FOREIGN_TABLE_NAME));
-                String foreignColumn = namingStrategy.normalizeColumnName(foreignKeys.getString(FK_FOREIGN_COLUMN_NAME));
-                if (name == null || name.isEmpty()) {
-                    name = tableName + "_" + foreignTableName + "_IFK";
-                }
-
-                InverseForeignKeyData data = inverseForeignKeyData.get(name);
-                if (data == null) {
-                    data = new InverseForeignKeyData(name, foreignSchemaName,
-                            foreignTableName, createType(foreignSchemaName, foreignTableName));
-                    inverseForeignKeyData.put(name, data);
-                }
-                data.add(parentColumnName, foreignColumn);
+                addExportedKey(inverseForeignKeyData, tableName, foreignKeys);
             }
             return inverseForeignKeyData;
         } finally {
@@ -98,28 +83,42 @@ public class KeyDataFactory {
         }
     }
 
+    /**
+     * Add the inverse foreign key column of the current row of a
+     * {@link DatabaseMetaData#getExportedKeys(String, String, String)} result
+     *
+     * @param inverseForeignKeyData inverse foreign keys of the table
+     * @param tableName table name
+     * @param foreignKeys exported keys result set
+     * @throws SQLException
+     */
+    public void addExportedKey(Map<String, InverseForeignKeyData> inverseForeignKeyData,
+            String tableName, ResultSet foreignKeys) throws SQLException {
+        String name = foreignKeys.getString(FK_NAME);
+        String parentColumnName = namingStrategy.normalizeColumnName(foreignKeys.getString(FK_PARENT_COLUMN_NAME));
+        String foreignSchemaName = namingStrategy.normalizeSchemaName(foreignKeys.getString(FK_FOREIGN_SCHEMA_NAME));
+        String foreignTableName = namingStrategy.normalizeTableName(foreignKeys.getString(FK_FOREIGN_TABLE_NAME));
+        String foreignColumn = namingStrategy.normalizeColumnName(foreignKeys.getString(FK_FOREIGN_COLUMN_NAME));
+        if (name == null || name.isEmpty()) {
+            name = tableName + "_" + foreignTableName + "_IFK";
+        }
+
+        InverseForeignKeyData data = inverseForeignKeyData.get(name);
+        if (data == null) {
+            data = new InverseForeignKeyData(name, foreignSchemaName,
+                    foreignTableName, createType(foreignSchemaName, foreignTableName));
+            inverseForeignKeyData.put(name, data);
+        }
+        data.add(parentColumnName, foreignColumn);
+    }
+
     public Map<String, ForeignKeyData> getImportedKeys(DatabaseMetaData md,
             String catalog, String schema, String tableName) throws SQLException {
         ResultSet foreignKeys = md.getImportedKeys(catalog, schema, tableName);
         Map<String,ForeignKeyData> foreignKeyData = new HashMap<String,ForeignKeyData>();
         try {
             while (foreignKeys.next()) {
-                String name = foreignKeys.getString(FK_NAME);
-                String parentSchemaName = namingStrategy.normalizeSchemaName(foreignKeys.getString(FK_PARENT_SCHEMA_NAME));
-                String parentTableName = namingStrategy.normalizeTableName(foreignKeys.getString(FK_PARENT_TABLE_NAME));
-                String parentColumnName = namingStrategy.normalizeColumnName(foreignKeys.getString(FK_PARENT_COLUMN_NAME));
-                String foreignColumn = namingStrategy.normalizeColumnName(foreignKeys.getString(FK_FOREIGN_COLUMN_NAME));
-                if (name == null || name.isEmpty()) {
-                    name = tableName + "_" + parentTableName + "_FK";
-                }
-
-                ForeignKeyData data = foreignKeyData.get(name);
-                if (data == null) {
-                    data = new ForeignKeyData(name, parentSchemaName, parentTableName,
-                            createType(parentSchemaName, parentTableName));
-                    foreignKeyData.put(name, data);
-                }
-                data.add(foreignColumn, parentColumnName);
+                addImportedKey(foreignKeyData, tableName, foreignKeys);
             }
             return foreignKeyData;
         } finally {
@@ -127,24 +126,42 @@ public class KeyDataFactory {
         }
     }
 
+    /**
+     * Add the foreign key column of the current row of a
+     * {@link DatabaseMetaData#getImportedKeys(String, String, String)} result
+     *
+     * @param foreignKeyData foreign keys of the table
+     * @param tableName table name
+     * @param foreignKeys imported keys result set
+     * @throws SQLException
+     */
+    public void addImportedKey(Map<String, ForeignKeyData> foreignKeyData,
+            String tableName, ResultSet foreignKeys) throws SQLException {
+        String name = foreignKeys.getString(FK_NAME);
+        String parentSchemaName = namingStrategy.normalizeSchemaName(foreignKeys.getString(FK_PARENT_SCHEMA_NAME));
+        String parentTableName = namingStrategy.normalizeTableName(foreignKeys.getString(FK_PARENT_TABLE_NAME));
+        String parentColumnName = namingStrategy.normalizeColumnName(foreignKeys.getString(FK_PARENT_COLUMN_NAME));
+        String foreignColumn = namingStrategy.normalizeColumnName(foreignKeys.getString(FK_FOREIGN_COLUMN_NAME));
+        if (name == null || name.isEmpty()) {
+            name = tableName + "_" + parentTableName + "_FK";
+        }
+
+        ForeignKeyData data = foreignKeyData.get(name);
+        if (data == null) {
+            data = new ForeignKeyData(name, parentSchemaName, parentTableName,
+                    createType(parentSchemaName, parentTableName));
+            foreignKeyData.put(name, data);
+        }
+        data.add(foreignColumn, parentColumnName);
+    }
+
     public Map<String, PrimaryKeyData> getPrimaryKeys(DatabaseMetaData md,
             String catalog, String schema, String tableName) throws SQLException {
         ResultSet primaryKeys = md.getPrimaryKeys(catalog, schema, tableName);
         Map<String,PrimaryKeyData> primaryKeyData = new HashMap<String,PrimaryKeyData>();
         try {
             while (primaryKeys.next()) {
-                String name = primaryKeys.getString(PK_NAME);
-                String columnName = primaryKeys.getString(PK_COLUMN_NAME);
-                if (name == null || name.isEmpty()) {
-                    name = tableName + "_PK";
-                }
-
-                PrimaryKeyData data = primaryKeyData.get(name);
-                if (data == null) {
-                    data = new PrimaryKeyData(name);
-                    primaryKeyData.put(name, data);
-                }
-                data.add(columnName);
+                addPrimaryKey(primaryKeyData, tableName, primaryKeys);
             }
             return primaryKeyData;
         } finally {
@@ -152,6 +169,31 @@ public class KeyDataFactory {
         }
     }
 
+    /**
+     * Add the primary key column of the current row of a
+     * {@link DatabaseMetaData#getPrimaryKeys(String, String, String)} result
+     *
+     * @param primaryKeyData primary keys of the table
+     * @param tableName table name
+     * @param primaryKeys primary keys result set
+     * @throws SQLException
+     */
+    public void addPrimaryKey(Map<String, PrimaryKeyData> primaryKeyData,
+            String tableName, ResultSet primaryKeys) throws SQLException {
+        String name = primaryKeys.getString(PK_NAME);
+        String columnName = primaryKeys.getString(PK_COLUMN_NAME);
+        if (name == null || name.isEmpty()) {
+            name = tableName + "_PK";
+        }
+
+        PrimaryKeyData data = primaryKeyData.get(name);
+        if (data == null) {
+            data = new PrimaryKeyData(name);
+            primaryKeyData.put(name, data);
+        }
+        data.add(columnName);
+    }
+
     private Type createType(@Nullable String schemaName, String table) {
         SchemaAndTable schemaAndTable = new SchemaAndTable(schemaName, table);
         String packageName = this.packageName;
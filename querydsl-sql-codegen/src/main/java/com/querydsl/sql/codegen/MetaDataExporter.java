@@ -21,6 +21,10 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.Nullable;
 
@@ -28,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Function;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.Files;
 import com.mysema.codegen.CodeWriter;
@@ -63,7 +68,7 @@ public class MetaDataExporter {
 
     private final SQLCodegenModule module = new SQLCodegenModule();
 
-    private final Set<String> classes = new HashSet<String>();
+    private final Set<String> classes = Collections.synchronizedSet(new HashSet<String>());
 
     private File targetFolder;
 
@@ -123,6 +128,10 @@ public class MetaDataExporter {
     @Nullable
     private String tableTypesToExport;
 
+    private boolean bulkMetaData = false;
+
+    private int serializerThreads = 1;
+
     public MetaDataExporter() { }
 
     protected EntityType createEntityType(SchemaAndTable schemaAndTable,
@@ -248,7 +257,11 @@ public class MetaDataExporter {
             schema = schema != null ? schema.trim() : null;
             for (String table : tables) {
                 table = table != null ? table.trim() : null;
-                handleTables(md, schema, table, typesArray);
+                if (bulkMetaData) {
+                    handleTablesInBulk(md, schema, table, typesArray);
+                } else {
+                    handleTables(md, schema, table, typesArray);
+                }
             }
         }
     }
@@ -264,6 +277,112 @@ public class MetaDataExporter {
         }
     }
 
+    private void handleTablesInBulk(DatabaseMetaData md, String schemaPattern, String tablePattern,
+            String[] types) throws SQLException {
+        // tables by catalog and schema and table name
+        Map<String, Map<SchemaAndTable, TableData>> tableData = new LinkedHashMap<String, Map<SchemaAndTable, TableData>>();
+        List<TableData> tableList = new ArrayList<TableData>();
+        ResultSet tables = md.getTables(null, schemaPattern, tablePattern, types);
+        try {
+            while (tables.next()) {
+                TableData table = createTableData(tables);
+                if (table != null) {
+                    Map<SchemaAndTable, TableData> catalogTables = tableData.get(table.catalog);
+                    if (catalogTables == null) {
+                        catalogTables = new HashMap<SchemaAndTable, TableData>();
+                        tableData.put(table.catalog, catalogTables);
+                    }
+                    catalogTables.put(new SchemaAndTable(table.schema, table.rawTableName), table);
+                    tableList.add(table);
+                }
+            }
+        } finally {
+            tables.close();
+        }
+        if (tableList.isEmpty()) {
+            return;
+        }
+
+        BulkMetaDataQueries queries = BulkMetaDataQueries.forDatabase(md, schemaPattern);
+        if (queries != null) {
+            if (exportPrimaryKeys) {
+                ResultSet primaryKeys = queries.getPrimaryKeys(md, schemaPattern);
+                try {
+                    while (primaryKeys.next()) {
+                        TableData table = getTableData(tableData, primaryKeys, 2);
+                        if (table != null) {
+                            keyDataFactory.addPrimaryKey(table.primaryKeys, table.tableName, primaryKeys);
+                        }
+                    }
+                } finally {
+                    queries.close(primaryKeys);
+                }
+            }
+            if (exportForeignKeys && exportDirectForeignKeys) {
+                ResultSet foreignKeys = queries.getImportedKeys(md, schemaPattern);
+                try {
+                    while (foreignKeys.next()) {
+                        TableData table = getTableData(tableData, foreignKeys, 6);
+                        if (table != null) {
+                            keyDataFactory.addImportedKey(table.foreignKeys, table.tableName, foreignKeys);
+                        }
+                    }
+                } finally {
+                    queries.close(foreignKeys);
+                }
+            }
+            if (exportForeignKeys && exportInverseForeignKeys) {
+                ResultSet foreignKeys = queries.getExportedKeys(md, schemaPattern);
+                try {
+                    while (foreignKeys.next()) {
+                        TableData table = getTableData(tableData, foreignKeys, 2);
+                        if (table != null) {
+                            keyDataFactory.addExportedKey(table.inverseForeignKeys, table.tableName, foreignKeys);
+                        }
+                    }
+                } finally {
+                    queries.close(foreignKeys);
+                }
+            }
+        } else {
+            logger.info("Found no bulk key queries for " + md.getDatabaseProductName()
+                    + ", keys are read per table");
+            for (TableData table : tableList) {
+                collectKeys(md, table);
+            }
+        }
+
+        // collect columns per catalog
+        for (Map.Entry<String, Map<SchemaAndTable, TableData>> entry : tableData.entrySet()) {
+            ResultSet columns = md.getColumns(entry.getKey(), schemaPattern, tablePattern, null);
+            try {
+                while (columns.next()) {
+                    TableData table = entry.getValue().get(new SchemaAndTable(
+                            columns.getString("TABLE_SCHEM"), columns.getString("TABLE_NAME")));
+                    if (table != null) {
+                        handleColumn(table.classModel, table.tableName, columns);
+                    }
+                }
+            } finally {
+                columns.close();
+            }
+        }
+
+        serialize(tableList);
+    }
+
+    @Nullable
+    private static TableData getTableData(Map<String, Map<SchemaAndTable, TableData>> tableData,
+            ResultSet rs, int schemaIndex) throws SQLException {
+        // the catalog precedes the schema in the key results
+        Map<SchemaAndTable, TableData> tables = tableData.get(rs.getString(schemaIndex - 1));
+        return tables != null ? tables.get(getTable(rs, schemaIndex)) : null;
+    }
+
+    private static SchemaAndTable getTable(ResultSet rs, int schemaIndex) throws SQLException {
+        return new SchemaAndTable(rs.getString(schemaIndex), rs.getString(schemaIndex + 1));
+    }
+
     Set<String> getClasses() {
         return classes;
     }
@@ -322,11 +441,13 @@ public class MetaDataExporter {
         classModel.addProperty(property);
     }
 
-    private void handleTable(DatabaseMetaData md, ResultSet tables) throws SQLException {
+    @Nullable
+    private TableData createTableData(ResultSet tables) throws SQLException {
         String catalog = tables.getString("TABLE_CAT");
         String schema = tables.getString("TABLE_SCHEM");
         String schemaName = normalize(tables.getString("TABLE_SCHEM"));
-        String tableName = normalize(tables.getString("TABLE_NAME"));
+        String rawTableName = tables.getString("TABLE_NAME");
+        String tableName = normalize(rawTableName);
 
         String normalizedSchemaName = namingStrategy.normalizeSchemaName(schemaName);
         String normalizedTableName = namingStrategy.normalizeTableName(tableName);
@@ -335,64 +456,79 @@ public class MetaDataExporter {
             normalizedSchemaName, normalizedTableName);
 
         if (!namingStrategy.shouldGenerateClass(schemaAndTable)) {
-            return;
+            return null;
         }
 
         String className = namingStrategy.getClassName(schemaAndTable);
         EntityType classModel = createEntityType(schemaAndTable, className);
+        return new TableData(catalog, schema, rawTableName, tableName, schemaAndTable, classModel);
+    }
 
+    private void collectKeys(DatabaseMetaData md, TableData table) throws SQLException {
         if (exportPrimaryKeys) {
-            // collect primary keys
-            Map<String,PrimaryKeyData> primaryKeyData = keyDataFactory
-                    .getPrimaryKeys(md, catalog, schema, tableName);
-            if (!primaryKeyData.isEmpty()) {
-                classModel.getData().put(PrimaryKeyData.class, primaryKeyData.values());
-            }
+            table.primaryKeys = keyDataFactory
+                    .getPrimaryKeys(md, table.catalog, table.schema, table.tableName);
         }
-
         if (exportForeignKeys) {
             if (exportDirectForeignKeys) {
-                // collect foreign keys
-                Map<String,ForeignKeyData> foreignKeyData = keyDataFactory
-                        .getImportedKeys(md, catalog, schema, tableName);
-                if (!foreignKeyData.isEmpty()) {
-                    Collection<ForeignKeyData> foreignKeysToGenerate = new HashSet<ForeignKeyData>();
-                    for (ForeignKeyData fkd : foreignKeyData.values()) {
-                        if (namingStrategy.shouldGenerateForeignKey(schemaAndTable, fkd)) {
-                            foreignKeysToGenerate.add(fkd);
-                        }
-                    }
+                table.foreignKeys = keyDataFactory
+                        .getImportedKeys(md, table.catalog, table.schema, table.tableName);
+            }
+            if (exportInverseForeignKeys) {
+                table.inverseForeignKeys = keyDataFactory
+                        .getExportedKeys(md, table.catalog, table.schema, table.tableName);
+            }
+        }
+    }
 
-                    if (!foreignKeysToGenerate.isEmpty()) {
-                        classModel.getData().put(ForeignKeyData.class, foreignKeysToGenerate);
-                    }
+    private void addKeys(TableData table) {
+        EntityType classModel = table.classModel;
+        if (!table.primaryKeys.isEmpty()) {
+            classModel.getData().put(PrimaryKeyData.class, table.primaryKeys.values());
+        }
+
+        if (!table.foreignKeys.isEmpty()) {
+            Collection<ForeignKeyData> foreignKeysToGenerate = new HashSet<ForeignKeyData>();
+            for (ForeignKeyData fkd : table.foreignKeys.values()) {
+                if (namingStrategy.shouldGenerateForeignKey(table.schemaAndTable, fkd)) {
+                    foreignKeysToGenerate.add(fkd);
                 }
             }
 
-            if (exportInverseForeignKeys) {
-                // collect inverse foreign keys
-                Map<String,InverseForeignKeyData> inverseForeignKeyData = keyDataFactory
-                        .getExportedKeys(md, catalog, schema, tableName);
-                if (!inverseForeignKeyData.isEmpty()) {
-                    classModel.getData().put(InverseForeignKeyData.class, inverseForeignKeyData.values());
-                }
+            if (!foreignKeysToGenerate.isEmpty()) {
+                classModel.getData().put(ForeignKeyData.class, foreignKeysToGenerate);
             }
         }
 
+        if (!table.inverseForeignKeys.isEmpty()) {
+            classModel.getData().put(InverseForeignKeyData.class, table.inverseForeignKeys.values());
+        }
+    }
+
+    private void handleTable(DatabaseMetaData md, ResultSet tables) throws SQLException {
+        TableData table = createTableData(tables);
+        if (table == null) {
+            return;
+        }
+
+        // collect keys
+        collectKeys(md, table);
+
         // collect columns
-        ResultSet columns = md.getColumns(catalog, schema, tableName.replace("/", "//"), null);
+        ResultSet columns = md.getColumns(table.catalog, table.schema, table.tableName.replace("/", "//"), null);
         try {
             while (columns.next()) {
-                handleColumn(classModel, tableName, columns);
+                handleColumn(table.classModel, table.tableName, columns);
             }
         } finally {
             columns.close();
         }
 
         // serialize model
-        serialize(classModel, schemaAndTable);
+        addKeys(table);
+        serialize(table.classModel, table.schemaAndTable);
 
-        logger.info("Exported " + tableName + " successfully");
+        logger.info("Exported " + table.tableName + " successfully");
     }
 
     private String normalize(String str) {
@@ -403,6 +539,42 @@ public class MetaDataExporter {
         }
     }
 
+    private void serialize(Collection<TableData> tables) {
+        if (serializerThreads > 1) {
+            ExecutorService executor = Executors.newFixedThreadPool(serializerThreads);
+            try {
+                List<Future<?>> futures = new ArrayList<Future<?>>(tables.size());
+                for (final TableData table : tables) {
+                    futures.add(executor.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            addKeys(table);
+                            serialize(table.classModel, table.schemaAndTable);
+                            logger.info("Exported " + table.tableName + " successfully");
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e.getMessage(), e);
+            } catch (ExecutionException e) {
+                Throwables.propagateIfPossible(e.getCause());
+                throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        } else {
+            for (TableData table : tables) {
+                addKeys(table);
+                serialize(table.classModel, table.schemaAndTable);
+                logger.info("Exported " + table.tableName + " successfully");
+            }
+        }
+    }
+
     private void serialize(EntityType type, SchemaAndTable schemaAndTable) {
         try {
             String fileSuffix = createScalaSources ? ".scala" : ".java";
@@ -774,4 +946,54 @@ public class MetaDataExporter {
         this.tableTypesToExport = tableTypesToExport;
     }
 
+    /**
+     * Set whether columns and keys should be read for all tables of a schema pattern at once
+     * instead of per table
+     *
+     * <p>Keys are read in bulk for H2, Oracle and PostgreSQL and per table for other databases.</p>
+     *
+     * @param bulkMetaData
+     */
+    public void setBulkMetaData(boolean bulkMetaData) {
+        this.bulkMetaData = bulkMetaData;
+    }
+
+    /**
+     * Set the amount of threads used to serialize the tables read in bulk mode (default: 1)
+     *
+     * <p>The used {@link NamingStrategy} and serializers need to be thread safe if more than
+     * one thread is used.</p>
+     *
+     * @param serializerThreads
+     */
+    public void setSerializerThreads(int serializerThreads) {
+        this.serializerThreads = serializerThreads;
+    }
+
+    private static final class TableData {
+
+        private final String catalog, schema, rawTableName, tableName;
+
+        private final SchemaAndTable schemaAndTable;
+
+        private final EntityType classModel;
+
+        private Map<String, PrimaryKeyData> primaryKeys = new HashMap<String, PrimaryKeyData>();
+
+        private Map<String, ForeignKeyData> foreignKeys = new HashMap<String, ForeignKeyData>();
+
+        private Map<String, InverseForeignKeyData> inverseForeignKeys = new HashMap<String, InverseForeignKeyData>();
+
+        TableData(String catalog, String schema, String rawTableName, String tableName,
+                SchemaAndTable schemaAndTable, EntityType classModel) {
+            this.catalog = catalog;
+            this.schema = schema;
+            this.rawTableName = rawTableName;
+            this.tableName = tableName;
+            this.schemaAndTable = schemaAndTable;
+            this.classModel = classModel;
+        }
+
+    }
+
 }
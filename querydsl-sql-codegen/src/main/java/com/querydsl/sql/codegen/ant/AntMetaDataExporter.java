@@ -247,6 +247,16 @@ public class AntMetaDataExporter extends Task {
      */
     private String tableTypesToExport;
 
+    /**
+     * read columns and keys for all tables of a schema pattern at once instead of per table
+     */
+    private boolean bulkMetaData;
+
+    /**
+     * amount of threads used to serialize the tables read in bulk mode
+     */
+    private int serializerThreads = 1;
+
     /**
      * java import added to generated query classes:
      * com.bar for package (without .* notation)
@@ -318,6 +328,8 @@ public class AntMetaDataExporter extends Task {
             exporter.setExportViews(exportViews);
             exporter.setExportAll(exportAll);
             exporter.setTableTypesToExport(tableTypesToExport);
+            exporter.setBulkMetaData(bulkMetaData);
+            exporter.setSerializerThreads(serializerThreads);
             exporter.setExportPrimaryKeys(exportPrimaryKeys);
             exporter.setExportForeignKeys(exportForeignKeys);
             exporter.setExportDirectForeignKeys(exportDirectForeignKeys);
@@ -731,6 +743,22 @@ public class AntMetaDataExporter extends Task {
         this.tableTypesToExport = tableTypesToExport;
     }
 
+    public boolean isBulkMetaData() {
+        return bulkMetaData;
+    }
+
+    public void setBulkMetaData(boolean bulkMetaData) {
+        this.bulkMetaData = bulkMetaData;
+    }
+
+    public int getSerializerThreads() {
+        return serializerThreads;
+    }
+
+    public void setSerializerThreads(int serializerThreads) {
+        this.serializerThreads = serializerThreads;
+    }
+
     public String[] getImports() {
         return imports;
     }
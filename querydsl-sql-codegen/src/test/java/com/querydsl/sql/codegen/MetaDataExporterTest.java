@@ -25,6 +25,8 @@ import javax.tools.JavaCompiler;
 import org.junit.*;
 import org.junit.rules.TemporaryFolder;
 
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
 import com.mysema.codegen.SimpleCompiler;
 import com.querydsl.codegen.BeanSerializer;
 import com.querydsl.core.util.FileUtils;
@@ -318,6 +320,35 @@ public class MetaDataExporterTest {
         assertTrue(new File(folder.getRoot(), "beans/test/DateTestBean.java").exists());
     }
 
+    @Test
+    public void bulkMetaData() throws SQLException, IOException {
+        File perTable = folder.newFolder("perTable");
+        File bulk = folder.newFolder("bulk");
+        Set<String> perTableClasses = export(perTable, false, 1).getClasses();
+        MetaDataExporter exporter = export(bulk, true, 4);
+
+        assertTrue(new File(bulk, "test/QEmployee.java").exists());
+        for (String path : exporter.getClasses()) {
+            String relative = path.substring(bulk.getPath().length());
+            assertEquals(relative,
+                    Files.toString(new File(perTable, relative), Charsets.UTF_8),
+                    Files.toString(new File(path), Charsets.UTF_8));
+        }
+        assertEquals(perTableClasses.size(), exporter.getClasses().size());
+    }
+
+    private MetaDataExporter export(File targetFolder, boolean bulkMetaData, int threads) throws SQLException {
+        MetaDataExporter exporter = new MetaDataExporter();
+        exporter.setSchemaPattern("PUBLIC");
+        exporter.setPackageName("test");
+        exporter.setTargetFolder(targetFolder);
+        exporter.setBeanSerializer(new BeanSerializer());
+        exporter.setBulkMetaData(bulkMetaData);
+        exporter.setSerializerThreads(threads);
+        exporter.export(metadata);
+        return exporter;
+    }
+
     private void test(String namePrefix, String nameSuffix, String beanPrefix, String beanSuffix,
             NamingStrategy namingStrategy, File targetDir, boolean withBeans,
             boolean withInnerClasses, boolean withOrdinalPositioning) throws SQLException {
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.spatial;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import javax.annotation.Nullable;
+
+import org.geolatte.geom.Geometry;
+
+import com.querydsl.sql.types.AbstractType;
+
+/**
+ * {@code GeometryTwkbType} reads geometries from columns in the Tiny Well-known Binary format
+ *
+ * <p>The type is meant for columns and projections holding TWKB, such as tile caches. Values
+ * are written as EWKB in NDR byte order, like {@link GeometryWkbType} does.</p>
+ *
+ * @see TWKBReader
+ */
+public class GeometryTwkbType extends AbstractType<Geometry> {
+
+    public static final GeometryTwkbType DEFAULT = new GeometryTwkbType();
+
+    public GeometryTwkbType() {
+        super(Types.BINARY);
+    }
+
+    @Override
+    public Class<Geometry> getReturnedClass() {
+        return Geometry.class;
+    }
+
+    @Override
+    @Nullable
+    public Geometry getValue(ResultSet rs, int startIndex) throws SQLException {
+        byte[] bytes = rs.getBytes(startIndex);
+        if (bytes != null) {
+            try {
+                return new TWKBReader().read(bytes);
+            } catch (IllegalArgumentException e) {
+                throw new SQLException(e);
+            }
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public void setValue(PreparedStatement st, int startIndex, Geometry value) throws SQLException {
+        GeometryWkbType.NDR.setValue(st, startIndex, value);
+    }
+
+}
@@ -50,6 +50,8 @@ public class MySQLSpatialTemplates extends MySQLTemplates {
         addCustomType(MySQLWkbType.DEFAULT);
         add(SpatialTemplatesSupport.getSpatialOps("", true));
         add(SpatialOps.NUM_INTERIOR_RING, "NumInteriorRings({0})");
+        add(SpatialOps.ENVELOPE_INTERSECTS, "MBRIntersects({0}, {1})");
+        add(SpatialOps.SIMPLIFY, "ST_Simplify({0}, {1})");
     }
 
 }
@@ -13,6 +13,7 @@
  */
 package com.querydsl.sql.spatial;
 
+import com.querydsl.spatial.SpatialOps;
 import com.querydsl.sql.OracleTemplates;
 import com.querydsl.sql.SQLTemplates;
 
@@ -47,6 +48,7 @@ public class OracleSpatialTemplates extends OracleTemplates {
     public OracleSpatialTemplates(char escape, boolean quote) {
         super(escape, quote);
         addCustomType(JGeometryType.DEFAULT);
+        add(SpatialOps.ENVELOPE_INTERSECTS, "SDO_FILTER({0}, {1}) = 'TRUE'");
         // TODO
     }
 
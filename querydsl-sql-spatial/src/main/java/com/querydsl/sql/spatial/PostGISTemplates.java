@@ -51,6 +51,10 @@ public class PostGISTemplates extends PostgreSQLTemplates {
         add(SpatialTemplatesSupport.getSpatialOps(true));
         add(SpatialOps.DISTANCE_SPHERE, "ST_Distance_Sphere({0}, {1})");
         add(SpatialOps.DISTANCE_SPHEROID, "ST_Distance_Spheroid({0}, {1})");
+        add(SpatialOps.ENVELOPE_INTERSECTS, "{0} && {1}", Precedence.COMPARISON);
+        add(SpatialOps.SIMPLIFY_PRESERVE_TOPOLOGY, "ST_SimplifyPreserveTopology({0}, {1})");
+        add(SpatialOps.SNAP_TO_GRID, "ST_SnapToGrid({0}, {1})");
+        add(SpatialOps.AS_TWKB, "ST_AsTWKB({0}, {1})");
     }
 
 }
@@ -54,6 +54,8 @@ public class SQLServer2008SpatialTemplates extends SQLServer2008Templates {
         add(SpatialOps.M, "{0}.M");
         add(SpatialOps.Z, "{0}.Z");
         add(SpatialOps.SRID, "{0}.STSrid");
+        add(SpatialOps.ENVELOPE_INTERSECTS, "{0}.Filter({1})");
+        add(SpatialOps.SIMPLIFY, "{0}.Reduce({1})");
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.spatial;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.querydsl.core.support.ExpressionOptimizer;
+import com.querydsl.core.types.*;
+import com.querydsl.spatial.SpatialOps;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLTemplates;
+
+/**
+ * {@code SpatialIndexOptimizer} rewrites spatial predicates into forms which can be evaluated
+ * via spatial indexes
+ *
+ * <p>The following rewrites are applied:</p>
+ * <ul>
+ *   <li>{@code intersects}, {@code within}, {@code contains}, {@code overlaps}, {@code touches} and
+ *   {@code crosses} predicates are preceded by an {@link SpatialOps#ENVELOPE_INTERSECTS} bounding box
+ *   filter, such as {@code &&} for PostGIS or {@code MBRIntersects} for MySQL</li>
+ *   <li>{@code distance(a, b) <= r} is replaced by {@code dwithin(a, b, r)} and
+ *   {@code distance(a, b) < r} is preceded by it</li>
+ * </ul>
+ *
+ * <p>The rewrites don't change the results, since the exact predicates imply the added filters.
+ * Usage:</p>
+ *
+ * <pre>{@code
+ * Configuration configuration = new Configuration(PostGISTemplates.DEFAULT);
+ * configuration.setOptimizer(new SpatialIndexOptimizer(configuration.getTemplates()));
+ * }</pre>
+ *
+ * @see Configuration#setOptimizer(ExpressionOptimizer)
+ */
+public class SpatialIndexOptimizer extends ExpressionOptimizer {
+
+    private static final Set<SpatialOps> PREFILTERED = EnumSet.of(SpatialOps.INTERSECTS,
+            SpatialOps.WITHIN, SpatialOps.CONTAINS, SpatialOps.OVERLAPS, SpatialOps.TOUCHES,
+            SpatialOps.CROSSES);
+
+    private final boolean prefilter;
+
+    private final boolean dwithin;
+
+    /**
+     * Create a new SpatialIndexOptimizer for the given dialect
+     *
+     * <p>Bounding box filters are added, if the dialect supports
+     * {@link SpatialOps#ENVELOPE_INTERSECTS}. Distance comparisons are rewritten for PostGIS only,
+     * since the other dialects either lack an index assisted {@code dwithin} or use the spatial
+     * index for distance comparisons directly.</p>
+     *
+     * @param templates dialect
+     */
+    public SpatialIndexOptimizer(SQLTemplates templates) {
+        this(templates.getTemplate(SpatialOps.ENVELOPE_INTERSECTS) != null,
+             templates instanceof PostGISTemplates);
+    }
+
+    /**
+     * Create a new SpatialIndexOptimizer
+     *
+     * @param prefilter add bounding box filters
+     * @param dwithin rewrite distance comparisons to dwithin
+     */
+    public SpatialIndexOptimizer(boolean prefilter, boolean dwithin) {
+        this.prefilter = prefilter;
+        this.dwithin = dwithin;
+    }
+
+    @Override
+    public Expression<?> visit(Operation<?> expr, Void context) {
+        Expression<?> rv = super.visit(expr, context);
+        if (rv instanceof Operation && rv instanceof Predicate) {
+            Operation<?> operation = (Operation<?>) rv;
+            Operator operator = operation.getOperator();
+            if (prefilter && PREFILTERED.contains(operator)) {
+                return ExpressionUtils.and(
+                        ExpressionUtils.predicate(SpatialOps.ENVELOPE_INTERSECTS,
+                                operation.getArg(0), operation.getArg(1)),
+                        (Predicate) operation);
+            } else if (dwithin) {
+                if (operator == Ops.LT || operator == Ops.LOE) {
+                    return dwithin(operation, operation.getArg(0), operation.getArg(1), operator == Ops.LOE);
+                } else if (operator == Ops.GT || operator == Ops.GOE) {
+                    return dwithin(operation, operation.getArg(1), operation.getArg(0), operator == Ops.GOE);
+                }
+            }
+        }
+        return rv;
+    }
+
+    private Expression<?> dwithin(Operation<?> operation, Expression<?> distance, Expression<?> limit,
+            boolean inclusive) {
+        if (distance instanceof Operation && ((Operation<?>) distance).getOperator() == SpatialOps.DISTANCE) {
+            Operation<?> op = (Operation<?>) distance;
+            Predicate within = ExpressionUtils.predicate(SpatialOps.DWITHIN, op.getArg(0), op.getArg(1), limit);
+            // dwithin is inclusive, strict comparisons are kept for the boundary
+            return inclusive ? within : ExpressionUtils.and(within, (Predicate) operation);
+        }
+        return operation;
+    }
+
+}
@@ -130,6 +130,7 @@ public final class SpatialTemplatesSupport {
         ops.put(SpatialOps.COLLECT2, createSpatial(prefix + "Collect", 2, asFunction));
         ops.put(SpatialOps.TRANSLATE, createSpatial(prefix + "Translate", 3, asFunction));
         ops.put(SpatialOps.TRANSLATE2, createSpatial(prefix + "Translate", 4, asFunction));
+        ops.put(SpatialOps.SIMPLIFY, createSpatial(prefix + "Simplify", 2, asFunction));
 
         return ops;
     }
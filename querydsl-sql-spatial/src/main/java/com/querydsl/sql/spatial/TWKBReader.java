@@ -0,0 +1,257 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.spatial;
+
+import org.geolatte.geom.*;
+import org.geolatte.geom.crs.CrsId;
+
+/**
+ * {@code TWKBReader} decodes geometries in the Tiny Well-known Binary format
+ *
+ * <p>TWKB stores coordinates as zigzag and varint encoded integer deltas scaled by the precision
+ * given in the header, such as the results of {@link com.querydsl.spatial.GeometryExpression#asTWKB(int)}.
+ * The decoded geometries have an undefined SRID, since TWKB doesn't carry one.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ */
+public class TWKBReader {
+
+    private static final GeometryType[] TYPES = new GeometryType[]{
+        GeometryType.POINT,
+        GeometryType.LINE_STRING,
+        GeometryType.POLYGON,
+        GeometryType.MULTI_POINT,
+        GeometryType.MULTI_LINE_STRING,
+        GeometryType.MULTI_POLYGON,
+        GeometryType.GEOMETRY_COLLECTION
+    };
+
+    private byte[] bytes;
+
+    private int position;
+
+    private boolean hasZ, hasM;
+
+    private DimensionalFlag dimensionalFlag;
+
+    private double[] scales;
+
+    private long[] coordinates;
+
+    /**
+     * Decode the given TWKB bytes
+     *
+     * @param bytes TWKB bytes
+     * @return geometry
+     */
+    public Geometry read(byte[] bytes) {
+        this.bytes = bytes;
+        this.position = 0;
+        try {
+            return readGeometry();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated TWKB at offset " + position, e);
+        }
+    }
+
+    private Geometry readGeometry() {
+        int header = bytes[position++] & 0xFF;
+        int typeCode = header & 0x0F;
+        if (typeCode < 1 || typeCode > TYPES.length) {
+            throw new IllegalArgumentException("Unsupported TWKB geometry type " + typeCode);
+        }
+        int precision = decodeZigZag(header >> 4);
+        int metadata = bytes[position++];
+        boolean hasBbox = (metadata & 1) != 0;
+        boolean hasSize = (metadata & 2) != 0;
+        boolean hasIds = (metadata & 4) != 0;
+        boolean hasExtendedDims = (metadata & 8) != 0;
+        boolean isEmpty = (metadata & 16) != 0;
+
+        hasZ = false;
+        hasM = false;
+        int zPrecision = 0, mPrecision = 0;
+        if (hasExtendedDims) {
+            int extendedDims = bytes[position++];
+            hasZ = (extendedDims & 1) != 0;
+            hasM = (extendedDims & 2) != 0;
+            zPrecision = (extendedDims >> 2) & 7;
+            mPrecision = (extendedDims >> 5) & 7;
+        }
+        int dimensions = 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+        dimensionalFlag = DimensionalFlag.valueOf(hasZ, hasM);
+        scales = new double[dimensions];
+        scales[0] = Math.pow(10, precision);
+        scales[1] = scales[0];
+        if (hasZ) {
+            scales[2] = Math.pow(10, zPrecision);
+        }
+        if (hasM) {
+            scales[dimensions - 1] = Math.pow(10, mPrecision);
+        }
+        coordinates = new long[dimensions];
+
+        if (hasSize) {
+            readVarInt();
+        }
+        if (hasBbox) {
+            // minimum and delta per dimension
+            for (int i = 0; i < dimensions * 2; i++) {
+                readVarInt();
+            }
+        }
+
+        GeometryType type = TYPES[typeCode - 1];
+        if (isEmpty) {
+            return createEmpty(type);
+        }
+        switch (type) {
+        case POINT: return readPoint();
+        case LINE_STRING: return new LineString(readPoints(readCount()));
+        case POLYGON: return readPolygon();
+        case MULTI_POINT: return readMultiPoint(hasIds);
+        case MULTI_LINE_STRING: return readMultiLineString(hasIds);
+        case MULTI_POLYGON: return readMultiPolygon(hasIds);
+        default: return readGeometryCollection(hasIds);
+        }
+    }
+
+    private Geometry createEmpty(GeometryType type) {
+        switch (type) {
+        case POINT: return Points.createEmpty();
+        case LINE_STRING: return LineString.createEmpty();
+        case POLYGON: return Polygon.createEmpty();
+        case MULTI_POINT: return MultiPoint.createEmpty();
+        case MULTI_LINE_STRING: return MultiLineString.createEmpty();
+        case MULTI_POLYGON: return MultiPolygon.createEmpty();
+        default: return GeometryCollection.createEmpty();
+        }
+    }
+
+    private Point readPoint() {
+        double[] c = readCoordinate();
+        if (hasM) {
+            if (hasZ) {
+                return Points.create3DM(c[0], c[1], c[2], c[3], CrsId.UNDEFINED);
+            } else {
+                return Points.create2DM(c[0], c[1], c[2], CrsId.UNDEFINED);
+            }
+        } else if (hasZ) {
+            return Points.create3D(c[0], c[1], c[2], CrsId.UNDEFINED);
+        } else {
+            return Points.create2D(c[0], c[1], CrsId.UNDEFINED);
+        }
+    }
+
+    private PointSequence readPoints(int count) {
+        PointSequenceBuilder builder = PointSequenceBuilders.fixedSized(count, dimensionalFlag, CrsId.UNDEFINED);
+        for (int i = 0; i < count; i++) {
+            builder.add(readCoordinate());
+        }
+        return builder.toPointSequence();
+    }
+
+    private Polygon readPolygon() {
+        int rings = readCount();
+        if (rings == 0) {
+            return Polygon.createEmpty();
+        }
+        LinearRing[] linearRings = new LinearRing[rings];
+        for (int i = 0; i < rings; i++) {
+            linearRings[i] = new LinearRing(readPoints(readCount()));
+        }
+        return new Polygon(linearRings);
+    }
+
+    private MultiPoint readMultiPoint(boolean hasIds) {
+        Point[] points = new Point[readParts(hasIds)];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = readPoint();
+        }
+        return new MultiPoint(points);
+    }
+
+    private MultiLineString readMultiLineString(boolean hasIds) {
+        LineString[] lineStrings = new LineString[readParts(hasIds)];
+        for (int i = 0; i < lineStrings.length; i++) {
+            lineStrings[i] = new LineString(readPoints(readCount()));
+        }
+        return new MultiLineString(lineStrings);
+    }
+
+    private MultiPolygon readMultiPolygon(boolean hasIds) {
+        Polygon[] polygons = new Polygon[readParts(hasIds)];
+        for (int i = 0; i < polygons.length; i++) {
+            polygons[i] = readPolygon();
+        }
+        return new MultiPolygon(polygons);
+    }
+
+    private GeometryCollection readGeometryCollection(boolean hasIds) {
+        Geometry[] geometries = new Geometry[readParts(hasIds)];
+        for (int i = 0; i < geometries.length; i++) {
+            // members are complete TWKB geometries with their own header
+            geometries[i] = readGeometry();
+        }
+        return new GeometryCollection(geometries);
+    }
+
+    private int readParts(boolean hasIds) {
+        int count = readCount();
+        if (hasIds) {
+            for (int i = 0; i < count; i++) {
+                readVarInt();
+            }
+        }
+        return count;
+    }
+
+    private double[] readCoordinate() {
+        double[] coordinate = new double[coordinates.length];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] += decodeZigZag(readVarInt());
+            coordinate[i] = coordinates[i] / scales[i];
+        }
+        return coordinate;
+    }
+
+    private int readCount() {
+        long count = readVarInt();
+        if (count < 0 || count > bytes.length) {
+            throw new IllegalArgumentException("Invalid TWKB element count " + count);
+        }
+        return (int) count;
+    }
+
+    private long readVarInt() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static int decodeZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
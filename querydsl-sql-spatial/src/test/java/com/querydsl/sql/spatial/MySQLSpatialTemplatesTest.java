@@ -1,7 +1,11 @@
 package com.querydsl.sql.spatial;
 
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
 import org.junit.Test;
 
+import com.querydsl.spatial.SpatialOps;
 import com.querydsl.sql.SQLTemplates;
 
 public class MySQLSpatialTemplatesTest {
@@ -13,4 +17,13 @@ public class MySQLSpatialTemplatesTest {
         //assertEquals("GeomFromText('POINT(2 2)')", templates.asLiteral(Wkt.fromWkt("Point(2 2)")));
     }
 
+    @Test
+    public void postgis_only_operations() {
+        SQLTemplates templates = new MySQLSpatialTemplates();
+        assertNotNull(templates.getTemplate(SpatialOps.SIMPLIFY));
+        assertNull(templates.getTemplate(SpatialOps.SIMPLIFY_PRESERVE_TOPOLOGY));
+        assertNull(templates.getTemplate(SpatialOps.SNAP_TO_GRID));
+        assertNull(templates.getTemplate(SpatialOps.AS_TWKB));
+    }
+
 }
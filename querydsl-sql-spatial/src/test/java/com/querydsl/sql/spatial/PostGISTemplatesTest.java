@@ -1,7 +1,12 @@
 package com.querydsl.sql.spatial;
 
+import static org.junit.Assert.assertEquals;
+
 import org.junit.Test;
 
+import com.querydsl.core.types.Expression;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLQuery;
 import com.querydsl.sql.SQLTemplates;
 
 public class PostGISTemplatesTest {
@@ -13,4 +18,22 @@ public class PostGISTemplatesTest {
         //assertEquals("'POINT(2 2)'", templates.asLiteral(Wkt.fromWkt("Point(2 2)")));
     }
 
+    private static String select(Expression<?> projection) {
+        String sql = new SQLQuery<Void>(new Configuration(PostGISTemplates.DEFAULT))
+                .select(projection).from(QShapes.shapes).getSQL().getSQL();
+        return sql.substring(7, sql.indexOf("from")).trim();
+    }
+
+    @Test
+    public void simplification() {
+        QShapes shapes = QShapes.shapes;
+        assertEquals("ST_Simplify(SHAPES.GEOMETRY, ?)", select(shapes.geometry.simplify(0.5)));
+        assertEquals("ST_SimplifyPreserveTopology(SHAPES.GEOMETRY, ?)",
+                select(shapes.geometry.simplifyPreserveTopology(0.5)));
+        assertEquals("ST_SnapToGrid(SHAPES.GEOMETRY, ?)", select(shapes.geometry.snapToGrid(0.01)));
+        assertEquals("ST_AsTWKB(ST_Simplify(SHAPES.GEOMETRY, ?), ?)",
+                select(shapes.geometry.simplify(0.5).asTWKB(5)));
+        assertEquals("ST_Envelope(SHAPES.GEOMETRY)", select(shapes.geometry.envelope()));
+    }
+
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.spatial;
+
+import static org.junit.Assert.assertEquals;
+
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.codec.Wkt;
+import org.junit.Test;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLTemplates;
+
+public class SpatialIndexOptimizerTest {
+
+    private final QShapes shapes = QShapes.shapes;
+
+    private final Geometry point = Wkt.fromWkt("Point(2 2)");
+
+    private final Geometry polygon = Wkt.fromWkt("Polygon((0 0, 0 4, 4 4, 4 0, 0 0))");
+
+    private String where(SQLTemplates templates, Predicate... where) {
+        Configuration configuration = new Configuration(templates);
+        configuration.setOptimizer(new SpatialIndexOptimizer(templates));
+        String sql = new SQLQuery<Void>(configuration).select(shapes.id).from(shapes).where(where)
+                .getSQL().getSQL();
+        return sql.substring(sql.indexOf("where") + 6);
+    }
+
+    @Test
+    public void intersects_postGIS() {
+        assertEquals("SHAPES.GEOMETRY && ? and ST_Intersects(SHAPES.GEOMETRY, ?)",
+                where(PostGISTemplates.DEFAULT, shapes.geometry.intersects(polygon)));
+    }
+
+    @Test
+    public void within_mySQL() {
+        assertEquals("MBRIntersects(SHAPES.GEOMETRY, ?) and Within(SHAPES.GEOMETRY, ?)",
+                where(MySQLSpatialTemplates.DEFAULT, shapes.geometry.within(polygon)));
+    }
+
+    @Test
+    public void contains_sqlServer() {
+        assertEquals("SHAPES.GEOMETRY.Filter(?) and SHAPES.GEOMETRY.STContains(?)",
+                where(SQLServer2008SpatialTemplates.DEFAULT, shapes.geometry.contains(point)));
+    }
+
+    @Test
+    public void nested() {
+        assertEquals("SHAPES.ID = ? and (SHAPES.GEOMETRY && ? and ST_Touches(SHAPES.GEOMETRY, ?) "
+                + "or not (SHAPES.GEOMETRY && ? and ST_Crosses(SHAPES.GEOMETRY, ?)))",
+                where(PostGISTemplates.DEFAULT, shapes.id.eq(1),
+                        shapes.geometry.touches(polygon).or(shapes.geometry.crosses(polygon).not())));
+    }
+
+    @Test
+    public void disjoint_not_prefiltered() {
+        assertEquals("ST_Disjoint(SHAPES.GEOMETRY, ?)",
+                where(PostGISTemplates.DEFAULT, shapes.geometry.disjoint(polygon)));
+    }
+
+    @Test
+    public void no_prefilter_support() {
+        assertEquals("ST_Intersects(SHAPES.GEOMETRY, ?)",
+                where(GeoDBTemplates.DEFAULT, shapes.geometry.intersects(polygon)));
+    }
+
+    @Test
+    public void distance_loe() {
+        assertEquals("ST_DWithin(SHAPES.GEOMETRY, ?, ?)",
+                where(PostGISTemplates.DEFAULT, shapes.geometry.distance(point).loe(5.0)));
+    }
+
+    @Test
+    public void distance_lt() {
+        assertEquals("ST_DWithin(SHAPES.GEOMETRY, ?, ?) and ST_Distance(SHAPES.GEOMETRY, ?) < ?",
+                where(PostGISTemplates.DEFAULT, shapes.geometry.distance(point).lt(5.0)));
+    }
+
+    @Test
+    public void distance_gt() {
+        assertEquals("ST_Distance(SHAPES.GEOMETRY, ?) > ?",
+                where(PostGISTemplates.DEFAULT, shapes.geometry.distance(point).gt(5.0)));
+    }
+
+    @Test
+    public void distance_mySQL() {
+        assertEquals("Distance(SHAPES.GEOMETRY, ?) < ?",
+                where(MySQLSpatialTemplates.DEFAULT, shapes.geometry.distance(point).lt(5.0)));
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.spatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.geolatte.geom.Geometry;
+import org.geolatte.geom.codec.Wkt;
+import org.junit.Test;
+
+public class TWKBReaderTest {
+
+    private static Geometry read(int... bytes) {
+        byte[] b = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            b[i] = (byte) bytes[i];
+        }
+        return new TWKBReader().read(b);
+    }
+
+    private static void assertGeometry(String wkt, Geometry actual) {
+        assertEquals(Wkt.fromWkt(wkt), actual);
+    }
+
+    @Test
+    public void point() {
+        assertGeometry("POINT(1 2)", read(0x01, 0x00, 0x02, 0x04));
+    }
+
+    @Test
+    public void point_precision() {
+        // precision 2, 150 and -225 as zigzag varints
+        assertGeometry("POINT(1.5 -2.25)", read(0x41, 0x00, 0xAC, 0x02, 0xC1, 0x03));
+    }
+
+    @Test
+    public void point_negative_precision() {
+        assertGeometry("POINT(10 20)", read(0x11, 0x00, 0x02, 0x04));
+    }
+
+    @Test
+    public void point_z() {
+        assertGeometry("POINT(1 2 3)", read(0x01, 0x08, 0x05, 0x02, 0x04, 0x3C));
+    }
+
+    @Test
+    public void lineString() {
+        assertGeometry("LINESTRING(1 1, 5 5)", read(0x02, 0x00, 0x02, 0x02, 0x02, 0x08, 0x08));
+    }
+
+    @Test
+    public void lineString_bbox_and_size() {
+        assertGeometry("LINESTRING(1 1, 5 5)",
+                read(0x02, 0x03, 0x09, 0x02, 0x08, 0x02, 0x08, 0x02, 0x02, 0x02, 0x08, 0x08));
+    }
+
+    @Test
+    public void polygon() {
+        assertGeometry("POLYGON((0 0, 0 1, 1 1, 1 0, 0 0))",
+                read(0x03, 0x00, 0x01, 0x05, 0x00, 0x00, 0x00, 0x02, 0x02, 0x00, 0x00, 0x01, 0x01, 0x00));
+    }
+
+    @Test
+    public void polygon_empty() {
+        assertTrue(read(0x03, 0x10).isEmpty());
+    }
+
+    @Test
+    public void multiPoint_ids() {
+        assertGeometry("MULTIPOINT((1 1), (2 3))", read(0x04, 0x04, 0x02, 0x0A, 0x0E, 0x02, 0x02, 0x02, 0x04));
+    }
+
+    @Test
+    public void multiLineString() {
+        // deltas continue across the parts
+        assertGeometry("MULTILINESTRING((0 0, 1 1), (2 2, 3 3))",
+                read(0x05, 0x00, 0x02, 0x02, 0x00, 0x00, 0x02, 0x02, 0x02, 0x02, 0x02, 0x02, 0x02));
+    }
+
+    @Test
+    public void geometryCollection() {
+        assertGeometry("GEOMETRYCOLLECTION(POINT(1 2), LINESTRING(1 1, 5 5))",
+                read(0x07, 0x00, 0x02,
+                     0x01, 0x00, 0x02, 0x04,
+                     0x02, 0x00, 0x02, 0x02, 0x02, 0x08, 0x08));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncated() {
+        read(0x02, 0x00, 0x02, 0x02);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupported_type() {
+        read(0x08, 0x00);
+    }
+
+}
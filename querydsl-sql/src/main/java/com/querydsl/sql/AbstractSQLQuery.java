@@ -20,6 +20,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -52,6 +53,11 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
 
     protected static final String PARENT_CONTEXT = AbstractSQLQuery.class.getName() + "#PARENT_CONTEXT";
 
+    /**
+     * {@link SQLListenerContext} data key for the number of rows returned by a query
+     */
+    public static final String ROW_COUNT = AbstractSQLQuery.class.getName() + "#ROW_COUNT";
+
     private static final Logger logger = LoggerFactory.getLogger(AbstractSQLQuery.class);
 
     private static final QueryFlag rowCountFlag = new QueryFlag(QueryFlag.Position.AFTER_PROJECTION, ", count(*) over() ");
@@ -74,6 +80,10 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
 
     private StatementOptions statementOptions = StatementOptions.DEFAULT;
 
+    private boolean streaming;
+
+    private boolean cacheable;
+
     public AbstractSQLQuery(@Nullable Connection conn, Configuration configuration) {
         this(conn, configuration, new DefaultQueryMetadata());
     }
@@ -315,9 +325,23 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
     }
 
     private PreparedStatement getPreparedStatement(String queryString) throws SQLException {
-        PreparedStatement statement = connection().prepareStatement(queryString);
-        if (statementOptions.getFetchSize() != null) {
-            statement.setFetchSize(statementOptions.getFetchSize());
+        return getPreparedStatement(queryString, false);
+    }
+
+    private PreparedStatement getPreparedStatement(String queryString, boolean streaming) throws SQLException {
+        PreparedStatement statement;
+        Integer fetchSize = statementOptions.getFetchSize();
+        if (streaming) {
+            statement = connection().prepareStatement(queryString,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (fetchSize == null) {
+                fetchSize = configuration.getTemplates().getStreamingFetchSize();
+            }
+        } else {
+            statement = connection().prepareStatement(queryString);
+        }
+        if (fetchSize != null) {
+            statement.setFetchSize(fetchSize);
         }
         if (statementOptions.getMaxFieldSize() != null) {
             statement.setMaxFieldSize(statementOptions.getMaxFieldSize());
@@ -347,6 +371,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         SQLListenerContextImpl context = startContext(connection(), queryMixin.getMetadata());
         String queryString = null;
         List<Object> constants = ImmutableList.of();
+        Connection autoCommitConn = null;
 
         try {
             listeners.preRender(context);
@@ -361,31 +386,39 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
             constants = serializer.getConstants();
 
             listeners.prePrepare(context);
-            final PreparedStatement stmt = getPreparedStatement(queryString);
+            if (streaming && configuration.getTemplates().isStreamingRequiresTransaction()
+                    && connection().getAutoCommit()) {
+                // cursor based fetching is only available within a transaction
+                autoCommitConn = connection();
+                autoCommitConn.setAutoCommit(false);
+            }
+            final PreparedStatement stmt = getPreparedStatement(queryString, streaming);
             setParameters(stmt, constants, serializer.getConstantPaths(), metadata.getParams());
             context.addPreparedStatement(stmt);
             listeners.prepared(context);
 
             listeners.preExecute(context);
+            long startTime = System.nanoTime();
             final ResultSet rs = stmt.executeQuery();
             listeners.executed(context);
 
+            SQLResultIterator<T> rv;
             if (expr == null) {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+                rv = new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
                     @Override
                     public T produceNext(ResultSet rs) throws Exception {
                         return (T) rs.getObject(1);
                     }
                 };
             } else if (expr instanceof FactoryExpression) {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+                rv = new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
                     @Override
                     public T produceNext(ResultSet rs) throws Exception {
                         return newInstance((FactoryExpression<T>) expr, rs, 0);
                     }
                 };
             } else if (expr.equals(Wildcard.all)) {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+                rv = new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
                     @Override
                     public T produceNext(ResultSet rs) throws Exception {
                         Object[] rv = new Object[rs.getMetaData().getColumnCount()];
@@ -396,26 +429,42 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
                     }
                 };
             } else {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+                rv = new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
                     @Override
                     public T produceNext(ResultSet rs) throws Exception {
                         return get(rs, expr, 1, expr.getType());
                     }
                 };
             }
+            if (streaming) {
+                rv.streaming(startTime, autoCommitConn);
+            }
+            return rv;
 
         } catch (SQLException e) {
             onException(context, e);
+            restoreAutoCommit(autoCommitConn);
             endContext(context);
             throw configuration.translate(queryString, constants, e);
         } catch (RuntimeException e) {
             logger.error("Caught " + e.getClass().getName() + " for " + queryString);
+            restoreAutoCommit(autoCommitConn);
             throw e;
         } finally {
             reset();
         }
     }
 
+    private void restoreAutoCommit(@Nullable Connection connection) {
+        if (connection != null) {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                logger.error("Caught " + e.getClass().getName() + " when restoring auto commit", e);
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<T> fetch() {
@@ -435,6 +484,19 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
             listeners.notifyQuery(queryMixin.getMetadata());
             constants = serializer.getConstants();
 
+            SQLResultCache cache = cacheable && !getLastCell ? configuration.getResultCache() : null;
+            SQLResultCache.Key cacheKey = null;
+            Map<SchemaAndTable, Long> tableVersions = null;
+            if (cache != null) {
+                cacheKey = new SQLResultCache.Key(queryString,
+                        getBindings(constants, queryMixin.getMetadata().getParams()), expr);
+                List<?> cached = cache.get(cacheKey);
+                if (cached != null) {
+                    return (List<T>) cached;
+                }
+                tableVersions = cache.getVersions(queryMixin.getMetadata());
+            }
+
             listeners.prePrepare(context);
             final PreparedStatement stmt = getPreparedStatement(queryString);
             try {
@@ -478,6 +540,15 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
                             rv.add(get(rs, expr, 1, expr.getType()));
                         }
                     }
+                    context.setData(ROW_COUNT, rv.size());
+                    if (cache != null) {
+                        List<T> results = Collections.unmodifiableList(rv);
+                        // results read in a transaction may be rolled back
+                        if (connection().getAutoCommit()) {
+                            cache.put(cacheKey, tableVersions, results);
+                        }
+                        return results;
+                    }
                     return rv;
                 } catch (IllegalAccessException e) {
                     onException(context, e);
@@ -553,6 +624,20 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         }
     }
 
+    private List<Object> getBindings(List<Object> constants, Map<ParamExpression<?>, ?> params) {
+        List<Object> rv = new ArrayList<Object>(constants.size());
+        for (Object o : constants) {
+            if (o instanceof ParamExpression) {
+                if (!params.containsKey(o)) {
+                    throw new ParamNotSetException((ParamExpression<?>) o);
+                }
+                o = params.get(o);
+            }
+            rv.add(o);
+        }
+        return rv;
+    }
+
     private <RT> RT newInstance(FactoryExpression<RT> c, ResultSet rs, int offset)
         throws InstantiationException, IllegalAccessException, InvocationTargetException, SQLException {
         Object[] args = new Object[c.getArgs().size()];
@@ -681,6 +766,8 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
     protected void clone(Q query) {
         super.clone(query);
         this.useLiterals = query.useLiterals;
+        this.streaming = ((AbstractSQLQuery<?, ?>) query).streaming;
+        this.cacheable = ((AbstractSQLQuery<?, ?>) query).cacheable;
         this.listeners = new SQLListeners(query.listeners);
     }
 
@@ -691,6 +778,33 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
 
     public abstract Q clone(Connection connection);
 
+    /**
+     * Set whether {@link #iterate()} streams the results (default: false)
+     *
+     * <p>When enabled the statement is created as forward only and read only and the fetch size
+     * of the dialect (see {@link SQLTemplates#getStreamingFetchSize()}) is applied, unless the
+     * statement options define one. If the dialect requires it, auto commit is disabled until
+     * the returned iterator is closed. {@link StreamingStatistics} are made available to
+     * listeners at the end of the iteration.</p>
+     *
+     * @param streaming true for streaming results
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Set whether the results of {@link #fetch()} are cached in the {@link SQLResultCache} of the
+     * configuration (default: false)
+     *
+     * <p>Results served from the cache are unmodifiable lists shared with other queries.</p>
+     *
+     * @param cacheable true for caching results
+     */
+    public void setCacheable(boolean cacheable) {
+        this.cacheable = cacheable;
+    }
+
     /**
      * Set the options to be applied to the JDBC statements of this query
      *
@@ -21,6 +21,7 @@ import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.sql.dml.SQLBatcher;
 import com.querydsl.sql.dml.SQLDeleteClause;
 import com.querydsl.sql.dml.SQLInsertClause;
 import com.querydsl.sql.dml.SQLMergeClause;
@@ -45,6 +46,15 @@ public abstract class AbstractSQLQueryFactory<Q extends SQLCommonQuery<?>> imple
         this.connection = connProvider;
     }
 
+    /**
+     * Create a new batcher for deferred execution of DML clauses
+     *
+     * @return batcher
+     */
+    public final SQLBatcher batcher() {
+        return new SQLBatcher(configuration, connection);
+    }
+
     @Override
     public final SQLDeleteClause delete(RelationalPath<?> path) {
         return new SQLDeleteClause(connection, configuration, path);
@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.Primitives;
+import com.querydsl.core.support.ExpressionOptimizer;
 import com.querydsl.core.types.Path;
 import com.querydsl.sql.namemapping.ChainedNameMapping;
 import com.querydsl.sql.namemapping.NameMapping;
@@ -71,6 +72,12 @@ public final class Configuration {
 
     private boolean useLiterals = false;
 
+    @Nullable
+    private SQLResultCache resultCache;
+
+    @Nullable
+    private ExpressionOptimizer optimizer;
+
     /**
      * Create a new Configuration instance
      *
@@ -526,6 +533,54 @@ public final class Configuration {
         return listeners;
     }
 
+    /**
+     * Get the result cache used by cacheable queries
+     *
+     * @return result cache or null
+     */
+    @Nullable
+    public SQLResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Set the result cache to be used by cacheable queries
+     *
+     * <p>The cache is also registered as a listener, so that DML clauses executed via this
+     * configuration invalidate the cached results of the affected tables. A previously set
+     * cache is unregistered.</p>
+     *
+     * @param resultCache result cache or null to disable caching
+     */
+    public void setResultCache(@Nullable SQLResultCache resultCache) {
+        if (this.resultCache != null) {
+            listeners.getListeners().remove(this.resultCache);
+        }
+        this.resultCache = resultCache;
+        if (resultCache != null) {
+            listeners.add(resultCache);
+        }
+    }
+
+    /**
+     * Get the optimizer applied to the predicates of queries before serialization
+     *
+     * @return optimizer or null
+     */
+    @Nullable
+    public ExpressionOptimizer getOptimizer() {
+        return optimizer;
+    }
+
+    /**
+     * Set the optimizer to be applied to the predicates of queries before serialization (default: null)
+     *
+     * @param optimizer optimizer or null to disable optimization
+     */
+    public void setOptimizer(@Nullable ExpressionOptimizer optimizer) {
+        this.optimizer = optimizer;
+    }
+
     /**
      * Get whether literals are serialized or prepared statement bindings are used
      *
@@ -14,11 +14,14 @@
 package com.querydsl.sql;
 
 import java.sql.Types;
+import java.util.List;
 
 import com.querydsl.core.QueryFlag;
+import com.querydsl.core.QueryFlag.Position;
 import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.QueryModifiers;
 import com.querydsl.core.types.*;
+import com.querydsl.sql.dml.SQLMergeBatch;
 
 /**
  * {@code DB2Templates} is an SQL dialect for DB2 10.1.2
@@ -62,12 +65,16 @@ public class DB2Templates extends SQLTemplates {
 
     public DB2Templates(char escape, boolean quote) {
         super(Keywords.DB2, "\"", escape, quote, false);
+        setNativeMergeSupported(true);
+        // MERGE statements don't report generated keys
+        setNativeMergeWithKeysSupported(false);
         setDummyTable("sysibm.sysdummy1");
         setAutoIncrement(" generated always as identity");
         setFunctionJoinsWrapped(true);
         setDefaultValues("\nvalues (default)");
         setNullsFirst(null);
         setNullsLast(null);
+        setNullsSortedHigh(true);
 
         setPrecedence(Precedence.ARITH_HIGH, Ops.CONCAT);
         setPrecedence(Precedence.COMPARISON - 1, Ops.EQ, Ops.EQ_IGNORE_CASE, Ops.NE, Ops.LT, Ops.GT, Ops.LOE, Ops.GOE);
@@ -179,5 +186,14 @@ public class DB2Templates extends SQLTemplates {
         // do nothing
     }
 
+    @Override
+    public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity,
+            List<SQLMergeBatch> batches, SQLSerializer context) {
+        context.serializeForMergeUsing(metadata, entity, batches, false);
+
+        if (!metadata.getFlags().isEmpty()) {
+            context.serialize(Position.END, metadata.getFlags());
+        }
+    }
 
 }
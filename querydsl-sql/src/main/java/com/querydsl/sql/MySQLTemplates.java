@@ -14,13 +14,16 @@
 package com.querydsl.sql;
 
 import java.sql.Types;
+import java.util.List;
 
 import com.google.common.collect.ImmutableList;
 import com.querydsl.core.QueryFlag;
 import com.querydsl.core.QueryFlag.Position;
+import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.Ops;
+import com.querydsl.sql.dml.SQLMergeBatch;
 
 /**
  * {@code MySQLTemplates} is an SQL dialect for MySQL
@@ -57,12 +60,15 @@ public class MySQLTemplates extends SQLTemplates {
 
     public MySQLTemplates(char escape, boolean quote) {
         super(Keywords.MYSQL, "`", escape, quote, false);
+        setNativeMergeSupported(true);
         setArraysSupported(false);
         setParameterMetadataAvailable(false);
         setLimitRequired(true);
         setSupportsUnquotedReservedWordsAsIdentifier(true);
         setNullsFirst(null);
         setNullsLast(null);
+        // Connector/J only streams rows one by one with this fetch size
+        setStreamingFetchSize(Integer.MIN_VALUE);
 
         setForShareSupported(true);
         setForShareFlag(new QueryFlag(Position.END, LOCK_IN_SHARE_MODE));
@@ -182,4 +188,14 @@ public class MySQLTemplates extends SQLTemplates {
         }
     }
 
+    @Override
+    public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity,
+            List<SQLMergeBatch> batches, SQLSerializer context) {
+        context.serializeForInsertOnDuplicateKey(metadata, entity, batches);
+
+        if (!metadata.getFlags().isEmpty()) {
+            context.serialize(Position.END, metadata.getFlags());
+        }
+    }
+
 }
@@ -25,6 +25,7 @@ import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.Path;
 import com.querydsl.sql.dml.SQLInsertBatch;
+import com.querydsl.sql.dml.SQLMergeBatch;
 
 /**
  * {@code OracleTemplates} is an SQL dialect for Oracle
@@ -73,11 +74,15 @@ public class OracleTemplates extends SQLTemplates {
 
     public OracleTemplates(char escape, boolean quote) {
         super(Keywords.ORACLE, "\"", escape, quote, false);
+        setNativeMergeSupported(true);
+        // MERGE statements don't report generated keys
+        setNativeMergeWithKeysSupported(false);
         setParameterMetadataAvailable(false);
         setBatchCountViaGetUpdateCount(true);
         setWithRecursive("with ");
         setCountViaAnalytics(true);
         setListMaxSize(1000);
+        setNullsSortedHigh(true);
 
         setPrecedence(Precedence.COMPARISON, Ops.EQ, Ops.EQ_IGNORE_CASE, Ops.NE);
         setPrecedence(Precedence.COMPARISON + 1, Ops.IS_NULL, Ops.IS_NOT_NULL, Ops.LIKE, Ops.LIKE_ESCAPE, Ops.BETWEEN,
@@ -268,4 +273,14 @@ public class OracleTemplates extends SQLTemplates {
         // do nothing
     }
 
+    @Override
+    public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity,
+            List<SQLMergeBatch> batches, SQLSerializer context) {
+        context.serializeForMergeUsing(metadata, entity, batches, true);
+
+        if (!metadata.getFlags().isEmpty()) {
+            context.serialize(Position.END, metadata.getFlags());
+        }
+    }
+
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+import javax.inject.Provider;
+
+/**
+ * {@code PinnedConnection} shares one connection between the queries and clauses of a unit of work
+ *
+ * <p>Closing the connection handed out by {@link #get()} has no effect, the underlying connection
+ * is released in {@link #close()}. Prepared statements without generated key retrieval are pooled
+ * by their SQL string and reused after they have been closed.</p>
+ */
+final class PinnedConnection implements Provider<Connection>, InvocationHandler {
+
+    private final Connection connection;
+
+    private final Connection proxy;
+
+    private final boolean release;
+
+    private final Map<String, Deque<PreparedStatement>> statements = new HashMap<String, Deque<PreparedStatement>>();
+
+    private final List<PreparedStatement> opened = new ArrayList<PreparedStatement>();
+
+    private boolean closed;
+
+    PinnedConnection(Connection connection, boolean release) {
+        this.connection = connection;
+        this.release = release;
+        this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, this);
+    }
+
+    @Override
+    public Connection get() {
+        if (closed) {
+            throw new IllegalStateException("Connection scope has been closed");
+        }
+        return proxy;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.equals("close")) {
+            return null;
+        } else if (name.equals("isClosed")) {
+            return closed || connection.isClosed();
+        } else if (name.equals("equals")) {
+            return proxy == args[0];
+        } else if (name.equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        } else if (name.equals("prepareStatement") && args.length == 1) {
+            return prepareStatement((String) args[0]);
+        }
+        return delegate(connection, method, args);
+    }
+
+    private PreparedStatement prepareStatement(String sql) throws SQLException {
+        Deque<PreparedStatement> pooled = statements.get(sql);
+        PreparedStatement stmt = pooled != null ? pooled.poll() : null;
+        if (stmt == null) {
+            stmt = connection.prepareStatement(sql);
+            opened.add(stmt);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new StatementHandler(sql, stmt));
+    }
+
+    private void release(String sql, PreparedStatement stmt, int fetchSize, int maxRows,
+            int queryTimeout) throws SQLException {
+        if (closed) {
+            stmt.close();
+            return;
+        }
+        stmt.clearParameters();
+        stmt.clearBatch();
+        if (stmt.getMaxRows() != maxRows) {
+            stmt.setMaxRows(maxRows);
+        }
+        if (stmt.getFetchSize() != fetchSize) {
+            stmt.setFetchSize(fetchSize);
+        }
+        if (stmt.getQueryTimeout() != queryTimeout) {
+            stmt.setQueryTimeout(queryTimeout);
+        }
+        Deque<PreparedStatement> pooled = statements.get(sql);
+        if (pooled == null) {
+            pooled = new ArrayDeque<PreparedStatement>();
+            statements.put(sql, pooled);
+        }
+        pooled.push(stmt);
+    }
+
+    /**
+     * Close the pooled statements and release the connection, if the factory releases connections
+     *
+     * @throws SQLException
+     */
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        SQLException exception = null;
+        for (PreparedStatement stmt : opened) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                exception = e;
+            }
+        }
+        opened.clear();
+        statements.clear();
+        if (release) {
+            connection.close();
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final String sql;
+
+        private final PreparedStatement stmt;
+
+        private final int fetchSize, maxRows, queryTimeout;
+
+        private boolean closed;
+
+        StatementHandler(String sql, PreparedStatement stmt) throws SQLException {
+            this.sql = sql;
+            this.stmt = stmt;
+            this.fetchSize = stmt.getFetchSize();
+            this.maxRows = stmt.getMaxRows();
+            this.queryTimeout = stmt.getQueryTimeout();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) {
+                if (!closed) {
+                    closed = true;
+                    release(sql, stmt, fetchSize, maxRows, queryTimeout);
+                }
+                return null;
+            } else if (name.equals("isClosed")) {
+                return closed;
+            } else if (name.equals("getConnection")) {
+                return PinnedConnection.this.proxy;
+            } else if (name.equals("equals")) {
+                return proxy == args[0];
+            } else if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            } else if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            return delegate(stmt, method, args);
+        }
+
+    }
+
+}
@@ -14,8 +14,12 @@
 package com.querydsl.sql;
 
 import java.sql.Types;
+import java.util.List;
 
+import com.querydsl.core.QueryFlag.Position;
+import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.types.Ops;
+import com.querydsl.sql.dml.SQLMergeBatch;
 
 /**
  * {@code PostgreSQLTemplates} is an SQL dialect for PostgreSQL
@@ -49,11 +53,14 @@ public class PostgreSQLTemplates extends SQLTemplates {
 
     public PostgreSQLTemplates(char escape, boolean quote) {
         super(Keywords.POSTGRESQL, "\"", escape, quote, false);
+        setNativeMergeSupported(true);
         setDummyTable(null);
         setCountDistinctMultipleColumns(true);
         setCountViaAnalytics(true);
         setDefaultValues("\ndefault values");
+        setNullsSortedHigh(true);
         setSupportsUnquotedReservedWordsAsIdentifier(true);
+        setStreamingRequiresTransaction(true);
 
         setForShareSupported(true);
 
@@ -173,4 +180,14 @@ public class PostgreSQLTemplates extends SQLTemplates {
         }
     }
 
+    @Override
+    public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity,
+            List<SQLMergeBatch> batches, SQLSerializer context) {
+        context.serializeForInsertOnConflict(metadata, entity, batches);
+
+        if (!metadata.getFlags().isEmpty()) {
+            context.serialize(Position.END, metadata.getFlags());
+        }
+    }
+
 }
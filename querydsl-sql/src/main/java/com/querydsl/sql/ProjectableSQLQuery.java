@@ -29,6 +29,8 @@ import com.querydsl.core.NonUniqueResultException;
 import com.querydsl.core.Query;
 import com.querydsl.core.QueryFlag;
 import com.querydsl.core.QueryFlag.Position;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.support.ExpressionOptimizer;
 import com.querydsl.core.support.FetchableSubQueryBase;
 import com.querydsl.core.support.QueryMixin;
 import com.querydsl.core.types.*;
@@ -476,7 +478,7 @@ public abstract class ProjectableSQLQuery<T, Q extends ProjectableSQLQuery<T, Q>
             if (queryMixin.getMetadata().getProjection() == null ||
                 expandProjection(queryMixin.getMetadata().getProjection())
                 .equals(expandProjection(firstUnionSubQuery.getMetadata().getProjection()))) {
-                serializer.serializeUnion(union, queryMixin.getMetadata(), unionAll);
+                serializer.serializeUnion(union, optimize(queryMixin.getMetadata()), unionAll);
             } else {
                 QueryMixin<Q> mixin2 = new QueryMixin<Q>(queryMixin.getMetadata().clone());
                 Set<Path<?>> paths = getRootPaths(expandProjection(mixin2.getMetadata().getProjection()));
@@ -487,14 +489,19 @@ public abstract class ProjectableSQLQuery<T, Q extends ProjectableSQLQuery<T, Q>
                 } else {
                     throw new IllegalStateException("Unable to create serialize union");
                 }
-                serializer.serialize(mixin2.getMetadata(), forCountRow);
+                serializer.serialize(optimize(mixin2.getMetadata()), forCountRow);
             }
         } else {
-            serializer.serialize(queryMixin.getMetadata(), forCountRow);
+            serializer.serialize(optimize(queryMixin.getMetadata()), forCountRow);
         }
         return serializer;
     }
 
+    private QueryMetadata optimize(QueryMetadata md) {
+        ExpressionOptimizer optimizer = configuration.getOptimizer();
+        return optimizer != null ? optimizer.optimize(md) : md;
+    }
+
     /**
      * Get the query as an SQL query string and bindings
      *
@@ -0,0 +1,449 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.sql.Connection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+import javax.inject.Provider;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryFlag;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
+import com.querydsl.sql.dml.SQLInsertBatch;
+import com.querydsl.sql.dml.SQLMergeBatch;
+import com.querydsl.sql.dml.SQLUpdateBatch;
+
+/**
+ * {@code ReplicaRouter} routes read queries to a pool of replica connection providers
+ *
+ * <p>Queries are routed to the primary, if they lock rows via {@code forUpdate()} or
+ * {@code forShare()} or if they read a table which has been modified via a DML clause within the
+ * stickiness window. All other queries go to a replica chosen by the {@link Strategy}. DML clauses
+ * and units of work executed via {@link SQLQueryFactory#withConnection(SQLConnectionCallback)}
+ * always use the primary.</p>
+ *
+ * <p>The in-flight count and average latency of each replica are tracked via a
+ * {@link SQLDetailedListener} registered on the routed queries.</p>
+ */
+public class ReplicaRouter {
+
+    /**
+     * Replica selection strategy
+     */
+    public enum Strategy {
+        /**
+         * Use the replicas in turn
+         */
+        ROUND_ROBIN,
+        /**
+         * Use the replica with the fewest in-flight queries, ties are broken by average latency
+         */
+        LEAST_OUTSTANDING
+    }
+
+    /**
+     * {@code Replica} holds a replica connection provider and its statistics
+     */
+    public static final class Replica {
+
+        private final Provider<Connection> provider;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicLong executions = new AtomicLong();
+
+        private volatile long averageLatency;
+
+        Replica(Provider<Connection> provider) {
+            this.provider = provider;
+        }
+
+        public Provider<Connection> getProvider() {
+            return provider;
+        }
+
+        /**
+         * Get the number of queries currently executed on this replica
+         *
+         * @return in-flight count
+         */
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * Get the number of finished query executions on this replica
+         *
+         * @return execution count
+         */
+        public long getExecutions() {
+            return executions.get();
+        }
+
+        /**
+         * Get the exponentially weighted average latency of the query executions in nanoseconds
+         *
+         * @return average latency
+         */
+        public long getAverageLatency() {
+            return averageLatency;
+        }
+
+        synchronized void record(long latency) {
+            long count = executions.incrementAndGet();
+            averageLatency = count == 1 ? latency : averageLatency + (latency - averageLatency) / 8;
+        }
+
+    }
+
+    private final Provider<Connection> primary;
+
+    private final List<Replica> replicas;
+
+    private final Strategy strategy;
+
+    private final long stickiness;
+
+    private final Ticker ticker;
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private final ConcurrentMap<SchemaAndTable, Long> writes = new ConcurrentHashMap<SchemaAndTable, Long>();
+
+    private final SQLListener writeListener = new SQLBaseListener() {
+        @Override
+        public void notifyDelete(RelationalPath<?> entity, QueryMetadata md) {
+            written(entity);
+        }
+
+        @Override
+        public void notifyDeletes(RelationalPath<?> entity, List<QueryMetadata> batches) {
+            written(entity);
+        }
+
+        @Override
+        public void notifyMerge(RelationalPath<?> entity, QueryMetadata md, List<Path<?>> keys,
+                List<Path<?>> columns, List<Expression<?>> values, SubQueryExpression<?> subQuery) {
+            written(entity);
+        }
+
+        @Override
+        public void notifyMerges(RelationalPath<?> entity, QueryMetadata md, List<SQLMergeBatch> batches) {
+            written(entity);
+        }
+
+        @Override
+        public void notifyInsert(RelationalPath<?> entity, QueryMetadata md, List<Path<?>> columns,
+                List<Expression<?>> values, SubQueryExpression<?> subQuery) {
+            written(entity);
+        }
+
+        @Override
+        public void notifyInserts(RelationalPath<?> entity, QueryMetadata md, List<SQLInsertBatch> batches) {
+            written(entity);
+        }
+
+        @Override
+        public void notifyUpdate(RelationalPath<?> entity, QueryMetadata md, Map<Path<?>, Expression<?>> updates) {
+            written(entity);
+        }
+
+        @Override
+        public void notifyUpdates(RelationalPath<?> entity, List<SQLUpdateBatch> batches) {
+            written(entity);
+        }
+    };
+
+    /**
+     * Create a new router with round robin replica selection and no stickiness
+     *
+     * @param primary primary connection provider
+     * @param replicas replica connection providers
+     */
+    public ReplicaRouter(Provider<Connection> primary, List<? extends Provider<Connection>> replicas) {
+        this(primary, replicas, Strategy.ROUND_ROBIN, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create a new router
+     *
+     * @param primary primary connection provider
+     * @param replicas replica connection providers
+     * @param strategy replica selection strategy
+     * @param stickiness duration after a DML clause during which queries reading the modified
+     *                   table are routed to the primary
+     * @param unit unit of stickiness
+     */
+    public ReplicaRouter(Provider<Connection> primary, List<? extends Provider<Connection>> replicas,
+            Strategy strategy, long stickiness, TimeUnit unit) {
+        this(primary, replicas, strategy, stickiness, unit, Ticker.systemTicker());
+    }
+
+    ReplicaRouter(Provider<Connection> primary, List<? extends Provider<Connection>> replicas,
+            Strategy strategy, long stickiness, TimeUnit unit, Ticker ticker) {
+        ImmutableList.Builder<Replica> builder = ImmutableList.builder();
+        for (Provider<Connection> replica : replicas) {
+            builder.add(new Replica(replica));
+        }
+        this.primary = primary;
+        this.replicas = builder.build();
+        this.strategy = strategy;
+        this.stickiness = unit.toNanos(stickiness);
+        this.ticker = ticker;
+    }
+
+    public Provider<Connection> getPrimary() {
+        return primary;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Get the listener which records the tables modified by DML clauses
+     *
+     * @return listener
+     */
+    public SQLListener getWriteListener() {
+        return writeListener;
+    }
+
+    /**
+     * Create a connection provider for the query with the given metadata
+     *
+     * <p>The target is chosen when the query obtains its connection, so flags added after the
+     * creation of the query are taken into account. The returned provider is also a listener which
+     * needs to be registered on the query for the replica statistics to be tracked.</p>
+     *
+     * @param configuration configuration of the query
+     * @param metadata metadata of the query
+     * @return connection provider and listener
+     */
+    public Route route(Configuration configuration, QueryMetadata metadata) {
+        return new Route(configuration.getTemplates(), metadata);
+    }
+
+    private void written(RelationalPath<?> entity) {
+        if (stickiness > 0) {
+            writes.put(entity.getSchemaAndTable(), ticker.read());
+        }
+    }
+
+    private boolean isSticky(QueryMetadata metadata) {
+        if (writes.isEmpty()) {
+            return false;
+        }
+        long now = ticker.read();
+        Set<RelationalPath<?>> tables = new HashSet<RelationalPath<?>>();
+        TableCollector.DEFAULT.collect(metadata, tables);
+        for (RelationalPath<?> path : tables) {
+            Long written = writes.get(path.getSchemaAndTable());
+            if (written != null) {
+                if (now - written < stickiness) {
+                    return true;
+                }
+                writes.remove(path.getSchemaAndTable(), written);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLocking(SQLTemplates templates, QueryMetadata metadata) {
+        for (QueryFlag flag : metadata.getFlags()) {
+            if (flag.equals(templates.getForUpdateFlag()) || flag.equals(templates.getForShareFlag())) {
+                return true;
+            } else if (flag.getFlag() instanceof Operation) {
+                Operation<?> operation = (Operation<?>) flag.getFlag();
+                if (operation.getOperator() == SQLOps.FOR_UPDATE
+                        || operation.getOperator() == SQLOps.FOR_SHARE) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private Replica select() {
+        if (replicas.isEmpty()) {
+            return null;
+        }
+        int start = (counter.getAndIncrement() & Integer.MAX_VALUE) % replicas.size();
+        if (strategy == Strategy.ROUND_ROBIN) {
+            return replicas.get(start);
+        }
+        Replica selected = null;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (selected == null
+                    || replica.getInFlight() < selected.getInFlight()
+                    || (replica.getInFlight() == selected.getInFlight()
+                        && replica.getAverageLatency() < selected.getAverageLatency())) {
+                selected = replica;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * {@code TableCollector} collects the tables of a query including those of its subqueries
+     */
+    private static final class TableCollector implements Visitor<Void, Set<RelationalPath<?>>> {
+
+        static final TableCollector DEFAULT = new TableCollector();
+
+        void collect(QueryMetadata md, Set<RelationalPath<?>> tables) {
+            for (JoinExpression join : md.getJoins()) {
+                join.getTarget().accept(this, tables);
+                if (join.getCondition() != null) {
+                    join.getCondition().accept(this, tables);
+                }
+            }
+            if (md.getProjection() != null) {
+                md.getProjection().accept(this, tables);
+            }
+            if (md.getWhere() != null) {
+                md.getWhere().accept(this, tables);
+            }
+            if (md.getHaving() != null) {
+                md.getHaving().accept(this, tables);
+            }
+        }
+
+        @Override
+        public Void visit(Constant<?> expr, Set<RelationalPath<?>> tables) {
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, Set<RelationalPath<?>> tables) {
+            for (Expression<?> arg : expr.getArgs()) {
+                arg.accept(this, tables);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, Set<RelationalPath<?>> tables) {
+            for (Expression<?> arg : expr.getArgs()) {
+                arg.accept(this, tables);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, Set<RelationalPath<?>> tables) {
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, Set<RelationalPath<?>> tables) {
+            if (!expr.getMetadata().isRoot()) {
+                return expr.getMetadata().getParent().accept(this, tables);
+            } else if (expr instanceof RelationalPath) {
+                tables.add((RelationalPath<?>) expr);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, Set<RelationalPath<?>> tables) {
+            collect(expr.getMetadata(), tables);
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, Set<RelationalPath<?>> tables) {
+            for (Object arg : expr.getArgs()) {
+                if (arg instanceof Expression<?>) {
+                    ((Expression<?>) arg).accept(this, tables);
+                }
+            }
+            return null;
+        }
+
+    }
+
+    /**
+     * {@code Route} is the connection provider of a single routed query
+     */
+    public final class Route extends SQLBaseListener implements Provider<Connection> {
+
+        private final SQLTemplates templates;
+
+        private final QueryMetadata metadata;
+
+        @Nullable
+        private Replica replica;
+
+        private long started;
+
+        Route(SQLTemplates templates, QueryMetadata metadata) {
+            this.templates = templates;
+            this.metadata = metadata;
+        }
+
+        @Override
+        public Connection get() {
+            replica = isLocking(templates, metadata) || isSticky(metadata) ? null : select();
+            return replica != null ? replica.getProvider().get() : primary.get();
+        }
+
+        /**
+         * Get the replica the query has been routed to
+         *
+         * @return replica or null, if the query uses the primary
+         */
+        @Nullable
+        public Replica getReplica() {
+            return replica;
+        }
+
+        @Override
+        public void start(SQLListenerContext context) {
+            if (replica != null) {
+                replica.inFlight.incrementAndGet();
+                started = ticker.read();
+            }
+        }
+
+        @Override
+        public void end(SQLListenerContext context) {
+            if (replica != null) {
+                replica.inFlight.decrementAndGet();
+                replica.record(ticker.read() - started);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.List;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.support.BatchLoaderBase;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Path;
+
+/**
+ * {@code SQLBatchLoader} coalesces by-key lookups of rows into batched {@code IN} queries
+ *
+ * <p>Usage:</p>
+ * <pre>
+ * SQLBatchLoader&lt;Integer, Employee&gt; loader = queryFactory.loader(employee, employee.id);
+ * List&lt;ListenableFuture&lt;Employee&gt;&gt; results = new ArrayList&lt;...&gt;();
+ * for (Integer id : ids) {
+ *     results.add(loader.load(id));
+ * }
+ * loader.dispatch();
+ * </pre>
+ *
+ * @param <K> key type
+ * @param <T> row type
+ */
+public class SQLBatchLoader<K, T> extends BatchLoaderBase<K, T> {
+
+    private final SQLQueryFactory queryFactory;
+
+    private final RelationalPath<T> entity;
+
+    private final Path<K> key;
+
+    public SQLBatchLoader(SQLQueryFactory queryFactory, RelationalPath<T> entity, Path<K> key) {
+        this(queryFactory, entity, key, DEFAULT_BATCH_SIZE);
+    }
+
+    public SQLBatchLoader(SQLQueryFactory queryFactory, RelationalPath<T> entity, Path<K> key, int batchSize) {
+        super(batchSize);
+        this.queryFactory = queryFactory;
+        this.entity = entity;
+        this.key = key;
+    }
+
+    @Override
+    protected List<Tuple> fetch(List<K> keys) {
+        return queryFactory.select(key, entity).from(entity)
+                .where(ExpressionUtils.in(key, keys)).fetch();
+    }
+
+}
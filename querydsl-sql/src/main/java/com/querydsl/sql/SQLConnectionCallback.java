@@ -0,0 +1,32 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+/**
+ * {@code SQLConnectionCallback} is a callback for the unit of work executed via
+ * {@link SQLQueryFactory#withConnection(SQLConnectionCallback)}
+ *
+ * @param <T> result type
+ */
+public interface SQLConnectionCallback<T> {
+
+    /**
+     * Execute the unit of work
+     *
+     * @param queryFactory query factory bound to a single connection
+     * @return result
+     */
+    T doInConnection(SQLQueryFactory queryFactory);
+
+}
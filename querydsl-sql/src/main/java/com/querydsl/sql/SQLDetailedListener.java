@@ -75,7 +75,8 @@ public interface SQLDetailedListener extends SQLListener {
     void exception(SQLListenerContext context);
 
     /**
-     * Called at the end of a query.
+     * Called at the end of a query.  For streamed iterations the {@link StreamingStatistics} are
+     * available via the {@link StreamingStatistics#DATA_KEY} context data entry.
      *
      * @param context a context object that is progressively filled out as the query executes
      */
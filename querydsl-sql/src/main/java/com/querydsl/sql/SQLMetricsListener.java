@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.core.metrics.QueryMetrics;
+import com.querydsl.core.metrics.QueryShapeMetrics;
+
+/**
+ * {@code SQLMetricsListener} records the render, prepare, execute and row mapping time and the
+ * returned rows of queries and clauses into {@link QueryMetrics}, keyed by query shape
+ *
+ * <p>Row mapping time is the time from the end of the statement execution to the end of the
+ * query, which for {@code iterate()} includes the time the caller spends between rows. Failed
+ * executions are not recorded.</p>
+ *
+ * <p>Usage:</p>
+ * <pre>
+ * QueryMetrics metrics = new QueryMetrics();
+ * metrics.register("orders");
+ * configuration.addListener(new SQLMetricsListener(metrics));
+ * </pre>
+ */
+public class SQLMetricsListener extends SQLBaseListener {
+
+    private static final String TIMER = SQLMetricsListener.class.getName() + "#TIMER";
+
+    private static final class Timer {
+
+        final long start = System.nanoTime();
+
+        long mark, render, prepare, execute, executed;
+
+    }
+
+    private final QueryMetrics metrics;
+
+    public SQLMetricsListener() {
+        this(new QueryMetrics());
+    }
+
+    public SQLMetricsListener(QueryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void start(SQLListenerContext context) {
+        context.setData(TIMER, new Timer());
+    }
+
+    @Override
+    public void preRender(SQLListenerContext context) {
+        mark(context);
+    }
+
+    @Override
+    public void rendered(SQLListenerContext context) {
+        Timer timer = timer(context);
+        if (timer != null) {
+            timer.render += System.nanoTime() - timer.mark;
+        }
+    }
+
+    @Override
+    public void prePrepare(SQLListenerContext context) {
+        mark(context);
+    }
+
+    @Override
+    public void prepared(SQLListenerContext context) {
+        Timer timer = timer(context);
+        if (timer != null) {
+            timer.prepare += System.nanoTime() - timer.mark;
+        }
+    }
+
+    @Override
+    public void preExecute(SQLListenerContext context) {
+        mark(context);
+    }
+
+    @Override
+    public void executed(SQLListenerContext context) {
+        Timer timer = timer(context);
+        if (timer != null) {
+            timer.executed = System.nanoTime();
+            timer.execute += timer.executed - timer.mark;
+        }
+    }
+
+    @Override
+    public void end(SQLListenerContext context) {
+        Timer timer = timer(context);
+        String sql = context.getSQL();
+        if (timer == null || sql == null || context.getException() != null) {
+            return;
+        }
+        long end = System.nanoTime();
+        long mapping = timer.executed > 0 ? end - timer.executed : 0;
+        Object rows = context.getData(AbstractSQLQuery.ROW_COUNT);
+        QueryShapeMetrics shape = metrics.getShape(sql);
+        shape.record(timer.render, timer.prepare, timer.execute, mapping, end - timer.start,
+                rows instanceof Number ? ((Number) rows).longValue() : 0);
+    }
+
+    private static void mark(SQLListenerContext context) {
+        Timer timer = timer(context);
+        if (timer != null) {
+            timer.mark = System.nanoTime();
+        }
+    }
+
+    private static Timer timer(SQLListenerContext context) {
+        return (Timer) context.getData(TIMER);
+    }
+
+}
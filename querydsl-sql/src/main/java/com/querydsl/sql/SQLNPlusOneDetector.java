@@ -0,0 +1,274 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.*;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Fetchable;
+import com.querydsl.core.metrics.QueryMetrics;
+
+/**
+ * {@code SQLNPlusOneDetector} detects queries which are executed repeatedly within a scope with
+ * only a single differing constant, which usually means that rows are loaded one by one in a
+ * loop instead of with a single query
+ *
+ * <p>Detection happens between {@link #begin()} and {@link #end()} on the current thread. When a
+ * query shape reaches the threshold, {@link #onRepeatedQuery(RepeatedQuery)} is called with the
+ * call site of the query, which by default logs a warning. {@link #end()} returns all repeated
+ * queries of the scope. For queries serialized with literals all constants are compared as one,
+ * since the individual constants aren't available.</p>
+ *
+ * <p>Usage:</p>
+ * <pre>
+ * SQLNPlusOneDetector detector = new SQLNPlusOneDetector();
+ * configuration.addListener(detector);
+ * ...
+ * detector.begin();
+ * try {
+ *     handleRequest();
+ * } finally {
+ *     detector.end();
+ * }
+ * </pre>
+ */
+public class SQLNPlusOneDetector extends SQLBaseListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SQLNPlusOneDetector.class);
+
+    public static final int DEFAULT_THRESHOLD = 5;
+
+    private static final List<Class<?>> INTERNAL = ImmutableList.<Class<?>>of(
+            SQLListener.class, Fetchable.class, CloseableIterator.class);
+
+    /**
+     * {@code RepeatedQuery} describes a query which was executed repeatedly within a scope
+     */
+    @Immutable
+    public static final class RepeatedQuery {
+
+        private final String shape;
+
+        private final int count;
+
+        @Nullable
+        private final StackTraceElement callSite;
+
+        public RepeatedQuery(String shape, int count, @Nullable StackTraceElement callSite) {
+            this.shape = shape;
+            this.count = count;
+            this.callSite = callSite;
+        }
+
+        /**
+         * Get the normalized SQL of the query
+         *
+         * @return query shape
+         */
+        public String getShape() {
+            return shape;
+        }
+
+        /**
+         * Get the number of executions with a single differing constant
+         *
+         * @return execution count
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Get the first stack frame outside of Querydsl at the time the threshold was reached
+         *
+         * @return call site or null, if it could not be determined
+         */
+        @Nullable
+        public StackTraceElement getCallSite() {
+            return callSite;
+        }
+
+        @Override
+        public String toString() {
+            return count + " executions of " + shape + (callSite != null ? " at " + callSite : "");
+        }
+
+    }
+
+    private static final class Shape {
+
+        final String sql;
+
+        final List<Object> bindings;
+
+        int count = 1;
+
+        @Nullable
+        StackTraceElement callSite;
+
+        Shape(String sql, List<Object> bindings) {
+            this.sql = sql;
+            this.bindings = bindings;
+        }
+
+    }
+
+    private static final class Scope {
+
+        final Map<String, Shape> shapes = new LinkedHashMap<String, Shape>();
+
+        int depth = 1;
+
+    }
+
+    private final ThreadLocal<Scope> scope = new ThreadLocal<Scope>();
+
+    private final int threshold;
+
+    public SQLNPlusOneDetector() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public SQLNPlusOneDetector(int threshold) {
+        if (threshold < 2) {
+            throw new IllegalArgumentException("threshold needs to be at least 2, was " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    /**
+     * Start a detection scope on the current thread, scopes can be nested
+     */
+    public void begin() {
+        Scope current = scope.get();
+        if (current != null) {
+            current.depth++;
+        } else {
+            scope.set(new Scope());
+        }
+    }
+
+    /**
+     * End the detection scope of the current thread
+     *
+     * @return repeated queries of the scope
+     */
+    public List<RepeatedQuery> end() {
+        Scope current = scope.get();
+        if (current == null) {
+            throw new IllegalStateException("No scope has been started");
+        }
+        if (--current.depth == 0) {
+            scope.remove();
+        }
+        return getRepeatedQueries(current);
+    }
+
+    /**
+     * Get the repeated queries of the current scope
+     *
+     * @return repeated queries
+     */
+    public List<RepeatedQuery> getRepeatedQueries() {
+        Scope current = scope.get();
+        return current != null ? getRepeatedQueries(current) : Collections.<RepeatedQuery>emptyList();
+    }
+
+    private static List<RepeatedQuery> getRepeatedQueries(Scope scope) {
+        List<RepeatedQuery> rv = new ArrayList<RepeatedQuery>();
+        for (Map.Entry<String, Shape> entry : scope.shapes.entrySet()) {
+            Shape shape = entry.getValue();
+            if (shape.callSite != null) {
+                rv.add(new RepeatedQuery(entry.getKey(), shape.count, shape.callSite));
+            }
+        }
+        return rv;
+    }
+
+    @Override
+    public void end(SQLListenerContext context) {
+        Scope current = scope.get();
+        SQLBindings bindings = context.getSQLBindings();
+        if (current == null || bindings == null || context.getEntity() != null
+                || context.getException() != null) {
+            return;
+        }
+        String key = QueryMetrics.normalize(bindings.getSQL());
+        Shape shape = current.shapes.get(key);
+        if (shape == null) {
+            current.shapes.put(key, new Shape(bindings.getSQL(), bindings.getNullFriendlyBindings()));
+        } else if (differsInOneConstant(shape, bindings.getSQL(), bindings.getNullFriendlyBindings())
+                && ++shape.count == threshold) {
+            shape.callSite = getCallSite(new Throwable().getStackTrace());
+            onRepeatedQuery(new RepeatedQuery(key, shape.count, shape.callSite));
+        }
+    }
+
+    /**
+     * Called when a query shape reaches the threshold within a scope
+     *
+     * @param query repeated query
+     */
+    protected void onRepeatedQuery(RepeatedQuery query) {
+        logger.warn("Possible N+1 query, " + query);
+    }
+
+    private static boolean differsInOneConstant(Shape shape, String sql, List<Object> bindings) {
+        if (bindings.isEmpty()) {
+            return !sql.equals(shape.sql);
+        } else if (bindings.size() != shape.bindings.size()) {
+            return false;
+        }
+        int differences = 0;
+        for (int i = 0; i < bindings.size(); i++) {
+            Object o1 = shape.bindings.get(i), o2 = bindings.get(i);
+            if (o1 == null ? o2 != null : !o1.equals(o2)) {
+                differences++;
+            }
+        }
+        return differences == 1;
+    }
+
+    @Nullable
+    private static StackTraceElement getCallSite(StackTraceElement[] stackTrace) {
+        for (StackTraceElement element : stackTrace) {
+            if (!isInternal(element.getClassName())) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isInternal(String className) {
+        try {
+            Class<?> cl = Class.forName(className, false, SQLNPlusOneDetector.class.getClassLoader());
+            for (Class<?> internal : INTERNAL) {
+                if (internal.isAssignableFrom(cl)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+}
@@ -16,11 +16,19 @@ package com.querydsl.sql;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import javax.annotation.Nullable;
 import javax.inject.Provider;
 import javax.sql.DataSource;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.QueryException;
+import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
 import com.querydsl.core.types.dsl.Expressions;
 
 /**
@@ -31,6 +39,9 @@ import com.querydsl.core.types.dsl.Expressions;
  */
 public class SQLQueryFactory extends AbstractSQLQueryFactory<SQLQuery<?>> {
 
+    private static final Logger logger = LoggerFactory.getLogger(SQLQueryFactory.class);
+
+
     static class DataSourceProvider implements Provider<Connection> {
 
         private final DataSource ds;
@@ -50,12 +61,32 @@ public class SQLQueryFactory extends AbstractSQLQueryFactory<SQLQuery<?>> {
 
     }
 
+    @Nullable
+    private final ReplicaRouter router;
+
     public SQLQueryFactory(SQLTemplates templates, Provider<Connection> connection) {
         this(new Configuration(templates), connection);
     }
 
     public SQLQueryFactory(Configuration configuration, Provider<Connection> connProvider) {
         super(configuration, connProvider);
+        this.router = null;
+    }
+
+    /**
+     * Create a new factory which routes read queries via the given router
+     *
+     * <p>DML clauses use the primary of the router, queries choose their connection via
+     * {@link ReplicaRouter#route(Configuration, QueryMetadata)}. The write listener of the router
+     * is added to the configuration.</p>
+     *
+     * @param configuration configuration
+     * @param router replica router
+     */
+    public SQLQueryFactory(Configuration configuration, ReplicaRouter router) {
+        super(configuration, router.getPrimary());
+        this.router = router;
+        configuration.addListener(router.getWriteListener());
     }
 
     public SQLQueryFactory(Configuration configuration, DataSource dataSource) {
@@ -64,13 +95,88 @@ public class SQLQueryFactory extends AbstractSQLQueryFactory<SQLQuery<?>> {
 
     public SQLQueryFactory(Configuration configuration, DataSource dataSource, boolean release) {
         super(configuration, new DataSourceProvider(dataSource));
+        this.router = null;
         if (release) {
             configuration.addListener(SQLCloseListener.DEFAULT);
         }
     }
 
+    /**
+     * Execute the given unit of work on a single connection
+     *
+     * <p>The queries and clauses of the factory passed to the callback share one connection, which
+     * is obtained once and, if this factory releases connections after each statement, released
+     * once at the end. Prepared statements are reused for repeated SQL strings within the unit
+     * of work. If this factory routes queries via a {@link ReplicaRouter}, the unit of work is
+     * executed on the primary.</p>
+     *
+     * @param callback unit of work
+     * @param <T> result type
+     * @return result of the callback
+     */
+    public <T> T withConnection(SQLConnectionCallback<T> callback) {
+        boolean release = configuration.getListeners().getListeners().contains(SQLCloseListener.DEFAULT);
+        PinnedConnection pinned = new PinnedConnection(connection.get(), release);
+        Throwable failure = null;
+        try {
+            return callback.doInConnection(new SQLQueryFactory(configuration, pinned));
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } catch (Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            try {
+                pinned.close();
+            } catch (SQLException e) {
+                // a failure of the callback takes precedence
+                if (failure == null) {
+                    throw new QueryException(e);
+                }
+                logger.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Create a loader which coalesces lookups of rows of the given table by the given key
+     * into batched {@code IN} queries
+     *
+     * @param entity table
+     * @param key key column
+     * @param <K> key type
+     * @param <T> row type
+     * @return loader
+     */
+    public <K, T> SQLBatchLoader<K, T> loader(RelationalPath<T> entity, Path<K> key) {
+        return new SQLBatchLoader<K, T>(this, entity, key);
+    }
+
+    /**
+     * Create a loader which coalesces lookups of rows of the given table by the given key
+     * into batched {@code IN} queries of at most {@code batchSize} keys
+     *
+     * @param entity table
+     * @param key key column
+     * @param batchSize maximum amount of keys per query
+     * @param <K> key type
+     * @param <T> row type
+     * @return loader
+     */
+    public <K, T> SQLBatchLoader<K, T> loader(RelationalPath<T> entity, Path<K> key, int batchSize) {
+        return new SQLBatchLoader<K, T>(this, entity, key, batchSize);
+    }
+
     @Override
     public SQLQuery<?> query() {
+        if (router != null) {
+            QueryMetadata metadata = new DefaultQueryMetadata();
+            ReplicaRouter.Route route = router.route(configuration, metadata);
+            SQLQuery<Void> query = new SQLQuery<Void>(route, configuration, metadata);
+            query.addListener(route);
+            return query;
+        }
         return new SQLQuery<Void>(connection, configuration);
     }
 
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.sql.dml.SQLInsertBatch;
+import com.querydsl.sql.dml.SQLMergeBatch;
+import com.querydsl.sql.dml.SQLUpdateBatch;
+
+/**
+ * {@code SQLResultCache} caches the results of queries which have been marked as cacheable via
+ * {@link AbstractSQLQuery#setCacheable(boolean)}
+ *
+ * <p>Entries are keyed on the rendered SQL, the bindings and the projection and are bounded by
+ * entry count, approximate size in bytes and time to live. The least recently used entries are
+ * evicted first.</p>
+ *
+ * <p>Each entry is tagged with the tables the query touches. DML clauses executed via a
+ * {@link Configuration} the cache is registered with invalidate the entries of the affected
+ * tables. Invalidation happens on statement level, changes committed outside of Querydsl or
+ * by other processes are only seen after the entries have expired.</p>
+ *
+ * <p>Results read on a connection with auto-commit disabled are not cached, since they may
+ * contain uncommitted changes of a transaction which is rolled back later.</p>
+ *
+ * <p>Cached result lists are unmodifiable and shared between queries, so the elements should
+ * be treated as immutable.</p>
+ */
+public class SQLResultCache extends SQLBaseListener {
+
+    private final int maxEntries;
+
+    private final long maxBytes;
+
+    private final long ttl;
+
+    private final ConcurrentMap<SchemaAndTable, AtomicLong> versions =
+            new ConcurrentHashMap<SchemaAndTable, AtomicLong>();
+
+    @GuardedBy("this")
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+
+    @GuardedBy("this")
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+
+    /**
+     * Create a new cache
+     *
+     * @param maxEntries maximum amount of entries
+     * @param maxBytes maximum approximate size of the cached results in bytes
+     * @param ttl time to live of entries
+     * @param unit time unit of ttl
+     */
+    public SQLResultCache(int maxEntries, long maxBytes, long ttl, TimeUnit unit) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttl = unit.toNanos(ttl);
+    }
+
+    /**
+     * Get the cached results for the given query or null, if no valid entry exists
+     *
+     * @param key cache key
+     * @return cached results or null
+     */
+    @Nullable
+    synchronized List<?> get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (System.nanoTime() - entry.created <= ttl && isCurrent(entry.versions)) {
+                hits.incrementAndGet();
+                return entry.results;
+            }
+            remove(key);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Cache the given results, unless the tables have been modified since the versions
+     * were taken
+     *
+     * @param key cache key
+     * @param tableVersions table versions taken before query execution
+     * @param results unmodifiable query results
+     */
+    synchronized void put(Key key, Map<SchemaAndTable, Long> tableVersions, List<?> results) {
+        if (!isCurrent(tableVersions)) {
+            return;
+        }
+        long size = key.sql.length() * 2L + StreamingStatistics.estimateSize(key.bindings.toArray());
+        for (Object result : results) {
+            size += StreamingStatistics.estimateSize(result);
+        }
+        if (size > maxBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(results, tableVersions, size));
+        bytes += size;
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && (entries.size() > maxEntries || bytes > maxBytes)) {
+            bytes -= iterator.next().getValue().size;
+            iterator.remove();
+        }
+    }
+
+    @GuardedBy("this")
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            bytes -= entry.size;
+        }
+    }
+
+    /**
+     * Get the current versions of the tables touched by the given query
+     *
+     * @param md query metadata
+     * @return versions per table
+     */
+    Map<SchemaAndTable, Long> getVersions(QueryMetadata md) {
+        Map<SchemaAndTable, Long> rv = new HashMap<SchemaAndTable, Long>();
+        for (RelationalPath<?> path : RelationalPathExtractor.extract(md)) {
+            rv.put(path.getSchemaAndTable(), getVersion(path.getSchemaAndTable()).get());
+        }
+        return rv;
+    }
+
+    private AtomicLong getVersion(SchemaAndTable table) {
+        AtomicLong version = versions.get(table);
+        if (version == null) {
+            version = new AtomicLong();
+            AtomicLong existing = versions.putIfAbsent(table, version);
+            if (existing != null) {
+                version = existing;
+            }
+        }
+        return version;
+    }
+
+    private boolean isCurrent(Map<SchemaAndTable, Long> tableVersions) {
+        for (Map.Entry<SchemaAndTable, Long> entry : tableVersions.entrySet()) {
+            if (getVersion(entry.getKey()).get() != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Invalidate the cached results of queries touching the given table
+     *
+     * @param entity table
+     */
+    public void invalidate(RelationalPath<?> entity) {
+        getVersion(entity.getSchemaAndTable()).incrementAndGet();
+    }
+
+    /**
+     * Invalidate all cached results
+     */
+    public synchronized void invalidateAll() {
+        for (AtomicLong version : versions.values()) {
+            version.incrementAndGet();
+        }
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Get the amount of cached results
+     *
+     * @return entry count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the approximate size of the cached results in bytes
+     *
+     * @return size in bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Get the amount of cache hits
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the amount of cache misses
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public void notifyDelete(RelationalPath<?> entity, QueryMetadata md) {
+        invalidate(entity);
+    }
+
+    @Override
+    public void notifyDeletes(RelationalPath<?> entity, List<QueryMetadata> batches) {
+        invalidate(entity);
+    }
+
+    @Override
+    public void notifyMerge(RelationalPath<?> entity, QueryMetadata md, List<Path<?>> keys,
+            List<Path<?>> columns, List<Expression<?>> values, SubQueryExpression<?> subQuery) {
+        invalidate(entity);
+    }
+
+    @Override
+    public void notifyMerges(RelationalPath<?> entity, QueryMetadata md, List<SQLMergeBatch> batches) {
+        invalidate(entity);
+    }
+
+    @Override
+    public void notifyInsert(RelationalPath<?> entity, QueryMetadata md, List<Path<?>> columns,
+            List<Expression<?>> values, SubQueryExpression<?> subQuery) {
+        invalidate(entity);
+    }
+
+    @Override
+    public void notifyInserts(RelationalPath<?> entity, QueryMetadata md, List<SQLInsertBatch> batches) {
+        invalidate(entity);
+    }
+
+    @Override
+    public void notifyUpdate(RelationalPath<?> entity, QueryMetadata md, Map<Path<?>, Expression<?>> updates) {
+        invalidate(entity);
+    }
+
+    @Override
+    public void notifyUpdates(RelationalPath<?> entity, List<SQLUpdateBatch> batches) {
+        invalidate(entity);
+    }
+
+    @Override
+    public void end(SQLListenerContext context) {
+        // invalidate again after execution, results cached in between are stale
+        if (context.getEntity() != null) {
+            invalidate(context.getEntity());
+        }
+    }
+
+    /**
+     * Cache key of a query
+     */
+    static final class Key {
+
+        private final String sql;
+
+        private final List<Object> bindings;
+
+        @Nullable
+        private final Expression<?> projection;
+
+        private final int hashCode;
+
+        Key(String sql, List<Object> bindings, @Nullable Expression<?> projection) {
+            this.sql = sql;
+            this.bindings = bindings;
+            this.projection = projection;
+            this.hashCode = 31 * (31 * sql.hashCode() + bindings.hashCode())
+                    + (projection != null ? projection.hashCode() : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            } else if (o instanceof Key) {
+                Key other = (Key) o;
+                return other.sql.equals(sql)
+                    && other.bindings.equals(bindings)
+                    && (projection != null ? projection.equals(other.projection) : other.projection == null);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final List<?> results;
+
+        private final Map<SchemaAndTable, Long> versions;
+
+        private final long size;
+
+        private final long created = System.nanoTime();
+
+        Entry(List<?> results, Map<SchemaAndTable, Long> versions, long size) {
+            this.results = results;
+            this.versions = versions;
+            this.size = size;
+        }
+
+    }
+
+}
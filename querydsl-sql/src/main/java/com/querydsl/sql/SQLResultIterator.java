@@ -13,6 +13,7 @@
  */
 package com.querydsl.sql;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -45,6 +46,11 @@ public abstract class SQLResultIterator<T> implements CloseableIterator<T> {
 
     private final SQLListenerContext context;
 
+    @Nullable
+    private Connection streamingConnection;
+
+    private long startTime = -1, firstRowTime = -1, rows, bytes;
+
     public SQLResultIterator(Configuration conf, Statement stmt, ResultSet rs) {
         this(conf, stmt, rs, null, null);
     }
@@ -58,21 +64,48 @@ public abstract class SQLResultIterator<T> implements CloseableIterator<T> {
         this.context = context;
     }
 
+    /**
+     * Collect {@link StreamingStatistics} for this iterator
+     *
+     * @param startTime execution start time in nanoseconds
+     * @param connection connection to switch back to auto commit mode on close or null
+     */
+    void streaming(long startTime, @Nullable Connection connection) {
+        this.startTime = startTime;
+        this.streamingConnection = connection;
+    }
+
     @Override
     public void close() {
         try {
             try {
-                if (rs != null) {
-                    rs.close();
+                try {
+                    if (rs != null) {
+                        rs.close();
+                    }
+                } finally {
+                    if (stmt != null) {
+                        stmt.close();
+                    }
                 }
             } finally {
-                if (stmt != null) {
-                    stmt.close();
+                if (streamingConnection != null) {
+                    Connection connection = streamingConnection;
+                    streamingConnection = null;
+                    connection.setAutoCommit(true);
                 }
             }
         } catch (SQLException e) {
             throw configuration.translate(e);
         } finally {
+            if (context != null) {
+                context.setData(AbstractSQLQuery.ROW_COUNT, rows);
+            }
+            if (startTime >= 0 && context != null) {
+                long ttfr = firstRowTime >= 0 ? firstRowTime - startTime : -1;
+                context.setData(StreamingStatistics.DATA_KEY,
+                        new StreamingStatistics(rows, bytes, ttfr, System.nanoTime() - startTime));
+            }
             if (listener != null) {
                 listener.end(context);
             }
@@ -97,7 +130,15 @@ public abstract class SQLResultIterator<T> implements CloseableIterator<T> {
         if (hasNext()) {
             next = null;
             try {
-                return produceNext(rs);
+                T rv = produceNext(rs);
+                if (startTime >= 0) {
+                    if (rows == 0) {
+                        firstRowTime = System.nanoTime();
+                    }
+                    bytes += StreamingStatistics.estimateSize(rv);
+                }
+                rows++;
+                return rv;
             } catch (SQLException e) {
                 close();
                 throw configuration.translate(e);
@@ -33,6 +33,7 @@ import com.querydsl.core.types.*;
 import com.querydsl.core.types.Template.Element;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.sql.dml.SQLInsertBatch;
+import com.querydsl.sql.dml.SQLMergeBatch;
 import com.querydsl.sql.types.Null;
 
 /**
@@ -543,6 +544,233 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
         }
     }
 
+    public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity, List<SQLMergeBatch> batches) {
+        SQLMergeBatch first = batches.get(0);
+        for (SQLMergeBatch batch : batches) {
+            if (!batch.getColumns().equals(first.getColumns()) || !batch.getKeys().equals(first.getKeys())) {
+                throw new IllegalArgumentException("All batches of a bulk merge need to have the keys "
+                        + first.getKeys() + " and the columns " + first.getColumns() + ", got the keys "
+                        + batch.getKeys() + " and the columns " + batch.getColumns());
+            } else if (batch.getSubQuery() != null && batches.size() > 1) {
+                throw new IllegalArgumentException("Subqueries are not supported in bulk merges");
+            }
+        }
+        this.entity = entity;
+        templates.serializeMerge(metadata, entity, batches, this);
+    }
+
+    protected void serializeForMerge(QueryMetadata metadata, RelationalPath<?> entity, List<SQLMergeBatch> batches) {
+        SQLMergeBatch first = batches.get(0);
+        serializeForMerge(metadata, entity, first.getKeys(), first.getColumns(), first.getValues(), first.getSubQuery());
+        for (int i = 1; i < batches.size(); i++) {
+            append(COMMA);
+            serializeMergeRow(first.getColumns(), batches.get(i).getValues());
+        }
+    }
+
+    /**
+     * Serialize the given MERGE batches as INSERT ... ON CONFLICT (keys) DO UPDATE
+     *
+     * @param metadata metadata
+     * @param entity target table
+     * @param batches batches with the same keys and columns
+     */
+    protected void serializeForInsertOnConflict(QueryMetadata metadata, RelationalPath<?> entity,
+            List<SQLMergeBatch> batches) {
+        List<? extends Path<?>> keys = getMergeKeys(entity, batches.get(0));
+        serializeForMergeInsert(metadata, entity, batches);
+        skipParent = true;
+        append("\non conflict (").handle(COMMA, keys).append(") ");
+        List<Path<?>> updates = getMergeUpdates(entity, batches.get(0), keys);
+        if (updates.isEmpty()) {
+            append("do nothing");
+        } else {
+            append("do update set ");
+            for (int i = 0; i < updates.size(); i++) {
+                if (i > 0) {
+                    append(COMMA);
+                }
+                handle(updates.get(i)).append(" = excluded.").handle(updates.get(i));
+            }
+        }
+        skipParent = false;
+    }
+
+    /**
+     * Serialize the given MERGE batches as INSERT ... ON DUPLICATE KEY UPDATE
+     *
+     * @param metadata metadata
+     * @param entity target table
+     * @param batches batches with the same keys and columns
+     */
+    protected void serializeForInsertOnDuplicateKey(QueryMetadata metadata, RelationalPath<?> entity,
+            List<SQLMergeBatch> batches) {
+        List<? extends Path<?>> keys = getMergeKeys(entity, batches.get(0));
+        serializeForMergeInsert(metadata, entity, batches);
+        skipParent = true;
+        append("\non duplicate key update ");
+        List<Path<?>> updates = getMergeUpdates(entity, batches.get(0), keys);
+        if (updates.isEmpty()) {
+            handle(keys.get(0)).append(" = ").handle(keys.get(0));
+        } else {
+            for (int i = 0; i < updates.size(); i++) {
+                if (i > 0) {
+                    append(COMMA);
+                }
+                handle(updates.get(i)).append(" = values(").handle(updates.get(i)).append(")");
+            }
+        }
+        skipParent = false;
+    }
+
+    /**
+     * Serialize the given MERGE batches as MERGE INTO ... USING ... ON ... WHEN MATCHED ...
+     *
+     * @param metadata metadata
+     * @param entity target table
+     * @param batches batches with the same keys and columns
+     * @param selectFromDummy whether rows are given as SELECT ... FROM dual instead of a VALUES list
+     *                        with a column alias list
+     */
+    protected void serializeForMergeUsing(QueryMetadata metadata, RelationalPath<?> entity,
+            List<SQLMergeBatch> batches, boolean selectFromDummy) {
+        SQLMergeBatch first = batches.get(0);
+        List<? extends Path<?>> keys = getMergeKeys(entity, first);
+        List<Path<?>> columns = first.getColumns().isEmpty()
+                ? new ArrayList<Path<?>>(entity.getColumns()) : first.getColumns();
+
+        serialize(Position.START, metadata.getFlags());
+        if (!serialize(Position.START_OVERRIDE, metadata.getFlags())) {
+            append(templates.getMergeInto());
+        }
+        serialize(Position.AFTER_SELECT, metadata.getFlags());
+
+        boolean originalDmlWithSchema = dmlWithSchema;
+        dmlWithSchema = true;
+        handle(entity);
+        dmlWithSchema = originalDmlWithSchema;
+
+        // source rows
+        append("\nusing (");
+        if (first.getSubQuery() != null) {
+            serialize(first.getSubQuery().getMetadata(), false);
+        } else if (selectFromDummy) {
+            for (int i = 0; i < batches.size(); i++) {
+                if (i > 0) {
+                    append("\nunion all\n");
+                }
+                List<Expression<?>> values = batches.get(i).getValues();
+                append("select ");
+                for (int j = 0; j < columns.size(); j++) {
+                    if (j > 0) {
+                        append(COMMA);
+                    }
+                    if (!useLiterals && values.get(j) instanceof Constant<?>) {
+                        constantPaths.add(columns.get(j));
+                    }
+                    handle(values.get(j));
+                    skipParent = true;
+                    append(" ").handle(columns.get(j));
+                    skipParent = false;
+                }
+                append(" from ").append(templates.getDummyTable());
+            }
+        } else {
+            append("values ");
+            for (int i = 0; i < batches.size(); i++) {
+                if (i > 0) {
+                    append(COMMA);
+                }
+                serializeMergeRow(columns, batches.get(i).getValues());
+            }
+        }
+        skipParent = true;
+        if (selectFromDummy) {
+            // subquery columns need to be aliased as the target columns
+            append(") src");
+        } else {
+            append(") as src (").handle(COMMA, columns).append(")");
+        }
+
+        // key conditions
+        skipParent = false;
+        append("\non (");
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) {
+                append(" and ");
+            }
+            handle(keys.get(i));
+            skipParent = true;
+            append(" = src.").handle(keys.get(i));
+            skipParent = false;
+        }
+        append(")");
+
+        skipParent = true;
+        List<Path<?>> updates = getMergeUpdates(entity, first, keys);
+        if (!updates.isEmpty()) {
+            append("\nwhen matched then update set ");
+            for (int i = 0; i < updates.size(); i++) {
+                if (i > 0) {
+                    append(COMMA);
+                }
+                handle(updates.get(i)).append(" = src.").handle(updates.get(i));
+            }
+        }
+        append("\nwhen not matched then insert (").handle(COMMA, columns).append(") values (");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                append(COMMA);
+            }
+            append("src.").handle(columns.get(i));
+        }
+        append(")");
+        skipParent = false;
+    }
+
+    private void serializeMergeRow(List<Path<?>> columns, List<Expression<?>> values) {
+        if (!useLiterals) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (values.get(i) instanceof Constant<?>) {
+                    constantPaths.add(columns.get(i));
+                }
+            }
+        }
+        append("(").handle(COMMA, values).append(")");
+    }
+
+    private static List<? extends Path<?>> getMergeKeys(RelationalPath<?> entity, SQLMergeBatch batch) {
+        if (!batch.getKeys().isEmpty()) {
+            return batch.getKeys();
+        } else if (entity.getPrimaryKey() != null) {
+            return entity.getPrimaryKey().getLocalColumns();
+        } else {
+            throw new IllegalStateException("No keys were defined, invoke keys(..) to add keys");
+        }
+    }
+
+    private static List<Path<?>> getMergeUpdates(RelationalPath<?> entity, SQLMergeBatch batch,
+            List<? extends Path<?>> keys) {
+        List<Path<?>> columns = batch.getColumns().isEmpty()
+                ? new ArrayList<Path<?>>(entity.getColumns()) : batch.getColumns();
+        List<Path<?>> updates = new ArrayList<Path<?>>(columns.size());
+        for (Path<?> column : columns) {
+            if (!keys.contains(column)) {
+                updates.add(column);
+            }
+        }
+        return updates;
+    }
+
+    private void serializeForMergeInsert(QueryMetadata metadata, RelationalPath<?> entity, List<SQLMergeBatch> batches) {
+        SQLMergeBatch first = batches.get(0);
+        serializeForInsert(metadata, entity, first.getColumns(), first.getValues(), first.getSubQuery());
+        for (int i = 1; i < batches.size(); i++) {
+            append(COMMA);
+            serializeMergeRow(first.getColumns(), batches.get(i).getValues());
+        }
+    }
+
     public void serializeInsert(QueryMetadata metadata, RelationalPath<?> entity, List<Path<?>> columns,
             List<Expression<?>> values, @Nullable SubQueryExpression<?> subQuery) {
         this.entity = entity;
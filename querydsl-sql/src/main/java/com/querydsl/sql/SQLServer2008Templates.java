@@ -13,9 +13,13 @@
  */
 package com.querydsl.sql;
 
-
+import java.util.List;
 import java.util.Set;
 
+import com.querydsl.core.QueryFlag.Position;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.sql.dml.SQLMergeBatch;
+
 /**
  * {@code SQLServer2008Templates} is an SQL dialect for Microsoft SQL Server 2008
  *
@@ -50,6 +54,20 @@ public class SQLServer2008Templates extends SQLServer2005Templates {
 
     protected SQLServer2008Templates(Set<String> keywords, char escape, boolean quote) {
         super(keywords, escape, quote);
+        setNativeMergeSupported(true);
+        // MERGE statements don't report generated keys
+        setNativeMergeWithKeysSupported(false);
+    }
+
+    @Override
+    public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity,
+            List<SQLMergeBatch> batches, SQLSerializer context) {
+        context.serializeForMergeUsing(metadata, entity, batches, false);
+
+        if (!metadata.getFlags().isEmpty()) {
+            context.serialize(Position.END, metadata.getFlags());
+        }
+        context.append(";");
     }
 
 }
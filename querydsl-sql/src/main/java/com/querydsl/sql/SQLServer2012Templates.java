@@ -13,6 +13,7 @@
  */
 package com.querydsl.sql;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -23,6 +24,7 @@ import com.querydsl.core.QueryModifiers;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.dml.SQLMergeBatch;
 
 /**
  * {@code SQLServer2012Templates} is an SQL dialect for Microsoft SQL Server 2012 and later
@@ -64,6 +66,9 @@ public class SQLServer2012Templates extends SQLServerTemplates {
 
     protected SQLServer2012Templates(Set<String> keywords, char escape, boolean quote) {
         super(keywords, escape, quote);
+        setNativeMergeSupported(true);
+        // MERGE statements don't report generated keys
+        setNativeMergeWithKeysSupported(false);
         add(SQLOps.NEXTVAL, "next value for {0s}");
     }
 
@@ -139,4 +144,15 @@ public class SQLServer2012Templates extends SQLServerTemplates {
         }
     }
 
+    @Override
+    public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity,
+            List<SQLMergeBatch> batches, SQLSerializer context) {
+        context.serializeForMergeUsing(metadata, entity, batches, false);
+
+        if (!metadata.getFlags().isEmpty()) {
+            context.serialize(Position.END, metadata.getFlags());
+        }
+        context.append(";");
+    }
+
 }
@@ -31,6 +31,7 @@ import com.querydsl.core.*;
 import com.querydsl.core.QueryFlag.Position;
 import com.querydsl.core.types.*;
 import com.querydsl.sql.dml.SQLInsertBatch;
+import com.querydsl.sql.dml.SQLMergeBatch;
 import com.querydsl.sql.types.Type;
 
 /**
@@ -77,7 +78,7 @@ public class SQLTemplates extends Templates {
      */
     public abstract static class Builder {
 
-        protected boolean printSchema, quote, newLineToSingleSpace;
+        protected boolean printSchema, quote, newLineToSingleSpace, nativeMerge;
 
         protected char escape = '\\';
 
@@ -101,6 +102,21 @@ public class SQLTemplates extends Templates {
             return this;
         }
 
+        /**
+         * Render merge clauses as a single native upsert statement instead of a select followed
+         * by an update or insert
+         *
+         * <p>The native statements have different semantics than the composite merge on some
+         * databases, e.g. MySQL matches any unique index instead of the given keys and PostgreSQL
+         * requires a unique index on the keys.</p>
+         *
+         * @return builder for method chaining
+         */
+        public Builder nativeMerge() {
+            nativeMerge = true;
+            return this;
+        }
+
         protected abstract SQLTemplates build(char escape, boolean quote);
 
         public SQLTemplates build() {
@@ -109,6 +125,13 @@ public class SQLTemplates extends Templates {
                 templates.newLineToSingleSpace();
             }
             templates.setPrintSchema(printSchema);
+            if (nativeMerge) {
+                if (!templates.isNativeMergeSupported()) {
+                    throw new IllegalStateException(templates.getClass().getSimpleName()
+                            + " doesn't support native merge");
+                }
+                templates.setNativeMerge(true);
+            }
             return templates;
         }
 
@@ -180,6 +203,10 @@ public class SQLTemplates extends Templates {
 
     private boolean nativeMerge;
 
+    private boolean nativeMergeSupported;
+
+    private boolean nativeMergeWithKeysSupported = true;
+
     private String notNull = " not null";
 
     private String offsetTemplate = "\noffset {0}";
@@ -216,6 +243,8 @@ public class SQLTemplates extends Templates {
 
     private String nullsLast = " nulls last";
 
+    private boolean nullsSortedHigh = false;
+
     private boolean parameterMetadataAvailable = true;
 
     private boolean batchCountViaGetUpdateCount = false;
@@ -244,6 +273,10 @@ public class SQLTemplates extends Templates {
 
     private int maxLimit = Integer.MAX_VALUE;
 
+    private int streamingFetchSize = 1000;
+
+    private boolean streamingRequiresTransaction = false;
+
     private QueryFlag forShareFlag = new QueryFlag(Position.END, FOR_SHARE);
 
     private QueryFlag forUpdateFlag = new QueryFlag(Position.END, FOR_UPDATE);
@@ -689,6 +722,25 @@ public class SQLTemplates extends Templates {
         return nativeMerge;
     }
 
+    /**
+     * Get whether merge clauses can be rendered as native upsert statements, native merge is
+     * enabled via {@link Builder#nativeMerge()}
+     *
+     * @return true, if native merge is supported
+     */
+    public final boolean isNativeMergeSupported() {
+        return nativeMergeSupported || nativeMerge;
+    }
+
+    /**
+     * Get whether generated keys are available for native merges
+     *
+     * @return true, if generated keys are available for native merges
+     */
+    public final boolean isNativeMergeWithKeysSupported() {
+        return nativeMergeWithKeysSupported;
+    }
+
     public final boolean isSupportsAlias() {
         return true;
     }
@@ -761,6 +813,16 @@ public class SQLTemplates extends Templates {
         return nullsLast;
     }
 
+    /**
+     * Get whether nulls are sorted as if they were larger than any other value, when no explicit
+     * null ordering is given
+     *
+     * @return true, if nulls are sorted last in ascending order
+     */
+    public final boolean isNullsSortedHigh() {
+        return nullsSortedHigh;
+    }
+
     public final boolean isCountViaAnalytics() {
         return countViaAnalytics;
     }
@@ -785,6 +847,24 @@ public class SQLTemplates extends Templates {
         return batchToBulkSupported;
     }
 
+    /**
+     * Get the fetch size to be used for streaming query results
+     *
+     * @return fetch size for streaming
+     */
+    public final int getStreamingFetchSize() {
+        return streamingFetchSize;
+    }
+
+    /**
+     * Get whether auto commit needs to be disabled for the driver to stream results via a cursor
+     *
+     * @return true, if streaming requires an open transaction
+     */
+    public final boolean isStreamingRequiresTransaction() {
+        return streamingRequiresTransaction;
+    }
+
     public final QueryFlag getForShareFlag() {
         return forShareFlag;
     }
@@ -929,7 +1009,21 @@ public class SQLTemplates extends Templates {
     public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity,
             List<Path<?>> keys, List<Path<?>> columns, List<Expression<?>> values,
             SubQueryExpression<?> subQuery, SQLSerializer context) {
-        context.serializeForMerge(metadata, entity, keys, columns, values, subQuery);
+        serializeMerge(metadata, entity,
+                ImmutableList.of(new SQLMergeBatch(keys, columns, values, subQuery)), context);
+    }
+
+    /**
+     * template method for MERGE serialization of one or more rows
+     *
+     * @param metadata
+     * @param entity
+     * @param batches
+     * @param context
+     */
+    public void serializeMerge(QueryMetadata metadata, RelationalPath<?> entity,
+            List<SQLMergeBatch> batches, SQLSerializer context) {
+        context.serializeForMerge(metadata, entity, batches);
 
         if (!metadata.getFlags().isEmpty()) {
             context.serialize(Position.END, metadata.getFlags());
@@ -1076,6 +1170,14 @@ public class SQLTemplates extends Templates {
         this.nativeMerge = nativeMerge;
     }
 
+    protected void setNativeMergeSupported(boolean nativeMergeSupported) {
+        this.nativeMergeSupported = nativeMergeSupported;
+    }
+
+    protected void setNativeMergeWithKeysSupported(boolean b) {
+        this.nativeMergeWithKeysSupported = b;
+    }
+
     protected void setNotNull(String notNull) {
         this.notNull = notNull;
     }
@@ -1172,6 +1274,10 @@ public class SQLTemplates extends Templates {
         this.nullsLast = nullsLast;
     }
 
+    protected void setNullsSortedHigh(boolean nullsSortedHigh) {
+        this.nullsSortedHigh = nullsSortedHigh;
+    }
+
     protected void setLimitRequired(boolean limitRequired) {
         this.limitRequired = limitRequired;
     }
@@ -1208,6 +1314,14 @@ public class SQLTemplates extends Templates {
         this.batchToBulkSupported = b;
     }
 
+    protected void setStreamingFetchSize(int fetchSize) {
+        this.streamingFetchSize = fetchSize;
+    }
+
+    protected void setStreamingRequiresTransaction(boolean b) {
+        this.streamingRequiresTransaction = b;
+    }
+
     protected void setForShareFlag(QueryFlag flag) {
         forShareFlag = flag;
     }
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.Sets;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
+import com.querydsl.sql.dml.*;
+
+/**
+ * {@code ShardKeys} extracts the values of a shard key column from filters and DML clauses
+ *
+ * <p>A column matches the shard key, if it is the shard key path itself or the same column of
+ * another path of the shard key table, e.g. an alias. The extraction returns null, if the values are not restricted
+ * to a known set of constants.</p>
+ */
+final class ShardKeys {
+
+    /**
+     * Get the shard key values the given filter is restricted to
+     *
+     * <p>Equality and in conditions with constants are supported, combined via and and or.</p>
+     *
+     * @param predicate filter
+     * @param key shard key
+     * @return key values or null, if unrestricted
+     */
+    @Nullable
+    static Set<Object> fromPredicate(@Nullable Expression<?> predicate, Path<?> key) {
+        if (predicate instanceof BooleanBuilder) {
+            return fromPredicate(((BooleanBuilder) predicate).getValue(), key);
+        } else if (!(predicate instanceof Operation)) {
+            return null;
+        }
+        Operation<?> operation = (Operation<?>) predicate;
+        Operator operator = operation.getOperator();
+        List<Expression<?>> args = operation.getArgs();
+        if (operator == Ops.AND) {
+            Set<Object> rv = null;
+            for (Expression<?> arg : args) {
+                Set<Object> keys = fromPredicate(arg, key);
+                if (keys != null) {
+                    rv = rv != null ? Sets.newLinkedHashSet(Sets.intersection(rv, keys)) : keys;
+                }
+            }
+            return rv;
+        } else if (operator == Ops.OR) {
+            Set<Object> rv = new LinkedHashSet<Object>();
+            for (Expression<?> arg : args) {
+                if (!addAll(rv, fromPredicate(arg, key))) {
+                    return null;
+                }
+            }
+            return rv;
+        } else if (operator == Ops.EQ) {
+            if (matches(args.get(0), key) && args.get(1) instanceof Constant) {
+                return Collections.<Object>singleton(((Constant<?>) args.get(1)).getConstant());
+            } else if (matches(args.get(1), key) && args.get(0) instanceof Constant) {
+                return Collections.<Object>singleton(((Constant<?>) args.get(0)).getConstant());
+            }
+        } else if (operator == Ops.IN) {
+            if (matches(args.get(0), key) && args.get(1) instanceof Constant
+                    && ((Constant<?>) args.get(1)).getConstant() instanceof Collection) {
+                return new LinkedHashSet<Object>((Collection<?>) ((Constant<?>) args.get(1)).getConstant());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the shard key values written or filtered by the given clause
+     *
+     * <p>Insert and merge clauses are inspected for the values set for the shard key, update and
+     * delete clauses for their filters. Batches are taken into account.</p>
+     *
+     * @param clause DML clause
+     * @param key shard key
+     * @return key values or null, if unrestricted
+     */
+    @Nullable
+    static Set<Object> fromClause(AbstractSQLClause<?> clause, Path<?> key) {
+        if (clause instanceof AbstractSQLInsertClause) {
+            AbstractSQLInsertClause<?> insert = (AbstractSQLInsertClause<?>) clause;
+            if (insert.getBatches().isEmpty()) {
+                return fromValues(insert.getColumns(), insert.getValues(), key);
+            }
+            Set<Object> keys = new LinkedHashSet<Object>();
+            for (SQLInsertBatch batch : insert.getBatches()) {
+                if (!addAll(keys, fromValues(batch.getColumns(), batch.getValues(), key))) {
+                    return null;
+                }
+            }
+            return keys;
+        } else if (clause instanceof SQLMergeClause) {
+            SQLMergeClause merge = (SQLMergeClause) clause;
+            if (merge.getBatches().isEmpty()) {
+                return fromValues(merge.getColumns(), merge.getValues(), key);
+            }
+            Set<Object> keys = new LinkedHashSet<Object>();
+            for (SQLMergeBatch batch : merge.getBatches()) {
+                if (!addAll(keys, fromValues(batch.getColumns(), batch.getValues(), key))) {
+                    return null;
+                }
+            }
+            return keys;
+        } else if (clause instanceof AbstractSQLUpdateClause) {
+            AbstractSQLUpdateClause<?> update = (AbstractSQLUpdateClause<?>) clause;
+            if (update.getBatches().isEmpty()) {
+                return fromPredicate(update.getMetadata().getWhere(), key);
+            }
+            Set<Object> keys = new LinkedHashSet<Object>();
+            for (SQLUpdateBatch batch : update.getBatches()) {
+                if (!addAll(keys, fromPredicate(batch.getMetadata().getWhere(), key))) {
+                    return null;
+                }
+            }
+            return keys;
+        } else if (clause instanceof AbstractSQLDeleteClause) {
+            AbstractSQLDeleteClause<?> delete = (AbstractSQLDeleteClause<?>) clause;
+            if (delete.getBatches().isEmpty()) {
+                return fromPredicate(delete.getMetadata().getWhere(), key);
+            }
+            Set<Object> keys = new LinkedHashSet<Object>();
+            for (QueryMetadata batch : delete.getBatches()) {
+                if (!addAll(keys, fromPredicate(batch.getWhere(), key))) {
+                    return null;
+                }
+            }
+            return keys;
+        } else {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Set<Object> fromValues(List<Path<?>> columns, List<Expression<?>> values, Path<?> key) {
+        for (int i = 0; i < columns.size() && i < values.size(); i++) {
+            if (matches(columns.get(i), key)) {
+                Expression<?> value = values.get(i);
+                if (value instanceof Constant) {
+                    return Collections.<Object>singleton(((Constant<?>) value).getConstant());
+                } else {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean addAll(Set<Object> keys, @Nullable Set<Object> batchKeys) {
+        if (batchKeys == null) {
+            return false;
+        }
+        keys.addAll(batchKeys);
+        return true;
+    }
+
+    private static boolean matches(Expression<?> expr, Path<?> key) {
+        if (expr.equals(key)) {
+            return true;
+        } else if (expr instanceof Path) {
+            Path<?> path = (Path<?>) expr;
+            Path<?> parent = path.getMetadata().getParent();
+            Path<?> keyParent = key.getMetadata().getParent();
+            return parent instanceof RelationalPath
+                && keyParent instanceof RelationalPath
+                && ((RelationalPath<?>) parent).getSchemaAndTable().equals(
+                        ((RelationalPath<?>) keyParent).getSchemaAndTable())
+                && ColumnMetadata.getName(path).equals(ColumnMetadata.getName(key));
+        } else {
+            return false;
+        }
+    }
+
+    private ShardKeys() { }
+
+}
@@ -0,0 +1,465 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.*;
+
+import javax.inject.Provider;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.mysema.commons.lang.CloseableIterator;
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.*;
+import com.querydsl.core.util.MathUtils;
+
+/**
+ * {@code ShardedSQLQuery} is a query executed on the shards of a {@link ShardedSQLQueryFactory}
+ *
+ * <p>Queries on multiple shards are merged as follows. Ordered results are merged via a k-way
+ * merge of the per shard results, which are fetched with the order expressions as additional
+ * columns. Nulls are ordered like in the dialect, unless the order specifiers define the null
+ * handling. Each shard returns at most offset + limit rows and offset and limit are applied to
+ * the merged result. Distinct results are deduplicated after the merge, the shards return all
+ * their rows in that case.</p>
+ *
+ * <p>Grouped queries and queries with aggregate projections are re-aggregated by the group by
+ * expressions, which are fetched as additional columns if not projected. Only {@code count}, {@code sum}, {@code min} and {@code max}
+ * aggregates can be merged, the order expressions need to be part of the projection and
+ * {@code having} is not supported.</p>
+ *
+ * @param <T> result type
+ */
+public class ShardedSQLQuery<T> extends SQLQuery<T> {
+
+    private static final Provider<Connection> NO_CONNECTION = new Provider<Connection>() {
+        @Override
+        public Connection get() {
+            throw new IllegalStateException("Sharded queries obtain their connections per shard");
+        }
+    };
+
+    private static final Set<Operator> MERGEABLE_AGGREGATES = ImmutableSet.<Operator>of(
+            Ops.AggOps.COUNT_AGG, Ops.AggOps.COUNT_ALL_AGG, Ops.AggOps.SUM_AGG,
+            Ops.AggOps.MIN_AGG, Ops.AggOps.MAX_AGG);
+
+    /**
+     * {@code RowComparator} compares rows by the values of the order expressions
+     */
+    private static final class RowComparator implements Comparator<Object[]> {
+
+        private final List<OrderSpecifier<?>> orderBy;
+
+        private final int[] indexes;
+
+        private final boolean nullsSortedHigh;
+
+        RowComparator(List<OrderSpecifier<?>> orderBy, int[] indexes, boolean nullsSortedHigh) {
+            this.orderBy = orderBy;
+            this.indexes = indexes;
+            this.nullsSortedHigh = nullsSortedHigh;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public int compare(Object[] o1, Object[] o2) {
+            for (int i = 0; i < indexes.length; i++) {
+                OrderSpecifier<?> order = orderBy.get(i);
+                Object v1 = o1[indexes[i]], v2 = o2[indexes[i]];
+                if (v1 == null || v2 == null) {
+                    if (v1 != v2) {
+                        boolean nullsFirst = order.getNullHandling() == OrderSpecifier.NullHandling.NullsFirst
+                            || (order.getNullHandling() == OrderSpecifier.NullHandling.Default
+                                && order.isAscending() != nullsSortedHigh);
+                        return (v1 == null) == nullsFirst ? -1 : 1;
+                    }
+                } else {
+                    int rv = ((Comparable<Object>) v1).compareTo(v2);
+                    if (rv != 0) {
+                        return order.isAscending() ? rv : -rv;
+                    }
+                }
+            }
+            return 0;
+        }
+
+    }
+
+    private static final Function<Tuple, Object[]> TO_ARRAY = new Function<Tuple, Object[]>() {
+        @Override
+        public Object[] apply(Tuple input) {
+            return input.toArray();
+        }
+    };
+
+    private final ShardedSQLQueryFactory<?> factory;
+
+    public ShardedSQLQuery(ShardedSQLQueryFactory<?> factory) {
+        this(factory, new DefaultQueryMetadata());
+    }
+
+    public ShardedSQLQuery(ShardedSQLQueryFactory<?> factory, QueryMetadata metadata) {
+        super(NO_CONNECTION, factory.getConfiguration(), metadata);
+        this.factory = factory;
+    }
+
+    private List<Integer> getTargets(QueryMetadata md) {
+        return factory.getTargets(ShardKeys.fromPredicate(md.getWhere(), factory.getShardKey()));
+    }
+
+    private SQLQuery<?> createQuery(int shard, QueryMetadata md) {
+        SQLQuery<?> query = new SQLQuery<Void>(factory.getShards().get(shard), getConfiguration(), md.clone());
+        for (SQLListener listener : listeners.getListeners()) {
+            query.addListener(listener);
+        }
+        return query;
+    }
+
+    // the queries are created on the calling thread, since cloning the metadata isn't thread safe
+    private Map<Integer, SQLQuery<?>> createQueries(List<Integer> targets, QueryMetadata md) {
+        Map<Integer, SQLQuery<?>> queries = new HashMap<Integer, SQLQuery<?>>();
+        for (Integer shard : targets) {
+            queries.put(shard, createQuery(shard, md));
+        }
+        return queries;
+    }
+
+    private List<?> fetch(QueryMetadata md, List<Integer> targets) {
+        final Map<Integer, SQLQuery<?>> queries = createQueries(targets, md);
+        return Lists.newArrayList(Iterables.concat(factory.execute(targets, new Function<Integer, List<?>>() {
+            @Override
+            public List<?> apply(Integer shard) {
+                return queries.get(shard).fetch();
+            }
+        })));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> fetchRows(QueryMetadata md, List<Integer> targets) {
+        final Map<Integer, SQLQuery<?>> queries = createQueries(targets, md);
+        List<List<Object[]>> results = factory.execute(targets, new Function<Integer, List<Object[]>>() {
+            @Override
+            public List<Object[]> apply(Integer shard) {
+                List<Tuple> tuples = (List<Tuple>) queries.get(shard).fetch();
+                return Lists.transform(tuples, TO_ARRAY);
+            }
+        });
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (List<Object[]> result : results) {
+            rows.addAll(result);
+        }
+        return rows;
+    }
+
+    private static List<Expression<?>> getArgs(Expression<?> projection) {
+        if (projection instanceof FactoryExpression) {
+            return ((FactoryExpression<?>) projection).getArgs();
+        } else {
+            return Collections.<Expression<?>>singletonList(projection);
+        }
+    }
+
+    private static Expression<?> unwrap(Expression<?> expr) {
+        if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == Ops.ALIAS) {
+            return ((Operation<?>) expr).getArg(0);
+        }
+        return expr;
+    }
+
+    private static boolean isAggregate(QueryMetadata md) {
+        if (!md.getGroupBy().isEmpty()) {
+            return true;
+        }
+        for (Expression<?> arg : getArgs(md.getProjection())) {
+            arg = unwrap(arg);
+            if (arg instanceof Operation && ((Operation<?>) arg).getOperator() instanceof Ops.AggOps) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <E> Iterator<E> slice(Iterator<E> rows, QueryModifiers modifiers) {
+        if (modifiers.getOffset() != null) {
+            Iterators.advance(rows, modifiers.getOffsetAsInteger());
+        }
+        if (modifiers.getLimit() != null) {
+            rows = Iterators.limit(rows, modifiers.getLimitAsInteger());
+        }
+        return rows;
+    }
+
+    private static <E> Iterator<E> distinct(Iterator<E> rows) {
+        final Set<Object> seen = new HashSet<Object>();
+        return Iterators.filter(rows, new com.google.common.base.Predicate<E>() {
+            @Override
+            public boolean apply(E input) {
+                return seen.add(input instanceof Object[] ? Arrays.asList((Object[]) input) : input);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> merge(QueryMetadata md, List<Integer> targets) {
+        QueryModifiers modifiers = md.getModifiers();
+        QueryMetadata shardMd = md.clone();
+        Long limit = modifiers.getLimit();
+        long offset = modifiers.getOffset() != null ? modifiers.getOffset() : 0L;
+        // distinct rows are deduplicated after the merge, so the shards can't be limited
+        shardMd.setModifiers(new QueryModifiers(limit != null && !md.isDistinct() ? limit + offset : null, null));
+
+        Iterator<?> rows;
+        List<OrderSpecifier<?>> orderBy = md.getOrderBy();
+        if (orderBy.isEmpty()) {
+            rows = fetch(shardMd, targets).iterator();
+        } else {
+            Expression<?>[] columns = new Expression<?>[orderBy.size() + 1];
+            int[] indexes = new int[orderBy.size()];
+            columns[0] = md.getProjection();
+            for (int i = 0; i < orderBy.size(); i++) {
+                columns[i + 1] = orderBy.get(i).getTarget();
+                indexes[i] = i + 1;
+            }
+            shardMd.setProjection(Projections.tuple(columns));
+            final Map<Integer, SQLQuery<?>> queries = createQueries(targets, shardMd);
+            List<List<Object[]>> results = factory.execute(targets, new Function<Integer, List<Object[]>>() {
+                @Override
+                public List<Object[]> apply(Integer shard) {
+                    return Lists.transform((List<Tuple>) queries.get(shard).fetch(), TO_ARRAY);
+                }
+            });
+            List<Iterator<Object[]>> iterators = new ArrayList<Iterator<Object[]>>(results.size());
+            for (List<Object[]> result : results) {
+                iterators.add(result.iterator());
+            }
+            Iterator<Object[]> merged = Iterators.mergeSorted(iterators, new RowComparator(orderBy, indexes,
+                    getConfiguration().getTemplates().isNullsSortedHigh()));
+            rows = Iterators.transform(merged, new Function<Object[], Object>() {
+                @Override
+                public Object apply(Object[] input) {
+                    return input[0];
+                }
+            });
+        }
+        if (md.isDistinct()) {
+            rows = distinct(rows);
+        }
+        return Lists.newArrayList((Iterator<T>) slice(rows, modifiers));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> aggregate(QueryMetadata md, List<Integer> targets) {
+        if (md.getHaving() != null) {
+            throw new UnsupportedOperationException("having is not supported for queries on multiple shards");
+        }
+        Expression<?> projection = md.getProjection();
+        List<Expression<?>> projected = getArgs(projection);
+        // group by expressions which are not projected are fetched as additional columns
+        List<Expression<?>> args = new ArrayList<Expression<?>>(projected);
+        for (Expression<?> groupBy : md.getGroupBy()) {
+            boolean found = false;
+            for (Expression<?> arg : projected) {
+                found |= unwrap(arg).equals(groupBy);
+            }
+            if (!found) {
+                args.add(groupBy);
+            }
+        }
+        Operator[] operators = new Operator[args.size()];
+        List<Integer> keys = new ArrayList<Integer>();
+        for (int i = 0; i < args.size(); i++) {
+            Expression<?> arg = unwrap(args.get(i));
+            if (md.getGroupBy().contains(arg)) {
+                keys.add(i);
+            } else if (arg instanceof Operation
+                    && MERGEABLE_AGGREGATES.contains(((Operation<?>) arg).getOperator())) {
+                operators[i] = ((Operation<?>) arg).getOperator();
+            } else {
+                throw new UnsupportedOperationException(args.get(i)
+                        + " can't be merged over multiple shards");
+            }
+        }
+
+        QueryMetadata shardMd = md.clone();
+        shardMd.setModifiers(QueryModifiers.EMPTY);
+        shardMd.clearOrderBy();
+        shardMd.setProjection(Projections.tuple(args.toArray(new Expression<?>[args.size()])));
+
+        Map<List<Object>, Object[]> groups = new LinkedHashMap<List<Object>, Object[]>();
+        for (Object[] row : fetchRows(shardMd, targets)) {
+            List<Object> key = new ArrayList<Object>(keys.size());
+            for (Integer index : keys) {
+                key.add(row[index]);
+            }
+            Object[] group = groups.get(key);
+            if (group == null) {
+                groups.put(key, row.clone());
+            } else {
+                for (int i = 0; i < operators.length; i++) {
+                    if (operators[i] != null) {
+                        group[i] = combine(operators[i], group[i], row[i]);
+                    }
+                }
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<Object[]>(groups.values());
+        List<OrderSpecifier<?>> orderBy = md.getOrderBy();
+        if (!orderBy.isEmpty()) {
+            int[] indexes = new int[orderBy.size()];
+            for (int i = 0; i < orderBy.size(); i++) {
+                indexes[i] = indexOf(args, orderBy.get(i).getTarget());
+            }
+            Collections.sort(rows, new RowComparator(orderBy, indexes,
+                    getConfiguration().getTemplates().isNullsSortedHigh()));
+        }
+
+        List<T> results = new ArrayList<T>(rows.size());
+        Iterator<Object[]> iterator = slice(rows.iterator(), md.getModifiers());
+        while (iterator.hasNext()) {
+            Object[] row = iterator.next();
+            if (row.length > projected.size()) {
+                row = Arrays.copyOf(row, projected.size());
+            }
+            if (projection instanceof FactoryExpression) {
+                results.add(((FactoryExpression<T>) projection).newInstance(row));
+            } else {
+                results.add((T) row[0]);
+            }
+        }
+        return results;
+    }
+
+    private static int indexOf(List<Expression<?>> args, Expression<?> target) {
+        for (int i = 0; i < args.size(); i++) {
+            Expression<?> arg = args.get(i);
+            if (arg.equals(target) || unwrap(arg).equals(target)
+                    || (unwrap(arg) != arg && ((Operation<?>) arg).getArg(1).equals(target))) {
+                return i;
+            }
+        }
+        throw new UnsupportedOperationException(target
+                + " needs to be part of the projection for ordering results of multiple shards");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object combine(Operator operator, Object v1, Object v2) {
+        if (v1 == null) {
+            return v2;
+        } else if (v2 == null) {
+            return v1;
+        } else if (operator == Ops.AggOps.MIN_AGG) {
+            return ((Comparable<Object>) v1).compareTo(v2) <= 0 ? v1 : v2;
+        } else if (operator == Ops.AggOps.MAX_AGG) {
+            return ((Comparable<Object>) v1).compareTo(v2) >= 0 ? v1 : v2;
+        } else {
+            return MathUtils.sum((Number) v1, (Number) v2);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> fetch(QueryMetadata md) {
+        List<Integer> targets = getTargets(md);
+        if (targets.isEmpty()) {
+            return Collections.emptyList();
+        } else if (targets.size() == 1) {
+            return (List<T>) createQuery(targets.get(0), md).fetch();
+        } else if (isAggregate(md)) {
+            return aggregate(md, targets);
+        } else {
+            return merge(md, targets);
+        }
+    }
+
+    @Override
+    public List<T> fetch() {
+        return fetch(getMetadata());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public CloseableIterator<T> iterate() {
+        List<Integer> targets = getTargets(getMetadata());
+        if (targets.size() == 1) {
+            return (CloseableIterator<T>) createQuery(targets.get(0), getMetadata()).iterate();
+        }
+        return new IteratorAdapter<T>(fetch(getMetadata()).iterator());
+    }
+
+    @Override
+    public long fetchCount() {
+        QueryMetadata md = getMetadata();
+        List<Integer> targets = getTargets(md);
+        if (targets.size() == 1) {
+            return createQuery(targets.get(0), md).fetchCount();
+        } else if (md.isDistinct() || !md.getGroupBy().isEmpty()) {
+            QueryMetadata unlimited = md.clone();
+            unlimited.setModifiers(QueryModifiers.EMPTY);
+            unlimited.clearOrderBy();
+            if (unlimited.getProjection() == null) {
+                List<Expression<?>> groupBy = md.getGroupBy();
+                unlimited.setProjection(Projections.tuple(groupBy.toArray(new Expression<?>[groupBy.size()])));
+            }
+            return fetch(unlimited).size();
+        }
+        final Map<Integer, SQLQuery<?>> queries = createQueries(targets, md);
+        long count = 0;
+        for (Long shardCount : factory.execute(targets, new Function<Integer, Long>() {
+            @Override
+            public Long apply(Integer shard) {
+                return queries.get(shard).fetchCount();
+            }
+        })) {
+            count += shardCount;
+        }
+        return count;
+    }
+
+    @Override
+    public QueryResults<T> fetchResults() {
+        long total = fetchCount();
+        if (total > 0) {
+            return new QueryResults<T>(fetch(), getMetadata().getModifiers(), total);
+        } else {
+            return QueryResults.emptyResults();
+        }
+    }
+
+    @Override
+    public ResultSet getResults() {
+        List<Integer> targets = getTargets(getMetadata());
+        if (targets.size() == 1) {
+            return createQuery(targets.get(0), getMetadata()).getResults();
+        }
+        throw new UnsupportedOperationException("getResults() is not supported for queries on multiple shards");
+    }
+
+    @Override
+    public ShardedSQLQuery<T> clone() {
+        ShardedSQLQuery<T> q = new ShardedSQLQuery<T>(factory, getMetadata().clone());
+        q.clone(this);
+        return q;
+    }
+
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.sql.Connection;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nullable;
+import javax.inject.Provider;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.querydsl.core.QueryException;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.dml.*;
+
+/**
+ * {@code ShardedSQLQueryFactory} is a factory for queries and DML clauses over identically
+ * structured databases, which are partitioned by a shard key
+ *
+ * <p>Queries whose filter restricts the shard key to constants are executed on the matching
+ * shards, all other queries on all shards. The shards are queried in parallel via the given
+ * executor and the results are merged, see {@link ShardedSQLQuery}. DML clauses are executed on
+ * the shard of the shard key value they write or filter by.</p>
+ *
+ * @param <K> shard key type
+ */
+public class ShardedSQLQueryFactory<K> implements SQLCommonQueryFactory<SQLQuery<?>,
+    SQLDeleteClause, SQLUpdateClause, SQLInsertClause, SQLMergeClause> {
+
+    /**
+     * {@code ClauseRoute} resolves the shard of a DML clause when the clause is executed
+     */
+    private class ClauseRoute implements Provider<Connection> {
+
+        private AbstractSQLClause<?> clause;
+
+        @Override
+        public Connection get() {
+            List<Integer> targets = getTargets(ShardKeys.fromClause(clause, shardKey));
+            if (targets.size() != 1) {
+                throw new IllegalStateException("DML clause needs to be restricted to a single shard via "
+                        + shardKey + ", but matched " + targets.size() + " shards");
+            }
+            return shards.get(targets.get(0)).get();
+        }
+
+    }
+
+    private final Configuration configuration;
+
+    private final List<Provider<Connection>> shards;
+
+    private final Path<K> shardKey;
+
+    private final Function<? super K, Integer> resolver;
+
+    private final ExecutorService executor;
+
+    /**
+     * Create a new factory which queries the shards sequentially
+     *
+     * @param configuration configuration
+     * @param shards connection providers of the shards
+     * @param shardKey shard key column
+     * @param resolver function resolving the shard index of a key value
+     */
+    public ShardedSQLQueryFactory(Configuration configuration, List<? extends Provider<Connection>> shards,
+            Path<K> shardKey, Function<? super K, Integer> resolver) {
+        this(configuration, shards, shardKey, resolver, MoreExecutors.newDirectExecutorService());
+    }
+
+    /**
+     * Create a new factory
+     *
+     * @param configuration configuration
+     * @param shards connection providers of the shards
+     * @param shardKey shard key column
+     * @param resolver function resolving the shard index of a key value
+     * @param executor executor for parallel execution on multiple shards
+     */
+    public ShardedSQLQueryFactory(Configuration configuration, List<? extends Provider<Connection>> shards,
+            Path<K> shardKey, Function<? super K, Integer> resolver, ExecutorService executor) {
+        this.configuration = configuration;
+        this.shards = ImmutableList.copyOf(shards);
+        this.shardKey = shardKey;
+        this.resolver = resolver;
+        this.executor = executor;
+    }
+
+    public final Configuration getConfiguration() {
+        return configuration;
+    }
+
+    public final List<Provider<Connection>> getShards() {
+        return shards;
+    }
+
+    public final Path<K> getShardKey() {
+        return shardKey;
+    }
+
+    /**
+     * Get the index of the shard of the given key value
+     *
+     * @param key shard key value
+     * @return shard index
+     */
+    public int getShard(K key) {
+        Integer shard = resolver.apply(key);
+        if (shard == null || shard < 0 || shard >= shards.size()) {
+            throw new IllegalArgumentException("Invalid shard " + shard + " for key " + key);
+        }
+        return shard;
+    }
+
+    /**
+     * Create a factory for the shard of the given key value
+     *
+     * @param key shard key value
+     * @return factory
+     */
+    public SQLQueryFactory shard(K key) {
+        return new SQLQueryFactory(configuration, shards.get(getShard(key)));
+    }
+
+    @SuppressWarnings("unchecked")
+    List<Integer> getTargets(@Nullable Set<Object> keys) {
+        if (keys == null) {
+            List<Integer> targets = new ArrayList<Integer>(shards.size());
+            for (int i = 0; i < shards.size(); i++) {
+                targets.add(i);
+            }
+            return targets;
+        }
+        SortedSet<Integer> targets = new TreeSet<Integer>();
+        for (Object key : keys) {
+            targets.add(getShard((K) key));
+        }
+        return new ArrayList<Integer>(targets);
+    }
+
+    <T> List<T> execute(List<Integer> targets, final Function<Integer, T> task) {
+        if (targets.size() == 1) {
+            return Collections.singletonList(task.apply(targets.get(0)));
+        }
+        List<Callable<T>> callables = new ArrayList<Callable<T>>(targets.size());
+        for (final Integer target : targets) {
+            callables.add(new Callable<T>() {
+                @Override
+                public T call() {
+                    return task.apply(target);
+                }
+            });
+        }
+        try {
+            List<T> results = new ArrayList<T>(targets.size());
+            for (Future<T> future : executor.invokeAll(callables)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new QueryException(e.getCause());
+        }
+    }
+
+    private <C extends AbstractSQLClause<?>> C route(ClauseRoute route, C clause) {
+        route.clause = clause;
+        return clause;
+    }
+
+    @Override
+    public SQLDeleteClause delete(RelationalPath<?> path) {
+        ClauseRoute route = new ClauseRoute();
+        return route(route, new SQLDeleteClause(route, configuration, path));
+    }
+
+    @Override
+    public SQLInsertClause insert(RelationalPath<?> path) {
+        ClauseRoute route = new ClauseRoute();
+        return route(route, new SQLInsertClause(route, configuration, path));
+    }
+
+    @Override
+    public SQLMergeClause merge(RelationalPath<?> path) {
+        ClauseRoute route = new ClauseRoute();
+        return route(route, new SQLMergeClause(route, configuration, path));
+    }
+
+    @Override
+    public SQLUpdateClause update(RelationalPath<?> path) {
+        ClauseRoute route = new ClauseRoute();
+        return route(route, new SQLUpdateClause(route, configuration, path));
+    }
+
+    @Override
+    public SQLQuery<?> query() {
+        return new ShardedSQLQuery<Void>(this);
+    }
+
+    @Override
+    public SQLQuery<?> from(Expression<?> from) {
+        return query().from(from);
+    }
+
+    @Override
+    public SQLQuery<?> from(Expression<?>... from) {
+        return query().from(from);
+    }
+
+    @Override
+    public SQLQuery<?> from(SubQueryExpression<?> subQuery, Path<?> alias) {
+        return query().from(subQuery, alias);
+    }
+
+    public <T> SQLQuery<T> select(Expression<T> expr) {
+        return query().select(expr);
+    }
+
+    public SQLQuery<Tuple> select(Expression<?>... exprs) {
+        return query().select(exprs);
+    }
+
+    public <T> SQLQuery<T> selectDistinct(Expression<T> expr) {
+        return query().select(expr).distinct();
+    }
+
+    public SQLQuery<Tuple> selectDistinct(Expression<?>... exprs) {
+        return query().select(exprs).distinct();
+    }
+
+    public SQLQuery<Integer> selectOne() {
+        return select(Expressions.ONE);
+    }
+
+    public <T> SQLQuery<T> selectFrom(RelationalPath<T> expr) {
+        return select(expr).from(expr);
+    }
+
+}
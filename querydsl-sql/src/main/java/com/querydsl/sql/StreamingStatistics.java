@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.Date;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.querydsl.core.Tuple;
+
+/**
+ * {@code StreamingStatistics} describes the rows streamed by a {@link SQLResultIterator}
+ *
+ * <p>The statistics are made available to {@link SQLDetailedListener#end(SQLListenerContext)}
+ * via the {@link #DATA_KEY} context data entry.</p>
+ */
+@Immutable
+public final class StreamingStatistics {
+
+    /**
+     * {@link SQLListenerContext} data key for the statistics of a streamed query
+     */
+    public static final String DATA_KEY = StreamingStatistics.class.getName();
+
+    private static final int OBJECT_SIZE = 16;
+
+    private final long rows;
+
+    private final long bytes;
+
+    private final long timeToFirstRow;
+
+    private final long duration;
+
+    public StreamingStatistics(long rows, long bytes, long timeToFirstRow, long duration) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.timeToFirstRow = timeToFirstRow;
+        this.duration = duration;
+    }
+
+    /**
+     * Get the amount of rows streamed
+     *
+     * @return row count
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the approximate size of the streamed rows in bytes
+     *
+     * @return size estimate in bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Get the time from statement execution to the first row in nanoseconds
+     *
+     * @return time to first row or -1, if no rows were streamed
+     */
+    public long getTimeToFirstRow() {
+        return timeToFirstRow;
+    }
+
+    /**
+     * Get the time from statement execution until the iterator was closed in nanoseconds
+     *
+     * @return duration
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return "rows=" + rows + ", bytes=" + bytes + ", timeToFirstRow=" + timeToFirstRow
+                + ", duration=" + duration;
+    }
+
+    static long estimateSize(@Nullable Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String) {
+            return 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else if (value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Date) {
+            return 8;
+        } else if (value instanceof Object[]) {
+            long size = 0;
+            for (Object o : (Object[]) value) {
+                size += estimateSize(o);
+            }
+            return size;
+        } else if (value instanceof Tuple) {
+            return estimateSize(((Tuple) value).toArray());
+        } else {
+            return OBJECT_SIZE;
+        }
+    }
+
+}
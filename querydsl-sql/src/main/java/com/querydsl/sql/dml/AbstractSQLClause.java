@@ -139,6 +139,22 @@ public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implemen
         return new SQLBindings(queryString, args);
     }
 
+    SQLBatcher.Row createRow(SQLBatcher.Kind kind, QueryMetadata metadata, RelationalPath<?> entity,
+            List<?> batches, SQLSerializer serializer) {
+        SQLBindings bindings = createBindings(metadata, serializer);
+        return new SQLBatcher.Row(kind, entity, metadata, batches, bindings.getSQL(),
+                bindings.getNullFriendlyBindings(), serializer.getConstantPaths());
+    }
+
+    /**
+     * Get the statements of the clause for deferred execution
+     *
+     * @return statements
+     */
+    List<SQLBatcher.Row> getRows() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " can't be deferred");
+    }
+
     protected SQLSerializer createSerializer() {
         SQLSerializer serializer = new SQLSerializer(configuration, true);
         serializer.setUseLiterals(useLiterals);
@@ -233,6 +233,25 @@ public abstract class AbstractSQLDeleteClause<C extends AbstractSQLDeleteClause<
         }
     }
 
+    @Override
+    List<SQLBatcher.Row> getRows() {
+        List<SQLBatcher.Row> rows = new ArrayList<SQLBatcher.Row>();
+        if (batches.isEmpty()) {
+            SQLSerializer serializer = createSerializer();
+            serializer.serializeDelete(metadata, entity);
+            rows.add(createRow(SQLBatcher.Kind.DELETE, metadata, entity,
+                    ImmutableList.of(metadata.clone()), serializer));
+        } else {
+            for (QueryMetadata metadata : batches) {
+                SQLSerializer serializer = createSerializer();
+                serializer.serializeDelete(metadata, entity);
+                rows.add(createRow(SQLBatcher.Kind.DELETE, metadata, entity,
+                        ImmutableList.of(metadata), serializer));
+            }
+        }
+        return rows;
+    }
+
     @Override
     public List<SQLBindings> getSQL() {
         if (batches.isEmpty()) {
@@ -276,6 +295,24 @@ public abstract class AbstractSQLDeleteClause<C extends AbstractSQLDeleteClause<
         return batches.size();
     }
 
+    /**
+     * Get the metadata of the current statement
+     *
+     * @return metadata
+     */
+    public QueryMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Get the batches added so far
+     *
+     * @return batches
+     */
+    public List<QueryMetadata> getBatches() {
+        return Collections.unmodifiableList(batches);
+    }
+
     @Override
     public String toString() {
         SQLSerializer serializer = createSerializer();
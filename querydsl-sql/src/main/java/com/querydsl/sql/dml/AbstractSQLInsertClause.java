@@ -446,6 +446,33 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
         }
     }
 
+    @Override
+    List<SQLBatcher.Row> getRows() {
+        List<SQLBatcher.Row> rows = new ArrayList<SQLBatcher.Row>();
+        if (batches.isEmpty()) {
+            if (subQueryBuilder != null) {
+                subQuery = subQueryBuilder.select(values.toArray(new Expression[values.size()])).clone();
+                values.clear();
+            }
+            SQLSerializer serializer = createSerializer();
+            serializer.serializeInsert(metadata, entity, columns, values, subQuery);
+            rows.add(createRow(SQLBatcher.Kind.INSERT, metadata, entity,
+                    ImmutableList.of(new SQLInsertBatch(new ArrayList<Path<?>>(columns),
+                            new ArrayList<Expression<?>>(values), subQuery)), serializer));
+        } else if (batchToBulk) {
+            SQLSerializer serializer = createSerializer();
+            serializer.serializeInsert(metadata, entity, batches);
+            rows.add(createRow(SQLBatcher.Kind.INSERT, metadata, entity, ImmutableList.copyOf(batches), serializer));
+        } else {
+            for (SQLInsertBatch batch : batches) {
+                SQLSerializer serializer = createSerializer();
+                serializer.serializeInsert(metadata, entity, batch.getColumns(), batch.getValues(), batch.getSubQuery());
+                rows.add(createRow(SQLBatcher.Kind.INSERT, metadata, entity, ImmutableList.of(batch), serializer));
+            }
+        }
+        return rows;
+    }
+
     @Override
     public List<SQLBindings> getSQL() {
         if (batches.isEmpty()) {
@@ -573,4 +600,31 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
         return batches.size();
     }
 
+    /**
+     * Get the columns of the current row
+     *
+     * @return columns
+     */
+    public List<Path<?>> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Get the values of the current row
+     *
+     * @return values
+     */
+    public List<Expression<?>> getValues() {
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Get the batches added so far
+     *
+     * @return batches
+     */
+    public List<SQLInsertBatch> getBatches() {
+        return Collections.unmodifiableList(batches);
+    }
+
 }
@@ -131,7 +131,7 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
         constants = serializer.getConstants();
         logQuery(logger, queryString, constants);
         context.addSQL(createBindings(metadata, serializer));
-        listeners.prepared(context);
+        listeners.rendered(context);
 
         listeners.prePrepare(context);
         PreparedStatement stmt = connection().prepareStatement(queryString);
@@ -231,6 +231,26 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
         }
     }
 
+    @Override
+    List<SQLBatcher.Row> getRows() {
+        List<SQLBatcher.Row> rows = new ArrayList<SQLBatcher.Row>();
+        if (batches.isEmpty()) {
+            SQLSerializer serializer = createSerializer();
+            serializer.serializeUpdate(metadata, entity, updates);
+            rows.add(createRow(SQLBatcher.Kind.UPDATE, metadata, entity,
+                    ImmutableList.of(new SQLUpdateBatch(metadata.clone(), Maps.newLinkedHashMap(updates))),
+                    serializer));
+        } else {
+            for (SQLUpdateBatch batch : batches) {
+                SQLSerializer serializer = createSerializer();
+                serializer.serializeUpdate(batch.getMetadata(), entity, batch.getUpdates());
+                rows.add(createRow(SQLBatcher.Kind.UPDATE, batch.getMetadata(), entity,
+                        ImmutableList.of(batch), serializer));
+            }
+        }
+        return rows;
+    }
+
     @Override
     public List<SQLBindings> getSQL() {
         if (batches.isEmpty()) {
@@ -367,4 +387,22 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
     public int getBatchCount() {
         return batches.size();
     }
+
+    /**
+     * Get the metadata of the current statement
+     *
+     * @return metadata
+     */
+    public QueryMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Get the batches added so far
+     *
+     * @return batches
+     */
+    public List<SQLUpdateBatch> getBatches() {
+        return Collections.unmodifiableList(batches);
+    }
 }
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.dml;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nullable;
+import javax.inject.Provider;
+
+import com.google.common.base.Objects;
+import com.google.common.util.concurrent.SettableFuture;
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.*;
+
+/**
+ * {@code SQLBatcher} defers the execution of DML clauses and executes them as JDBC batches
+ *
+ * <p>The statements of a clause are rendered when the clause is added. A statement joins an
+ * earlier pending batch with the same SQL string, unless a batch in between affects the same
+ * table or a table related to it via foreign keys. This keeps the order of dependent statements
+ * intact. Foreign keys are resolved from the type arguments of the {@link ForeignKey} fields of
+ * the paths, tables with unresolvable foreign keys are treated as related to all other
+ * tables.</p>
+ *
+ * <p>Pending statements are executed on a single connection by {@link #flush()}, which is also
+ * called when the number of pending statements reaches the flush threshold. Inserts added via
+ * {@link #addWithKey(AbstractSQLInsertClause, Path)} are executed one by one within the flush,
+ * since JDBC drivers differ in returning generated keys for batches.</p>
+ *
+ * <p>Listeners are notified of the statements of each batch when it is executed, so that
+ * result caches and replica routers observe the deferred writes.</p>
+ *
+ * <p>Insert, update and delete clauses are supported, merge clauses are supported if the
+ * templates render native merges.</p>
+ */
+public class SQLBatcher {
+
+    public static final int DEFAULT_FLUSH_THRESHOLD = 1000;
+
+    /**
+     * {@code Kind} is the kind of clause a row is rendered from
+     */
+    enum Kind { INSERT, UPDATE, DELETE, MERGE }
+
+    /**
+     * {@code Row} is a rendered statement of a clause
+     */
+    static final class Row {
+
+        private final Kind kind;
+
+        private final RelationalPath<?> entity;
+
+        private final QueryMetadata metadata;
+
+        // SQLInsertBatch, SQLUpdateBatch, QueryMetadata or SQLMergeBatch instances of the statement
+        private final List<?> batches;
+
+        private final String sql;
+
+        private final List<Object> constants;
+
+        private final List<Path<?>> constantPaths;
+
+        Row(Kind kind, RelationalPath<?> entity, QueryMetadata metadata, List<?> batches,
+                String sql, List<Object> constants, List<Path<?>> constantPaths) {
+            this.kind = kind;
+            this.entity = entity;
+            this.metadata = metadata;
+            this.batches = batches;
+            this.sql = sql;
+            this.constants = constants;
+            this.constantPaths = constantPaths;
+        }
+
+    }
+
+    private static final class Batch {
+
+        private final RelationalPath<?> entity;
+
+        private final String sql;
+
+        @Nullable
+        private final Path<?> key;
+
+        private final List<Row> rows = new ArrayList<Row>();
+
+        private final List<SettableFuture<Object>> keys = new ArrayList<SettableFuture<Object>>();
+
+        Batch(RelationalPath<?> entity, String sql, @Nullable Path<?> key) {
+            this.entity = entity;
+            this.sql = sql;
+            this.key = key;
+        }
+
+    }
+
+    private final Configuration configuration;
+
+    private final Provider<Connection> connProvider;
+
+    private final int flushThreshold;
+
+    private final List<Batch> batches = new ArrayList<Batch>();
+
+    private final Map<Class<?>, Set<Class<?>>> referencedTypes = new HashMap<Class<?>, Set<Class<?>>>();
+
+    private int count;
+
+    public SQLBatcher(Configuration configuration, Provider<Connection> connProvider) {
+        this(configuration, connProvider, DEFAULT_FLUSH_THRESHOLD);
+    }
+
+    public SQLBatcher(Configuration configuration, Provider<Connection> connProvider, int flushThreshold) {
+        this.configuration = configuration;
+        this.connProvider = connProvider;
+        this.flushThreshold = flushThreshold;
+    }
+
+    /**
+     * Add the statements of the given clause
+     *
+     * @param clause insert, update or delete clause
+     * @return the current object
+     */
+    public SQLBatcher add(AbstractSQLClause<?> clause) {
+        for (Row row : clause.getRows()) {
+            add(row, null);
+        }
+        flushIfNeeded();
+        return this;
+    }
+
+    /**
+     * Add the given insert clause and get the generated key of its first row as a future,
+     * which is completed by the flush executing the insert
+     *
+     * @param clause insert clause
+     * @param path path of the key
+     * @param <T> key type
+     * @return generated key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Future<T> addWithKey(AbstractSQLInsertClause<?> clause, Path<T> path) {
+        List<Row> rows = clause.getRows();
+        Future<T> rv = null;
+        for (Row row : rows) {
+            SettableFuture<Object> future = add(row, path);
+            if (rv == null) {
+                rv = (Future<T>) (Future<?>) future;
+            }
+        }
+        flushIfNeeded();
+        return rv;
+    }
+
+    /**
+     * Get the number of pending statements
+     *
+     * @return pending statements
+     */
+    public int getPendingCount() {
+        return count;
+    }
+
+    /**
+     * Discard the pending statements
+     */
+    public void clear() {
+        for (Batch batch : batches) {
+            for (SettableFuture<Object> key : batch.keys) {
+                key.cancel(false);
+            }
+        }
+        batches.clear();
+        count = 0;
+    }
+
+    /**
+     * Execute the pending statements
+     *
+     * @return the amount of affected rows
+     */
+    public long flush() {
+        if (batches.isEmpty()) {
+            return 0;
+        }
+        List<Batch> pending = new ArrayList<Batch>(batches);
+        batches.clear();
+        count = 0;
+
+        SQLListeners listeners = configuration.getListeners();
+        Connection connection = connProvider.get();
+        SQLListenerContextImpl context = new SQLListenerContextImpl(new DefaultQueryMetadata(), connection);
+        listeners.start(context);
+        Batch current = null;
+        try {
+            long rv = 0;
+            for (Batch batch : pending) {
+                current = batch;
+                rv += execute(connection, context, batch);
+            }
+            return rv;
+        } catch (SQLException e) {
+            context.setException(e);
+            listeners.exception(context);
+            fail(pending, current, e);
+            throw configuration.translate(current != null ? current.sql : null,
+                    Collections.<Object>emptyList(), e);
+        } catch (RuntimeException e) {
+            context.setException(e);
+            listeners.exception(context);
+            fail(pending, current, e);
+            throw e;
+        } finally {
+            listeners.end(context);
+        }
+    }
+
+    private void fail(List<Batch> pending, @Nullable Batch current, Exception e) {
+        for (Batch batch : pending.subList(current != null ? pending.indexOf(current) : 0, pending.size())) {
+            for (SettableFuture<Object> key : batch.keys) {
+                key.setException(e);
+            }
+        }
+    }
+
+    private long execute(Connection connection, SQLListenerContextImpl context, Batch batch) throws SQLException {
+        SQLListeners listeners = configuration.getListeners();
+        context.setEntity(batch.entity);
+        for (Row row : batch.rows) {
+            context.addSQL(new SQLBindings(row.sql, row.constants));
+        }
+        listeners.prePrepare(context);
+        PreparedStatement stmt = prepareStatement(connection, batch);
+        context.addPreparedStatement(stmt);
+        listeners.prepared(context);
+        try {
+            notifyListeners(listeners, batch);
+
+            listeners.preExecute(context);
+            long rv = 0;
+            if (batch.key != null) {
+                for (int i = 0; i < batch.rows.size(); i++) {
+                    setParameters(stmt, batch.rows.get(i));
+                    rv += stmt.executeUpdate();
+                    ResultSet rs = stmt.getGeneratedKeys();
+                    try {
+                        batch.keys.get(i).set(rs.next()
+                                ? configuration.get(rs, batch.key, 1, batch.key.getType()) : null);
+                    } finally {
+                        rs.close();
+                    }
+                }
+            } else if (configuration.getUseLiterals()) {
+                for (int i = 0; i < batch.rows.size(); i++) {
+                    rv += stmt.executeUpdate();
+                }
+            } else {
+                for (Row row : batch.rows) {
+                    setParameters(stmt, row);
+                    stmt.addBatch();
+                }
+                if (configuration.getTemplates().isBatchCountViaGetUpdateCount()) {
+                    stmt.executeBatch();
+                    rv = stmt.getUpdateCount();
+                } else {
+                    for (int i : stmt.executeBatch()) {
+                        rv += i;
+                    }
+                }
+            }
+            listeners.executed(context);
+            return rv;
+        } finally {
+            stmt.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void notifyListeners(SQLListener listener, Batch batch) {
+        Row first = batch.rows.get(0);
+        List<Object> rowBatches = new ArrayList<Object>();
+        for (Row row : batch.rows) {
+            rowBatches.addAll(row.batches);
+        }
+        switch (first.kind) {
+            case INSERT:
+                listener.notifyInserts(batch.entity, first.metadata, (List) rowBatches);
+                break;
+            case UPDATE:
+                listener.notifyUpdates(batch.entity, (List) rowBatches);
+                break;
+            case DELETE:
+                listener.notifyDeletes(batch.entity, (List) rowBatches);
+                break;
+            default:
+                listener.notifyMerges(batch.entity, first.metadata, (List) rowBatches);
+        }
+    }
+
+    private PreparedStatement prepareStatement(Connection connection, Batch batch) throws SQLException {
+        if (batch.key == null) {
+            return connection.prepareStatement(batch.sql);
+        } else if (batch.entity.getPrimaryKey() != null) {
+            List<? extends Path<?>> columns = batch.entity.getPrimaryKey().getLocalColumns();
+            String[] target = new String[columns.size()];
+            for (int i = 0; i < target.length; i++) {
+                target[i] = ColumnMetadata.getName(columns.get(i));
+            }
+            return connection.prepareStatement(batch.sql, target);
+        } else {
+            return connection.prepareStatement(batch.sql, Statement.RETURN_GENERATED_KEYS);
+        }
+    }
+
+    private void setParameters(PreparedStatement stmt, Row row) throws SQLException {
+        for (int i = 0; i < row.constants.size(); i++) {
+            configuration.set(stmt, row.constantPaths.get(i), i + 1, row.constants.get(i));
+        }
+    }
+
+    private SettableFuture<Object> add(Row row, @Nullable Path<?> key) {
+        Batch target = null;
+        for (int i = batches.size() - 1; i >= 0; i--) {
+            Batch batch = batches.get(i);
+            if (batch.sql.equals(row.sql) && Objects.equal(batch.key, key)) {
+                target = batch;
+                break;
+            } else if (isRelated(batch.entity, row.entity)) {
+                break;
+            }
+        }
+        if (target == null) {
+            target = new Batch(row.entity, row.sql, key);
+            batches.add(target);
+        }
+        target.rows.add(row);
+        SettableFuture<Object> future = null;
+        if (key != null) {
+            future = SettableFuture.create();
+            target.keys.add(future);
+        }
+        count++;
+        return future;
+    }
+
+    private void flushIfNeeded() {
+        if (count >= flushThreshold) {
+            flush();
+        }
+    }
+
+    private boolean isRelated(RelationalPath<?> first, RelationalPath<?> second) {
+        return first.getSchemaAndTable().equals(second.getSchemaAndTable())
+            || references(first, second) || references(second, first);
+    }
+
+    private boolean references(RelationalPath<?> source, RelationalPath<?> target) {
+        Set<Class<?>> types = getReferencedTypes(source);
+        return types == null || types.contains(target.getType()) || types.contains(target.getClass());
+    }
+
+    @Nullable
+    private Set<Class<?>> getReferencedTypes(RelationalPath<?> path) {
+        Class<?> pathType = path.getClass();
+        if (referencedTypes.containsKey(pathType)) {
+            return referencedTypes.get(pathType);
+        }
+        int foreignKeys = path.getForeignKeys().size() + path.getInverseForeignKeys().size();
+        Set<Class<?>> types = new HashSet<Class<?>>();
+        int resolved = 0;
+        for (Class<?> cl = pathType; foreignKeys > 0 && cl != Object.class; cl = cl.getSuperclass()) {
+            for (Field field : cl.getDeclaredFields()) {
+                if (field.getType().equals(ForeignKey.class)
+                        && !Modifier.isStatic(field.getModifiers())
+                        && field.getGenericType() instanceof ParameterizedType) {
+                    Type type = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+                    if (type instanceof Class) {
+                        types.add((Class<?>) type);
+                        resolved++;
+                    }
+                }
+            }
+        }
+        Set<Class<?>> rv = resolved >= foreignKeys ? types : null;
+        referencedTypes.put(pathType, rv);
+        return rv;
+    }
+
+}
@@ -36,6 +36,9 @@ import com.querydsl.sql.types.Null;
 /**
  * {@code SQLMergeClause} defines an MERGE INTO clause
  *
+ * <p>For templates with native merge support the clause is executed as a single statement, for
+ * other templates a SELECT for the keys is followed by an UPDATE or INSERT.</p>
+ *
  * @author tiwe
  *
  */
@@ -62,6 +65,8 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
 
     protected transient List<Object> constants;
 
+    protected transient boolean batchToBulk;
+
     public SQLMergeClause(Connection connection, SQLTemplates templates, RelationalPath<?> entity) {
         this(connection, new Configuration(templates), entity);
     }
@@ -130,6 +135,14 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
         return this;
     }
 
+    /**
+     * Set whether batches should be optimized into a single bulk operation.
+     * Will revert to batches, if bulk is not supported
+     */
+    public void setBatchToBulk(boolean b) {
+        this.batchToBulk = b && configuration.getTemplates().isBatchToBulkSupported();
+    }
+
     @Override
     public void clear() {
         batches.clear();
@@ -230,12 +243,21 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
     public ResultSet executeWithKeys() {
         context = startContext(connection(), metadata, entity);
         try {
-            if (configuration.getTemplates().isNativeMerge()) {
+            SQLTemplates templates = configuration.getTemplates();
+            if (templates.isNativeMerge()
+                && (templates.isNativeMergeWithKeysSupported() || !batches.isEmpty())) {
                 PreparedStatement stmt = null;
                 if (batches.isEmpty()) {
                     stmt = createStatement(true);
                     listeners.notifyMerge(entity, metadata, keys, columns, values, subQuery);
 
+                    listeners.preExecute(context);
+                    stmt.executeUpdate();
+                    listeners.executed(context);
+                } else if (batchToBulk) {
+                    stmt = createStatement(true);
+                    listeners.notifyMerges(entity, metadata, batches);
+
                     listeners.preExecute(context);
                     stmt.executeUpdate();
                     listeners.executed(context);
@@ -307,6 +329,10 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
             SQLSerializer serializer = createSerializer();
             serializer.serializeMerge(metadata, entity, keys, columns, values, subQuery);
             return ImmutableList.of(createBindings(metadata, serializer));
+        } else if (batchToBulk) {
+            SQLSerializer serializer = createSerializer();
+            serializer.serializeMerge(metadata, entity, batches);
+            return ImmutableList.of(createBindings(metadata, serializer));
         } else {
             ImmutableList.Builder<SQLBindings> builder = ImmutableList.builder();
             for (SQLMergeBatch batch : batches) {
@@ -318,6 +344,32 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
         }
     }
 
+    @Override
+    List<SQLBatcher.Row> getRows() {
+        if (!configuration.getTemplates().isNativeMerge()) {
+            return super.getRows();
+        }
+        List<SQLBatcher.Row> rows = new ArrayList<SQLBatcher.Row>();
+        if (batches.isEmpty()) {
+            SQLSerializer serializer = createSerializer();
+            serializer.serializeMerge(metadata, entity, keys, columns, values, subQuery);
+            rows.add(createRow(SQLBatcher.Kind.MERGE, metadata, entity,
+                    ImmutableList.of(new SQLMergeBatch(new ArrayList<Path<?>>(keys), new ArrayList<Path<?>>(columns),
+                            new ArrayList<Expression<?>>(values), subQuery)), serializer));
+        } else if (batchToBulk) {
+            SQLSerializer serializer = createSerializer();
+            serializer.serializeMerge(metadata, entity, batches);
+            rows.add(createRow(SQLBatcher.Kind.MERGE, metadata, entity, ImmutableList.copyOf(batches), serializer));
+        } else {
+            for (SQLMergeBatch batch : batches) {
+                SQLSerializer serializer = createSerializer();
+                serializer.serializeMerge(metadata, entity, batch.getKeys(), batch.getColumns(), batch.getValues(), batch.getSubQuery());
+                rows.add(createRow(SQLBatcher.Kind.MERGE, metadata, entity, ImmutableList.of(batch), serializer));
+            }
+        }
+        return rows;
+    }
+
     protected boolean hasRow() {
         SQLQuery<?> query = new SQLQuery<Void>(connection(), configuration).from(entity);
         for (SQLListener listener : listeners.getListeners()) {
@@ -379,8 +431,12 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
         listeners.preRender(context);
         SQLSerializer serializer = createSerializer();
         PreparedStatement stmt = null;
-        if (batches.isEmpty()) {
-            serializer.serializeMerge(metadata, entity, keys, columns, values, subQuery);
+        if (batches.isEmpty() || batchToBulk) {
+            if (batches.isEmpty()) {
+                serializer.serializeMerge(metadata, entity, keys, columns, values, subQuery);
+            } else {
+                serializer.serializeMerge(metadata, entity, batches);
+            }
             context.addSQL(createBindings(metadata, serializer));
             listeners.rendered(context);
 
@@ -493,6 +549,14 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
                 stmt = createStatement(false);
                 listeners.notifyMerge(entity, metadata, keys, columns, values, subQuery);
 
+                listeners.preExecute(context);
+                int rc = stmt.executeUpdate();
+                listeners.executed(context);
+                return rc;
+            } else if (batchToBulk) {
+                stmt = createStatement(false);
+                listeners.notifyMerges(entity, metadata, batches);
+
                 listeners.preExecute(context);
                 int rc = stmt.executeUpdate();
                 listeners.executed(context);
@@ -592,4 +656,31 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
         return batches.size();
     }
 
+    /**
+     * Get the columns of the current row
+     *
+     * @return columns
+     */
+    public List<Path<?>> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Get the values of the current row
+     *
+     * @return values
+     */
+    public List<Expression<?>> getValues() {
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Get the batches added so far
+     *
+     * @return batches
+     */
+    public List<SQLMergeBatch> getBatches() {
+        return Collections.unmodifiableList(batches);
+    }
+
 }
@@ -13,11 +13,13 @@
  */
 package com.querydsl.sql;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
 import com.querydsl.core.types.Ops;
+import com.querydsl.sql.dml.SQLMergeClause;
 
 public class DB2TemplatesTest extends AbstractSQLTemplatesTest {
 
@@ -51,4 +53,15 @@ public class DB2TemplatesTest extends AbstractSQLTemplatesTest {
         assertTrue(p7 < p8);
     }
 
+    @Test
+    public void merge() {
+        SQLMergeClause merge = new SQLMergeClause(null, DB2Templates.builder().nativeMerge().build(), survey1)
+                .keys(survey1.id).set(survey1.id, 1).set(survey1.name, "Hello");
+        assertEquals("merge into SURVEY\n" +
+                "using (values (?, ?)) as src (ID, NAME)\n" +
+                "on (SURVEY.ID = src.ID)\n" +
+                "when matched then update set NAME = src.NAME\n" +
+                "when not matched then insert (ID, NAME) values (src.ID, src.NAME)", merge.toString());
+    }
+
 }
@@ -0,0 +1,115 @@
+package com.querydsl.sql;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.testutil.Benchmark;
+import com.querydsl.core.testutil.Performance;
+import com.querydsl.core.testutil.Runner;
+import com.querydsl.sql.dml.SQLMergeClause;
+import com.querydsl.sql.domain.QSurvey;
+
+@Ignore
+@Category(Performance.class)
+public class MergePerformanceTest {
+
+    private static final int ROWS = 100;
+
+    private static final QSurvey survey = new QSurvey("survey");
+
+    private static final SQLTemplates composite = new MySQLTemplates();
+
+    private static final SQLTemplates nativeMerge = MySQLTemplates.builder().nativeMerge().build();
+
+    private static Connection conn;
+
+    @BeforeClass
+    public static void setUpClass() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:merge_performance;MODE=MySQL", "sa", "");
+        Statement stmt = conn.createStatement();
+        stmt.execute("create table SURVEY(ID int primary key, NAME varchar(30), NAME2 varchar(30))");
+        stmt.close();
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    public void composite() throws Exception {
+        Runner.run("composite", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                for (int i = 0; i < times; i++) {
+                    new SQLMergeClause(conn, composite, survey).keys(survey.id)
+                        .set(survey.id, i % ROWS).set(survey.name, String.valueOf(i)).execute();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void nativeMerge() throws Exception {
+        Runner.run("native merge", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                for (int i = 0; i < times; i++) {
+                    new SQLMergeClause(conn, nativeMerge, survey).keys(survey.id)
+                        .set(survey.id, i % ROWS).set(survey.name, String.valueOf(i)).execute();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void nativeMerge_batch() throws Exception {
+        Runner.run("native merge batch", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                SQLMergeClause merge = new SQLMergeClause(conn, nativeMerge, survey);
+                for (int i = 0; i < times; i++) {
+                    merge.keys(survey.id).set(survey.id, i % ROWS).set(survey.name, String.valueOf(i)).addBatch();
+                    if (merge.getBatchCount() == ROWS) {
+                        merge.execute();
+                        merge = new SQLMergeClause(conn, nativeMerge, survey);
+                    }
+                }
+                if (!merge.isEmpty()) {
+                    merge.execute();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void nativeMerge_bulk() throws Exception {
+        Runner.run("native merge bulk", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                SQLMergeClause merge = new SQLMergeClause(conn, nativeMerge, survey);
+                merge.setBatchToBulk(true);
+                for (int i = 0; i < times; i++) {
+                    merge.keys(survey.id).set(survey.id, i % ROWS).set(survey.name, String.valueOf(i)).addBatch();
+                    if (merge.getBatchCount() == ROWS) {
+                        merge.execute();
+                        merge = new SQLMergeClause(conn, nativeMerge, survey);
+                        merge.setBatchToBulk(true);
+                    }
+                }
+                if (!merge.isEmpty()) {
+                    merge.execute();
+                }
+            }
+        });
+    }
+
+}
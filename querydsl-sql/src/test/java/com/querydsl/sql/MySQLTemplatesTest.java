@@ -14,11 +14,13 @@
 package com.querydsl.sql;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
 import com.querydsl.core.types.Ops;
+import com.querydsl.sql.dml.SQLMergeClause;
 
 
 public class MySQLTemplatesTest extends AbstractSQLTemplatesTest {
@@ -89,4 +91,22 @@ public class MySQLTemplatesTest extends AbstractSQLTemplatesTest {
         assertTrue(p7 < p8);
     }
 
+    @Test
+    public void streaming() {
+        SQLTemplates templates = createTemplates();
+        assertFalse(templates.isStreamingRequiresTransaction());
+        assertEquals(Integer.MIN_VALUE, templates.getStreamingFetchSize());
+    }
+
+    @Test
+    public void merge() {
+        SQLMergeClause merge = new SQLMergeClause(null, MySQLTemplates.builder().nativeMerge().build(), survey1);
+        merge.setBatchToBulk(true);
+        merge.keys(survey1.id).set(survey1.id, 1).set(survey1.name, "Hello").addBatch();
+        merge.keys(survey1.id).set(survey1.id, 2).set(survey1.name, "World").addBatch();
+        assertEquals("insert into SURVEY (ID, NAME)\n" +
+                "values (?, ?), (?, ?)\n" +
+                "on duplicate key update NAME = values(NAME)", merge.getSQL().get(0).getSQL());
+    }
+
 }
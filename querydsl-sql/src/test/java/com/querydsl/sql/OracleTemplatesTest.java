@@ -30,6 +30,7 @@ import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.sql.dml.SQLMergeClause;
 
 public class OracleTemplatesTest extends AbstractSQLTemplatesTest {
 
@@ -127,4 +128,19 @@ public class OracleTemplatesTest extends AbstractSQLTemplatesTest {
         assertTrue(p7 < p8);
     }
 
+    @Test
+    public void merge() {
+        SQLMergeClause merge = new SQLMergeClause(null, OracleTemplates.builder().nativeMerge().build(), survey1);
+        merge.setBatchToBulk(true);
+        merge.keys(survey1.id).set(survey1.id, 1).set(survey1.name, "Hello").addBatch();
+        merge.keys(survey1.id).set(survey1.id, 2).set(survey1.name, "World").addBatch();
+        assertEquals("merge into SURVEY\n" +
+                "using (select ? ID, ? NAME from dual\n" +
+                "union all\n" +
+                "select ? ID, ? NAME from dual) src\n" +
+                "on (SURVEY.ID = src.ID)\n" +
+                "when matched then update set NAME = src.NAME\n" +
+                "when not matched then insert (ID, NAME) values (src.ID, src.NAME)", merge.getSQL().get(0).getSQL());
+    }
+
 }
@@ -0,0 +1,69 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PinnedConnectionTest {
+
+    private Connection connection;
+
+    private PinnedConnection pinned;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:pinned", "sa", "");
+        pinned = new PinnedConnection(connection, true);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        pinned.close();
+    }
+
+    @Test
+    public void close_ignored() throws SQLException {
+        pinned.get().close();
+        assertFalse(connection.isClosed());
+        pinned.close();
+        assertTrue(connection.isClosed());
+    }
+
+    @Test
+    public void statement_reused() throws SQLException {
+        PreparedStatement stmt = pinned.get().prepareStatement("select ?");
+        PreparedStatement delegate = stmt.unwrap(PreparedStatement.class);
+        stmt.setInt(1, 1);
+        stmt.setMaxRows(1);
+        stmt.executeQuery().close();
+        stmt.close();
+        assertTrue(stmt.isClosed());
+
+        PreparedStatement stmt2 = pinned.get().prepareStatement("select ?");
+        assertSame(delegate, stmt2.unwrap(PreparedStatement.class));
+        assertEquals(0, stmt2.getMaxRows());
+    }
+
+    @Test
+    public void statement_in_use() throws SQLException {
+        PreparedStatement stmt = pinned.get().prepareStatement("select 1");
+        PreparedStatement stmt2 = pinned.get().prepareStatement("select 1");
+        assertNotSame(stmt.unwrap(PreparedStatement.class), stmt2.unwrap(PreparedStatement.class));
+    }
+
+    @Test
+    public void statements_closed() throws SQLException {
+        PreparedStatement stmt = pinned.get().prepareStatement("select 1");
+        PreparedStatement delegate = stmt.unwrap(PreparedStatement.class);
+        pinned.close();
+        assertTrue(delegate.isClosed());
+    }
+
+}
@@ -15,6 +15,7 @@ package com.querydsl.sql;
 
 import static com.querydsl.sql.SQLExpressions.select;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -23,6 +24,7 @@ import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.sql.dml.SQLMergeClause;
 
 
 public class PostgreSQLTemplatesTest extends AbstractSQLTemplatesTest {
@@ -115,4 +117,40 @@ public class PostgreSQLTemplatesTest extends AbstractSQLTemplatesTest {
         assertTrue(query.toString(), query.toString().endsWith("where b = true"));
     }
 
+    @Test
+    public void streaming() {
+        SQLTemplates templates = createTemplates();
+        assertTrue(templates.isStreamingRequiresTransaction());
+        assertEquals(1000, templates.getStreamingFetchSize());
+    }
+
+    @Test
+    public void native_merge_is_opt_in() {
+        assertFalse(new PostgreSQLTemplates().isNativeMerge());
+        assertTrue(new PostgreSQLTemplates().isNativeMergeSupported());
+        assertTrue(PostgreSQLTemplates.builder().nativeMerge().build().isNativeMerge());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void native_merge_not_supported() {
+        DerbyTemplates.builder().nativeMerge().build();
+    }
+
+    @Test
+    public void merge() {
+        SQLMergeClause merge = new SQLMergeClause(null, PostgreSQLTemplates.builder().nativeMerge().build(), survey1)
+                .keys(survey1.id).set(survey1.id, 1).set(survey1.name, "Hello");
+        assertEquals("insert into SURVEY (ID, NAME)\n" +
+                "values (?, ?)\n" +
+                "on conflict (ID) do update set NAME = excluded.NAME", merge.toString());
+    }
+
+    @Test
+    public void merge_keys_only() {
+        SQLMergeClause merge = new SQLMergeClause(null, PostgreSQLTemplates.builder().nativeMerge().build(), survey1).set(survey1.id, 1);
+        assertEquals("insert into SURVEY (ID)\n" +
+                "values (?)\n" +
+                "on conflict (ID) do nothing", merge.toString());
+    }
+
 }
@@ -0,0 +1,196 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Provider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.StringExpression;
+import com.querydsl.sql.domain.QSurvey;
+
+public class ReplicaRouterTest {
+
+    private static final String[] DATABASES = {"primary", "replica1", "replica2"};
+
+    private static class H2Provider implements Provider<Connection> {
+
+        private final String url;
+
+        H2Provider(String name) {
+            this.url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        }
+
+        @Override
+        public Connection get() {
+            try {
+                return DriverManager.getConnection(url, "sa", "");
+            } catch (SQLException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+
+    }
+
+    private static class ManualTicker extends Ticker {
+
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+    }
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private final RelationalPath<Object> other = new RelationalPathBase<Object>(Object.class, "other", "PUBLIC", "OTHER");
+
+    private final StringExpression database = Expressions.stringTemplate("database()");
+
+    private final ManualTicker ticker = new ManualTicker();
+
+    private final List<H2Provider> replicas = Arrays.asList(new H2Provider("replica1"), new H2Provider("replica2"));
+
+    private ReplicaRouter router;
+
+    private SQLQueryFactory queryFactory;
+
+    @Before
+    public void setUp() throws SQLException {
+        for (String name : DATABASES) {
+            Connection conn = new H2Provider(name).get();
+            try {
+                Statement stmt = conn.createStatement();
+                stmt.execute("create table survey (id int auto_increment, name varchar(30), name2 varchar(30))");
+                stmt.execute("insert into survey (name) values ('a')");
+                stmt.execute("create table other (id int)");
+                stmt.execute("insert into other values (1)");
+                stmt.close();
+            } finally {
+                conn.close();
+            }
+        }
+        router(ReplicaRouter.Strategy.ROUND_ROBIN);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        for (String name : DATABASES) {
+            Connection conn = new H2Provider(name).get();
+            try {
+                conn.createStatement().execute("drop all objects delete files");
+            } finally {
+                conn.close();
+            }
+        }
+    }
+
+    private void router(ReplicaRouter.Strategy strategy) {
+        router = new ReplicaRouter(new H2Provider("primary"), replicas, strategy, 1, TimeUnit.SECONDS, ticker);
+        Configuration configuration = new Configuration(H2Templates.DEFAULT);
+        configuration.addListener(SQLCloseListener.DEFAULT);
+        queryFactory = new SQLQueryFactory(configuration, router);
+    }
+
+    private String query() {
+        return queryFactory.select(database).from(survey).fetchFirst();
+    }
+
+    @Test
+    public void round_robin() {
+        assertEquals("REPLICA1", query());
+        assertEquals("REPLICA2", query());
+        assertEquals("REPLICA1", query());
+    }
+
+    @Test
+    public void for_update() {
+        assertEquals("PRIMARY", queryFactory.select(database).from(survey).forUpdate().fetchFirst());
+    }
+
+    @Test
+    public void dml() {
+        queryFactory.insert(survey).set(survey.name, "b").execute();
+        assertEquals(2, queryFactory.select(survey.id).from(survey).forUpdate().fetch().size());
+        assertEquals(1L, new SQLQuery<Void>(replicas.get(0).get(), H2Templates.DEFAULT).from(survey).fetchCount());
+    }
+
+    @Test
+    public void read_your_writes() {
+        queryFactory.update(survey).set(survey.name2, "b").execute();
+        assertEquals("PRIMARY", query());
+        assertEquals("REPLICA1", queryFactory.select(database).from(other).fetchFirst());
+
+        ticker.nanos += TimeUnit.MILLISECONDS.toNanos(999);
+        assertEquals("PRIMARY", query());
+
+        ticker.nanos += TimeUnit.MILLISECONDS.toNanos(1);
+        assertEquals("REPLICA2", query());
+    }
+
+    @Test
+    public void read_your_writes_subquery() {
+        queryFactory.delete(survey).where(survey.id.eq(-1)).execute();
+        assertEquals("PRIMARY", queryFactory.select(database).from(other)
+                .where(SQLExpressions.selectOne().from(survey).exists()).fetchFirst());
+    }
+
+    @Test
+    public void with_connection() {
+        String name = queryFactory.withConnection(new SQLConnectionCallback<String>() {
+            @Override
+            public String doInConnection(SQLQueryFactory factory) {
+                return factory.select(database).from(survey).fetchFirst();
+            }
+        });
+        assertEquals("PRIMARY", name);
+    }
+
+    @Test
+    public void least_outstanding() {
+        router(ReplicaRouter.Strategy.LEAST_OUTSTANDING);
+        SQLQuery<String> query = queryFactory.select(database).from(survey);
+        CloseableIterator<String> iterator = query.iterate();
+        try {
+            String first = iterator.next();
+            ReplicaRouter.Replica busy = router.getReplicas().get(first.equals("REPLICA1") ? 0 : 1);
+            assertEquals(1, busy.getInFlight());
+            for (int i = 0; i < 3; i++) {
+                assertFalse(first.equals(query()));
+            }
+        } finally {
+            iterator.close();
+        }
+        for (ReplicaRouter.Replica replica : router.getReplicas()) {
+            assertEquals(0, replica.getInFlight());
+        }
+    }
+
+    @Test
+    public void statistics() {
+        for (int i = 0; i < 4; i++) {
+            query();
+        }
+        queryFactory.select(database).from(survey).forUpdate().fetchFirst();
+        for (ReplicaRouter.Replica replica : router.getReplicas()) {
+            assertEquals(2L, replica.getExecutions());
+            assertEquals(0, replica.getInFlight());
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.inject.Provider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.querydsl.core.testutil.H2;
+import com.querydsl.sql.domain.Employee;
+
+@Category(H2.class)
+public class SQLBatchLoaderTest {
+
+    private static final List<Integer> ids = Arrays.asList(1, 2, 10, 11, 12, 13, 20, 21, 22, 23);
+
+    private final List<String> queries = new ArrayList<String>();
+
+    private SQLQueryFactory queryFactory;
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+        Configuration conf = new Configuration(H2Templates.DEFAULT);
+        conf.addListener(new SQLBaseListener() {
+            @Override
+            public void rendered(SQLListenerContext context) {
+                queries.add(context.getSQL());
+            }
+        });
+        queryFactory = new SQLQueryFactory(conf, new Provider<Connection>() {
+            @Override
+            public Connection get() {
+                return Connections.getConnection();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        Connections.close();
+    }
+
+    @Test
+    public void load() throws Exception {
+        SQLBatchLoader<Integer, Employee> loader = queryFactory.loader(employee, employee.id);
+        List<ListenableFuture<Employee>> results = new ArrayList<ListenableFuture<Employee>>();
+        for (Integer id : ids) {
+            results.add(loader.load(id));
+        }
+        results.add(loader.load(100000));
+        assertTrue(queries.isEmpty());
+
+        for (int i = 0; i < 10; i++) {
+            Employee e = results.get(i).get();
+            assertEquals(ids.get(i), e.getId());
+            assertEquals(queryFactory.select(employee.firstname).from(employee)
+                    .where(employee.id.eq(ids.get(i))).fetchOne(), e.getFirstname());
+        }
+        assertNull(results.get(10).get());
+        assertTrue(queries.get(0).endsWith("where e.ID in (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"));
+    }
+
+    @Test
+    public void chunks() throws Exception {
+        SQLBatchLoader<Integer, Employee> loader = queryFactory.loader(employee, employee.id, 4);
+        List<ListenableFuture<Employee>> results = loader.loadAll(ids.subList(0, 6));
+        loader.dispatch();
+        assertEquals(2, queries.size());
+        for (int i = 0; i < 6; i++) {
+            assertEquals(ids.get(i), results.get(i).get().getId());
+        }
+    }
+
+}
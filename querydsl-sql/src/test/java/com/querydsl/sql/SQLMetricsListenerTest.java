@@ -0,0 +1,141 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.inject.Provider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.metrics.QueryMetrics;
+import com.querydsl.core.metrics.QueryShapeMetrics;
+import com.querydsl.core.metrics.QueryShapeStats;
+import com.querydsl.core.testutil.H2;
+
+@Category(H2.class)
+public class SQLMetricsListenerTest {
+
+    private final SQLMetricsListener listener = new SQLMetricsListener();
+
+    private final QueryMetrics metrics = listener.getMetrics();
+
+    private SQLQueryFactory queryFactory;
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+        Configuration conf = new Configuration(H2Templates.DEFAULT);
+        conf.setUseLiterals(false);
+        conf.addListener(listener);
+        queryFactory = new SQLQueryFactory(conf, new Provider<Connection>() {
+            @Override
+            public Connection get() {
+                return Connections.getConnection();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        Connections.close();
+    }
+
+    @Test
+    public void fetch() {
+        int rows = 0;
+        for (int i = 0; i < 3; i++) {
+            rows += queryFactory.select(employee.id).from(employee)
+                    .where(employee.salary.gt(i * 1000)).fetch().size();
+        }
+
+        assertEquals(1, metrics.getShapes().size());
+        QueryShapeStats stats = metrics.getShapes().get(0);
+        assertEquals("select e.ID from EMPLOYEE e where e.SALARY > ?", stats.getShape());
+        assertEquals(3, stats.getCount());
+        assertEquals(rows, stats.getRows());
+        assertTrue(stats.getMean() > 0);
+        assertTrue(stats.getMeanRender() > 0);
+        assertTrue(stats.getMeanPrepare() > 0);
+        assertTrue(stats.getMeanExecute() > 0);
+        assertTrue(stats.getMax() >= stats.getP99());
+    }
+
+    @Test
+    public void in_lists_share_shape() {
+        queryFactory.select(employee.id).from(employee).where(employee.id.in(1, 2)).fetch();
+        queryFactory.select(employee.id).from(employee).where(employee.id.in(1, 2, 3, 4)).fetch();
+
+        assertEquals(1, metrics.getShapes().size());
+        assertEquals(2, metrics.getQueryCount());
+    }
+
+    @Test
+    public void iterate() {
+        int rows = 0;
+        CloseableIterator<Integer> it = queryFactory.select(employee.id).from(employee).iterate();
+        try {
+            while (it.hasNext()) {
+                it.next();
+                rows++;
+            }
+        } finally {
+            it.close();
+        }
+
+        QueryShapeMetrics shape = metrics.getShapeMetrics().iterator().next();
+        assertEquals(1, shape.getTotal().getCount());
+        assertEquals(rows, shape.getRows());
+        assertTrue(shape.getMapping().getMax() > 0);
+    }
+
+    @Test
+    public void fetchResults() {
+        queryFactory.select(employee.id).from(employee).limit(2).fetchResults();
+
+        assertEquals(2, metrics.getShapes().size());
+    }
+
+    @Test
+    public void update() {
+        queryFactory.update(employee).set(employee.firstname, "Bob")
+                .where(employee.firstname.eq("Bob")).execute();
+
+        QueryShapeMetrics shape = metrics.getShapeMetrics().iterator().next();
+        assertEquals("update EMPLOYEE set FIRSTNAME = ? where EMPLOYEE.FIRSTNAME = ?", shape.getShape());
+        assertEquals(1, shape.getTotal().getCount());
+        assertTrue(shape.getRender().getMax() > 0);
+    }
+
+    @Test
+    public void failures_are_not_recorded() {
+        try {
+            queryFactory.select(employee.id).from(employee)
+                    .where(employee.id.divide(0).eq(1)).fetch();
+            fail("Expected exception");
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        assertEquals(0, metrics.getQueryCount());
+    }
+
+    @Test
+    public void slowest() {
+        queryFactory.select(employee.id).from(employee).fetch();
+        queryFactory.select(employee.firstname).from(employee).fetch();
+        queryFactory.select(employee.lastname).from(employee).fetch();
+
+        List<QueryShapeStats> slowest = metrics.getSlowestShapes(2);
+        assertEquals(2, slowest.size());
+        assertTrue(slowest.get(0).getP99() >= slowest.get(1).getP99());
+    }
+
+}
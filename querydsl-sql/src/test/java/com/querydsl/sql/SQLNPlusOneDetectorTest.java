@@ -0,0 +1,131 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Provider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.testutil.H2;
+
+@Category(H2.class)
+public class SQLNPlusOneDetectorTest {
+
+    private final List<SQLNPlusOneDetector.RepeatedQuery> reported = new ArrayList<SQLNPlusOneDetector.RepeatedQuery>();
+
+    private final SQLNPlusOneDetector detector = new SQLNPlusOneDetector(3) {
+        @Override
+        protected void onRepeatedQuery(RepeatedQuery query) {
+            reported.add(query);
+        }
+    };
+
+    private SQLQueryFactory queryFactory;
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+        Configuration conf = new Configuration(H2Templates.DEFAULT);
+        conf.addListener(detector);
+        queryFactory = new SQLQueryFactory(conf, new Provider<Connection>() {
+            @Override
+            public Connection get() {
+                return Connections.getConnection();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        Connections.close();
+    }
+
+    private void loadOneByOne(int from, int to) {
+        for (int i = from; i <= to; i++) {
+            queryFactory.select(employee.firstname).from(employee).where(employee.id.eq(i)).fetchOne();
+        }
+    }
+
+    @Test
+    public void repeated() {
+        detector.begin();
+        loadOneByOne(1, 5);
+        List<SQLNPlusOneDetector.RepeatedQuery> repeated = detector.end();
+
+        assertEquals(1, repeated.size());
+        assertEquals(5, repeated.get(0).getCount());
+        assertEquals("select e.FIRSTNAME from EMPLOYEE e where e.ID = ? limit ?", repeated.get(0).getShape());
+        assertEquals(SQLNPlusOneDetectorTest.class.getName(), repeated.get(0).getCallSite().getClassName());
+        assertEquals("loadOneByOne", repeated.get(0).getCallSite().getMethodName());
+
+        assertEquals(1, reported.size());
+        assertEquals(3, reported.get(0).getCount());
+    }
+
+    @Test
+    public void literals() {
+        queryFactory.getConfiguration().setUseLiterals(true);
+        detector.begin();
+        loadOneByOne(1, 3);
+        assertEquals(1, detector.end().size());
+    }
+
+    @Test
+    public void below_threshold() {
+        detector.begin();
+        loadOneByOne(1, 2);
+        assertTrue(detector.end().isEmpty());
+        assertTrue(reported.isEmpty());
+    }
+
+    @Test
+    public void identical_queries() {
+        detector.begin();
+        for (int i = 0; i < 5; i++) {
+            queryFactory.select(employee.firstname).from(employee).where(employee.id.eq(1)).fetchOne();
+        }
+        assertTrue(detector.end().isEmpty());
+    }
+
+    @Test
+    public void several_differences() {
+        detector.begin();
+        for (int i = 1; i <= 5; i++) {
+            queryFactory.select(employee.firstname).from(employee)
+                    .where(employee.id.eq(i), employee.salary.gt(i)).fetch();
+        }
+        assertTrue(detector.end().isEmpty());
+    }
+
+    @Test
+    public void outside_of_scope() {
+        loadOneByOne(1, 5);
+        assertTrue(reported.isEmpty());
+        assertTrue(detector.getRepeatedQueries().isEmpty());
+    }
+
+    @Test
+    public void nested_scopes() {
+        detector.begin();
+        detector.begin();
+        loadOneByOne(1, 2);
+        detector.end();
+        loadOneByOne(3, 5);
+        assertEquals(5, detector.end().get(0).getCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void end_without_begin() {
+        detector.end();
+    }
+
+}
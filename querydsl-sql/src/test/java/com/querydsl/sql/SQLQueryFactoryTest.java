@@ -13,9 +13,14 @@
  */
 package com.querydsl.sql;
 
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.inject.Provider;
 
@@ -23,6 +28,7 @@ import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.querydsl.core.QueryException;
 import com.querydsl.sql.domain.QSurvey;
 
 public class SQLQueryFactoryTest {
@@ -70,4 +76,84 @@ public class SQLQueryFactoryTest {
         assertNotNull(queryFactory.merge(QSurvey.survey));
     }
 
+    @Test
+    public void withConnection() throws SQLException {
+        final List<Connection> connections = new ArrayList<Connection>();
+        Provider<Connection> provider = new Provider<Connection>() {
+            @Override
+            public Connection get() {
+                try {
+                    Connection conn = DriverManager.getConnection("jdbc:h2:mem:withConnection", "sa", "");
+                    connections.add(conn);
+                    return conn;
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        Connection init = provider.get();
+        Statement stmt = init.createStatement();
+        stmt.execute("create table SURVEY(ID int auto_increment, NAME varchar(30), NAME2 varchar(30))");
+        stmt.close();
+
+        Configuration configuration = new Configuration(new H2Templates());
+        configuration.addListener(SQLCloseListener.DEFAULT);
+        SQLQueryFactory factory = new SQLQueryFactory(configuration, provider);
+        final QSurvey survey = QSurvey.survey;
+        long count = factory.withConnection(new SQLConnectionCallback<Long>() {
+            @Override
+            public Long doInConnection(SQLQueryFactory queryFactory) {
+                for (int i = 0; i < 5; i++) {
+                    queryFactory.insert(survey).set(survey.name, "name" + i).execute();
+                }
+                queryFactory.update(survey).set(survey.name2, "x").where(survey.name.eq("name1")).execute();
+                assertEquals("x", queryFactory.select(survey.name2).from(survey)
+                        .where(survey.name.eq("name1")).fetchOne());
+                return queryFactory.from(survey).fetchCount();
+            }
+        });
+        assertEquals(5, count);
+        assertEquals(2, connections.size());
+        assertTrue(connections.get(1).isClosed());
+        init.close();
+    }
+
+    @Test
+    public void withConnection_close_failure() throws SQLException {
+        final Connection conn = EasyMock.createMock(Connection.class);
+        conn.close();
+        EasyMock.expectLastCall().andThrow(new SQLException("close failed")).anyTimes();
+        EasyMock.replay(conn);
+        Configuration configuration = new Configuration(new H2Templates());
+        configuration.addListener(SQLCloseListener.DEFAULT);
+        SQLQueryFactory factory = new SQLQueryFactory(configuration, new Provider<Connection>() {
+            @Override
+            public Connection get() {
+                return conn;
+            }
+        });
+        try {
+            factory.withConnection(new SQLConnectionCallback<Void>() {
+                @Override
+                public Void doInConnection(SQLQueryFactory queryFactory) {
+                    throw new IllegalStateException("callback failed");
+                }
+            });
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("callback failed", e.getMessage());
+        }
+        try {
+            factory.withConnection(new SQLConnectionCallback<Void>() {
+                @Override
+                public Void doInConnection(SQLQueryFactory queryFactory) {
+                    return null;
+                }
+            });
+            fail("Expected QueryException");
+        } catch (QueryException e) {
+            assertEquals("close failed", e.getCause().getMessage());
+        }
+    }
+
 }
@@ -1,7 +1,17 @@
 package com.querydsl.sql;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
 import org.junit.Test;
 
+import com.querydsl.core.support.ExpressionOptimizer;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.sql.domain.QSurvey;
 
 public class SQLQueryTest {
@@ -12,4 +22,39 @@ public class SQLQueryTest {
         SQLExpressions.select(survey.id).from(survey).fetch();
     }
 
+    @Test
+    public void optimizer() {
+        QSurvey survey = QSurvey.survey;
+        Configuration conf = new Configuration(SQLTemplates.DEFAULT);
+        conf.setOptimizer(new ExpressionOptimizer());
+        SQLQuery<?> query = new SQLQuery<Void>(conf).select(survey.id).from(survey)
+                .where(survey.name.eq("a").or(survey.name.eq("b")), Expressions.TRUE.isTrue());
+        assertEquals("select SURVEY.ID\nfrom SURVEY SURVEY\nwhere SURVEY.NAME in (?, ?)",
+                query.getSQL().getSQL());
+    }
+
+    @Test
+    public void streaming_restores_auto_commit() throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:h2:mem:streaming", "sa", "");
+        try {
+            // PostgreSQL disables auto commit for streaming
+            SQLQuery<?> query = new SQLQuery<Void>(conn, PostgreSQLTemplates.DEFAULT).select(Expressions.ONE);
+            query.setStreaming(true);
+            query.addListener(new SQLBaseListener() {
+                @Override
+                public void prepared(SQLListenerContext context) {
+                    throw new IllegalStateException();
+                }
+            });
+            try {
+                query.iterate();
+                fail();
+            } catch (IllegalStateException e) {
+                assertTrue(conn.getAutoCommit());
+            }
+        } finally {
+            conn.close();
+        }
+    }
+
 }
@@ -0,0 +1,152 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static com.querydsl.sql.Constants.survey;
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.testutil.H2;
+import com.querydsl.sql.dml.SQLUpdateClause;
+
+@Category(H2.class)
+public class SQLResultCacheTest {
+
+    private Connection connection;
+
+    private Configuration conf;
+
+    private SQLResultCache cache;
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+        connection = Connections.getConnection();
+        conf = new Configuration(H2Templates.DEFAULT);
+        cache = new SQLResultCache(100, 1024 * 1024, 1, TimeUnit.MINUTES);
+        conf.setResultCache(cache);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        Connections.close();
+    }
+
+    private List<String> firstNames(int id) {
+        SQLQuery<String> query = new SQLQuery<Void>(connection, conf)
+                .select(employee.firstname).from(employee).where(employee.id.eq(id));
+        query.setCacheable(true);
+        return query.fetch();
+    }
+
+    @Test
+    public void hit() {
+        List<String> first = firstNames(1);
+        List<String> second = firstNames(1);
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.size());
+        assertTrue(cache.getBytes() > 0);
+    }
+
+    @Test
+    public void different_bindings() {
+        firstNames(1);
+        firstNames(2);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void different_projection() {
+        firstNames(1);
+        SQLQuery<String> query = new SQLQuery<Void>(connection, conf)
+                .select(employee.firstname.as("fn")).from(employee).where(employee.id.eq(1));
+        query.setCacheable(true);
+        query.fetch();
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void not_cacheable() {
+        new SQLQuery<Void>(connection, conf).select(employee.firstname).from(employee).fetch();
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unmodifiable() {
+        firstNames(1).clear();
+    }
+
+    @Test
+    public void invalidated_by_update() {
+        List<String> first = firstNames(1);
+        new SQLUpdateClause(connection, conf, employee)
+                .set(employee.firstname, employee.firstname)
+                .where(employee.id.eq(-1))
+                .execute();
+        assertNotSame(first, firstNames(1));
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void not_invalidated_by_update_of_other_table() {
+        List<String> first = firstNames(1);
+        new SQLUpdateClause(connection, conf, survey)
+                .set(survey.name, survey.name)
+                .where(survey.id.eq(-1))
+                .execute();
+        assertSame(first, firstNames(1));
+    }
+
+    @Test
+    public void eviction() {
+        cache = new SQLResultCache(2, 1024 * 1024, 1, TimeUnit.MINUTES);
+        conf.setResultCache(cache);
+        firstNames(1);
+        firstNames(2);
+        firstNames(3);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void expiration() {
+        cache = new SQLResultCache(100, 1024 * 1024, 0, TimeUnit.NANOSECONDS);
+        conf.setResultCache(cache);
+        assertNotSame(firstNames(1), firstNames(1));
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void replaced() {
+        SQLResultCache previous = cache;
+        cache = new SQLResultCache(100, 1024 * 1024, 1, TimeUnit.MINUTES);
+        conf.setResultCache(cache);
+        assertFalse(conf.getListeners().getListeners().contains(previous));
+        assertTrue(conf.getListeners().getListeners().contains(cache));
+        conf.setResultCache(null);
+        assertTrue(conf.getListeners().getListeners().isEmpty());
+        assertNotSame(firstNames(1), firstNames(1));
+    }
+
+    @Test
+    public void not_cached_in_transaction() throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            assertNotSame(firstNames(1), firstNames(1));
+            assertEquals(0, cache.size());
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+
+}
@@ -25,6 +25,7 @@ import com.querydsl.core.types.Path;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.sql.dml.SQLDeleteClause;
+import com.querydsl.sql.dml.SQLMergeClause;
 import com.querydsl.sql.dml.SQLUpdateClause;
 
 
@@ -109,4 +110,15 @@ public class SQLServer2012TemplatesTest extends AbstractSQLTemplatesTest {
         assertSerialized(nextval, "next value for myseq");
     }
 
+    @Test
+    public void merge() {
+        SQLMergeClause merge = new SQLMergeClause(null, SQLServer2012Templates.builder().nativeMerge().build(), survey1)
+                .keys(survey1.id).set(survey1.id, 1).set(survey1.name, "Hello");
+        assertEquals("merge into SURVEY\n" +
+                "using (values (?, ?)) as src (ID, NAME)\n" +
+                "on (SURVEY.ID = src.ID)\n" +
+                "when matched then update set NAME = src.NAME\n" +
+                "when not matched then insert (ID, NAME) values (src.ID, src.NAME);", merge.toString());
+    }
+
 }
@@ -25,6 +25,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.joda.time.*;
 import org.junit.Assert;
@@ -2101,6 +2102,39 @@ public class SelectBase extends AbstractBaseTest {
         query.select(employee.id).fetch();
     }
 
+    @Test
+    public void iterate_streaming() throws SQLException {
+        final AtomicReference<StreamingStatistics> statistics = new AtomicReference<StreamingStatistics>();
+        final boolean autoCommit = connection.getAutoCommit();
+        SQLQuery<Integer> query = query().select(employee.id).from(employee);
+        query.setStreaming(true);
+        query.addListener(new SQLBaseListener() {
+            @Override
+            public void preExecute(SQLListenerContext context) {
+                try {
+                    assertEquals(ResultSet.TYPE_FORWARD_ONLY, context.getPreparedStatement().getResultSetType());
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            @Override
+            public void end(SQLListenerContext context) {
+                statistics.set((StreamingStatistics) context.getData(StreamingStatistics.DATA_KEY));
+            }
+        });
+        CloseableIterator<Integer> ids = query.iterate();
+        int count = 0;
+        while (ids.hasNext()) {
+            ids.next();
+            count++;
+        }
+        ids.close();
+        assertEquals(autoCommit, connection.getAutoCommit());
+        assertEquals(count, statistics.get().getRows());
+        assertTrue(statistics.get().getBytes() > 0);
+        assertTrue(statistics.get().getTimeToFirstRow() >= 0);
+    }
+
     @Test
     public void getResults() throws SQLException, InterruptedException {
         final AtomicLong endCalled = new AtomicLong(0);
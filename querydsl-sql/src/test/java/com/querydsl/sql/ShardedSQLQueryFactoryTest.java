@@ -0,0 +1,314 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Provider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSet;
+import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
+import com.querydsl.sql.domain.QEmployee;
+import com.querydsl.sql.domain.QSurvey;
+
+public class ShardedSQLQueryFactoryTest {
+
+    private static final int SHARDS = 3;
+
+    private static class H2Provider implements Provider<Connection> {
+
+        private final String url;
+
+        H2Provider(int shard) {
+            this.url = "jdbc:h2:mem:shard" + shard + ";DB_CLOSE_DELAY=-1";
+        }
+
+        @Override
+        public Connection get() {
+            try {
+                return DriverManager.getConnection(url, "sa", "");
+            } catch (SQLException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+
+    }
+
+    private static final Function<Integer, Integer> MODULO = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer input) {
+            return input % SHARDS;
+        }
+    };
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private final List<H2Provider> shards = new ArrayList<H2Provider>();
+
+    private ExecutorService executor;
+
+    private ShardedSQLQueryFactory<Integer> queryFactory;
+
+    @Before
+    public void setUp() throws SQLException {
+        for (int i = 0; i < SHARDS; i++) {
+            H2Provider shard = new H2Provider(i);
+            Connection conn = shard.get();
+            try {
+                Statement stmt = conn.createStatement();
+                stmt.execute("create table survey (id int, name varchar(30), name2 varchar(30))");
+                stmt.close();
+            } finally {
+                conn.close();
+            }
+            shards.add(shard);
+        }
+        executor = Executors.newFixedThreadPool(SHARDS);
+        Configuration configuration = new Configuration(H2Templates.DEFAULT);
+        configuration.addListener(SQLCloseListener.DEFAULT);
+        queryFactory = new ShardedSQLQueryFactory<Integer>(configuration, shards, survey.id, MODULO, executor);
+
+        for (int i = 1; i <= 9; i++) {
+            queryFactory.insert(survey)
+                .set(survey.id, i)
+                .set(survey.name, "name" + i)
+                .set(survey.name2, i % 2 == 0 ? "even" : "odd")
+                .execute();
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        executor.shutdown();
+        for (H2Provider shard : shards) {
+            Connection conn = shard.get();
+            try {
+                conn.createStatement().execute("drop all objects delete files");
+            } finally {
+                conn.close();
+            }
+        }
+    }
+
+    @Test
+    public void insert_routed() {
+        for (int i = 0; i < SHARDS; i++) {
+            List<Integer> ids = queryFactory.shard(i).select(survey.id).from(survey).orderBy(survey.id.asc()).fetch();
+            int first = i == 0 ? SHARDS : i;
+            assertEquals(Arrays.asList(first, first + 3, first + 6), ids);
+        }
+    }
+
+    @Test
+    public void insert_batch() {
+        queryFactory.insert(survey).set(survey.id, 10).addBatch().set(survey.id, 13).addBatch().execute();
+        assertEquals(Arrays.asList(1, 4, 7, 10, 13),
+                queryFactory.shard(1).select(survey.id).from(survey).orderBy(survey.id.asc()).fetch());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void insert_batch_multiple_shards() {
+        queryFactory.insert(survey).set(survey.id, 10).addBatch().set(survey.id, 11).addBatch().execute();
+    }
+
+    @Test
+    public void update_and_delete_routed() {
+        assertEquals(1L, queryFactory.update(survey).set(survey.name, "x").where(survey.id.eq(5)).execute());
+        assertEquals("x", queryFactory.shard(2).select(survey.name).from(survey).where(survey.id.eq(5)).fetchOne());
+        assertEquals(1L, queryFactory.delete(survey).where(survey.id.eq(5)).execute());
+        assertEquals(8L, queryFactory.query().from(survey).fetchCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void update_without_key() {
+        queryFactory.update(survey).set(survey.name, "x").execute();
+    }
+
+    @Test
+    public void pinned() {
+        assertEquals("name4", queryFactory.select(survey.name).from(survey).where(survey.id.eq(4)).fetchOne());
+        assertEquals(Arrays.asList("name5"), queryFactory.select(survey.name).from(survey)
+                .where(survey.id.eq(5), survey.name.isNotNull()).fetch());
+        assertEquals(Arrays.asList(1, 2), queryFactory.select(survey.id).from(survey)
+                .where(survey.id.in(1, 2)).orderBy(survey.id.asc()).fetch());
+        assertTrue(queryFactory.select(survey.id).from(survey).where(survey.id.eq(1), survey.id.eq(2)).fetch().isEmpty());
+    }
+
+    @Test
+    public void chained_or() {
+        assertEquals(Arrays.asList(1, 2, 3), queryFactory.select(survey.id).from(survey)
+                .where(survey.id.eq(1).or(survey.id.eq(2)).or(survey.id.eq(3)))
+                .orderBy(survey.id.asc()).fetch());
+        assertEquals(ImmutableSet.<Object>of(1, 2, 3, 4), ShardKeys.fromPredicate(
+                survey.id.eq(1).or(survey.id.eq(2)).or(survey.id.in(3, 4)), survey.id));
+        assertNull(ShardKeys.fromPredicate(
+                survey.id.eq(1).or(survey.id.eq(2)).or(survey.name.isNull()), survey.id));
+    }
+
+    @Test
+    public void chained_and() {
+        assertEquals(ImmutableSet.<Object>of(2, 3), ShardKeys.fromPredicate(
+                survey.id.in(1, 2, 3).and(survey.name.isNotNull()).and(survey.id.in(2, 3, 4)), survey.id));
+        assertEquals(ImmutableSet.<Object>of(3), ShardKeys.fromPredicate(
+                survey.name.isNotNull().and(survey.name2.isNotNull()).and(survey.id.eq(3)), survey.id));
+        assertEquals(Arrays.asList(3), queryFactory.select(survey.id).from(survey)
+                .where(survey.name.isNotNull().and(survey.name2.isNotNull()).and(survey.id.eq(3))).fetch());
+        assertEquals(1L, queryFactory.update(survey).set(survey.name, "x")
+                .where(survey.name.isNotNull().and(survey.name2.isNotNull()).and(survey.id.eq(3))).execute());
+    }
+
+    @Test
+    public void other_table_not_matched() {
+        QSurvey survey2 = new QSurvey("survey2");
+        assertEquals(ImmutableSet.<Object>of(3), ShardKeys.fromPredicate(survey2.id.eq(3), survey.id));
+        assertNull(ShardKeys.fromPredicate(QEmployee.employee.id.eq(3), survey.id));
+        assertNull(ShardKeys.fromPredicate(QEmployee.employee.id.eq(3).or(survey.id.eq(4)), survey.id));
+    }
+
+    @Test
+    public void listeners_passed_to_shards() {
+        final AtomicInteger executed = new AtomicInteger();
+        SQLQuery<Integer> query = queryFactory.select(survey.id).from(survey);
+        query.addListener(new SQLBaseListener() {
+            @Override
+            public void executed(SQLListenerContext context) {
+                executed.incrementAndGet();
+            }
+        });
+        assertEquals(9, query.fetch().size());
+        assertEquals(SHARDS, executed.get());
+    }
+
+    @Test
+    public void ordered() {
+        assertEquals(Arrays.asList(9, 8, 7, 6, 5, 4, 3, 2, 1),
+                queryFactory.select(survey.id).from(survey).orderBy(survey.id.desc()).fetch());
+    }
+
+    @Test
+    public void ordered_by_other_column() {
+        assertEquals(Arrays.asList("name2", "name4", "name6", "name8", "name1"),
+                queryFactory.select(survey.name).from(survey)
+                    .orderBy(survey.name2.asc(), survey.id.asc()).limit(5).fetch());
+    }
+
+    @Test
+    public void offset_and_limit() {
+        assertEquals(Arrays.asList(7, 6, 5),
+                queryFactory.select(survey.id).from(survey).orderBy(survey.id.desc()).offset(2).limit(3).fetch());
+        assertEquals(Integer.valueOf(1),
+                queryFactory.select(survey.id).from(survey).orderBy(survey.id.asc()).fetchFirst());
+    }
+
+    @Test
+    public void unordered() {
+        assertEquals(9, queryFactory.select(survey.id, survey.name).from(survey).fetch().size());
+        assertEquals(4, queryFactory.select(survey.id, survey.name).from(survey).limit(4).fetch().size());
+    }
+
+    @Test
+    public void distinct() {
+        assertEquals(Arrays.asList("even", "odd"),
+                queryFactory.selectDistinct(survey.name2).from(survey).orderBy(survey.name2.asc()).fetch());
+        assertEquals(2L, queryFactory.selectDistinct(survey.name2).from(survey).fetchCount());
+    }
+
+    @Test
+    public void count() {
+        assertEquals(9L, queryFactory.query().from(survey).fetchCount());
+        assertEquals(Long.valueOf(9L), queryFactory.select(survey.id.count()).from(survey).fetchOne());
+        assertEquals(2L, queryFactory.query().from(survey).where(survey.id.in(1, 2)).fetchCount());
+    }
+
+    @Test
+    public void aggregates() {
+        List<Tuple> rows = queryFactory
+                .select(survey.name2, survey.id.count(), survey.id.sum(), survey.id.min(), survey.id.max())
+                .from(survey)
+                .groupBy(survey.name2)
+                .orderBy(survey.name2.desc())
+                .fetch();
+        assertEquals(2, rows.size());
+        assertEquals("odd", rows.get(0).get(survey.name2));
+        assertEquals(Long.valueOf(5), rows.get(0).get(survey.id.count()));
+        assertEquals(Integer.valueOf(25), rows.get(0).get(survey.id.sum()));
+        assertEquals(Integer.valueOf(1), rows.get(0).get(survey.id.min()));
+        assertEquals(Integer.valueOf(9), rows.get(0).get(survey.id.max()));
+        assertEquals("even", rows.get(1).get(survey.name2));
+        assertEquals(Long.valueOf(4), rows.get(1).get(survey.id.count()));
+        assertEquals(Integer.valueOf(20), rows.get(1).get(survey.id.sum()));
+
+        assertEquals(2L, queryFactory.query().from(survey).groupBy(survey.name2).fetchCount());
+    }
+
+    @Test
+    public void group_by_not_projected() {
+        List<Long> counts = queryFactory.select(survey.id.count()).from(survey)
+                .groupBy(survey.name2).orderBy(survey.name2.asc()).fetch();
+        assertEquals(Arrays.asList(4L, 5L), counts);
+    }
+
+    @Test
+    public void distinct_with_limit() {
+        assertEquals(2, queryFactory.selectDistinct(survey.name2).from(survey).limit(2).fetch().size());
+        assertEquals(Arrays.asList("odd"),
+                queryFactory.selectDistinct(survey.name2).from(survey).orderBy(survey.name2.asc())
+                    .offset(1).limit(1).fetch());
+    }
+
+    @Test
+    public void nulls_ordered_like_dialect() {
+        queryFactory.insert(survey).set(survey.id, 10).set(survey.name, "name10").execute();
+        queryFactory.insert(survey).set(survey.id, 11).set(survey.name, "name11").execute();
+        assertFalse(H2Templates.DEFAULT.isNullsSortedHigh());
+        assertEquals(Arrays.asList(10, 11, 2), queryFactory.select(survey.id).from(survey)
+                .orderBy(survey.name2.asc(), survey.id.asc()).limit(3).fetch());
+        assertEquals(Arrays.asList(11, 10), queryFactory.select(survey.id).from(survey)
+                .orderBy(survey.name2.asc().nullsLast(), survey.id.desc()).offset(9).fetch());
+        assertTrue(PostgreSQLTemplates.DEFAULT.isNullsSortedHigh());
+        assertTrue(OracleTemplates.DEFAULT.isNullsSortedHigh());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void avg_not_supported() {
+        queryFactory.select(survey.id.avg()).from(survey).fetch();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void having_not_supported() {
+        queryFactory.select(survey.name2, survey.id.count()).from(survey)
+            .groupBy(survey.name2).having(survey.id.count().gt(4)).fetch();
+    }
+
+    @Test
+    public void fetchResults() {
+        QueryResults<Integer> results = queryFactory.select(survey.id).from(survey)
+                .orderBy(survey.id.asc()).limit(2).fetchResults();
+        assertEquals(9L, results.getTotal());
+        assertEquals(Arrays.asList(1, 2), results.getResults());
+    }
+
+    @Test
+    public void sequential() {
+        ShardedSQLQueryFactory<Integer> sequential = new ShardedSQLQueryFactory<Integer>(
+                queryFactory.getConfiguration(), shards, survey.id, MODULO);
+        assertEquals(Arrays.asList(1, 2, 3),
+                sequential.select(survey.id).from(survey).orderBy(survey.id.asc()).limit(3).fetch());
+    }
+
+}
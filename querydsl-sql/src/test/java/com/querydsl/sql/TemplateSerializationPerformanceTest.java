@@ -0,0 +1,63 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.assertNotNull;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.testutil.Benchmark;
+import com.querydsl.core.testutil.Performance;
+import com.querydsl.core.testutil.Runner;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.domain.QEmployee;
+
+@Ignore
+@Category(Performance.class)
+public class TemplateSerializationPerformanceTest {
+
+    private static final Configuration conf = new Configuration(new OracleTemplates());
+
+    private final QEmployee employee = QEmployee.employee;
+
+    @Test
+    public void functions() throws Exception {
+        final QueryMetadata md = new SQLQuery<Void>(conf)
+                .select(employee.firstname.concat(employee.lastname).lower(),
+                        employee.salary.add(employee.id).multiply(2).abs(),
+                        employee.datefield.year(), employee.datefield.month())
+                .from(employee)
+                .where(employee.firstname.startsWithIgnoreCase("a"),
+                       employee.lastname.contains("b").or(employee.lastname.endsWith("c")),
+                       employee.salary.between(1000, 2000))
+                .orderBy(employee.lastname.asc(), employee.firstname.desc())
+                .getMetadata();
+
+        Runner.run("functions", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                for (int i = 0; i < times; i++) {
+                    SQLSerializer serializer = new SQLSerializer(conf);
+                    serializer.serialize(md, false);
+                    assertNotNull(serializer.toString());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void dynamicTemplates() throws Exception {
+        Runner.run("dynamicTemplates", new Benchmark() {
+            @Override
+            public void run(int times) throws Exception {
+                for (int i = 0; i < times; i++) {
+                    SQLSerializer serializer = new SQLSerializer(conf);
+                    serializer.handle(Expressions.booleanTemplate("{0} in (" + (i % 10000) + ")", employee.id));
+                    assertNotNull(serializer.toString());
+                }
+            }
+        });
+    }
+
+}
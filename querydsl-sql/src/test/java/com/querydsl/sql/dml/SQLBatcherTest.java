@@ -0,0 +1,292 @@
+package com.querydsl.sql.dml;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Provider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.PathMetadataFactory;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.*;
+
+public class SQLBatcherTest {
+
+    public static class QParent extends RelationalPathBase<QParent> {
+
+        public final NumberPath<Integer> id = createNumber("id", Integer.class);
+
+        public final PrimaryKey<QParent> idKey = createPrimaryKey(id);
+
+        public final ForeignKey<QChild> _childKey = createInvForeignKey(id, "PARENT_ID");
+
+        public QParent(String variable) {
+            super(QParent.class, PathMetadataFactory.forVariable(variable), "PUBLIC", "PARENT");
+            addMetadata(id, ColumnMetadata.named("ID").ofType(Types.INTEGER));
+        }
+
+    }
+
+    public static class QChild extends RelationalPathBase<QChild> {
+
+        public final NumberPath<Integer> parentId = createNumber("parentId", Integer.class);
+
+        public final ForeignKey<QParent> parentKey = createForeignKey(parentId, "ID");
+
+        public QChild(String variable) {
+            super(QChild.class, PathMetadataFactory.forVariable(variable), "PUBLIC", "CHILD");
+            addMetadata(parentId, ColumnMetadata.named("PARENT_ID").ofType(Types.INTEGER));
+        }
+
+    }
+
+    public static class QItem extends RelationalPathBase<QItem> {
+
+        public final NumberPath<Integer> id = createNumber("id", Integer.class);
+
+        public final StringPath name = createString("name");
+
+        public final PrimaryKey<QItem> idKey = createPrimaryKey(id);
+
+        public QItem(String variable) {
+            super(QItem.class, PathMetadataFactory.forVariable(variable), "PUBLIC", "ITEM");
+            addMetadata(id, ColumnMetadata.named("ID").ofType(Types.INTEGER));
+            addMetadata(name, ColumnMetadata.named("NAME").ofType(Types.VARCHAR));
+        }
+
+    }
+
+    private final QParent parent = new QParent("parent");
+
+    private final QChild child = new QChild("child");
+
+    private final QItem item = new QItem("item");
+
+    private Connection connection;
+
+    private int prepared;
+
+    private SQLQueryFactory queryFactory;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:batcher", "sa", "");
+        Statement stmt = connection.createStatement();
+        stmt.execute("create table PARENT(ID int primary key)");
+        stmt.execute("create table CHILD(PARENT_ID int references PARENT(ID))");
+        stmt.execute("create table ITEM(ID int auto_increment primary key, NAME varchar(30))");
+        stmt.close();
+
+        Configuration configuration = new Configuration(new H2Templates());
+        configuration.addListener(new SQLBaseListener() {
+            @Override
+            public void prepared(SQLListenerContext context) {
+                prepared++;
+            }
+        });
+        queryFactory = new SQLQueryFactory(configuration, new Provider<Connection>() {
+            @Override
+            public Connection get() {
+                return connection;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        Statement stmt = connection.createStatement();
+        stmt.execute("drop table CHILD");
+        stmt.execute("drop table PARENT");
+        stmt.execute("drop table ITEM");
+        stmt.close();
+        connection.close();
+    }
+
+    @Test
+    public void unrelated_tables_grouped() {
+        SQLBatcher batcher = queryFactory.batcher();
+        for (int i = 1; i <= 3; i++) {
+            batcher.add(queryFactory.insert(parent).set(parent.id, i));
+            batcher.add(queryFactory.insert(item).set(item.name, "item" + i));
+        }
+        assertEquals(6, batcher.getPendingCount());
+        assertEquals(0, prepared);
+        assertEquals(6, batcher.flush());
+        assertEquals(2, prepared);
+        assertEquals(0, batcher.getPendingCount());
+        assertEquals(3, queryFactory.from(item).fetchCount());
+    }
+
+    @Test
+    public void related_tables_keep_order() {
+        SQLBatcher batcher = queryFactory.batcher();
+        for (int i = 1; i <= 2; i++) {
+            batcher.add(queryFactory.insert(parent).set(parent.id, i));
+            batcher.add(queryFactory.insert(child).set(child.parentId, i));
+        }
+        assertEquals(4, batcher.flush());
+        assertEquals(4, prepared);
+        assertEquals(2, queryFactory.from(child).fetchCount());
+    }
+
+    @Test
+    public void same_table_keeps_order() {
+        SQLBatcher batcher = queryFactory.batcher();
+        batcher.add(queryFactory.insert(item).set(item.id, 1).set(item.name, "a"));
+        batcher.add(queryFactory.update(item).set(item.name, "b").where(item.id.eq(1)));
+        batcher.add(queryFactory.insert(item).set(item.id, 2).set(item.name, "a"));
+        batcher.add(queryFactory.delete(item).where(item.name.eq("a")));
+        assertEquals(4, batcher.flush());
+        assertEquals(4, prepared);
+        assertEquals("b", queryFactory.select(item.name).from(item).fetchOne());
+    }
+
+    @Test
+    public void clause_batches() {
+        SQLBatcher batcher = queryFactory.batcher();
+        SQLInsertClause insert = queryFactory.insert(item);
+        insert.set(item.name, "a").addBatch();
+        insert.set(item.name, "b").addBatch();
+        batcher.add(insert);
+        batcher.add(queryFactory.insert(item).set(item.name, "c"));
+        assertEquals(3, batcher.getPendingCount());
+        assertEquals(3, batcher.flush());
+        assertEquals(1, prepared);
+    }
+
+    @Test
+    public void threshold() {
+        SQLBatcher batcher = new SQLBatcher(queryFactory.getConfiguration(), new Provider<Connection>() {
+            @Override
+            public Connection get() {
+                return connection;
+            }
+        }, 2);
+        batcher.add(queryFactory.insert(item).set(item.name, "a"));
+        assertEquals(0, queryFactory.from(item).fetchCount());
+        batcher.add(queryFactory.insert(item).set(item.name, "b"));
+        assertEquals(0, batcher.getPendingCount());
+        assertEquals(2, queryFactory.from(item).fetchCount());
+    }
+
+    @Test
+    public void keys() throws InterruptedException, ExecutionException {
+        SQLBatcher batcher = queryFactory.batcher();
+        Future<Integer> first = batcher.addWithKey(queryFactory.insert(item).set(item.name, "a"), item.id);
+        Future<Integer> second = batcher.addWithKey(queryFactory.insert(item).set(item.name, "b"), item.id);
+        assertFalse(first.isDone());
+        batcher.flush();
+        assertEquals(1, prepared);
+        assertEquals("a", queryFactory.select(item.name).from(item).where(item.id.eq(first.get())).fetchOne());
+        assertEquals("b", queryFactory.select(item.name).from(item).where(item.id.eq(second.get())).fetchOne());
+    }
+
+    @Test
+    public void failure() {
+        SQLBatcher batcher = queryFactory.batcher();
+        batcher.add(queryFactory.insert(child).set(child.parentId, 1));
+        Future<Integer> key = batcher.addWithKey(queryFactory.insert(item).set(item.name, "a"), item.id);
+        try {
+            batcher.flush();
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(key.isDone());
+        }
+    }
+
+    @Test
+    public void runtime_failure() {
+        queryFactory.getConfiguration().addListener(new SQLBaseListener() {
+            @Override
+            public void preExecute(SQLListenerContext context) {
+                throw new IllegalStateException();
+            }
+        });
+        SQLBatcher batcher = queryFactory.batcher();
+        Future<Integer> key = batcher.addWithKey(queryFactory.insert(item).set(item.name, "a"), item.id);
+        try {
+            batcher.flush();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(key.isDone());
+        }
+    }
+
+    @Test
+    public void listeners_notified() {
+        final List<String> notified = new ArrayList<String>();
+        queryFactory.getConfiguration().addListener(new SQLBaseListener() {
+            @Override
+            public void notifyInserts(RelationalPath<?> entity, QueryMetadata md, List<SQLInsertBatch> batches) {
+                notified.add("insert " + entity.getTableName() + " " + batches.size());
+            }
+
+            @Override
+            public void notifyUpdates(RelationalPath<?> entity, List<SQLUpdateBatch> batches) {
+                notified.add("update " + entity.getTableName() + " " + batches.size());
+            }
+
+            @Override
+            public void notifyDeletes(RelationalPath<?> entity, List<QueryMetadata> batches) {
+                notified.add("delete " + entity.getTableName() + " " + batches.size());
+            }
+        });
+        SQLBatcher batcher = queryFactory.batcher();
+        batcher.add(queryFactory.insert(parent).set(parent.id, 1));
+        batcher.add(queryFactory.insert(parent).set(parent.id, 2));
+        batcher.add(queryFactory.update(item).set(item.name, "b").where(item.id.eq(1)));
+        batcher.add(queryFactory.delete(item).where(item.name.eq("a")));
+        assertTrue(notified.isEmpty());
+        batcher.flush();
+        assertEquals(Arrays.asList("insert PARENT 2", "update ITEM 1", "delete ITEM 1"), notified);
+    }
+
+    @Test
+    public void result_cache_invalidated() {
+        queryFactory.getConfiguration().setResultCache(new SQLResultCache(100, 1024 * 1024, 1, TimeUnit.MINUTES));
+        assertEquals(0, cachedParents().size());
+        SQLBatcher batcher = queryFactory.batcher();
+        batcher.add(queryFactory.insert(parent).set(parent.id, 1));
+        assertEquals(0, cachedParents().size());
+        batcher.flush();
+        assertEquals(Arrays.asList(1), cachedParents());
+    }
+
+    private List<Integer> cachedParents() {
+        SQLQuery<Integer> query = queryFactory.select(parent.id).from(parent);
+        query.setCacheable(true);
+        return query.fetch();
+    }
+
+    @Test
+    public void merge() {
+        SQLBatcher batcher = queryFactory.batcher();
+        batcher.add(queryFactory.merge(item).keys(item.id).set(item.id, 1).set(item.name, "a"));
+        batcher.add(queryFactory.merge(item).keys(item.id).set(item.id, 1).set(item.name, "b"));
+        assertEquals(2, batcher.flush());
+        assertEquals(1, prepared);
+        assertEquals("b", queryFactory.select(item.name).from(item).fetchOne());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void composite_merge_not_supported() {
+        queryFactory.batcher().add(new SQLMergeClause(connection, new DerbyTemplates(), item).set(item.id, 1));
+    }
+
+}
@@ -2,10 +2,17 @@ package com.querydsl.sql.dml;
 
 import static org.junit.Assert.assertEquals;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.inject.Provider;
+
 import org.junit.Test;
 
-import com.querydsl.sql.H2Templates;
-import com.querydsl.sql.KeyAccessorsTest;
+import com.querydsl.sql.*;
+import com.querydsl.sql.domain.QSurvey;
 
 public class SQLMergeClauseTest {
 
@@ -19,4 +26,80 @@ public class SQLMergeClauseTest {
         merge.clear();
         assertEquals(0, merge.getBatchCount());
     }
+
+    @Test
+    public void insertOnDuplicateKey() throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:h2:mem:merge_mysql;MODE=MySQL", "sa", "");
+        try {
+            assertUpserts(conn, MySQLTemplates.builder().nativeMerge().build());
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void mergeUsingValues() throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:hsqldb:mem:merge_values", "sa", "");
+        try {
+            assertUpserts(conn, DB2Templates.builder().nativeMerge().build());
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void mergeUsingSelect() throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:hsqldb:mem:merge_select;sql.syntax_ora=true", "sa", "");
+        try {
+            assertUpserts(conn, OracleTemplates.builder().nativeMerge().build());
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bulk_with_different_columns() {
+        QSurvey survey = new QSurvey("survey");
+        SQLMergeClause merge = new SQLMergeClause(null, MySQLTemplates.builder().nativeMerge().build(), survey);
+        merge.setBatchToBulk(true);
+        merge.keys(survey.id).set(survey.id, 1).set(survey.name, "a").addBatch();
+        merge.keys(survey.id).set(survey.id, 2).set(survey.name2, "b").addBatch();
+        merge.getSQL();
+    }
+
+    private void assertUpserts(final Connection conn, SQLTemplates templates) throws SQLException {
+        Statement stmt = conn.createStatement();
+        stmt.execute("create table SURVEY(ID int primary key, NAME varchar(30), NAME2 varchar(30))");
+        stmt.close();
+        QSurvey survey = new QSurvey("survey");
+        SQLQueryFactory queryFactory = new SQLQueryFactory(new Configuration(templates), new Provider<Connection>() {
+            @Override
+            public Connection get() {
+                return conn;
+            }
+        });
+
+        // insert and update
+        queryFactory.merge(survey).keys(survey.id).set(survey.id, 1).set(survey.name, "a").execute();
+        queryFactory.merge(survey).keys(survey.id).set(survey.id, 1).set(survey.name, "b").execute();
+        assertEquals("b", queryFactory.select(survey.name).from(survey).where(survey.id.eq(1)).fetchOne());
+
+        // batch
+        SQLMergeClause merge = queryFactory.merge(survey);
+        merge.keys(survey.id).set(survey.id, 1).set(survey.name, "c").addBatch();
+        merge.keys(survey.id).set(survey.id, 2).set(survey.name, "c").addBatch();
+        merge.execute();
+        assertEquals(2L, queryFactory.from(survey).where(survey.name.eq("c")).fetchCount());
+
+        // bulk
+        merge = queryFactory.merge(survey);
+        merge.setBatchToBulk(true);
+        merge.keys(survey.id).set(survey.id, 2).set(survey.name, "d").addBatch();
+        merge.keys(survey.id).set(survey.id, 3).set(survey.name, "d").addBatch();
+        assertEquals(1, merge.getSQL().size());
+        merge.execute();
+        assertEquals(2L, queryFactory.from(survey).where(survey.name.eq("d")).fetchCount());
+        assertEquals(3L, queryFactory.from(survey).fetchCount());
+    }
+
 }